@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of {@link DurationStatisticsTracker#addDuration(long)} across implementations. The tracker is shared
+ * by all benchmark threads, so the contended variant measures multiple writers updating the same tracker.
+ *
+ * @see <a href="http://openjdk.java.net/projects/code-tools/jmh/">JMH</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class DurationStatisticsTrackerBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 20;
+
+    private static final int DURATION_COUNT = 4096;
+    private static final int DURATION_MASK = DURATION_COUNT - 1;
+
+    @Param({ "concurrent", "synchronized", "histogram" })
+    public String trackerType;
+
+    private DurationStatisticsTracker tracker;
+    private long[] durations;
+
+    public static void main(final String... args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(".*" + DurationStatisticsTrackerBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        if ("histogram".equals(trackerType)) {
+            tracker = DurationStatisticsTracker.createHistogram();
+        } else if ("synchronized".equals(trackerType)) {
+            tracker = DurationStatisticsTracker.createSynchronized();
+        } else {
+            tracker = DurationStatisticsTracker.createConcurrent();
+        }
+
+        // Log-normal durations with a median of about 8us and a long tail
+        final Random random = new Random(0);
+        durations = new long[DURATION_COUNT];
+        for (int i = 0; i < DURATION_COUNT; ++i) {
+            durations[i] = (long) Math.exp(9 + random.nextGaussian() * 1.5);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int offset;
+
+        long next(final long[] durations) {
+            return durations[offset++ & DURATION_MASK];
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void addDuration(final Cursor cursor) {
+        tracker.addDuration(cursor.next(durations));
+    }
+
+    @Benchmark
+    @Threads(4)
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void addDurationContended(final Cursor cursor) {
+        tracker.addDuration(cursor.next(durations));
+    }
+}
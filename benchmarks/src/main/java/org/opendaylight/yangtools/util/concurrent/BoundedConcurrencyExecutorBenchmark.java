@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of per-listener serial executors. The dedicated variant gives each listener its own single-thread
+ * executor, the shared variant multiplexes all listeners' {@link BoundedConcurrencyExecutor}s onto a carrier pool
+ * with one thread per processor. Each operation submits a number of tasks to each executor and waits for all of them
+ * to complete.
+ *
+ * @see <a href="http://openjdk.java.net/projects/code-tools/jmh/">JMH</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class BoundedConcurrencyExecutorBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 20;
+
+    private static final int MAX_QUEUE_CAPACITY = 1000;
+
+    @Param({ "16", "256", "1024" })
+    public int listenerCount;
+
+    @Param({ "100" })
+    public int taskCount;
+
+    @Param({ "dedicated", "shared" })
+    public String executorType;
+
+    private ExecutorService carrier;
+    private ExecutorService[] executors;
+
+    public static void main(final String... args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(".*" + BoundedConcurrencyExecutorBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final int threadsBefore = Thread.activeCount();
+        executors = new ExecutorService[listenerCount];
+        if ("shared".equals(executorType)) {
+            carrier = SpecialExecutors.newBoundedFastThreadPool(Runtime.getRuntime().availableProcessors(),
+                listenerCount * MAX_QUEUE_CAPACITY, "carrier");
+            for (int i = 0; i < listenerCount; ++i) {
+                executors[i] = SpecialExecutors.newBoundedSerialExecutor(carrier, MAX_QUEUE_CAPACITY, "listener-" + i);
+            }
+        } else {
+            for (int i = 0; i < listenerCount; ++i) {
+                executors[i] = SpecialExecutors.newBoundedSingleThreadExecutor(MAX_QUEUE_CAPACITY, "listener-" + i);
+            }
+        }
+
+        // Start all threads, so we can report them
+        final CountDownLatch latch = new CountDownLatch(listenerCount);
+        submitAll(latch, 1);
+        awaitUninterruptibly(latch);
+        System.out.println("Threads created: " + (Thread.activeCount() - threadsBefore));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (ExecutorService executor : executors) {
+            executor.shutdownNow();
+        }
+        if (carrier != null) {
+            carrier.shutdownNow();
+        }
+    }
+
+    private static void awaitUninterruptibly(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException("Interrupted while waiting for tasks", e);
+        }
+    }
+
+    private void submitAll(final CountDownLatch latch, final int count) {
+        final Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        };
+
+        for (int i = 0; i < count; ++i) {
+            for (ExecutorService executor : executors) {
+                executor.execute(task);
+            }
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void submitTasks() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(listenerCount * taskCount);
+        submitAll(latch, taskCount);
+        latch.await();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of {@link QueuedNotificationManager} and {@link BatchedNotificationManager} dispatch. Each operation
+ * submits a number of notifications to each listener, either one by one or as a batch, and waits for all of them
+ * to be delivered.
+ *
+ * @see <a href="http://openjdk.java.net/projects/code-tools/jmh/">JMH</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class QueuedNotificationManagerBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 20;
+
+    private static final int MAX_QUEUE_CAPACITY = 1000;
+
+    /*
+     * Notifications are the latches themselves, so delivery can be tracked without any shared state.
+     */
+    private static final QueuedNotificationManager.Invoker<Object, CountDownLatch> INVOKER =
+            new QueuedNotificationManager.Invoker<Object, CountDownLatch>() {
+                @Override
+                public void invokeListener(final Object listener, final CountDownLatch notification) {
+                    notification.countDown();
+                }
+            };
+    private static final BatchedNotificationManager.BatchInvoker<Object, CountDownLatch> BATCH_INVOKER =
+            new BatchedNotificationManager.BatchInvoker<Object, CountDownLatch>() {
+                @Override
+                public void invokeListener(final Object listener, final List<CountDownLatch> notifications) {
+                    for (CountDownLatch notification : notifications) {
+                        notification.countDown();
+                    }
+                }
+            };
+
+    @Param({ "1", "16", "256" })
+    public int listenerCount;
+
+    @Param({ "100", "1000" })
+    public int notificationCount;
+
+    @Param({ "queued", "batched" })
+    public String implementation;
+
+    private ExecutorService executor;
+    private NotificationManager<Object, CountDownLatch> manager;
+    private Object[] listeners;
+
+    public static void main(final String... args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(".*" + QueuedNotificationManagerBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        if ("batched".equals(implementation)) {
+            manager = new BatchedNotificationManager<>(executor, BATCH_INVOKER, MAX_QUEUE_CAPACITY,
+                MAX_QUEUE_CAPACITY, "benchmark");
+        } else {
+            manager = new QueuedNotificationManager<>(executor, INVOKER, MAX_QUEUE_CAPACITY, "benchmark");
+        }
+        listeners = new Object[listenerCount];
+        for (int i = 0; i < listenerCount; ++i) {
+            listeners[i] = new Object();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void submitSingle() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(listenerCount * notificationCount);
+        for (int i = 0; i < notificationCount; ++i) {
+            for (Object listener : listeners) {
+                manager.submitNotification(listener, latch);
+            }
+        }
+        latch.await();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void submitBatch() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(listenerCount * notificationCount);
+        final List<CountDownLatch> batch = Collections.nCopies(notificationCount, latch);
+        for (Object listener : listeners) {
+            manager.submitNotifications(listener, batch);
+        }
+        latch.await();
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Footprint and lookup cost of {@link NodeIdentifierWithPredicates} with numeric keys, as used by list entries keyed
+ * by uint32 and int64 identifiers. Lookups use distinct, but equal identifiers, as is the case when a data tree
+ * modification addresses an existing list entry. Setup reports the heap retained by each identifier.
+ *
+ * @see <a href="http://openjdk.java.net/projects/code-tools/jmh/">JMH</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class NodeIdentifierWithPredicatesBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 20;
+
+    private static final int ENTRY_COUNT = 100000;
+
+    private static final QName LIST = QName.create("urn:opendaylight:yangtools:benchmark", "2016-01-01", "list");
+    private static final QName ID = QName.create(LIST, "id");
+    private static final QName SUB_ID = QName.create(LIST, "sub-id");
+
+    @Param({ "1", "2" })
+    public int keyCount;
+
+    private NodeIdentifierWithPredicates[] lookups;
+    private Map<PathArgument, Object> index;
+    private int offset;
+
+    public static void main(final String... args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(".*" + NodeIdentifierWithPredicatesBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    private NodeIdentifierWithPredicates createIdentifier(final int entry) {
+        // Offset values to defeat the boxing caches
+        final long id = 1000000L + entry;
+        if (keyCount == 1) {
+            return new NodeIdentifierWithPredicates(LIST, ID, id);
+        }
+
+        final Map<QName, Object> keys = new LinkedHashMap<>(2);
+        keys.put(ID, id);
+        keys.put(SUB_ID, (int) (1000000 + entry % 1024));
+        return new NodeIdentifierWithPredicates(LIST, keys);
+    }
+
+    private NodeIdentifierWithPredicates[] createIdentifiers() {
+        final NodeIdentifierWithPredicates[] ret = new NodeIdentifierWithPredicates[ENTRY_COUNT];
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            ret[i] = createIdentifier(i);
+        }
+        return ret;
+    }
+
+    private static long usedMemory() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; ++i) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final long base = usedMemory();
+        final NodeIdentifierWithPredicates[] entries = createIdentifiers();
+        final long used = usedMemory() - base;
+
+        System.out.println();
+        System.out.println("Identifiers: " + entries.length + " " + used / entries.length + " bytes each");
+
+        index = new HashMap<>();
+        for (NodeIdentifierWithPredicates entry : entries) {
+            index.put(entry, entry);
+        }
+        lookups = createIdentifiers();
+    }
+
+    private NodeIdentifierWithPredicates nextLookup() {
+        offset = (offset + 7919) % lookups.length;
+        return lookups[offset];
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public Object hashLookup() {
+        return index.get(nextLookup());
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public NodeIdentifierWithPredicates create() {
+        return createIdentifier(offset++ & 0xFFFF);
+    }
+}
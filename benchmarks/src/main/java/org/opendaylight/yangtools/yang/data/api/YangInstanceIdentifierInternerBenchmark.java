@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api;
+
+import com.google.common.base.Optional;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Footprint and ancestry checks of {@link YangInstanceIdentifier}s addressing entries of a nested list, as held by
+ * a large data store. Setup reports the heap retained by independently-created identifiers and by identifiers
+ * interned through a {@link YangInstanceIdentifierInterner}.
+ *
+ * @see <a href="http://openjdk.java.net/projects/code-tools/jmh/">JMH</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class YangInstanceIdentifierInternerBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 20;
+
+    private static final int INNER_COUNT = 1000;
+
+    private static final QName TOP = QName.create("urn:opendaylight:yangtools:benchmark", "2016-01-01", "top");
+    private static final QName OUTER = QName.create(TOP, "outer");
+    private static final QName INNER = QName.create(TOP, "inner");
+    private static final QName ID = QName.create(TOP, "id");
+
+    @Param({ "1000" })
+    public int outerCount;
+
+    private YangInstanceIdentifier[] fixed;
+    private YangInstanceIdentifier[] interned;
+    private YangInstanceIdentifier fixedAncestor;
+    private YangInstanceIdentifier internedAncestor;
+    private int offset;
+
+    public static void main(final String... args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(".*" + YangInstanceIdentifierInternerBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    private static YangInstanceIdentifier createPath(final int outer, final int inner) {
+        // Fresh instances for each path, as when they are decoded from a stream
+        return YangInstanceIdentifier.create(new PathArgument[] {
+            new NodeIdentifier(TOP), new NodeIdentifier(OUTER),
+            new NodeIdentifierWithPredicates(OUTER, ID, "outer-" + outer), new NodeIdentifier(INNER),
+            new NodeIdentifierWithPredicates(INNER, ID, "inner-" + inner),
+        });
+    }
+
+    private static long usedMemory() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; ++i) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private YangInstanceIdentifier[] createFixed() {
+        final YangInstanceIdentifier[] ret = new YangInstanceIdentifier[outerCount * INNER_COUNT];
+        for (int o = 0; o < outerCount; ++o) {
+            for (int i = 0; i < INNER_COUNT; ++i) {
+                ret[o * INNER_COUNT + i] = createPath(o, i);
+            }
+        }
+        return ret;
+    }
+
+    private YangInstanceIdentifier[] createInterned() {
+        final YangInstanceIdentifierInterner interner = YangInstanceIdentifierInterner.create();
+        final YangInstanceIdentifier[] ret = new YangInstanceIdentifier[outerCount * INNER_COUNT];
+        for (int o = 0; o < outerCount; ++o) {
+            for (int i = 0; i < INNER_COUNT; ++i) {
+                ret[o * INNER_COUNT + i] = interner.intern(createPath(o, i));
+            }
+        }
+        return ret;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final long base = usedMemory();
+        fixed = createFixed();
+        final long afterFixed = usedMemory();
+        interned = createInterned();
+        final long afterInterned = usedMemory();
+
+        System.out.println();
+        System.out.println("Paths: " + fixed.length);
+        System.out.println("Fixed: " + (afterFixed - base) / fixed.length + " bytes/path");
+        System.out.println("Interned: " + (afterInterned - afterFixed) / interned.length + " bytes/path");
+
+        fixedAncestor = fixed[fixed.length / 2].getAncestor(3);
+        internedAncestor = interned[interned.length / 2].getAncestor(3);
+    }
+
+    private int nextOffset() {
+        offset = (offset + INNER_COUNT / 2 + 1) % fixed.length;
+        return offset;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public boolean containsFixed() {
+        return fixedAncestor.contains(fixed[nextOffset()]);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public boolean containsInterned() {
+        return internedAncestor.contains(interned[nextOffset()]);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public Optional<YangInstanceIdentifier> relativeToFixed() {
+        return fixed[nextOffset()].relativeTo(fixedAncestor);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public Optional<YangInstanceIdentifier> relativeToInterned() {
+        return interned[nextOffset()].relativeTo(internedAncestor);
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec;
+
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import com.google.gson.stream.JsonReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.codec.binary.BinaryNormalizedNodeInputStream;
+import org.opendaylight.yangtools.yang.data.codec.binary.BinaryNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.codec.gson.JSONCodecFactory;
+import org.opendaylight.yangtools.yang.data.codec.gson.JSONNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.codec.gson.JsonParserStream;
+import org.opendaylight.yangtools.yang.data.codec.gson.JsonWriterFactory;
+import org.opendaylight.yangtools.yang.data.codec.xml.XMLStreamNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.codec.xml.XmlCodecFactory;
+import org.opendaylight.yangtools.yang.data.codec.xml.XmlParserStream;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.tree.BenchmarkModel;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Comparison of the binary, XML and JSON NormalizedNode codecs. Each codec encodes and decodes the same data tree,
+ * consisting of a parameterized number of outer-list entries with {@value #INNER_LIST_SIZE} inner-list entries each.
+ * Encoded sizes are printed during setup. The "Reused" variants retarget a single parser or writer to each document
+ * instead of instantiating a new one.
+ *
+ * @see <a href="http://openjdk.java.net/projects/code-tools/jmh/">JMH</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class DataCodecBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 20;
+
+    private static final int INNER_LIST_SIZE = 10;
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newInstance();
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    @Param({ "1", "10", "100", "1000" })
+    public int outerListSize;
+
+    private SchemaContext schemaContext;
+    private JSONCodecFactory jsonCodecs;
+    private JSONNormalizedNodeStreamWriter reusableJsonWriter;
+    private XMLStreamNormalizedNodeStreamWriter<?> reusableXmlWriter;
+    private JsonParserStream reusableJsonParser;
+    private XmlParserStream reusableXmlParser;
+    private NormalizedNode<?, ?> data;
+    private byte[] binary;
+    private byte[] xml;
+    private byte[] json;
+
+    public static void main(final String... args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(".*" + DataCodecBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    private NormalizedNode<?, ?> createData() {
+        final CollectionNodeBuilder<MapEntryNode, MapNode> outerList =
+                ImmutableNodes.mapNodeBuilder(BenchmarkModel.OUTER_LIST_QNAME);
+        for (int i = 0; i < outerListSize; ++i) {
+            final CollectionNodeBuilder<MapEntryNode, MapNode> innerList =
+                    ImmutableNodes.mapNodeBuilder(BenchmarkModel.INNER_LIST_QNAME);
+            for (int j = 0; j < INNER_LIST_SIZE; ++j) {
+                innerList.withChild(ImmutableNodes.mapEntryBuilder(BenchmarkModel.INNER_LIST_QNAME,
+                    BenchmarkModel.NAME_QNAME, j)
+                    .withChild(ImmutableNodes.leafNode(BenchmarkModel.VALUE_QNAME, "value-" + i + "-" + j))
+                    .build());
+            }
+
+            outerList.withChild(ImmutableNodes.mapEntryBuilder(BenchmarkModel.OUTER_LIST_QNAME,
+                BenchmarkModel.ID_QNAME, i)
+                .withChild(Builders.choiceBuilder()
+                    .withNodeIdentifier(new NodeIdentifier(BenchmarkModel.OUTER_CHOICE_QNAME))
+                    .withChild(ImmutableNodes.leafNode(BenchmarkModel.ONE_QNAME, "one-" + i)).build())
+                .withChild(innerList.build())
+                .build());
+        }
+
+        return Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(BenchmarkModel.TEST_QNAME))
+                .withChild(outerList.build()).build();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        schemaContext = BenchmarkModel.createTestContext();
+        jsonCodecs = JSONCodecFactory.create(schemaContext);
+        data = createData();
+
+        final NormalizedNodeResult dummy = new NormalizedNodeResult();
+        reusableJsonWriter = JSONNormalizedNodeStreamWriter.createReusableExclusiveWriter(jsonCodecs, SchemaPath.ROOT,
+            null, JsonWriterFactory.createJsonWriter(new OutputStreamWriter(new ByteArrayOutputStream(),
+                StandardCharsets.UTF_8)));
+        reusableXmlWriter = XMLStreamNormalizedNodeStreamWriter.createReusable(
+            XML_OUTPUT_FACTORY.createXMLStreamWriter(new ByteArrayOutputStream(), "UTF-8"), schemaContext,
+            SchemaPath.ROOT);
+        reusableJsonParser = JsonParserStream.create(ImmutableNormalizedNodeStreamWriter.from(dummy), jsonCodecs,
+            schemaContext);
+        reusableXmlParser = XmlParserStream.create(ImmutableNormalizedNodeStreamWriter.from(dummy),
+            XmlCodecFactory.create(schemaContext), schemaContext);
+
+        binary = encodeBinary();
+        xml = encodeXml();
+        json = encodeJson();
+        System.out.println("Encoded sizes for " + outerListSize + " entries: binary " + binary.length + " bytes, XML "
+                + xml.length + " bytes, JSON " + json.length + " bytes");
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public byte[] encodeBinary() throws IOException {
+        final ByteArrayDataOutput output = ByteStreams.newDataOutput();
+        BinaryNormalizedNodeStreamWriter.create(output).writeNormalizedNode(data);
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public byte[] encodeXml() throws Exception {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final XMLStreamWriter xmlWriter = XML_OUTPUT_FACTORY.createXMLStreamWriter(output, "UTF-8");
+        try (NormalizedNodeWriter writer = NormalizedNodeWriter.forStreamWriter(
+                XMLStreamNormalizedNodeStreamWriter.create(xmlWriter, schemaContext))) {
+            writer.write(data);
+        }
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public byte[] encodeJson() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (NormalizedNodeWriter writer = NormalizedNodeWriter.forStreamWriter(
+                JSONNormalizedNodeStreamWriter.createExclusiveWriter(jsonCodecs, SchemaPath.ROOT, null,
+                    JsonWriterFactory.createJsonWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))))) {
+            writer.write(data);
+        }
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public NormalizedNode<?, ?> decodeBinary() throws IOException {
+        return BinaryNormalizedNodeInputStream.create(ByteStreams.newDataInput(binary)).readNormalizedNode();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public NormalizedNode<?, ?> decodeXml() throws Exception {
+        final XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(xml));
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        XmlParserStream.create(ImmutableNormalizedNodeStreamWriter.from(result), schemaContext).parse(reader);
+        return result.getResult();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public NormalizedNode<?, ?> decodeJson() {
+        final JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(json),
+            StandardCharsets.UTF_8));
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        JsonParserStream.create(ImmutableNormalizedNodeStreamWriter.from(result), schemaContext).parse(reader);
+        return result.getResult();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public byte[] encodeXmlReused() throws Exception {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final XMLStreamWriter xmlWriter = XML_OUTPUT_FACTORY.createXMLStreamWriter(output, "UTF-8");
+        try (NormalizedNodeWriter writer = NormalizedNodeWriter.forStreamWriter(
+                reusableXmlWriter.reset(xmlWriter))) {
+            writer.write(data);
+        }
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public byte[] encodeJsonReused() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (NormalizedNodeWriter writer = NormalizedNodeWriter.forStreamWriter(reusableJsonWriter.reset(
+                JsonWriterFactory.createJsonWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))))) {
+            writer.write(data);
+        }
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public NormalizedNode<?, ?> decodeXmlReused() throws Exception {
+        final XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(xml));
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        reusableXmlParser.reset(ImmutableNormalizedNodeStreamWriter.from(result)).parse(reader);
+        return result.getResult();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public NormalizedNode<?, ?> decodeJsonReused() {
+        final JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(json),
+            StandardCharsets.UTF_8));
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        reusableJsonParser.reset(ImmutableNormalizedNodeStreamWriter.from(result)).parse(reader);
+        return result.getResult();
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamWriter;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.codec.gson.JSONCodecFactory;
+import org.opendaylight.yangtools.yang.data.codec.gson.JSONNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.codec.gson.JsonWriterFactory;
+import org.opendaylight.yangtools.yang.data.codec.xml.XMLStreamNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.opendaylight.yangtools.yang.parser.stmt.reactor.CrossSourceStatementReactor;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Serialization throughput of the schema-aware XML and JSON writers on a choice-heavy model. Each list entry selects
+ * the last case of several eight-case choices, plus a case nested in another choice, which is the worst case for
+ * resolving schema children by searching through the cases.
+ *
+ * @see <a href="http://openjdk.java.net/projects/code-tools/jmh/">JMH</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+public class SchemaAwareWriterBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 20;
+
+    private static final int CHOICE_COUNT = 4;
+    private static final int CASE_COUNT = 8;
+    private static final int INNER_CASE_COUNT = 4;
+
+    private static final QName CHOICES_QNAME = QName.create("urn:opendaylight:params:xml:ns:yang:choice-benchmark",
+        "2016-10-16", "choices");
+    private static final QName ENTRY_QNAME = QName.create(CHOICES_QNAME, "entry");
+    private static final QName ID_QNAME = QName.create(CHOICES_QNAME, "id");
+    private static final QName NESTED_QNAME = QName.create(CHOICES_QNAME, "nested");
+    private static final String CHOICE_BENCHMARK_YANG = "/choice-benchmark.yang";
+
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    @Param({ "10", "100", "1000" })
+    public int entryCount;
+
+    private SchemaContext schemaContext;
+    private JSONCodecFactory jsonCodecs;
+    private NormalizedNode<?, ?> data;
+
+    public static void main(final String... args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(".*" + SchemaAwareWriterBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    private static QName qname(final String localName) {
+        return QName.create(CHOICES_QNAME, localName);
+    }
+
+    private NormalizedNode<?, ?> createData() {
+        final CollectionNodeBuilder<MapEntryNode, MapNode> entries = ImmutableNodes.mapNodeBuilder(ENTRY_QNAME);
+        for (int i = 0; i < entryCount; ++i) {
+            final DataContainerNodeBuilder<NodeIdentifierWithPredicates, MapEntryNode> entry =
+                    ImmutableNodes.mapEntryBuilder(ENTRY_QNAME, ID_QNAME, (long) i);
+            for (int c = 1; c <= CHOICE_COUNT; ++c) {
+                final QName leaf = qname("leaf" + c + "-" + CASE_COUNT);
+                entry.withChild(Builders.choiceBuilder().withNodeIdentifier(new NodeIdentifier(qname("choice" + c)))
+                    .withChild(ImmutableNodes.leafNode(leaf, "value-" + i)).build());
+            }
+
+            final QName container = qname("nested" + CASE_COUNT);
+            final QName inner = qname("inner" + CASE_COUNT + "-" + INNER_CASE_COUNT);
+            entry.withChild(Builders.choiceBuilder().withNodeIdentifier(new NodeIdentifier(NESTED_QNAME))
+                .withChild(Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(container))
+                    .withChild(Builders.choiceBuilder()
+                        .withNodeIdentifier(new NodeIdentifier(qname("inner" + CASE_COUNT)))
+                        .withChild(ImmutableNodes.leafNode(inner, "inner-" + i)).build())
+                    .build())
+                .build());
+
+            entries.withChild(entry.build());
+        }
+
+        return Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(CHOICES_QNAME))
+                .withChild(entries.build()).build();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        final CrossSourceStatementReactor.BuildAction reactor = YangInferencePipeline.RFC6020_REACTOR.newBuild();
+        schemaContext = reactor.buildEffective(Collections.singletonList(
+            SchemaAwareWriterBenchmark.class.getResourceAsStream(CHOICE_BENCHMARK_YANG)));
+        jsonCodecs = JSONCodecFactory.create(schemaContext);
+        data = createData();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public byte[] writeXml() throws Exception {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final XMLStreamWriter xmlWriter = XML_OUTPUT_FACTORY.createXMLStreamWriter(output, "UTF-8");
+        try (NormalizedNodeWriter writer = NormalizedNodeWriter.forStreamWriter(
+                XMLStreamNormalizedNodeStreamWriter.create(xmlWriter, schemaContext))) {
+            writer.write(data);
+        }
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public byte[] writeJson() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (NormalizedNodeWriter writer = NormalizedNodeWriter.forStreamWriter(
+                JSONNormalizedNodeStreamWriter.createExclusiveWriter(jsonCodecs, SchemaPath.ROOT, null,
+                    JsonWriterFactory.createJsonWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))))) {
+            writer.write(data);
+        }
+        return output.toByteArray();
+    }
+}
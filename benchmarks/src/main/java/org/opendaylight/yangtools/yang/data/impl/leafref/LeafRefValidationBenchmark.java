@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.leafref;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of {@link LeafRefValidatation}. The model contains a list of targets and a list of references
+ * pointing to them. Candidates are prepared during setup, so only the validation itself is measured.
+ *
+ * @see <a href="http://openjdk.java.net/projects/code-tools/jmh/">JMH</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class LeafRefValidationBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 20;
+
+    private static final QName TEST_QNAME = QName.create("urn:opendaylight:yangtools:benchmark:leafref", "2016-01-01",
+        "leafref-test");
+    private static final QName TARGET_QNAME = QName.create(TEST_QNAME, "target");
+    private static final QName NAME_QNAME = QName.create(TEST_QNAME, "name");
+    private static final QName REFERENCE_QNAME = QName.create(TEST_QNAME, "reference");
+    private static final QName ID_QNAME = QName.create(TEST_QNAME, "id");
+    private static final QName REF_QNAME = QName.create(TEST_QNAME, "ref");
+    private static final YangInstanceIdentifier TEST_PATH = YangInstanceIdentifier.of(TEST_QNAME);
+
+    @Param({ "10", "100", "1000" })
+    public int listSize;
+
+    private LeafRefContext leafRefContext;
+    private DataTreeCandidate writeAllCandidate;
+    private DataTreeCandidate writeOneCandidate;
+
+    public static void main(final String... args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(".*" + LeafRefValidationBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    private static MapEntryNode createReference(final int id, final int target) {
+        return ImmutableNodes.mapEntryBuilder(REFERENCE_QNAME, ID_QNAME, id)
+                .withChild(ImmutableNodes.leafNode(REF_QNAME, "target-" + target)).build();
+    }
+
+    private ContainerNode createData() {
+        final CollectionNodeBuilder<MapEntryNode, MapNode> targets = ImmutableNodes.mapNodeBuilder(TARGET_QNAME);
+        final CollectionNodeBuilder<MapEntryNode, MapNode> references = ImmutableNodes.mapNodeBuilder(
+            REFERENCE_QNAME);
+        for (int i = 0; i < listSize; ++i) {
+            targets.withChild(ImmutableNodes.mapEntry(TARGET_QNAME, NAME_QNAME, "target-" + i));
+            references.withChild(createReference(i, i));
+        }
+
+        return Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(TEST_QNAME))
+                .withChild(targets.build()).withChild(references.build()).build();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        final SchemaContext schemaContext = YangInferencePipeline.RFC6020_REACTOR.newBuild().buildEffective(
+            Collections.singletonList(LeafRefValidationBenchmark.class.getResourceAsStream("/leafref-benchmark.yang")));
+        leafRefContext = LeafRefContext.create(schemaContext);
+
+        final DataTree dataTree = InMemoryDataTreeFactory.getInstance().create(TreeType.CONFIGURATION);
+        dataTree.setSchemaContext(schemaContext);
+
+        final DataTreeModification writeAll = dataTree.takeSnapshot().newModification();
+        writeAll.write(TEST_PATH, createData());
+        writeAll.ready();
+        dataTree.validate(writeAll);
+        writeAllCandidate = dataTree.prepare(writeAll);
+        dataTree.commit(writeAllCandidate);
+
+        // Re-point a single reference to a different target on top of the populated tree
+        final MapEntryNode reference = createReference(0, listSize - 1);
+        final DataTreeModification writeOne = dataTree.takeSnapshot().newModification();
+        writeOne.write(TEST_PATH.node(REFERENCE_QNAME).node(reference.getIdentifier()), reference);
+        writeOne.ready();
+        dataTree.validate(writeOne);
+        writeOneCandidate = dataTree.prepare(writeOne);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void validateWriteAll() throws LeafRefDataValidationFailedException {
+        LeafRefValidatation.validate(writeAllCandidate, leafRefContext);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void validateWriteOne() throws LeafRefDataValidationFailedException {
+        LeafRefValidatation.validate(writeOneCandidate, leafRefContext);
+    }
+}
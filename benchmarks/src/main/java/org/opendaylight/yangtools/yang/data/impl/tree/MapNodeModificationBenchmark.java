@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.tree;
+
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedMapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableMapNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableOrderedMapNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of single-entry modifications of a large list. Each operation replaces one entry of a
+ * {@value #LIST_SIZE}-entry list, either directly through the node builders or through a commit to an
+ * InMemoryDataTree.
+ *
+ * @see <a href="http://openjdk.java.net/projects/code-tools/jmh/">JMH</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class MapNodeModificationBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 20;
+
+    private static final int LIST_SIZE = 100000;
+
+    private final MapEntryNode[] entries = new MapEntryNode[LIST_SIZE];
+    private final YangInstanceIdentifier[] paths = new YangInstanceIdentifier[LIST_SIZE];
+    private MapNode mapNode;
+    private OrderedMapNode orderedMapNode;
+    private DataTree datastore;
+    private int counter;
+
+    public static void main(final String... args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(".*" + MapNodeModificationBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        final CollectionNodeBuilder<MapEntryNode, MapNode> mapBuilder =
+                ImmutableMapNodeBuilder.create(LIST_SIZE);
+        final CollectionNodeBuilder<MapEntryNode, OrderedMapNode> orderedBuilder =
+                ImmutableOrderedMapNodeBuilder.create(LIST_SIZE);
+        mapBuilder.withNodeIdentifier(new NodeIdentifier(BenchmarkModel.OUTER_LIST_QNAME));
+        orderedBuilder.withNodeIdentifier(new NodeIdentifier(BenchmarkModel.OUTER_LIST_QNAME));
+
+        for (int i = 0; i < LIST_SIZE; ++i) {
+            entries[i] = ImmutableNodes.mapEntry(BenchmarkModel.OUTER_LIST_QNAME, BenchmarkModel.ID_QNAME, i);
+            paths[i] = YangInstanceIdentifier.builder(BenchmarkModel.OUTER_LIST_PATH)
+                    .nodeWithKey(BenchmarkModel.OUTER_LIST_QNAME, BenchmarkModel.ID_QNAME, i).build();
+            mapBuilder.withChild(entries[i]);
+            orderedBuilder.withChild(entries[i]);
+        }
+        mapNode = mapBuilder.build();
+        orderedMapNode = orderedBuilder.build();
+
+        datastore = InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        datastore.setSchemaContext(BenchmarkModel.createTestContext());
+        final DataTreeModification modification = datastore.takeSnapshot().newModification();
+        modification.write(BenchmarkModel.TEST_PATH, Builders.containerBuilder()
+            .withNodeIdentifier(new NodeIdentifier(BenchmarkModel.TEST_QNAME)).withChild(mapNode).build());
+        modification.ready();
+        datastore.validate(modification);
+        datastore.commit(datastore.prepare(modification));
+    }
+
+    private int nextIndex() {
+        counter = (counter + 1) % LIST_SIZE;
+        return counter;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public MapNode replaceMapEntry() {
+        return ImmutableMapNodeBuilder.create(mapNode).withChild(entries[nextIndex()]).build();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public MapNode replaceOrderedMapEntry() {
+        return ImmutableOrderedMapNodeBuilder.create(orderedMapNode).withChild(entries[nextIndex()]).build();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void commitMapEntry() throws Exception {
+        final int index = nextIndex();
+        final DataTreeModification modification = datastore.takeSnapshot().newModification();
+        modification.write(paths[index], entries[index]);
+        modification.ready();
+        datastore.validate(modification);
+        final DataTreeCandidate candidate = datastore.prepare(modification);
+        datastore.commit(candidate);
+    }
+}
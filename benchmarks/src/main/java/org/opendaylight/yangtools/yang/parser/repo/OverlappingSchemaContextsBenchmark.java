@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.repo;
+
+import com.google.common.io.ByteSource;
+import com.google.common.util.concurrent.CheckedFuture;
+import com.google.common.util.concurrent.Futures;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceException;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceFilter;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.model.repo.spi.PotentialSchemaSource;
+import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceProvider;
+import org.opendaylight.yangtools.yang.parser.util.TextToASTTransformer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of assembling schema contexts for many overlapping sets of sources through a single
+ * {@link SharedSchemaRepository}, as happens when many devices supporting similar sets of modules are mounted. Each
+ * set consists of a common types module, a number of core modules and a random selection of optional modules, half
+ * of which augment one of the core modules. Comparing incremental and non-incremental repositories shows the effect
+ * of sharing effective statements of modules between schema contexts.
+ *
+ * @see <a href="http://openjdk.java.net/projects/code-tools/jmh/">JMH</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class OverlappingSchemaContextsBenchmark {
+    private static final String REVISION = "2016-01-01";
+    private static final int CORE_MODULES = 20;
+    private static final int OPTIONAL_MODULES = 40;
+    private static final int OPTIONAL_PER_SET = 8;
+    private static final int CONTAINERS_PER_MODULE = 10;
+
+    @Param({ "false", "true" })
+    public boolean incremental;
+
+    @Param({ "1000" })
+    public int setCount;
+
+    private List<YangTextSchemaSource> sources;
+    private List<List<SourceIdentifier>> sets;
+    private SharedSchemaRepository repository;
+
+    public static void main(final String... args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(".*" + OverlappingSchemaContextsBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    private static YangTextSchemaSource createSource(final String name, final String body) {
+        final String text = "module " + name + " {\n"
+                + "    namespace \"urn:opendaylight:yangtools:benchmark:" + name + "\";\n"
+                + "    prefix " + name + ";\n"
+                + body
+                + "    revision " + REVISION + ";\n"
+                + "}\n";
+        return YangTextSchemaSource.delegateForByteSource(RevisionSourceIdentifier.create(name, REVISION),
+            ByteSource.wrap(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String importOf(final String name) {
+        return "    import " + name + " { prefix " + name + "; revision-date " + REVISION + "; }\n";
+    }
+
+    private static String containers(final String prefix) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("    grouping common {\n");
+        sb.append("        leaf name { type string { length \"1..64\"; } description \"Name\"; }\n");
+        sb.append("        leaf enabled { type boolean; default true; description \"Enabled\"; }\n");
+        sb.append("        leaf load { type types:percentage; units percent; }\n");
+        sb.append("    }\n");
+        for (int i = 0; i < CONTAINERS_PER_MODULE; ++i) {
+            sb.append("    container ").append(prefix).append(i).append(" {\n");
+            sb.append("        uses common;\n");
+            sb.append("        list entry {\n");
+            sb.append("            key id;\n");
+            sb.append("            leaf id { type uint32; }\n");
+            sb.append("            uses common;\n");
+            sb.append("        }\n");
+            sb.append("    }\n");
+        }
+        return sb.toString();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        sources = new ArrayList<>();
+        sources.add(createSource("types", "    typedef percentage { type uint8 { range \"0..100\"; } }\n"));
+        for (int i = 0; i < CORE_MODULES; ++i) {
+            sources.add(createSource("core" + i, importOf("types") + containers("c")));
+        }
+        for (int i = 0; i < OPTIONAL_MODULES; ++i) {
+            final String core = "core" + i % CORE_MODULES;
+            final StringBuilder sb = new StringBuilder(importOf("types")).append(importOf(core));
+            sb.append(containers("o"));
+            if (i % 2 == 0) {
+                sb.append("    augment \"/").append(core).append(":c0\" {\n");
+                sb.append("        leaf optional-").append(i).append(" { type types:percentage; }\n");
+                sb.append("    }\n");
+            }
+            sources.add(createSource("optional" + i, sb.toString()));
+        }
+
+        final Random random = new Random(0);
+        sets = new ArrayList<>(setCount);
+        for (int i = 0; i < setCount; ++i) {
+            final List<SourceIdentifier> set = new ArrayList<>();
+            for (int j = 0; j <= CORE_MODULES; ++j) {
+                set.add(sources.get(j).getIdentifier());
+            }
+
+            final List<YangTextSchemaSource> optional = new ArrayList<>(sources.subList(CORE_MODULES + 1,
+                sources.size()));
+            Collections.shuffle(optional, random);
+            for (YangTextSchemaSource source : optional.subList(0, OPTIONAL_PER_SET)) {
+                set.add(source.getIdentifier());
+            }
+            sets.add(set);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setupRepository() {
+        repository = new SharedSchemaRepository("benchmark", null, incremental);
+        repository.registerSchemaSourceListener(TextToASTTransformer.create(repository, repository));
+        for (final YangTextSchemaSource source : sources) {
+            repository.registerSchemaSource(new SchemaSourceProvider<YangTextSchemaSource>() {
+                @Override
+                public CheckedFuture<YangTextSchemaSource, SchemaSourceException> getSource(
+                        final SourceIdentifier sourceIdentifier) {
+                    return Futures.immediateCheckedFuture(source);
+                }
+            }, PotentialSchemaSource.create(source.getIdentifier(), YangTextSchemaSource.class, 1));
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 5)
+    public List<SchemaContext> assembleAll() throws SchemaSourceException {
+        final List<SchemaContext> contexts = new ArrayList<>(sets.size());
+        for (List<SourceIdentifier> set : sets) {
+            contexts.add(repository.createSchemaContextFactory(SchemaSourceFilter.ALWAYS_ACCEPT)
+                .createSchemaContext(set).checkedGet());
+        }
+        return contexts;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.stmt.reactor;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of SchemaContext assembly through {@link CrossSourceStatementReactor}. Sources are generated during
+ * setup: each module defines a typedef, a grouping and a number of containers with lists, imports its predecessor
+ * and augments one of its containers, so that linkage across sources is exercised.
+ *
+ * @see <a href="http://openjdk.java.net/projects/code-tools/jmh/">JMH</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class SchemaContextAssemblyBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 20;
+
+    @Param({ "1", "10", "50" })
+    public int moduleCount;
+
+    @Param({ "5", "50" })
+    public int containersPerModule;
+
+    private byte[][] sources;
+
+    public static void main(final String... args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(".*" + SchemaContextAssemblyBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    private static String createModule(final int index, final int containers) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("module bench-").append(index).append(" {\n");
+        sb.append("    namespace \"urn:opendaylight:yangtools:benchmark:").append(index).append("\";\n");
+        sb.append("    prefix b").append(index).append(";\n");
+        if (index > 0) {
+            sb.append("    import bench-").append(index - 1).append(" { prefix p; revision-date 2016-01-01; }\n");
+        }
+        sb.append("    revision 2016-01-01;\n");
+        sb.append("    typedef percentage { type uint8 { range \"0..100\"; } }\n");
+        sb.append("    grouping common {\n");
+        sb.append("        leaf name { type string { length \"1..64\"; } }\n");
+        sb.append("        leaf enabled { type boolean; default true; }\n");
+        sb.append("        leaf load { type percentage; }\n");
+        sb.append("    }\n");
+
+        for (int i = 0; i < containers; ++i) {
+            sb.append("    container c").append(i).append(" {\n");
+            sb.append("        uses common;\n");
+            sb.append("        list entry {\n");
+            sb.append("            key id;\n");
+            sb.append("            leaf id { type uint32; }\n");
+            sb.append("            leaf description { type string; }\n");
+            sb.append("            choice kind {\n");
+            sb.append("                case a { leaf a { type int64; } }\n");
+            sb.append("                case b { leaf-list b { type string; } }\n");
+            sb.append("            }\n");
+            sb.append("            uses common;\n");
+            sb.append("        }\n");
+            sb.append("    }\n");
+        }
+
+        if (index > 0) {
+            sb.append("    augment \"/p:c0\" {\n");
+            sb.append("        leaf augmented-").append(index).append(" { type p:percentage; }\n");
+            sb.append("    }\n");
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        sources = new byte[moduleCount][];
+        for (int i = 0; i < moduleCount; ++i) {
+            sources[i] = createModule(i, containersPerModule).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public SchemaContext buildEffective() throws ReactorException {
+        final List<InputStream> streams = new ArrayList<>(sources.length);
+        for (byte[] source : sources) {
+            streams.add(new ByteArrayInputStream(source));
+        }
+        return YangInferencePipeline.RFC6020_REACTOR.newBuild().buildEffective(streams);
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import java.util.Arrays;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Immutable distribution of durations, as recorded by a {@link HistogramDurationStatisticsTracker}.
+ *
+ * <p>Durations are counted in log-linear buckets: each power-of-two range of nanoseconds is split into
+ * 64 equally-sized buckets, so a reported value is within 1/64 (about 1.6%) of the recorded one. Durations
+ * shorter than 128 nanoseconds are counted exactly. Durations longer than about 18 minutes are counted
+ * as if they were 18 minutes long.
+ */
+@Beta
+@Immutable
+public final class DurationHistogram {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1;
+
+    static final long MAX_TRACKABLE_VALUE = (1L << 40) - 1;
+    static final int BUCKET_COUNT = bucketIndex(MAX_TRACKABLE_VALUE) + 1;
+
+    private static final DurationHistogram EMPTY = new DurationHistogram(new long[0], 0, 0);
+
+    private final long[] counts;
+    private final long totalCount;
+    private final long sum;
+
+    private DurationHistogram(final long[] counts, final long totalCount, final long sum) {
+        this.counts = counts;
+        this.totalCount = totalCount;
+        this.sum = sum;
+    }
+
+    static DurationHistogram create(final long[] counts, final long sum) {
+        int length = counts.length;
+        while (length > 0 && counts[length - 1] == 0) {
+            length--;
+        }
+
+        long totalCount = 0;
+        for (int i = 0; i < length; ++i) {
+            totalCount += counts[i];
+        }
+
+        return totalCount == 0 ? EMPTY : new DurationHistogram(Arrays.copyOf(counts, length), totalCount, sum);
+    }
+
+    /**
+     * Return an empty histogram.
+     *
+     * @return An empty histogram.
+     */
+    public static DurationHistogram empty() {
+        return EMPTY;
+    }
+
+    static int bucketIndex(final long duration) {
+        if (duration < SUB_BUCKET_COUNT) {
+            return duration <= 0 ? 0 : (int) duration;
+        }
+
+        final long value = Math.min(duration, MAX_TRACKABLE_VALUE);
+        final int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+    }
+
+    static long lowestEquivalentValue(final int index) {
+        final int group = index >>> SUB_BUCKET_BITS;
+        if (group == 0) {
+            return index;
+        }
+        return (long) ((index & SUB_BUCKET_MASK) + SUB_BUCKET_COUNT) << (group - 1);
+    }
+
+    static long highestEquivalentValue(final int index) {
+        final int group = index >>> SUB_BUCKET_BITS;
+        return group == 0 ? index : lowestEquivalentValue(index) + (1L << (group - 1)) - 1;
+    }
+
+    void addTo(final long[] target) {
+        for (int i = 0; i < counts.length; ++i) {
+            target[i] += counts[i];
+        }
+    }
+
+    long getSum() {
+        return sum;
+    }
+
+    /**
+     * Returns the number of recorded durations.
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the average duration in nanoseconds.
+     */
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+
+    /**
+     * Returns the shortest duration in nanoseconds, rounded up to its bucket's precision.
+     */
+    public long getMinValue() {
+        for (int i = 0; i < counts.length; ++i) {
+            if (counts[i] != 0) {
+                return highestEquivalentValue(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the longest duration in nanoseconds, rounded up to its bucket's precision.
+     */
+    public long getMaxValue() {
+        return counts.length == 0 ? 0 : highestEquivalentValue(counts.length - 1);
+    }
+
+    /**
+     * Returns the duration in nanoseconds which is greater than or equal to the specified percentage of recorded
+     * durations, e.g. 99.9 for the 99.9th percentile. The value is rounded up to its bucket's precision.
+     *
+     * @param percentile percentile, between 0 and 100 inclusive
+     * @return Duration in nanoseconds, 0 if the histogram is empty
+     * @throws IllegalArgumentException if the percentile is out of range
+     */
+    public long getValueAtPercentile(final double percentile) {
+        Preconditions.checkArgument(percentile >= 0 && percentile <= 100, "Invalid percentile %s", percentile);
+        if (totalCount == 0) {
+            return 0;
+        }
+
+        final long target = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; ++i) {
+            seen += counts[i];
+            if (seen >= target) {
+                return highestEquivalentValue(i);
+            }
+        }
+        return getMaxValue();
+    }
+
+    /**
+     * Combine this histogram with another one.
+     *
+     * @param other Histogram to merge
+     * @return A histogram containing durations recorded in both histograms
+     */
+    public DurationHistogram merge(final DurationHistogram other) {
+        if (other.totalCount == 0) {
+            return this;
+        }
+        if (totalCount == 0) {
+            return other;
+        }
+
+        final long[] merged = Arrays.copyOf(counts, Math.max(counts.length, other.counts.length));
+        other.addTo(merged);
+        return new DurationHistogram(merged, totalCount + other.totalCount, sum + other.sum);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("count", totalCount).add("mean", getMean())
+                .add("p50", getValueAtPercentile(50)).add("p99", getValueAtPercentile(99))
+                .add("p999", getValueAtPercentile(99.9)).add("max", getMaxValue()).toString();
+    }
+}
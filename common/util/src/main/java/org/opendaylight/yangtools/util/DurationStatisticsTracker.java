@@ -57,6 +57,17 @@ public abstract class DurationStatisticsTracker {
         return new SynchronizedDurationStatsTracker();
     }
 
+    /**
+     * Create a {@link HistogramDurationStatisticsTracker}, which additionally
+     * tracks the distribution of durations, so percentiles can be reported.
+     * It performs well in very contended environments.
+     *
+     * @return A new instance.
+     */
+    public static HistogramDurationStatisticsTracker createHistogram() {
+        return new HistogramDurationStatisticsTracker();
+    }
+
     /**
      * Add a duration to track.
      *
@@ -165,7 +176,7 @@ public abstract class DurationStatisticsTracker {
         return current == null ? 0L : current.getTimeMillis();
     }
 
-    private static String formatDuration(final double duration, final Long timeStamp) {
+    static String formatDuration(final double duration, final Long timeStamp) {
         final TimeUnit unit = chooseUnit((long) duration);
         final double value = duration / NANOSECONDS.convert(1, unit);
 
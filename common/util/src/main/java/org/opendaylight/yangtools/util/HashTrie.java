@@ -0,0 +1,391 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+
+/**
+ * Hash array mapped trie backing {@link ImmutableHashTrieMap} and {@link MutableHashTrieMap}. Each level of the trie
+ * consumes five bits of the key hash code, nodes keep only the slots which are populated. Nodes are never modified
+ * once they have been published. A modification copies the path from the root to the affected node and shares the
+ * rest of the trie with the original.
+ *
+ * <p>A modification carries an owner token. Nodes created with the same owner token can be updated in place, so
+ * a series of modifications done through a {@link MutableHashTrieMap} only copies each path once. Once the map is
+ * turned into an {@link ImmutableHashTrieMap}, the owner token is discarded and the nodes become immutable.
+ */
+final class HashTrie {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    /*
+     * Maximum depth of the trie: seven bitmap levels cover all 32 bits of the hash code, plus a collision node.
+     */
+    private static final int MAX_DEPTH = 8;
+
+    private HashTrie() {
+        throw new UnsupportedOperationException();
+    }
+
+    static int hash(final Object key) {
+        final int h = key.hashCode();
+        return h ^ h >>> 16;
+    }
+
+    private static int fragment(final int hash, final int shift) {
+        return hash >>> shift & MASK;
+    }
+
+    /**
+     * Outcome of a modification, recording whether the number of entries has changed and what the previous value
+     * of the modified key was.
+     */
+    static final class Result {
+        Object oldValue;
+        boolean sizeChanged;
+    }
+
+    /**
+     * Common superclass of all trie nodes. Slots are stored as key/value pairs in a single array. A null key indicates
+     * that the value is a subordinate node.
+     */
+    abstract static class Node {
+        final Object owner;
+        Object[] array;
+
+        Node(final Object owner, final Object[] array) {
+            this.owner = owner;
+            this.array = array;
+        }
+
+        final boolean isEditable(final Object editOwner) {
+            return editOwner != null && editOwner == owner;
+        }
+
+        final boolean isSingleEntry() {
+            return array.length == 2 && array[0] != null;
+        }
+
+        abstract Object get(int shift, int hash, Object key);
+
+        abstract Node put(Object editOwner, int shift, int hash, Object key, Object value, Result result);
+
+        /**
+         * Remove a key from this node.
+         *
+         * @return Resulting node, or null if the node would become empty
+         */
+        abstract Node remove(Object editOwner, int shift, int hash, Object key, Result result);
+    }
+
+    static final class BitmapNode extends Node {
+        static final BitmapNode EMPTY = new BitmapNode(null, 0, new Object[0]);
+
+        private int bitmap;
+
+        BitmapNode(final Object owner, final int bitmap, final Object[] array) {
+            super(owner, array);
+            this.bitmap = bitmap;
+        }
+
+        private int index(final int bit) {
+            return 2 * Integer.bitCount(bitmap & bit - 1);
+        }
+
+        @Override
+        Object get(final int shift, final int hash, final Object key) {
+            final int bit = 1 << fragment(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+
+            final int idx = index(bit);
+            final Object k = array[idx];
+            final Object v = array[idx + 1];
+            if (k == null) {
+                return ((Node) v).get(shift + BITS, hash, key);
+            }
+            return key.equals(k) ? v : null;
+        }
+
+        @Override
+        Node put(final Object editOwner, final int shift, final int hash, final Object key, final Object value,
+                final Result result) {
+            final int bit = 1 << fragment(hash, shift);
+            final int idx = index(bit);
+            if ((bitmap & bit) == 0) {
+                result.sizeChanged = true;
+
+                final Object[] newArray = new Object[array.length + 2];
+                System.arraycopy(array, 0, newArray, 0, idx);
+                newArray[idx] = key;
+                newArray[idx + 1] = value;
+                System.arraycopy(array, idx, newArray, idx + 2, array.length - idx);
+                if (isEditable(editOwner)) {
+                    bitmap |= bit;
+                    array = newArray;
+                    return this;
+                }
+                return new BitmapNode(editOwner, bitmap | bit, newArray);
+            }
+
+            final Object k = array[idx];
+            final Object v = array[idx + 1];
+            if (k == null) {
+                final Node child = (Node) v;
+                final Node newChild = child.put(editOwner, shift + BITS, hash, key, value, result);
+                return newChild == child ? this : withSlot(editOwner, idx, null, newChild);
+            }
+            if (key.equals(k)) {
+                result.oldValue = v;
+                return v == value ? this : withSlot(editOwner, idx, k, value);
+            }
+
+            result.sizeChanged = true;
+            return withSlot(editOwner, idx, null, createNode(editOwner, shift + BITS, k, v, hash, key, value));
+        }
+
+        @Override
+        Node remove(final Object editOwner, final int shift, final int hash, final Object key, final Result result) {
+            final int bit = 1 << fragment(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+
+            final int idx = index(bit);
+            final Object k = array[idx];
+            final Object v = array[idx + 1];
+            if (k == null) {
+                final Node child = (Node) v;
+                final Node newChild = child.remove(editOwner, shift + BITS, hash, key, result);
+                if (newChild == child) {
+                    return this;
+                }
+                if (newChild == null) {
+                    return withoutSlot(editOwner, bit, idx);
+                }
+                if (newChild.isSingleEntry()) {
+                    // Pull the last remaining entry up, so the trie does not retain chains of single-entry nodes
+                    return withSlot(editOwner, idx, newChild.array[0], newChild.array[1]);
+                }
+                return withSlot(editOwner, idx, null, newChild);
+            }
+            if (!key.equals(k)) {
+                return this;
+            }
+
+            result.oldValue = v;
+            result.sizeChanged = true;
+            return withoutSlot(editOwner, bit, idx);
+        }
+
+        private Node withSlot(final Object editOwner, final int idx, final Object key, final Object value) {
+            if (isEditable(editOwner)) {
+                array[idx] = key;
+                array[idx + 1] = value;
+                return this;
+            }
+
+            final Object[] newArray = array.clone();
+            newArray[idx] = key;
+            newArray[idx + 1] = value;
+            return new BitmapNode(editOwner, bitmap, newArray);
+        }
+
+        private Node withoutSlot(final Object editOwner, final int bit, final int idx) {
+            if (bitmap == bit) {
+                return null;
+            }
+
+            final Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, idx);
+            System.arraycopy(array, idx + 2, newArray, idx, newArray.length - idx);
+            if (isEditable(editOwner)) {
+                bitmap ^= bit;
+                array = newArray;
+                return this;
+            }
+            return new BitmapNode(editOwner, bitmap ^ bit, newArray);
+        }
+    }
+
+    /**
+     * Node holding entries whose keys have the same hash code.
+     */
+    static final class CollisionNode extends Node {
+        private final int hash;
+
+        CollisionNode(final Object owner, final int hash, final Object[] array) {
+            super(owner, array);
+            this.hash = hash;
+        }
+
+        private int find(final Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object get(final int shift, final int hash, final Object key) {
+            if (hash != this.hash) {
+                return null;
+            }
+            final int idx = find(key);
+            return idx == -1 ? null : array[idx + 1];
+        }
+
+        @Override
+        Node put(final Object editOwner, final int shift, final int hash, final Object key, final Object value,
+                final Result result) {
+            if (hash != this.hash) {
+                // Push this node one level down and retry
+                return new BitmapNode(editOwner, 1 << fragment(this.hash, shift), new Object[] { null, this })
+                        .put(editOwner, shift, hash, key, value, result);
+            }
+
+            final int idx = find(key);
+            if (idx != -1) {
+                final Object v = array[idx + 1];
+                result.oldValue = v;
+                if (v == value) {
+                    return this;
+                }
+                if (isEditable(editOwner)) {
+                    array[idx + 1] = value;
+                    return this;
+                }
+
+                final Object[] newArray = array.clone();
+                newArray[idx + 1] = value;
+                return new CollisionNode(editOwner, hash, newArray);
+            }
+
+            result.sizeChanged = true;
+            final Object[] newArray = new Object[array.length + 2];
+            System.arraycopy(array, 0, newArray, 0, array.length);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            if (isEditable(editOwner)) {
+                array = newArray;
+                return this;
+            }
+            return new CollisionNode(editOwner, hash, newArray);
+        }
+
+        @Override
+        Node remove(final Object editOwner, final int shift, final int hash, final Object key, final Result result) {
+            if (hash != this.hash) {
+                return this;
+            }
+            final int idx = find(key);
+            if (idx == -1) {
+                return this;
+            }
+
+            result.oldValue = array[idx + 1];
+            result.sizeChanged = true;
+            if (array.length == 2) {
+                return null;
+            }
+
+            final Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, idx);
+            System.arraycopy(array, idx + 2, newArray, idx, newArray.length - idx);
+            if (isEditable(editOwner)) {
+                array = newArray;
+                return this;
+            }
+            return new CollisionNode(editOwner, hash, newArray);
+        }
+    }
+
+    private static Node createNode(final Object editOwner, final int shift, final Object key1, final Object value1,
+            final int hash2, final Object key2, final Object value2) {
+        final int hash1 = hash(key1);
+        if (hash1 == hash2) {
+            return new CollisionNode(editOwner, hash1, new Object[] { key1, value1, key2, value2 });
+        }
+
+        final int frag1 = fragment(hash1, shift);
+        final int frag2 = fragment(hash2, shift);
+        if (frag1 == frag2) {
+            return new BitmapNode(editOwner, 1 << frag1, new Object[] {
+                null, createNode(editOwner, shift + BITS, key1, value1, hash2, key2, value2) });
+        }
+
+        final Object[] array = frag1 < frag2 ? new Object[] { key1, value1, key2, value2 }
+            : new Object[] { key2, value2, key1, value1 };
+        return new BitmapNode(editOwner, 1 << frag1 | 1 << frag2, array);
+    }
+
+    /**
+     * Iterator over the entries of a trie. It needs to be given a root which will not be modified while the iteration
+     * is in progress.
+     */
+    static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+        private final Object[][] arrays = new Object[MAX_DEPTH][];
+        private final int[] offsets = new int[MAX_DEPTH];
+        private int depth;
+        private Object nextKey;
+        private Object nextValue;
+
+        EntryIterator(final Node root) {
+            arrays[0] = root.array;
+            advance();
+        }
+
+        private void advance() {
+            while (depth >= 0) {
+                final Object[] array = arrays[depth];
+                final int offset = offsets[depth];
+                if (offset == array.length) {
+                    depth--;
+                    continue;
+                }
+
+                offsets[depth] = offset + 2;
+                final Object key = array[offset];
+                if (key != null) {
+                    nextKey = key;
+                    nextValue = array[offset + 1];
+                    return;
+                }
+
+                depth++;
+                arrays[depth] = ((Node) array[offset + 1]).array;
+                offsets[depth] = 0;
+            }
+            nextKey = null;
+            nextValue = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextKey != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Entry<K, V> next() {
+            if (nextKey == null) {
+                throw new NoSuchElementException();
+            }
+
+            final Entry<K, V> ret = new SimpleImmutableEntry<>((K) nextKey, (V) nextValue);
+            advance();
+            return ret;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import com.google.common.annotations.Beta;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link DurationStatisticsTracker} which also records the distribution of durations in a fixed-size
+ * {@link DurationHistogram}, so tail latencies can be reported as percentiles.
+ *
+ * <p>Recording a duration does not allocate and does not retry: it increments a single histogram bucket and
+ * a contention-adaptive sum. Longest and shortest durations are updated only when they change, which becomes rare
+ * once a few durations have been recorded.
+ *
+ * <p>{@link #snapshotAndReset()} can be used to report per-interval distributions. Durations recorded concurrently
+ * with it are counted either in the returned snapshot or in the next one, but never lost. Buckets and the sum are
+ * reset one after another, not atomically, hence such a duration may be counted in one snapshot and added to the sum
+ * of the other. The mean of an individual snapshot is therefore approximate while durations are being recorded,
+ * whereas counts and sums of consecutive snapshots add up exactly.
+ */
+@Beta
+public final class HistogramDurationStatisticsTracker extends DurationStatisticsTracker {
+    private static final AtomicLongFieldUpdater<HistogramDurationStatisticsTracker> LONGEST_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(HistogramDurationStatisticsTracker.class, "longest");
+    private static final AtomicLongFieldUpdater<HistogramDurationStatisticsTracker> SHORTEST_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(HistogramDurationStatisticsTracker.class, "shortest");
+
+    private final AtomicLongArray counts = new AtomicLongArray(DurationHistogram.BUCKET_COUNT);
+    private final LongAdder sum = new LongAdder();
+
+    // Times are recorded after the duration itself, hence they may belong to a concurrent update
+    private volatile long longest = -1;
+    private volatile long longestTime;
+    private volatile long shortest = Long.MAX_VALUE;
+    private volatile long shortestTime;
+
+    HistogramDurationStatisticsTracker() {
+        // Hidden on purpose
+    }
+
+    @Override
+    public void addDuration(final long duration) {
+        counts.incrementAndGet(DurationHistogram.bucketIndex(duration));
+        sum.add(duration);
+
+        if (duration > longest) {
+            updateLongest(duration);
+        }
+        if (duration < shortest) {
+            updateShortest(duration);
+        }
+    }
+
+    private void updateLongest(final long duration) {
+        long current = longest;
+        while (duration > current) {
+            if (LONGEST_UPDATER.compareAndSet(this, current, duration)) {
+                longestTime = System.currentTimeMillis();
+                return;
+            }
+            current = longest;
+        }
+    }
+
+    private void updateShortest(final long duration) {
+        long current = shortest;
+        while (duration < current) {
+            if (SHORTEST_UPDATER.compareAndSet(this, current, duration)) {
+                shortestTime = System.currentTimeMillis();
+                return;
+            }
+            current = shortest;
+        }
+    }
+
+    @Override
+    public long getTotalDurations() {
+        long ret = 0;
+        for (int i = 0; i < counts.length(); ++i) {
+            ret += counts.get(i);
+        }
+        return ret;
+    }
+
+    @Override
+    public double getAverageDuration() {
+        final long count = getTotalDurations();
+        return count == 0 ? 0 : sum.doubleValue() / count;
+    }
+
+    @Override
+    public synchronized void reset() {
+        // Synchronized is just to make sure we do not have concurrent resets
+        snapshotAndReset();
+    }
+
+    @Override
+    protected DurationWithTime getLongest() {
+        final long value = longest;
+        return value < 0 ? null : new DurationWithTime(value, longestTime);
+    }
+
+    @Override
+    protected DurationWithTime getShortest() {
+        final long value = shortest;
+        return value == Long.MAX_VALUE ? null : new DurationWithTime(value, shortestTime);
+    }
+
+    /**
+     * Returns the duration in nanoseconds which is greater than or equal to the specified percentage of tracked
+     * durations.
+     *
+     * @param percentile percentile, between 0 and 100 inclusive, e.g. 99.9
+     * @return Duration in nanoseconds
+     * @throws IllegalArgumentException if the percentile is out of range
+     * @see DurationHistogram#getValueAtPercentile(double)
+     */
+    public long getPercentileDuration(final double percentile) {
+        return snapshot().getValueAtPercentile(percentile);
+    }
+
+    /**
+     * Returns the duration at the specified percentile as a displayable String with units, e.g. "12.34 ms".
+     *
+     * @param percentile percentile, between 0 and 100 inclusive, e.g. 99.9
+     * @return Displayable duration
+     * @throws IllegalArgumentException if the percentile is out of range
+     */
+    public String getDisplayablePercentileDuration(final double percentile) {
+        return formatDuration(getPercentileDuration(percentile), null);
+    }
+
+    /**
+     * Returns the distribution of durations tracked since the last reset.
+     *
+     * @return An immutable histogram
+     */
+    public DurationHistogram snapshot() {
+        final long[] values = new long[counts.length()];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = counts.get(i);
+        }
+        return DurationHistogram.create(values, sum.sum());
+    }
+
+    /**
+     * Returns the distribution of durations tracked since the last reset and resets all statistics. The mean of the
+     * returned histogram is approximate if durations are recorded concurrently, see the class documentation.
+     *
+     * @return An immutable histogram
+     */
+    public DurationHistogram snapshotAndReset() {
+        longest = -1;
+        shortest = Long.MAX_VALUE;
+
+        final long[] values = new long[counts.length()];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = counts.getAndSet(i, 0);
+        }
+        return DurationHistogram.create(values, sum.sumThenReset());
+    }
+
+    /**
+     * Add durations from a histogram, for example one taken from another tracker, to this tracker. Longest and
+     * shortest durations are updated with the histogram's values, which are subject to its precision.
+     *
+     * @param histogram Histogram to merge
+     */
+    public void merge(final DurationHistogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            return;
+        }
+
+        final long[] values = new long[counts.length()];
+        histogram.addTo(values);
+        for (int i = 0; i < values.length; ++i) {
+            if (values[i] != 0) {
+                counts.addAndGet(i, values[i]);
+            }
+        }
+        sum.add(histogram.getSum());
+
+        updateLongest(histogram.getMaxValue());
+        updateShortest(histogram.getMinValue());
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.util.HashTrie.BitmapNode;
+import org.opendaylight.yangtools.util.HashTrie.Node;
+
+/**
+ * A persistent hash map, implemented as a hash array mapped trie. Unlike copying an immutable hash map, deriving
+ * a modified version of this map through {@link #toModifiableMap()} takes constant time and modifying it copies only
+ * the path from the root to the modified entry, typically a handful of small arrays. The rest of the trie is shared
+ * between the two versions.
+ *
+ * <p>This map does not allow null keys or values. Iteration order is not defined.
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ */
+@Beta
+public final class ImmutableHashTrieMap<K, V> extends AbstractMap<K, V> implements UnmodifiableMapPhase<K, V> {
+    private static final ImmutableHashTrieMap<?, ?> EMPTY = new ImmutableHashTrieMap<>(BitmapNode.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+    private int hashCode;
+    private Set<Entry<K, V>> entrySet;
+
+    ImmutableHashTrieMap(final Node root, final int size) {
+        this.root = Preconditions.checkNotNull(root);
+        this.size = size;
+    }
+
+    /**
+     * Return an empty map.
+     *
+     * @param <K> the type of keys maintained by the map
+     * @param <V> the type of mapped values
+     * @return An empty map
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> ImmutableHashTrieMap<K, V> of() {
+        return (ImmutableHashTrieMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Create an {@link ImmutableHashTrieMap} containing the mappings of specified map. If the map is already an
+     * {@link ImmutableHashTrieMap}, it is returned unchanged.
+     *
+     * @param map Input map
+     * @param <K> the type of keys maintained by the map
+     * @param <V> the type of mapped values
+     * @return An ImmutableHashTrieMap
+     * @throws NullPointerException if map is null or contains null keys or values
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> ImmutableHashTrieMap<K, V> copyOf(final Map<? extends K, ? extends V> map) {
+        if (map instanceof ImmutableHashTrieMap) {
+            return (ImmutableHashTrieMap<K, V>) map;
+        }
+        if (map instanceof MutableHashTrieMap) {
+            return ((MutableHashTrieMap<K, V>) map).toUnmodifiableMap();
+        }
+
+        final MutableHashTrieMap<K, V> tmp = MutableHashTrieMap.create();
+        tmp.putAll(map);
+        return tmp.toUnmodifiableMap();
+    }
+
+    @Nonnull
+    @Override
+    public MutableHashTrieMap<K, V> toModifiableMap() {
+        return new MutableHashTrieMap<>(root, size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(final Object key) {
+        return key == null ? null : (V) root.get(0, HashTrie.hash(key), key);
+    }
+
+    @Override
+    public V put(final K key, final V value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public V remove(final Object key) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void putAll(final Map<? extends K, ? extends V> m) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> ret = entrySet;
+        if (ret == null) {
+            ret = new AbstractSet<Entry<K, V>>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    return new HashTrie.EntryIterator<>(root);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+            entrySet = ret;
+        }
+        return ret;
+    }
+
+    @Override
+    public int hashCode() {
+        int ret = hashCode;
+        if (ret == 0) {
+            ret = super.hashCode();
+            hashCode = ret;
+        }
+        return ret;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj instanceof ImmutableHashTrieMap) {
+            final ImmutableHashTrieMap<?, ?> other = (ImmutableHashTrieMap<?, ?>) obj;
+            if (root == other.root) {
+                return true;
+            }
+            if (size != other.size || hashCode() != other.hashCode()) {
+                return false;
+            }
+        }
+        return super.equals(obj);
+    }
+}
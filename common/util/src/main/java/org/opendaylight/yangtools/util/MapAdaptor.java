@@ -10,7 +10,6 @@ package org.opendaylight.yangtools.util;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
-import com.romix.scala.collection.concurrent.TrieMap;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -40,7 +39,7 @@ public final class MapAdaptor {
         DEFAULT_INSTANCE = new MapAdaptor(true,
                 getProperty(COPY_MAX_ITEMS_MAX_PROP, DEFAULT_COPY_MAX_ITEMS),
                 getProperty(PERSIST_MIN_ITEMS_PROP, DEFAULT_PERSIST_MIN_ITEMS));
-        LOG.debug("Configured HashMap/TrieMap cutoff at {}/{} entries",
+        LOG.debug("Configured HashMap/HashTrieMap cutoff at {}/{} entries",
                 DEFAULT_INSTANCE.persistMinItems, DEFAULT_INSTANCE.copyMaxItems);
     }
 
@@ -99,7 +98,7 @@ public final class MapAdaptor {
     public <K, V> Map<K, V> initialSnapshot(final int expectedSize) {
         Preconditions.checkArgument(expectedSize >= 0);
         if (expectedSize > persistMinItems) {
-            return new ReadWriteTrieMap<>();
+            return MutableHashTrieMap.create();
         }
 
         if (expectedSize < 2) {
@@ -116,8 +115,8 @@ public final class MapAdaptor {
      */
     @SuppressWarnings("static-method")
     public <K, V> Map<K, V> takeSnapshot(final Map<K, V> input) {
-        if (input instanceof ReadOnlyTrieMap) {
-            return ((ReadOnlyTrieMap<K, V>)input).toReadWrite();
+        if (input instanceof ImmutableHashTrieMap) {
+            return ((ImmutableHashTrieMap<K, V>)input).toModifiableMap();
         }
 
         LOG.trace("Converting input {} to a HashMap", input);
@@ -171,7 +170,7 @@ public final class MapAdaptor {
      * @return
      */
     public <K, V> Map<K, V> optimize(final Map<K, V> input) {
-        if (input instanceof ReadOnlyTrieMap) {
+        if (input instanceof ImmutableHashTrieMap) {
             LOG.warn("Optimizing read-only map {}", input);
         }
 
@@ -189,8 +188,8 @@ public final class MapAdaptor {
          * We retain the persistent map as long as it holds at least
          * persistMinItems
          */
-        if (input instanceof ReadWriteTrieMap && size >= persistMinItems) {
-            return ((ReadWriteTrieMap<K, V>)input).toReadOnly();
+        if (input instanceof MutableHashTrieMap && size >= persistMinItems) {
+            return ((MutableHashTrieMap<K, V>)input).toUnmodifiableMap();
         }
 
         /*
@@ -220,18 +219,12 @@ public final class MapAdaptor {
         }
 
         /*
-         * Favor isolation speed: use a TrieMap and perform snapshots
-         *
-         * This one is a bit tricky, as the TrieMap is concurrent and does not
-         * keep an uptodate size. Updating it requires a full walk -- which is
-         * O(N) and we want to avoid that. So we wrap it in an interceptor,
-         * which will maintain the size for us.
+         * Favor isolation speed: use a persistent map, so that subsequent snapshots and modifications share
+         * structure with this map instead of copying it.
          */
-        LOG.trace("Copying input {} to a TrieMap ({} entries)", input, size);
-        final TrieMap<K, V> map = new TrieMap<>();
-        map.putAll(input);
-        final Map<K, V> ret = new ReadOnlyTrieMap<>(map, size);
-        LOG.trace("Read-only TrieMap is {}", ret);
+        LOG.trace("Copying input {} to an ImmutableHashTrieMap ({} entries)", input, size);
+        final Map<K, V> ret = ImmutableHashTrieMap.copyOf(input);
+        LOG.trace("Read-only ImmutableHashTrieMap is {}", ret);
         return ret;
     }
 }
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.util.HashTrie.BitmapNode;
+import org.opendaylight.yangtools.util.HashTrie.Node;
+import org.opendaylight.yangtools.util.HashTrie.Result;
+
+/**
+ * A mutable counterpart to {@link ImmutableHashTrieMap}. Nodes shared with the map this instance was created from
+ * are copied on first modification, nodes created by this instance are modified in place until
+ * {@link #toUnmodifiableMap()} is invoked.
+ *
+ * <p>This map does not allow null keys or values. Iteration order is not defined. Iterators operate on a snapshot
+ * of the map taken when they are created. Their {@link Iterator#remove()} method removes the mapping from this map.
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ */
+@Beta
+public final class MutableHashTrieMap<K, V> extends AbstractMap<K, V> implements ModifiableMapPhase<K, V> {
+    private Object owner = new Object();
+    private Node root;
+    private int size;
+    private Set<Entry<K, V>> entrySet;
+
+    MutableHashTrieMap(final Node root, final int size) {
+        this.root = Preconditions.checkNotNull(root);
+        this.size = size;
+    }
+
+    /**
+     * Create a new empty map.
+     *
+     * @param <K> the type of keys maintained by the map
+     * @param <V> the type of mapped values
+     * @return An empty map
+     */
+    public static <K, V> MutableHashTrieMap<K, V> create() {
+        return new MutableHashTrieMap<>(BitmapNode.EMPTY, 0);
+    }
+
+    /*
+     * Disown all nodes, so they are not modified by subsequent operations.
+     */
+    private Node freeze() {
+        owner = new Object();
+        return root;
+    }
+
+    @Nonnull
+    @Override
+    public ImmutableHashTrieMap<K, V> toUnmodifiableMap() {
+        return size == 0 ? ImmutableHashTrieMap.of() : new ImmutableHashTrieMap<>(freeze(), size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(final Object key) {
+        return key == null ? null : (V) root.get(0, HashTrie.hash(key), key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(final K key, final V value) {
+        Preconditions.checkNotNull(key);
+        Preconditions.checkNotNull(value);
+
+        final Result result = new Result();
+        root = root.put(owner, 0, HashTrie.hash(key), key, value, result);
+        if (result.sizeChanged) {
+            size++;
+        }
+        return (V) result.oldValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(final Object key) {
+        if (key == null) {
+            return null;
+        }
+
+        final Result result = new Result();
+        final Node newRoot = root.remove(owner, 0, HashTrie.hash(key), key, result);
+        root = newRoot == null ? BitmapNode.EMPTY : newRoot;
+        if (result.sizeChanged) {
+            size--;
+        }
+        return (V) result.oldValue;
+    }
+
+    @Override
+    public void clear() {
+        root = BitmapNode.EMPTY;
+        size = 0;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> ret = entrySet;
+        if (ret == null) {
+            ret = new AbstractSet<Entry<K, V>>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    final Iterator<Entry<K, V>> it = new HashTrie.EntryIterator<>(freeze());
+                    return new Iterator<Entry<K, V>>() {
+                        private K current;
+
+                        @Override
+                        public boolean hasNext() {
+                            return it.hasNext();
+                        }
+
+                        @Override
+                        public Entry<K, V> next() {
+                            final Entry<K, V> ret = it.next();
+                            current = ret.getKey();
+                            return ret;
+                        }
+
+                        @Override
+                        public void remove() {
+                            Preconditions.checkState(current != null);
+                            MutableHashTrieMap.this.remove(current);
+                            current = null;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+            entrySet = ret;
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,568 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import org.opendaylight.yangtools.util.concurrent.QueuedNotificationManager.Invoker;
+import org.opendaylight.yangtools.util.concurrent.QueuedNotificationManager.ListenerKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class manages queuing and dispatching notifications for multiple listeners concurrently, like
+ * {@link QueuedNotificationManager}, but without locks and with batched dispatch. It is suited for high
+ * notification rates, where the locking and per-notification allocation of {@link QueuedNotificationManager}
+ * become dominant.
+ *
+ * <p>Notifications are queued on a per-listener basis in bounded, array-backed multi-producer single-consumer
+ * queues, which do not allocate per notification. A single executor task per listener drains its queue in batches
+ * of up to {@code maxBatchSize} notifications and dispatches each batch to a {@link BatchInvoker}. As with
+ * {@link QueuedNotificationManager}, a queue and task exist only while there are pending notifications for
+ * a listener.
+ *
+ * <p>When a listener's queue is full, submitting threads are throttled until the listener catches up, backing off
+ * for progressively longer periods. If the listener does not make progress for {@code maxBlockingTime}, typically
+ * because it is deadlocked, the remaining notifications are rejected with {@link RejectedExecutionException}.
+ *
+ * @param <L> the listener type
+ * @param <N> the notification type
+ */
+@Beta
+public class BatchedNotificationManager<L, N> implements NotificationManager<L, N> {
+
+    /**
+     * Interface implemented by clients that does the work of invoking listeners with batches of notifications.
+     *
+     * @param <L> the listener type
+     * @param <N> the notification type
+     */
+    public interface BatchInvoker<L, N> {
+
+        /**
+         * Called to invoke a listener with notifications, in the order in which they were submitted. The list is
+         * reused once this method returns, hence implementations must not retain it.
+         *
+         * @param listener the listener to invoke
+         * @param notifications the notifications to send, never empty
+         */
+        void invokeListener(L listener, List<N> notifications);
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(BatchedNotificationManager.class);
+
+    private static final long DEFAULT_MAX_BLOCKING_NANOS = TimeUnit.MINUTES.toNanos(10);
+    private static final long WARN_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int SPIN_ATTEMPTS = 16;
+    private static final int LINGER_ATTEMPTS = 64;
+
+    private final ConcurrentMap<ListenerKey<L>, ListenerQueue<L, N>> listenerCache = new ConcurrentHashMap<>();
+    /*
+     * Delivery statistics of listeners as of their last retired queue, so they survive the queue going idle. Keys are
+     * the listeners themselves, weakly referenced and compared by identity, so the statistics do not keep listeners
+     * which are no longer used reachable.
+     */
+    private final ConcurrentMap<L, DeliveryStats> retiredStats = CacheBuilder.newBuilder().weakKeys()
+            .<L, DeliveryStats>build().asMap();
+    private final BatchInvoker<L, N> listenerInvoker;
+    private final Executor executor;
+    private final String name;
+    private final int maxQueueCapacity;
+    private final int maxBatchSize;
+    private final long maxBlockingNanos;
+
+    /**
+     * Constructor.
+     *
+     * @param executor the {@link Executor} to use for notification tasks
+     * @param listenerInvoker the {@link BatchInvoker} to use for invoking listeners
+     * @param maxQueueCapacity the capacity of each listener queue, rounded up to a power of two
+     * @param maxBatchSize the maximum number of notifications dispatched in a single batch
+     * @param maxBlockingTime the time a submitting thread waits for a full queue to make progress
+     * @param unit the unit of maxBlockingTime
+     * @param name the name of this instance for logging info
+     */
+    public BatchedNotificationManager(final Executor executor, final BatchInvoker<L, N> listenerInvoker,
+            final int maxQueueCapacity, final int maxBatchSize, final long maxBlockingTime, final TimeUnit unit,
+            final String name) {
+        this.executor = Preconditions.checkNotNull(executor);
+        this.listenerInvoker = Preconditions.checkNotNull(listenerInvoker);
+        Preconditions.checkArgument(maxQueueCapacity > 0, "maxQueueCapacity must be > 0 ");
+        Preconditions.checkArgument(maxBatchSize > 0, "maxBatchSize must be > 0 ");
+        Preconditions.checkArgument(maxBlockingTime >= 0, "maxBlockingTime must not be negative");
+        this.maxQueueCapacity = maxQueueCapacity;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBlockingNanos = unit.toNanos(maxBlockingTime);
+        this.name = Preconditions.checkNotNull(name);
+    }
+
+    /**
+     * Constructor. Submitting threads wait up to 10 minutes for a full queue to make progress.
+     *
+     * @param executor the {@link Executor} to use for notification tasks
+     * @param listenerInvoker the {@link BatchInvoker} to use for invoking listeners
+     * @param maxQueueCapacity the capacity of each listener queue, rounded up to a power of two
+     * @param maxBatchSize the maximum number of notifications dispatched in a single batch
+     * @param name the name of this instance for logging info
+     */
+    public BatchedNotificationManager(final Executor executor, final BatchInvoker<L, N> listenerInvoker,
+            final int maxQueueCapacity, final int maxBatchSize, final String name) {
+        this(executor, listenerInvoker, maxQueueCapacity, maxBatchSize, DEFAULT_MAX_BLOCKING_NANOS,
+            TimeUnit.NANOSECONDS, name);
+    }
+
+    /**
+     * Constructor for a drop-in replacement of {@link QueuedNotificationManager}. Notifications are still drained
+     * in batches, but dispatched to the {@link Invoker} one at a time.
+     *
+     * @param executor the {@link Executor} to use for notification tasks
+     * @param listenerInvoker the {@link Invoker} to use for invoking listeners
+     * @param maxQueueCapacity the capacity of each listener queue, rounded up to a power of two
+     * @param name the name of this instance for logging info
+     */
+    public BatchedNotificationManager(final Executor executor, final Invoker<L, N> listenerInvoker,
+            final int maxQueueCapacity, final String name) {
+        this(executor, new InvokerAdapter<>(listenerInvoker, name), maxQueueCapacity, maxQueueCapacity, name);
+    }
+
+    @Override
+    public void submitNotification(final L listener, final N notification) {
+        if (notification == null || listener == null) {
+            return;
+        }
+
+        final ListenerKey<L> key = new ListenerKey<>(listener);
+        while (!getQueue(key).submit(notification)) {
+            // The queue has retired, retry with a new one
+        }
+    }
+
+    @Override
+    public void submitNotifications(final L listener, final Iterable<N> notifications) {
+        if (notifications == null || listener == null) {
+            return;
+        }
+
+        final PeekingIterator<N> it = Iterators.peekingIterator(notifications.iterator());
+        if (!it.hasNext()) {
+            return;
+        }
+
+        final ListenerKey<L> key = new ListenerKey<>(listener);
+        while (!getQueue(key).submit(it)) {
+            // The queue has retired, retry the remaining notifications with a new one
+        }
+    }
+
+    private ListenerQueue<L, N> getQueue(final ListenerKey<L> key) {
+        final ListenerQueue<L, N> existing = listenerCache.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        final ListenerQueue<L, N> created = new ListenerQueue<>(this, key);
+        final ListenerQueue<L, N> raced = listenerCache.putIfAbsent(key, created);
+        return raced != null ? raced : created;
+    }
+
+    /**
+     * Returns {@link ListenerNotificationQueueStats} instances for each listener which has been notified, including
+     * the number of delivered notifications and queueing latency. Listeners without a current queue are reported with
+     * an empty queue, until they are garbage-collected.
+     */
+    public List<ListenerNotificationQueueStats> getListenerNotificationQueueStats() {
+        final Map<ListenerKey<L>, ListenerNotificationQueueStats> stats = new HashMap<>();
+        for (ListenerQueue<L, N> queue : listenerCache.values()) {
+            stats.put(queue.listenerKey, queue.getStats());
+        }
+        for (Entry<L, DeliveryStats> e : retiredStats.entrySet()) {
+            final ListenerKey<L> key = new ListenerKey<>(e.getKey());
+            if (!stats.containsKey(key)) {
+                stats.put(key, e.getValue().toQueueStats(key, 0));
+            }
+        }
+        return new ArrayList<>(stats.values());
+    }
+
+    /**
+     * Returns the maximum listener queue capacity.
+     */
+    public int getMaxQueueCapacity() {
+        return maxQueueCapacity;
+    }
+
+    /**
+     * Returns the maximum number of notifications dispatched in a single batch.
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Returns the {@link Executor} to used for notification tasks.
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Immutable snapshot of a listener's delivery counters.
+     */
+    private static final class DeliveryStats {
+        static final DeliveryStats EMPTY = new DeliveryStats(0, 0, 0);
+
+        final long delivered;
+        final long totalLatency;
+        final long maxLatency;
+
+        DeliveryStats(final long delivered, final long totalLatency, final long maxLatency) {
+            this.delivered = delivered;
+            this.totalLatency = totalLatency;
+            this.maxLatency = maxLatency;
+        }
+
+        ListenerNotificationQueueStats toQueueStats(final ListenerKey<?> listenerKey, final int queueSize) {
+            return new ListenerNotificationQueueStats(listenerKey.toString(), queueSize, delivered,
+                delivered == 0 ? 0 : totalLatency / delivered, maxLatency);
+        }
+    }
+
+    private static final class InvokerAdapter<L, N> implements BatchInvoker<L, N> {
+        private final Invoker<L, N> invoker;
+        private final String name;
+
+        InvokerAdapter(final Invoker<L, N> invoker, final String name) {
+            this.invoker = Preconditions.checkNotNull(invoker);
+            this.name = name;
+        }
+
+        @Override
+        public void invokeListener(final L listener, final List<N> notifications) {
+            for (N notification : notifications) {
+                try {
+                    invoker.invokeListener(listener, notification);
+                } catch (RuntimeException e) {
+                    // Do not let a single notification prevent delivery of the rest of the batch
+                    LOG.error("{}: Error notifying listener {}", name, listener, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Queue of notifications for a single listener, which is also the executor task dispatching them.
+     *
+     * <p>Coordination between submitting threads and the task is done through a single state word, which holds the
+     * number of threads currently submitting notifications, whether the task is scheduled to run, whether anything
+     * was submitted since the task last checked and whether the queue has retired. A queue retires only when it is
+     * empty and nobody is submitting to it, hence notifications submitted to a replacement queue cannot overtake
+     * those submitted to a retired one.
+     */
+    private static final class ListenerQueue<L, N> implements Runnable {
+        private static final int SCHEDULED = 1;
+        private static final int RETIRED = 2;
+        // Set by submitters finishing while the task is scheduled, so it does not miss their notifications
+        private static final int PENDING = 4;
+        private static final int PRODUCER = 8;
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<ListenerQueue> STATE_UPDATER =
+                AtomicIntegerFieldUpdater.newUpdater(ListenerQueue.class, "state");
+
+        private final List<N> batch = new ArrayList<>();
+        private final BatchedNotificationManager<L, N> manager;
+        private final ListenerKey<L> listenerKey;
+        private final MpscArrayQueue<N> queue;
+        private final DeliveryStats baseStats;
+        private final String name;
+
+        private volatile int state;
+
+        ListenerQueue(final BatchedNotificationManager<L, N> manager, final ListenerKey<L> listenerKey) {
+            this.manager = manager;
+            this.listenerKey = listenerKey;
+            this.queue = new MpscArrayQueue<>(manager.maxQueueCapacity);
+            this.name = manager.name;
+
+            // The previous queue, if any, has retired, hence its statistics are final
+            final DeliveryStats retired = manager.retiredStats.get(listenerKey.getListener());
+            this.baseStats = retired != null ? retired : DeliveryStats.EMPTY;
+        }
+
+        ListenerNotificationQueueStats getStats() {
+            return deliveryStats().toQueueStats(listenerKey, queue.size());
+        }
+
+        private DeliveryStats deliveryStats() {
+            return new DeliveryStats(baseStats.delivered + queue.getDelivered(),
+                baseStats.totalLatency + queue.getTotalLatency(), Math.max(baseStats.maxLatency,
+                    queue.getMaxLatency()));
+        }
+
+        /**
+         * Record the statistics for use by the next queue of the listener. This has to happen before the queue
+         * retires, so a replacement queue always observes them.
+         */
+        private void saveStats() {
+            manager.retiredStats.put(listenerKey.getListener(), deliveryStats());
+        }
+
+        /**
+         * Submit a single notification.
+         *
+         * @return False if this queue has retired and the notification has not been queued
+         */
+        boolean submit(final N notification) {
+            if (!enter()) {
+                return false;
+            }
+
+            try {
+                return offer(notification);
+            } finally {
+                exit();
+            }
+        }
+
+        /**
+         * Submit notifications.
+         *
+         * @return False if this queue has retired. The iterator is left at the first notification which has not been
+         *         queued.
+         */
+        boolean submit(final PeekingIterator<N> notifications) {
+            if (!enter()) {
+                return false;
+            }
+
+            try {
+                while (notifications.hasNext()) {
+                    if (!offer(notifications.peek())) {
+                        return false;
+                    }
+                    notifications.next();
+                }
+                return true;
+            } finally {
+                exit();
+            }
+        }
+
+        private boolean enter() {
+            while (true) {
+                final int current = state;
+                if ((current & RETIRED) != 0) {
+                    manager.listenerCache.remove(listenerKey, this);
+                    return false;
+                }
+                if (STATE_UPDATER.compareAndSet(this, current, current + PRODUCER)) {
+                    return true;
+                }
+            }
+        }
+
+        private void exit() {
+            while (true) {
+                final int current = state;
+                final boolean schedule = (current & (SCHEDULED | RETIRED)) == 0;
+                final int next;
+                if (schedule) {
+                    next = current - PRODUCER | SCHEDULED;
+                } else if ((current & RETIRED) == 0) {
+                    next = current - PRODUCER | PENDING;
+                } else {
+                    next = current - PRODUCER;
+                }
+
+                if (STATE_UPDATER.compareAndSet(this, current, next)) {
+                    if (schedule) {
+                        execute();
+                    }
+                    return;
+                }
+            }
+        }
+
+        private void ensureScheduled() {
+            while (true) {
+                final int current = state;
+                if ((current & (SCHEDULED | RETIRED)) != 0) {
+                    return;
+                }
+                if (STATE_UPDATER.compareAndSet(this, current, current | SCHEDULED)) {
+                    execute();
+                    return;
+                }
+            }
+        }
+
+        private void execute() {
+            LOG.debug("{}: Submitting notification task for listener {}", name, listenerKey);
+
+            try {
+                manager.executor.execute(this);
+            } catch (RuntimeException e) {
+                // Give the next submitter a chance to schedule the task
+                while (true) {
+                    final int current = state;
+                    if (STATE_UPDATER.compareAndSet(this, current, current & ~SCHEDULED)) {
+                        throw e;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Offer a notification, waiting for the listener to make progress if the queue is full.
+         *
+         * @return False if this queue has retired while waiting
+         */
+        private boolean offer(final N notification) {
+            if (queue.offer(notification)) {
+                return true;
+            }
+
+            long lastDelivered = queue.getDelivered();
+            long progressNanos = System.nanoTime();
+            long warnNanos = progressNanos;
+            long backoffNanos = 1000;
+            int attempts = 0;
+
+            do {
+                // The task may have handed over scheduling to us, make sure it runs to make space
+                ensureScheduled();
+
+                if (attempts < SPIN_ATTEMPTS) {
+                    attempts++;
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(backoffNanos);
+                    backoffNanos = Math.min(backoffNanos * 2, MAX_BACKOFF_NANOS);
+                }
+
+                if ((state & RETIRED) != 0) {
+                    return false;
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    LOG.debug("{}: Interrupted trying to add to {} listener's queue", name, listenerKey);
+                    throw new RejectedExecutionException("Interrupted while waiting for listener " + listenerKey);
+                }
+
+                final long now = System.nanoTime();
+                final long delivered = queue.getDelivered();
+                if (delivered != lastDelivered) {
+                    lastDelivered = delivered;
+                    progressNanos = now;
+                    warnNanos = now;
+                } else if (now - progressNanos >= manager.maxBlockingNanos) {
+                    LOG.warn("{}: Listener {} made no progress in {} seconds, rejecting notification. The listener "
+                            + "is likely in an unrecoverable state (deadlock or endless loop).", name, listenerKey,
+                            TimeUnit.NANOSECONDS.toSeconds(manager.maxBlockingNanos));
+                    throw new RejectedExecutionException("Listener " + listenerKey + " queue has reached its capacity"
+                        + " of " + queue.capacity());
+                } else if (now - warnNanos >= WARN_INTERVAL_NANOS) {
+                    warnNanos = now;
+                    LOG.warn("{}: Listener {} made no progress in {} seconds, its queue has reached its capacity of {}",
+                        name, listenerKey, TimeUnit.NANOSECONDS.toSeconds(now - progressNanos), queue.capacity());
+                }
+            } while (!queue.offer(notification));
+
+            return true;
+        }
+
+        @Override
+        public void run() {
+            try {
+                do {
+                    while (queue.drainTo(batch, manager.maxBatchSize) != 0) {
+                        dispatch();
+                    }
+
+                    // Linger for a bit, as retiring the queue only to create a new one for the next notification
+                    // is expensive
+                    for (int i = 0; i < LINGER_ATTEMPTS && queue.isEmpty(); ++i) {
+                        Thread.yield();
+                    }
+                } while (!tryRelease());
+            } catch (Error e) {
+                // A JVM Error is severe - best practice is to throw them up the chain. Retire the queue, so no new
+                // notifications can be added to it as we're about to bail.
+                saveStats();
+                while (true) {
+                    final int current = state;
+                    if (STATE_UPDATER.compareAndSet(this, current, current | RETIRED)) {
+                        break;
+                    }
+                }
+                manager.listenerCache.remove(listenerKey, this);
+                throw e;
+            }
+        }
+
+        private void dispatch() {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("{}: Invoking listener {} with {} notifications", name, listenerKey, batch.size());
+            }
+
+            try {
+                manager.listenerInvoker.invokeListener(listenerKey.getListener(), batch);
+            } catch (RuntimeException e) {
+                // We'll let a RuntimeException from the listener slide and keep sending any remaining notifications.
+                LOG.error("{}: Error notifying listener {}", name, listenerKey, e);
+            } finally {
+                batch.clear();
+            }
+        }
+
+        /**
+         * Attempt to stop running once the queue has been drained.
+         *
+         * @return True if the task should exit, false if it should continue draining the queue
+         */
+        private boolean tryRelease() {
+            final int current = state;
+            if ((current & PENDING) != 0) {
+                // Notifications have been submitted since we last checked, make sure we have drained them
+                STATE_UPDATER.compareAndSet(this, current, current & ~PENDING);
+                return false;
+            }
+
+            if (current == SCHEDULED) {
+                // Nobody has submitted anything since we last checked, hence the queue should be empty
+                if (!queue.isEmpty()) {
+                    return false;
+                }
+                saveStats();
+                if (STATE_UPDATER.compareAndSet(this, SCHEDULED, RETIRED)) {
+                    manager.listenerCache.remove(listenerKey, this);
+                    return true;
+                }
+                return false;
+            }
+
+            // Submitters are active, hand scheduling over to them. The last one to finish will reschedule the task.
+            return STATE_UPDATER.compareAndSet(this, current, current & ~SCHEDULED);
+        }
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.MoreObjects.ToStringHelper;
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An ExecutorService which does not own any threads. Tasks are queued in a bounded queue and run on a shared carrier
+ * {@link Executor}, with at most a specified number of them running concurrently. Many instances can share a single
+ * small carrier pool, so a large number of executors, each serving a slow consumer, do not need a thread each.
+ *
+ * <p>A worker dispatched to the carrier runs queued tasks until the queue is empty, but after a fixed number of tasks
+ * it resubmits itself to the carrier, so busy executors do not starve others sharing the same carrier threads.
+ *
+ * <p>Since tasks run on carrier threads, {@link #shutdownNow()} does not interrupt running tasks. It only removes the
+ * queued ones.
+ *
+ * <p>See {@link SpecialExecutors#newBoundedConcurrencyExecutor} for more details.
+ */
+@Beta
+public class BoundedConcurrencyExecutor extends AbstractExecutorService {
+    private static final Logger LOG = LoggerFactory.getLogger(BoundedConcurrencyExecutor.class);
+
+    /**
+     * Number of tasks a worker runs before it yields its carrier thread.
+     */
+    private static final int TASKS_PER_DISPATCH = 64;
+
+    private final TrackingLinkedBlockingQueue<Runnable> queue;
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final AtomicLong completedTasks = new AtomicLong();
+    private final AtomicLong rejectedTasks = new AtomicLong();
+    private final Executor carrier;
+    private final int maximumConcurrency;
+    private final int maximumQueueSize;
+    private final String name;
+
+    private volatile boolean shutdown;
+
+    /**
+     * Constructs a BoundedConcurrencyExecutor instance.
+     *
+     * @param carrier
+     *            the executor on which tasks are run.
+     * @param maximumConcurrency
+     *            the maximum number of tasks allowed to run concurrently.
+     * @param maximumQueueSize
+     *            the capacity of the queue.
+     * @param name
+     *            the name of this executor, used for diagnostics.
+     */
+    public BoundedConcurrencyExecutor(final Executor carrier, final int maximumConcurrency,
+            final int maximumQueueSize, final String name) {
+        Preconditions.checkArgument(maximumConcurrency > 0, "Invalid maximum concurrency %s", maximumConcurrency);
+        Preconditions.checkArgument(maximumQueueSize > 0, "Invalid maximum queue size %s", maximumQueueSize);
+        this.carrier = Preconditions.checkNotNull(carrier);
+        this.name = Preconditions.checkNotNull(name);
+        this.maximumConcurrency = maximumConcurrency;
+        this.maximumQueueSize = maximumQueueSize;
+        this.queue = new TrackingLinkedBlockingQueue<>(maximumQueueSize);
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        Preconditions.checkNotNull(command);
+        if (shutdown) {
+            throw reject(command, "has been shut down");
+        }
+        if (!queue.offer(command)) {
+            throw reject(command, "has reached its queue capacity of " + maximumQueueSize);
+        }
+
+        // Re-check to close the race with shutdown(): if the task is still queued, nobody will run it
+        if (shutdown && queue.remove(command)) {
+            tryTerminate();
+            throw reject(command, "has been shut down");
+        }
+
+        if (tryAcquireWorker()) {
+            try {
+                carrier.execute(new Worker());
+            } catch (RejectedExecutionException e) {
+                activeWorkers.decrementAndGet();
+                if (queue.remove(command)) {
+                    rejectedTasks.incrementAndGet();
+                    tryTerminate();
+                    throw e;
+                }
+
+                // Our task has been picked up by another worker, which will also take care of the rest of the queue
+                LOG.debug("{}: carrier executor rejected a worker", name, e);
+            }
+        }
+    }
+
+    private RejectedExecutionException reject(final Runnable command, final String reason) {
+        rejectedTasks.incrementAndGet();
+        return new RejectedExecutionException("Task " + command + " rejected, executor " + name + " " + reason);
+    }
+
+    private boolean tryAcquireWorker() {
+        while (true) {
+            final int active = activeWorkers.get();
+            if (active >= maximumConcurrency) {
+                return false;
+            }
+            if (activeWorkers.compareAndSet(active, active + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release a worker slot after observing an empty queue. A task may have been queued after the observation by a
+     * thread which found all slots taken, in which case the slot has to be reclaimed to run it.
+     *
+     * @return True if the worker should exit, false if it has reclaimed its slot
+     */
+    private boolean releaseWorker() {
+        activeWorkers.decrementAndGet();
+        if (!queue.isEmpty() && tryAcquireWorker()) {
+            return false;
+        }
+
+        tryTerminate();
+        return true;
+    }
+
+    /**
+     * Release the slot of a worker which is exiting abnormally, handing any queued tasks to a new worker.
+     */
+    private void abandonWorker() {
+        if (releaseWorker()) {
+            return;
+        }
+
+        try {
+            carrier.execute(new Worker());
+        } catch (RejectedExecutionException e) {
+            LOG.warn("{}: carrier executor rejected a replacement worker", name, e);
+            activeWorkers.decrementAndGet();
+            tryTerminate();
+        }
+    }
+
+    private void tryTerminate() {
+        if (shutdown && activeWorkers.get() == 0 && queue.isEmpty()) {
+            terminated.countDown();
+        }
+    }
+
+    private final class Worker implements Runnable {
+        @Override
+        public void run() {
+            int budget = TASKS_PER_DISPATCH;
+            while (true) {
+                final Runnable task = queue.poll();
+                if (task == null) {
+                    if (releaseWorker()) {
+                        return;
+                    }
+                    continue;
+                }
+
+                boolean failed = true;
+                try {
+                    task.run();
+                    failed = false;
+                } catch (RuntimeException e) {
+                    LOG.warn("{}: task {} failed", name, task, e);
+                    failed = false;
+                } finally {
+                    if (failed) {
+                        // An Error is propagating to the carrier thread, do not take our slot with it
+                        LOG.error("{}: task {} failed with an error, abandoning worker", name, task);
+                        abandonWorker();
+                    }
+                }
+                completedTasks.incrementAndGet();
+
+                if (--budget == 0) {
+                    budget = TASKS_PER_DISPATCH;
+                    if (!queue.isEmpty()) {
+                        try {
+                            carrier.execute(this);
+                            return;
+                        } catch (RejectedExecutionException e) {
+                            LOG.debug("{}: carrier executor rejected a worker, continuing on current thread", name, e);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        tryTerminate();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        final List<Runnable> ret = new ArrayList<>();
+        queue.drainTo(ret);
+        tryTerminate();
+        return ret;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return terminated.getCount() == 0;
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return terminated.await(timeout, unit);
+    }
+
+    /**
+     * Returns the number of tasks currently running, or about to be run, on carrier threads.
+     */
+    public int getActiveCount() {
+        return activeWorkers.get();
+    }
+
+    public int getMaximumConcurrency() {
+        return maximumConcurrency;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getLargestQueueSize() {
+        return queue.getLargestQueueSize();
+    }
+
+    public int getMaximumQueueSize() {
+        return maximumQueueSize;
+    }
+
+    public long getCompletedTaskCount() {
+        return completedTasks.get();
+    }
+
+    public long getRejectedTaskCount() {
+        return rejectedTasks.get();
+    }
+
+    protected ToStringHelper addToStringAttributes(final ToStringHelper toStringHelper) {
+        return toStringHelper;
+    }
+
+    @Override
+    public final String toString() {
+        return addToStringAttributes(MoreObjects.toStringHelper(this)
+                .add("Name", name)
+                .add("Active Task Count", getActiveCount())
+                .add("Max Concurrency", maximumConcurrency)
+                .add("Current Queue Size", getQueueSize())
+                .add("Largest Queue Size", getLargestQueueSize())
+                .add("Max Queue Size", maximumQueueSize)
+                .add("Completed Task Count", getCompletedTaskCount())
+                .add("Rejected Task Count", getRejectedTaskCount())).toString();
+    }
+}
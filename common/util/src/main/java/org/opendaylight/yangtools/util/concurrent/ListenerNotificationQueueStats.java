@@ -21,11 +21,25 @@ public class ListenerNotificationQueueStats {
 
     private final String listenerClassName;
     private final int currentQueueSize;
+    private final long deliveredNotifications;
+    private final long averageQueueLatencyNanos;
+    private final long maxQueueLatencyNanos;
 
     @ConstructorProperties({ "listenerClassName","currentQueueSize" })
     public ListenerNotificationQueueStats( final String listenerClassName, final int currentQueueSize ) {
+        this( listenerClassName, currentQueueSize, 0, 0, 0 );
+    }
+
+    @ConstructorProperties({ "listenerClassName", "currentQueueSize", "deliveredNotifications",
+        "averageQueueLatencyNanos", "maxQueueLatencyNanos" })
+    public ListenerNotificationQueueStats( final String listenerClassName, final int currentQueueSize,
+            final long deliveredNotifications, final long averageQueueLatencyNanos,
+            final long maxQueueLatencyNanos ) {
         this.listenerClassName = listenerClassName;
         this.currentQueueSize = currentQueueSize;
+        this.deliveredNotifications = deliveredNotifications;
+        this.averageQueueLatencyNanos = averageQueueLatencyNanos;
+        this.maxQueueLatencyNanos = maxQueueLatencyNanos;
     }
 
     /**
@@ -41,4 +55,29 @@ public class ListenerNotificationQueueStats {
     public int getCurrentQueueSize() {
         return currentQueueSize;
     }
+
+    /**
+     * Returns the number of notifications delivered to the listener since the manager started tracking it, including
+     * periods when the listener had no queue. Sampling this counter periodically yields the listener's throughput.
+     * Managers which do not track deliveries report 0.
+     */
+    public long getDeliveredNotifications() {
+        return deliveredNotifications;
+    }
+
+    /**
+     * Returns the average time, in nanoseconds, delivered notifications spent queued before being dispatched to the
+     * listener. Managers which do not track latency report 0.
+     */
+    public long getAverageQueueLatencyNanos() {
+        return averageQueueLatencyNanos;
+    }
+
+    /**
+     * Returns the maximum time, in nanoseconds, a delivered notification spent queued before being dispatched to the
+     * listener. Managers which do not track latency report 0.
+     */
+    public long getMaxQueueLatencyNanos() {
+        return maxQueueLatencyNanos;
+    }
 }
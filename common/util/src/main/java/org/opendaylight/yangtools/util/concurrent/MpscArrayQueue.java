@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import com.google.common.base.Preconditions;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free multi-producer single-consumer queue backed by an array. Each slot carries a sequence number,
+ * which producers and the consumer use to hand over the slot without locking. Producers claim a slot with a single
+ * CAS on the tail index and never allocate. This is the design described by Dmitry Vyukov for bounded MPMC queues,
+ * simplified for a single consumer.
+ *
+ * <p>Each element is recorded with the {@link System#nanoTime()} at which it was offered, so the consumer can
+ * measure queueing latency.
+ *
+ * <p>{@link #offer(Object)} can be invoked concurrently from any thread. {@link #drainTo(Collection, int)} must only
+ * be invoked by a single thread at a time.
+ *
+ * @param <E> the element type
+ */
+final class MpscArrayQueue<E> {
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final long[] timestamps;
+    private final AtomicLong tail = new AtomicLong();
+    private final int mask;
+
+    // Written by the consumer only, read by anyone for statistics
+    private volatile long head;
+    private volatile long delivered;
+    private volatile long totalLatency;
+    private volatile long maxLatency;
+
+    MpscArrayQueue(final int minimumCapacity) {
+        Preconditions.checkArgument(minimumCapacity > 0 && minimumCapacity <= 1 << 30,
+            "Invalid capacity %s", minimumCapacity);
+        final int size = minimumCapacity == 1 ? 1 : Integer.highestOneBit(minimumCapacity - 1) << 1;
+
+        elements = new AtomicReferenceArray<>(size);
+        sequences = new AtomicLongArray(size);
+        timestamps = new long[size];
+        mask = size - 1;
+        for (int i = 0; i < size; ++i) {
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Offer an element to the queue.
+     *
+     * @param element Element to offer
+     * @return True if the element was queued, false if the queue is full
+     */
+    boolean offer(final E element) {
+        Preconditions.checkNotNull(element);
+
+        while (true) {
+            final long pos = tail.get();
+            final int offset = (int) pos & mask;
+            final long diff = sequences.get(offset) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    timestamps[offset] = System.nanoTime();
+                    elements.lazySet(offset, element);
+                    sequences.lazySet(offset, pos + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                // The consumer has not released the slot yet
+                return false;
+            }
+
+            // Another producer claimed the slot, retry
+        }
+    }
+
+    /**
+     * Check whether there is an element available to the consumer. Elements which have been claimed, but not
+     * published yet by their producer, are not reported.
+     */
+    boolean isEmpty() {
+        final long pos = head;
+        return sequences.get((int) pos & mask) != pos + 1;
+    }
+
+    /**
+     * Return the approximate number of elements in the queue.
+     */
+    int size() {
+        final long size = tail.get() - head;
+        return size < 0 ? 0 : (int) Math.min(size, capacity());
+    }
+
+    /**
+     * Move available elements to a collection. Must be called from the consumer thread.
+     *
+     * @param to Target collection
+     * @param maxElements Maximum number of elements to move
+     * @return Number of elements moved
+     */
+    int drainTo(final Collection<? super E> to, final int maxElements) {
+        final long start = head;
+        long pos = start;
+        long now = 0;
+        long batchLatency = 0;
+        long batchMaxLatency = maxLatency;
+
+        while (pos - start < maxElements) {
+            final int offset = (int) pos & mask;
+            if (sequences.get(offset) != pos + 1) {
+                break;
+            }
+
+            if (now == 0) {
+                now = System.nanoTime();
+            }
+            final long latency = now - timestamps[offset];
+            batchLatency += latency;
+            if (latency > batchMaxLatency) {
+                batchMaxLatency = latency;
+            }
+
+            to.add(elements.get(offset));
+            elements.lazySet(offset, null);
+            sequences.lazySet(offset, pos + mask + 1);
+            pos++;
+        }
+
+        final int drained = (int) (pos - start);
+        if (drained != 0) {
+            delivered += drained;
+            totalLatency += batchLatency;
+            maxLatency = batchMaxLatency;
+            head = pos;
+        }
+        return drained;
+    }
+
+    /**
+     * Return the number of elements drained from the queue.
+     */
+    long getDelivered() {
+        return delivered;
+    }
+
+    /**
+     * Return the sum of nanoseconds drained elements have spent in the queue.
+     */
+    long getTotalLatency() {
+        return totalLatency;
+    }
+
+    /**
+     * Return the maximum nanoseconds a drained element has spent in the queue.
+     */
+    long getMaxLatency() {
+        return maxLatency;
+    }
+}
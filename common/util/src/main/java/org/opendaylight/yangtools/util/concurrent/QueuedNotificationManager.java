@@ -222,7 +222,7 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
      * equals implementation that just blindly casts the other Object to compare instead of checking
      * for instanceof.
      */
-    private static class ListenerKey<L> {
+    static class ListenerKey<L> {
 
         private final L listener;
 
@@ -8,6 +8,7 @@
 
 package org.opendaylight.yangtools.util.concurrent;
 
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -150,4 +151,53 @@ public final class SpecialExecutors {
         return new FastThreadPoolExecutor( 1, maximumQueueSize, Long.MAX_VALUE, TimeUnit.SECONDS,
                 threadPrefix );
     }
+
+    /**
+     * Creates an ExecutorService which does not own any threads, but runs its tasks on a shared carrier
+     * executor, with at most the specified number of them running concurrently. Tasks which cannot run
+     * immediately are queued in a bounded queue. If the maximum queue capacity is reached, subsequent
+     * tasks will be rejected.
+     *
+     * <p>This allows a large number of executors, for example one per slow notification listener, to be
+     * backed by a small, fixed number of threads, such as a single {@link #newBoundedFastThreadPool }.
+     * Each executor still guarantees its concurrency limit, so a slow consumer cannot occupy more than
+     * its share of the carrier threads.
+     *
+     * <p>The returned executor can be wrapped in an {@link AsyncNotifyingListeningExecutorService} or
+     * a {@link DeadlockDetectingListeningExecutorService} like any other ExecutorService.
+     *
+     * @param carrier
+     *            the executor on which tasks are run. It should not reject tasks while the returned
+     *            executor is in use.
+     * @param maximumConcurrency
+     *            the maximum number of tasks allowed to run concurrently.
+     * @param maximumQueueSize
+     *            the capacity of the queue.
+     * @param name
+     *            the name of the executor, used for diagnostics.
+     * @return a new ExecutorService with the specified configuration.
+     */
+    public static ExecutorService newBoundedConcurrencyExecutor( Executor carrier,
+            int maximumConcurrency, int maximumQueueSize, String name ) {
+        return new BoundedConcurrencyExecutor( carrier, maximumConcurrency, maximumQueueSize, name );
+    }
+
+    /**
+     * Creates an ExecutorService similar to {@link #newBoundedConcurrencyExecutor } with a concurrency
+     * of one. Tasks are guaranteed to execute sequentially, and no more than one task will be active at
+     * any given time, but no thread is dedicated to the executor. If the maximum queue capacity is
+     * reached, subsequent tasks will be rejected.
+     *
+     * @param carrier
+     *            the executor on which tasks are run.
+     * @param maximumQueueSize
+     *            the capacity of the queue.
+     * @param name
+     *            the name of the executor, used for diagnostics.
+     * @return a new ExecutorService with the specified configuration.
+     */
+    public static ExecutorService newBoundedSerialExecutor( Executor carrier,
+            int maximumQueueSize, String name ) {
+        return new BoundedConcurrencyExecutor( carrier, 1, maximumQueueSize, name );
+    }
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import org.junit.Test;
+
+public class HashTrieMapTest {
+    /**
+     * Key with a configurable hash code, so we can exercise collisions.
+     */
+    private static final class Key {
+        private final int hashCode;
+        private final int id;
+
+        Key(final int hashCode, final int id) {
+            this.hashCode = hashCode;
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof Key && id == ((Key) obj).id;
+        }
+
+        @Override
+        public String toString() {
+            return "Key" + id + "@" + hashCode;
+        }
+    }
+
+    @Test
+    public void testRandomOperations() {
+        final Random random = new Random(42);
+        final Map<Key, Integer> expected = new HashMap<>();
+        final MutableHashTrieMap<Key, Integer> actual = MutableHashTrieMap.create();
+
+        for (int i = 0; i < 100000; ++i) {
+            // Narrow hash range to force collisions and deep paths
+            final int id = random.nextInt(5000);
+            final Key key = new Key(id % 3 == 0 ? id / 3 : id * 0x9E3779B9, id);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), actual.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), actual.put(key, i));
+            }
+            assertEquals(expected.size(), actual.size());
+
+            if (i % 10000 == 0) {
+                assertEquals(expected, actual);
+                final ImmutableHashTrieMap<Key, Integer> frozen = actual.toUnmodifiableMap();
+                assertEquals(expected, frozen);
+                assertEquals(expected.hashCode(), frozen.hashCode());
+            }
+        }
+
+        assertEquals(expected, actual);
+        assertEquals(expected, actual.toUnmodifiableMap());
+    }
+
+    @Test
+    public void testCollisions() {
+        final MutableHashTrieMap<Key, String> map = MutableHashTrieMap.create();
+        for (int i = 0; i < 10; ++i) {
+            map.put(new Key(7, i), String.valueOf(i));
+        }
+        map.put(new Key(8, 100), "100");
+        assertEquals(11, map.size());
+
+        for (int i = 0; i < 10; ++i) {
+            assertEquals(String.valueOf(i), map.get(new Key(7, i)));
+        }
+        assertEquals("100", map.get(new Key(8, 100)));
+        assertNull(map.get(new Key(7, 100)));
+
+        for (int i = 0; i < 10; ++i) {
+            assertEquals(String.valueOf(i), map.remove(new Key(7, i)));
+        }
+        assertEquals(ImmutableMap.of(new Key(8, 100), "100"), map);
+    }
+
+    @Test
+    public void testPersistence() {
+        final MutableHashTrieMap<Integer, Integer> mutable = MutableHashTrieMap.create();
+        for (int i = 0; i < 1000; ++i) {
+            mutable.put(i, i);
+        }
+
+        final ImmutableHashTrieMap<Integer, Integer> first = mutable.toUnmodifiableMap();
+        mutable.put(0, -1);
+        mutable.remove(1);
+        mutable.put(1000, 1000);
+
+        // Modifications after freezing must not be visible
+        assertEquals(1000, first.size());
+        assertEquals(Integer.valueOf(0), first.get(0));
+        assertEquals(Integer.valueOf(1), first.get(1));
+        assertFalse(first.containsKey(1000));
+
+        final MutableHashTrieMap<Integer, Integer> derived = first.toModifiableMap();
+        derived.put(0, -2);
+        assertEquals(Integer.valueOf(0), first.get(0));
+        assertEquals(Integer.valueOf(-1), mutable.get(0));
+        assertEquals(Integer.valueOf(-2), derived.get(0));
+
+        final ImmutableHashTrieMap<Integer, Integer> second = derived.toUnmodifiableMap();
+        assertFalse(first.equals(second));
+        derived.put(0, 0);
+        assertEquals(first, derived.toUnmodifiableMap());
+    }
+
+    @Test
+    public void testCopyOf() {
+        final Map<String, String> input = ImmutableMap.of("a", "b", "c", "d");
+        final ImmutableHashTrieMap<String, String> map = ImmutableHashTrieMap.copyOf(input);
+        assertEquals(input, map);
+        assertEquals(map, input);
+        assertSame(map, ImmutableHashTrieMap.copyOf(map));
+        assertTrue(ImmutableHashTrieMap.of().isEmpty());
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        final MutableHashTrieMap<Integer, Integer> map = MutableHashTrieMap.create();
+        for (int i = 0; i < 100; ++i) {
+            map.put(i, i);
+        }
+
+        final Iterator<Entry<Integer, Integer>> it = map.entrySet().iterator();
+        int seen = 0;
+        while (it.hasNext()) {
+            final Entry<Integer, Integer> e = it.next();
+            seen++;
+            if (e.getKey() % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertEquals(100, seen);
+        assertEquals(50, map.size());
+        for (int i = 0; i < 100; ++i) {
+            assertEquals(i % 2 != 0, map.containsKey(i));
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutablePut() {
+        ImmutableHashTrieMap.<String, String>of().put("a", "b");
+    }
+}
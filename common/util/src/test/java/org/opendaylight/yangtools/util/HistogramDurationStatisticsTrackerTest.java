@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class HistogramDurationStatisticsTrackerTest {
+
+    @Test
+    public void testBasicStatistics() {
+        final HistogramDurationStatisticsTracker tracker = DurationStatisticsTracker.createHistogram();
+
+        tracker.addDuration(10000);
+        tracker.addDuration(30000);
+        tracker.addDuration(5000);
+        assertEquals("getTotalDurations", 3, tracker.getTotalDurations());
+        assertEquals("getAverageDuration", 15000.0, tracker.getAverageDuration(), 0.1);
+        assertEquals("getLongestDuration", 30000, tracker.getLongestDuration());
+        assertEquals("getShortestDuration", 5000, tracker.getShortestDuration());
+        assertTrue(tracker.getTimeOfLongestDuration() > 0);
+        assertTrue(tracker.getDisplayableLongestDuration().startsWith("30.0"));
+
+        tracker.reset();
+        assertEquals("getTotalDurations", 0, tracker.getTotalDurations());
+        assertEquals("getAverageDuration", 0.0, tracker.getAverageDuration(), 0.1);
+        assertEquals("getLongestDuration", 0, tracker.getLongestDuration());
+        assertEquals("getShortestDuration", 0, tracker.getShortestDuration());
+        assertEquals(0, tracker.getPercentileDuration(99));
+    }
+
+    @Test
+    public void testPercentiles() {
+        final HistogramDurationStatisticsTracker tracker = DurationStatisticsTracker.createHistogram();
+        for (int i = 1; i <= 100000; ++i) {
+            tracker.addDuration(i * 1000L);
+        }
+
+        assertWithinPrecision(50000000, tracker.getPercentileDuration(50));
+        assertWithinPrecision(99000000, tracker.getPercentileDuration(99));
+        assertWithinPrecision(99900000, tracker.getPercentileDuration(99.9));
+        assertWithinPrecision(100000000, tracker.getPercentileDuration(100));
+        assertWithinPrecision(1000, tracker.getPercentileDuration(0));
+        assertTrue(tracker.getDisplayablePercentileDuration(99).startsWith("99."));
+
+        final DurationHistogram histogram = tracker.snapshot();
+        assertEquals(100000, histogram.getTotalCount());
+        assertEquals(50000500.0, histogram.getMean(), 0.1);
+        assertWithinPrecision(1000, histogram.getMinValue());
+        assertWithinPrecision(100000000, histogram.getMaxValue());
+    }
+
+    @Test
+    public void testSmallDurationsAreExact() {
+        final HistogramDurationStatisticsTracker tracker = DurationStatisticsTracker.createHistogram();
+        for (int i = 0; i < 100; ++i) {
+            tracker.addDuration(i);
+        }
+
+        assertEquals(49, tracker.getPercentileDuration(50));
+        assertEquals(98, tracker.getPercentileDuration(99));
+        assertEquals(99, tracker.getPercentileDuration(100));
+    }
+
+    @Test
+    public void testBucketPrecision() {
+        final Random random = new Random(0);
+        for (int i = 0; i < 100000; ++i) {
+            final long value = random.nextLong() & DurationHistogram.MAX_TRACKABLE_VALUE >>> random.nextInt(40);
+            final int index = DurationHistogram.bucketIndex(value);
+            final long lowest = DurationHistogram.lowestEquivalentValue(index);
+            final long highest = DurationHistogram.highestEquivalentValue(index);
+
+            assertTrue(index < DurationHistogram.BUCKET_COUNT);
+            assertTrue(value + " not in [" + lowest + ", " + highest + "]", lowest <= value && value <= highest);
+            assertTrue(highest - lowest <= lowest / 64);
+        }
+
+        assertEquals(DurationHistogram.BUCKET_COUNT - 1, DurationHistogram.bucketIndex(Long.MAX_VALUE));
+        assertEquals(0, DurationHistogram.bucketIndex(-1));
+    }
+
+    @Test
+    public void testSnapshotAndReset() {
+        final HistogramDurationStatisticsTracker tracker = DurationStatisticsTracker.createHistogram();
+        tracker.addDuration(1000);
+        tracker.addDuration(2000);
+
+        final DurationHistogram first = tracker.snapshotAndReset();
+        assertEquals(2, first.getTotalCount());
+        assertEquals(0, tracker.getTotalDurations());
+        assertSame(DurationHistogram.empty(), tracker.snapshot());
+
+        tracker.addDuration(3000);
+        final DurationHistogram second = tracker.snapshotAndReset();
+        assertEquals(1, second.getTotalCount());
+        assertWithinPrecision(3000, second.getMinValue());
+        assertEquals(2, first.getTotalCount());
+    }
+
+    @Test
+    public void testMerge() {
+        final HistogramDurationStatisticsTracker first = DurationStatisticsTracker.createHistogram();
+        final HistogramDurationStatisticsTracker second = DurationStatisticsTracker.createHistogram();
+        for (int i = 1; i <= 50; ++i) {
+            first.addDuration(i * 1000L);
+            second.addDuration((i + 50) * 1000L);
+        }
+
+        final DurationHistogram merged = first.snapshot().merge(second.snapshot());
+        assertEquals(100, merged.getTotalCount());
+        assertEquals(50500.0, merged.getMean(), 0.1);
+        assertWithinPrecision(50000, merged.getValueAtPercentile(50));
+        assertWithinPrecision(100000, merged.getMaxValue());
+        assertSame(merged, merged.merge(DurationHistogram.empty()));
+
+        first.merge(second.snapshot());
+        assertEquals(100, first.getTotalDurations());
+        assertEquals(50500.0, first.getAverageDuration(), 0.1);
+        assertWithinPrecision(50000, first.getPercentileDuration(50));
+        assertWithinPrecision(100000, first.getLongestDuration());
+        assertEquals(1000, first.getShortestDuration());
+    }
+
+    @Test
+    public void testConcurrentWriters() throws InterruptedException {
+        final HistogramDurationStatisticsTracker tracker = DurationStatisticsTracker.createHistogram();
+        final int numThreads = 4;
+        final int numDurations = 100000;
+        final CountDownLatch done = new CountDownLatch(numThreads);
+
+        for (int t = 0; t < numThreads; ++t) {
+            new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 1; i <= numDurations; ++i) {
+                        tracker.addDuration(i);
+                    }
+                    done.countDown();
+                }
+            }.start();
+        }
+
+        assertTrue(done.await(15, TimeUnit.SECONDS));
+        assertEquals(numThreads * numDurations, tracker.getTotalDurations());
+        assertEquals(numDurations, tracker.getLongestDuration());
+        assertEquals(1, tracker.getShortestDuration());
+        assertEquals((numDurations + 1) / 2.0, tracker.getAverageDuration(), 0.1);
+    }
+
+    @Test
+    public void testSnapshotAndResetWithConcurrentWriters() throws InterruptedException {
+        final HistogramDurationStatisticsTracker tracker = DurationStatisticsTracker.createHistogram();
+        final int numThreads = 4;
+        final int numDurations = 100000;
+        final CountDownLatch done = new CountDownLatch(numThreads);
+
+        for (int t = 0; t < numThreads; ++t) {
+            new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 1; i <= numDurations; ++i) {
+                        tracker.addDuration(i);
+                    }
+                    done.countDown();
+                }
+            }.start();
+        }
+
+        // Individual snapshots may attribute a duration's value to the neighbouring snapshot, but nothing is lost
+        long count = 0;
+        long sum = 0;
+        while (!done.await(1, TimeUnit.MILLISECONDS)) {
+            final DurationHistogram histogram = tracker.snapshotAndReset();
+            count += histogram.getTotalCount();
+            sum += histogram.getSum();
+        }
+        final DurationHistogram last = tracker.snapshotAndReset();
+        count += last.getTotalCount();
+        sum += last.getSum();
+
+        assertEquals(numThreads * numDurations, count);
+        assertEquals(numThreads * (numDurations * (numDurations + 1L) / 2), sum);
+    }
+
+    private static void assertWithinPrecision(final long expected, final long actual) {
+        assertTrue("Expected " + expected + ", actual " + actual,
+            Math.abs(actual - expected) <= Math.max(1, expected / 64));
+    }
+}
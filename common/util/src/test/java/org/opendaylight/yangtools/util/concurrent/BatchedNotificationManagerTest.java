@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+import org.opendaylight.yangtools.util.concurrent.BatchedNotificationManager.BatchInvoker;
+import org.opendaylight.yangtools.util.concurrent.QueuedNotificationManagerTest.TestListener;
+import org.opendaylight.yangtools.util.concurrent.QueuedNotificationManagerTest.TestNotifier;
+
+public class BatchedNotificationManagerTest {
+
+    private static final class BatchListener {
+        final List<Integer> received = Collections.synchronizedList(new ArrayList<Integer>());
+        final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<Integer>());
+        final CountDownLatch latch;
+
+        BatchListener(final int expCount) {
+            latch = new CountDownLatch(expCount);
+        }
+
+        void onNotifications(final List<Integer> notifications) {
+            batchSizes.add(notifications.size());
+            received.addAll(notifications);
+            for (int i = 0; i < notifications.size(); ++i) {
+                latch.countDown();
+            }
+        }
+
+        void verifyNotifications(final List<Integer> expected) {
+            assertTrue("Received " + received.size() + " notifications, expected " + expected.size(),
+                Uninterruptibles.awaitUninterruptibly(latch, 10, TimeUnit.SECONDS));
+            assertEquals(expected, received);
+        }
+    }
+
+    private static final BatchInvoker<BatchListener, Integer> BATCH_INVOKER =
+            new BatchInvoker<BatchListener, Integer>() {
+                @Override
+                public void invokeListener(final BatchListener listener, final List<Integer> notifications) {
+                    listener.onNotifications(notifications);
+                }
+            };
+
+    private ExecutorService queueExecutor;
+
+    @After
+    public void tearDown() {
+        if (queueExecutor != null) {
+            queueExecutor.shutdownNow();
+        }
+    }
+
+    private static List<Integer> range(final int from, final int to) {
+        final List<Integer> ret = new ArrayList<>(to - from);
+        for (int i = from; i < to; ++i) {
+            ret.add(i);
+        }
+        return ret;
+    }
+
+    @Test(timeout = 10000)
+    public void testNotificationsWithSingleListener() {
+        queueExecutor = Executors.newFixedThreadPool(2);
+        final NotificationManager<TestListener<Integer>, Integer> manager =
+                new BatchedNotificationManager<>(queueExecutor, new TestNotifier<Integer>(), 10, "TestMgr");
+
+        final int nNotifications = 100;
+        final TestListener<Integer> listener = new TestListener<>(nNotifications, 1);
+        listener.sleepTime = 20;
+
+        manager.submitNotifications(listener, Arrays.asList(1, 2));
+        manager.submitNotification(listener, 3);
+        manager.submitNotifications(listener, Arrays.asList(4, 5));
+        manager.submitNotification(listener, 6);
+
+        manager.submitNotifications(null, Collections.<Integer>emptyList());
+        manager.submitNotifications(listener, null);
+        manager.submitNotification(listener, null);
+
+        Uninterruptibles.sleepUninterruptibly(100, TimeUnit.MILLISECONDS);
+        listener.sleepTime = 0;
+
+        // Exceeds the queue capacity, hence exercises backpressure
+        final List<Integer> expNotifications = range(1, nNotifications + 1);
+        for (Integer n : expNotifications.subList(6, nNotifications)) {
+            manager.submitNotification(listener, n);
+        }
+
+        listener.verifyNotifications(expNotifications);
+    }
+
+    @Test(timeout = 20000)
+    public void testBatchesWithMultipleListeners() throws InterruptedException {
+        final int nListeners = 8;
+        final int nThreads = 4;
+        final int nNotifications = 20000;
+        queueExecutor = Executors.newFixedThreadPool(nListeners);
+        final BatchedNotificationManager<BatchListener, Integer> manager =
+                new BatchedNotificationManager<>(queueExecutor, BATCH_INVOKER, 64, 16, "TestMgr");
+
+        final List<BatchListener> listeners = new ArrayList<>();
+        for (int i = 0; i < nListeners; ++i) {
+            listeners.add(new BatchListener(nNotifications * nThreads));
+        }
+
+        // Each thread submits an ascending sequence, distinguishable by its remainder
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < nThreads; ++t) {
+            final int thread = t;
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < nNotifications; ++i) {
+                        final Integer n = i * nThreads + thread;
+                        for (BatchListener listener : listeners) {
+                            if (i % 2 == 0) {
+                                manager.submitNotification(listener, n);
+                            } else {
+                                manager.submitNotifications(listener, ImmutableList.of(n));
+                            }
+                        }
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (BatchListener listener : listeners) {
+            assertTrue(Uninterruptibles.awaitUninterruptibly(listener.latch, 10, TimeUnit.SECONDS));
+            assertEquals(nNotifications * nThreads, listener.received.size());
+
+            // Per-thread ordering is retained
+            final int[] last = new int[nThreads];
+            Arrays.fill(last, -1);
+            for (Integer n : listener.received) {
+                assertTrue(n > last[n % nThreads]);
+                last[n % nThreads] = n;
+            }
+            for (Integer size : listener.batchSizes) {
+                assertTrue(size > 0 && size <= 16);
+            }
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testBatchDelivery() {
+        queueExecutor = Executors.newSingleThreadExecutor();
+        final BatchedNotificationManager<BatchListener, Integer> manager =
+                new BatchedNotificationManager<>(queueExecutor, BATCH_INVOKER, 1024, 100, "TestMgr");
+
+        // Block the executor, so the notifications accumulate
+        final CountDownLatch blocker = new CountDownLatch(1);
+        queueExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                Uninterruptibles.awaitUninterruptibly(blocker);
+            }
+        });
+
+        final BatchListener listener = new BatchListener(1000);
+        manager.submitNotifications(listener, range(0, 1000));
+        blocker.countDown();
+
+        listener.verifyNotifications(range(0, 1000));
+        assertEquals(Collections.nCopies(10, 100), listener.batchSizes);
+    }
+
+    @Test(timeout = 10000)
+    public void testBackpressureRejection() {
+        queueExecutor = Executors.newSingleThreadExecutor();
+        final BatchedNotificationManager<TestListener<Integer>, Integer> manager =
+                new BatchedNotificationManager<>(queueExecutor, new BatchInvoker<TestListener<Integer>, Integer>() {
+                    @Override
+                    public void invokeListener(final TestListener<Integer> listener,
+                            final List<Integer> notifications) {
+                        Uninterruptibles.sleepUninterruptibly(1, TimeUnit.SECONDS);
+                    }
+                }, 4, 1, 100, TimeUnit.MILLISECONDS, "TestMgr");
+
+        final TestListener<Integer> listener = new TestListener<>(0, 1);
+        try {
+            manager.submitNotifications(listener, range(0, 100));
+            fail("Submission should have been rejected");
+        } catch (RejectedExecutionException e) {
+            // Expected
+        }
+
+        final List<ListenerNotificationQueueStats> stats = manager.getListenerNotificationQueueStats();
+        assertEquals(1, stats.size());
+        assertEquals(4, stats.get(0).getCurrentQueueSize());
+    }
+
+    @Test(timeout = 10000)
+    public void testNotificationsWithListenerRuntimeEx() {
+        queueExecutor = Executors.newFixedThreadPool(1);
+        final NotificationManager<TestListener<Integer>, Integer> manager =
+                new BatchedNotificationManager<>(queueExecutor, new TestNotifier<Integer>(), 10, "TestMgr");
+
+        final TestListener<Integer> listener = new TestListener<>(2, 1);
+        listener.runtimeEx = new RuntimeException("mock");
+
+        manager.submitNotifications(listener, Arrays.asList(1, 2));
+        listener.verifyNotifications(Arrays.asList(1, 2));
+    }
+
+    @Test(timeout = 10000)
+    public void testNotificationsWithListenerJVMError() {
+        final CountDownLatch errorCaughtLatch = new CountDownLatch(1);
+        queueExecutor = Executors.newFixedThreadPool(1);
+        final ExecutorService executor = queueExecutor;
+        final NotificationManager<TestListener<Integer>, Integer> manager = new BatchedNotificationManager<>(
+            new java.util.concurrent.Executor() {
+                @Override
+                public void execute(final Runnable command) {
+                    executor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                command.run();
+                            } catch (Error e) {
+                                errorCaughtLatch.countDown();
+                            }
+                        }
+                    });
+                }
+            }, new TestNotifier<Integer>(), 10, "TestMgr");
+
+        final TestListener<Integer> listener = new TestListener<>(2, 1);
+        listener.jvmError = new Error("mock");
+
+        manager.submitNotification(listener, 1);
+        assertTrue("JVM Error caught", Uninterruptibles.awaitUninterruptibly(errorCaughtLatch, 5, TimeUnit.SECONDS));
+
+        manager.submitNotification(listener, 2);
+        listener.verifyNotifications(Lists.newArrayList(1, 2));
+    }
+
+    @Test(timeout = 10000)
+    public void testStats() {
+        queueExecutor = Executors.newSingleThreadExecutor();
+        final BatchedNotificationManager<BatchListener, Integer> manager =
+                new BatchedNotificationManager<>(queueExecutor, new BatchInvoker<BatchListener, Integer>() {
+                    @Override
+                    public void invokeListener(final BatchListener listener, final List<Integer> notifications) {
+                        listener.onNotifications(notifications);
+                        if (listener.latch.getCount() == 0) {
+                            // Keep the queue around, so its statistics can be observed
+                            Uninterruptibles.sleepUninterruptibly(500, TimeUnit.MILLISECONDS);
+                        }
+                    }
+                }, 16, 4, "TestMgr");
+
+        final BatchListener listener = new BatchListener(10);
+        manager.submitNotifications(listener, range(0, 10));
+        listener.verifyNotifications(range(0, 10));
+
+        final List<ListenerNotificationQueueStats> stats = manager.getListenerNotificationQueueStats();
+        assertEquals(1, stats.size());
+        assertEquals(10, stats.get(0).getDeliveredNotifications());
+        assertEquals(0, stats.get(0).getCurrentQueueSize());
+        assertTrue(stats.get(0).getMaxQueueLatencyNanos() >= stats.get(0).getAverageQueueLatencyNanos());
+        assertEquals(16, manager.getMaxQueueCapacity());
+        assertEquals(4, manager.getMaxBatchSize());
+    }
+
+    @Test(timeout = 10000)
+    public void testStatsSurviveIdleListener() {
+        queueExecutor = Executors.newSingleThreadExecutor();
+        final BatchedNotificationManager<BatchListener, Integer> manager =
+                new BatchedNotificationManager<>(queueExecutor, BATCH_INVOKER, 16, 4, "TestMgr");
+
+        final BatchListener listener = new BatchListener(15);
+        manager.submitNotifications(listener, range(0, 10));
+        while (listener.received.size() < 10) {
+            Uninterruptibles.sleepUninterruptibly(10, TimeUnit.MILLISECONDS);
+        }
+
+        // Give the queue time to retire
+        Uninterruptibles.sleepUninterruptibly(200, TimeUnit.MILLISECONDS);
+        List<ListenerNotificationQueueStats> stats = manager.getListenerNotificationQueueStats();
+        assertEquals(1, stats.size());
+        assertEquals(10, stats.get(0).getDeliveredNotifications());
+        assertEquals(0, stats.get(0).getCurrentQueueSize());
+
+        manager.submitNotifications(listener, range(10, 15));
+        listener.verifyNotifications(range(0, 15));
+
+        stats = manager.getListenerNotificationQueueStats();
+        assertEquals(1, stats.size());
+        assertEquals(15, stats.get(0).getDeliveredNotifications());
+    }
+
+    private static void retire(final BatchedNotificationManager<BatchListener, Integer> manager) {
+        final BatchListener listener = new BatchListener(10);
+        manager.submitNotifications(listener, range(0, 10));
+        listener.verifyNotifications(range(0, 10));
+    }
+
+    @Test(timeout = 10000)
+    public void testRetiredListenerCanBeCollected() {
+        queueExecutor = Executors.newSingleThreadExecutor();
+        final BatchedNotificationManager<BatchListener, Integer> manager =
+                new BatchedNotificationManager<>(queueExecutor, BATCH_INVOKER, 16, 4, "TestMgr");
+
+        retire(manager);
+        while (manager.getListenerNotificationQueueStats().isEmpty()) {
+            Uninterruptibles.sleepUninterruptibly(10, TimeUnit.MILLISECONDS);
+        }
+
+        // The listener is unreachable, hence its statistics must not keep it around
+        while (!manager.getListenerNotificationQueueStats().isEmpty()) {
+            System.gc();
+            Uninterruptibles.sleepUninterruptibly(10, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.base.Supplier;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.util.concurrent.DeadlockDetectingListeningExecutorServiceTest.TestDeadlockException;
+
+public class BoundedConcurrencyExecutorTest {
+
+    private ExecutorService carrier;
+
+    @Before
+    public void setUp() {
+        carrier = SpecialExecutors.newBoundedFastThreadPool(4, 100000, "TestCarrier");
+    }
+
+    @After
+    public void tearDown() {
+        carrier.shutdownNow();
+    }
+
+    @Test
+    public void testManyExecutorsOnFewThreads() throws InterruptedException {
+        final int numExecutors = 1000;
+        final int numTasks = 20;
+        final int concurrency = 2;
+        final CountDownLatch latch = new CountDownLatch(numExecutors * numTasks);
+        final AtomicInteger violations = new AtomicInteger();
+
+        final List<ExecutorService> executors = new ArrayList<>(numExecutors);
+        for (int i = 0; i < numExecutors; i++) {
+            final ExecutorService executor = SpecialExecutors.newBoundedConcurrencyExecutor(carrier, concurrency,
+                numTasks, "Test-" + i);
+            final AtomicInteger running = new AtomicInteger();
+            for (int j = 0; j < numTasks; j++) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (running.incrementAndGet() > concurrency) {
+                            violations.incrementAndGet();
+                        }
+                        Thread.yield();
+                        running.decrementAndGet();
+                        latch.countDown();
+                    }
+                });
+            }
+            executors.add(executor);
+        }
+
+        assertTrue("Tasks did not complete", latch.await(15, TimeUnit.SECONDS));
+        assertEquals(0, violations.get());
+        for (ExecutorService executor : executors) {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            assertEquals(numTasks, ((BoundedConcurrencyExecutor) executor).getCompletedTaskCount());
+        }
+    }
+
+    @Test
+    public void testSerialExecution() throws InterruptedException {
+        final int numTasks = 10000;
+        final ExecutorService executor = SpecialExecutors.newBoundedSerialExecutor(carrier, numTasks, "Serial");
+        final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>(numTasks));
+        final CountDownLatch latch = new CountDownLatch(numTasks);
+
+        for (int i = 0; i < numTasks; i++) {
+            final int task = i;
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    order.add(task);
+                    latch.countDown();
+                }
+            });
+        }
+
+        assertTrue("Tasks did not complete", latch.await(15, TimeUnit.SECONDS));
+        for (int i = 0; i < numTasks; i++) {
+            assertEquals(Integer.valueOf(i), order.get(i));
+        }
+    }
+
+    @Test
+    public void testQueueDepthAndRejection() throws InterruptedException {
+        final BoundedConcurrencyExecutor executor = (BoundedConcurrencyExecutor)
+                SpecialExecutors.newBoundedConcurrencyExecutor(carrier, 1, 2, "Rejecting");
+        final CountDownLatch blockLatch = new CountDownLatch(1);
+        final CountDownLatch startedLatch = new CountDownLatch(1);
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                startedLatch.countDown();
+                try {
+                    blockLatch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        assertTrue(startedLatch.await(5, TimeUnit.SECONDS));
+
+        executor.execute(new NoopTask());
+        executor.execute(new NoopTask());
+        assertEquals(1, executor.getActiveCount());
+        assertEquals(2, executor.getQueueSize());
+        assertEquals(2, executor.getLargestQueueSize());
+
+        try {
+            executor.execute(new NoopTask());
+            fail("Expected RejectedExecutionException");
+        } catch (RejectedExecutionException e) {
+            assertEquals(1, executor.getRejectedTaskCount());
+        }
+
+        blockLatch.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(3, executor.getCompletedTaskCount());
+        assertEquals(0, executor.getActiveCount());
+    }
+
+    @Test
+    public void testShutdownNow() throws InterruptedException {
+        final ExecutorService executor = SpecialExecutors.newBoundedSerialExecutor(carrier, 10, "ShutdownNow");
+        final CountDownLatch blockLatch = new CountDownLatch(1);
+        final CountDownLatch startedLatch = new CountDownLatch(1);
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                startedLatch.countDown();
+                try {
+                    blockLatch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        assertTrue(startedLatch.await(5, TimeUnit.SECONDS));
+        executor.execute(new NoopTask());
+
+        assertEquals(1, executor.shutdownNow().size());
+        assertTrue(executor.isShutdown());
+        assertFalse(executor.isTerminated());
+
+        try {
+            executor.execute(new NoopTask());
+            fail("Expected RejectedExecutionException");
+        } catch (RejectedExecutionException e) {
+            // Expected
+        }
+
+        blockLatch.countDown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(executor.isTerminated());
+    }
+
+    @Test
+    public void testFailingTask() throws InterruptedException {
+        final ExecutorService executor = SpecialExecutors.newBoundedSerialExecutor(carrier, 10, "Failing");
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                throw new IllegalStateException("mock");
+            }
+        });
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        });
+
+        assertTrue("Task after failure did not run", latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testTaskThrowingError() throws InterruptedException {
+        final BoundedConcurrencyExecutor executor = (BoundedConcurrencyExecutor)
+                SpecialExecutors.newBoundedSerialExecutor(carrier, 10, "Error");
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                throw new AssertionError("mock");
+            }
+        });
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        });
+
+        assertTrue("Task after error did not run", latch.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(0, executor.getActiveCount());
+    }
+
+    @Test
+    public void testDeadlockDetection() throws Exception {
+        final DeadlockDetectingListeningExecutorService executor = new DeadlockDetectingListeningExecutorService(
+            SpecialExecutors.newBoundedSerialExecutor(carrier, 10, "Deadlock"), new Supplier<Exception>() {
+                @Override
+                public Exception get() {
+                    return new TestDeadlockException();
+                }
+            });
+
+        assertEquals("result", executor.submit(new Callable<String>() {
+            @Override
+            public String call() {
+                return "result";
+            }
+        }).get(5, TimeUnit.SECONDS));
+
+        final ListenableFuture<Throwable> future = executor.submit(new Callable<Throwable>() {
+            @Override
+            public Throwable call() throws Exception {
+                try {
+                    executor.submit(new NoopTask()).get();
+                    return null;
+                } catch (ExecutionException e) {
+                    return e.getCause();
+                }
+            }
+        });
+
+        assertTrue(future.get(5, TimeUnit.SECONDS) instanceof TestDeadlockException);
+        executor.shutdown();
+    }
+
+    private static final class NoopTask implements Runnable {
+        @Override
+        public void run() {
+            // No-op
+        }
+    }
+}
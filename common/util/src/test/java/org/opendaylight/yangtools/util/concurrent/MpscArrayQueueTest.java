@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class MpscArrayQueueTest {
+
+    @Test
+    public void testCapacity() {
+        assertEquals(1, new MpscArrayQueue<>(1).capacity());
+        assertEquals(2, new MpscArrayQueue<>(2).capacity());
+        assertEquals(4, new MpscArrayQueue<>(3).capacity());
+        assertEquals(1024, new MpscArrayQueue<>(1000).capacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new MpscArrayQueue<>(0);
+    }
+
+    @Test
+    public void testOfferDrain() {
+        final MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(4);
+        assertTrue(queue.isEmpty());
+
+        // Wrap around a few times
+        for (int round = 0; round < 3; ++round) {
+            for (int i = 0; i < 4; ++i) {
+                assertTrue(queue.offer(i));
+            }
+            assertFalse(queue.offer(4));
+            assertEquals(4, queue.size());
+            assertFalse(queue.isEmpty());
+
+            final List<Integer> drained = new ArrayList<>();
+            assertEquals(3, queue.drainTo(drained, 3));
+            assertTrue(queue.offer(4));
+            assertEquals(2, queue.drainTo(drained, 10));
+            assertEquals(Arrays.asList(0, 1, 2, 3, 4), drained);
+            assertTrue(queue.isEmpty());
+            assertEquals(0, queue.drainTo(drained, 10));
+        }
+
+        assertEquals(15, queue.getDelivered());
+        assertTrue(queue.getTotalLatency() >= queue.getMaxLatency());
+    }
+
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        final int nThreads = 4;
+        final int nElements = 100000;
+        final MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(128);
+
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < nThreads; ++t) {
+            final int thread = t;
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < nElements; ++i) {
+                        while (!queue.offer(i * nThreads + thread)) {
+                            Thread.yield();
+                        }
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        final int[] last = new int[nThreads];
+        Arrays.fill(last, -1);
+        final List<Integer> batch = new ArrayList<>();
+        int received = 0;
+        while (received < nThreads * nElements) {
+            if (queue.drainTo(batch, 32) == 0) {
+                Thread.yield();
+                continue;
+            }
+            for (Integer element : batch) {
+                assertTrue(element > last[element % nThreads]);
+                last[element % nThreads] = element;
+            }
+            received += batch.size();
+            batch.clear();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(queue.isEmpty());
+    }
+}
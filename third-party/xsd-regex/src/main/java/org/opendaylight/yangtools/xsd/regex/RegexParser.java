@@ -98,13 +98,13 @@ class RegexParser {
             }
         }
         catch (MissingResourceException mre) {
-            throw new RuntimeException("Installation Problem???  Couldn't load messages: "
-                                       + mre.getMessage());
+            // Xerces message bundle is not shipped with this package, report message keys instead
+            this.resources = null;
         }
     }
 
     final ParseException ex(String key, int loc) {
-        return new ParseException(this.resources.getString(key), loc);
+        return new ParseException(this.resources != null ? this.resources.getString(key) : key, loc);
     }
 
     protected final boolean isSet(int flag) {
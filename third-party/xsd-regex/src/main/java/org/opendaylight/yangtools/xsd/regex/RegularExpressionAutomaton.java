@@ -0,0 +1,444 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opendaylight.yangtools.xsd.regex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import javax.annotation.Nullable;
+
+/**
+ * A deterministic finite automaton equivalent to a {@link RegularExpression} in XML Schema mode. Matching runs in
+ * time linear to the length of the input and does not allocate any objects, hence a single instance can be shared by
+ * any number of threads.
+ *
+ * <p>
+ * Not all expressions can be compiled: expressions using constructs which are not part of XML Schema regular
+ * expressions, or expressions whose automaton would exceed internal size limits (typically because of large counted
+ * repetitions), are rejected by {@link #compile(RegularExpression)}. Users are expected to fall back to
+ * {@link RegularExpression#matches(String)} in that case.
+ */
+public final class RegularExpressionAutomaton {
+    private static final int MAX_NFA_STATES = 16384;
+    private static final int MAX_DFA_STATES = 4096;
+    private static final int MAX_TABLE_SIZE = 1 << 20;
+    private static final int ASCII_LIMIT = 128;
+
+    // Wildcard does not match line terminators, see RegularExpression.isEOLChar()
+    private static final int[] DOT_RANGES = {
+        0, 0x09, 0x0B, 0x0C, 0x0E, 0x2027, 0x202A, Token.UTF16_MAX
+    };
+
+    /*
+     * Input characters are partitioned into classes, which are indistinguishable by the automaton. Each class is a
+     * continuous range of code points, starting at the corresponding element of classBounds.
+     */
+    private final int[] classBounds;
+    private final int[] asciiClasses;
+    private final int classCount;
+
+    // Row-major transition table, indexed by state * classCount + class. Negative value indicates no match.
+    private final int[] transitions;
+    private final boolean[] accepting;
+
+    private RegularExpressionAutomaton(final int[] classBounds, final int[] transitions, final boolean[] accepting) {
+        this.classBounds = classBounds;
+        this.classCount = classBounds.length;
+        this.transitions = transitions;
+        this.accepting = accepting;
+
+        asciiClasses = new int[ASCII_LIMIT];
+        for (int i = 0; i < ASCII_LIMIT; ++i) {
+            asciiClasses[i] = classOf(classBounds, i);
+        }
+    }
+
+    /**
+     * Compile a regular expression into an automaton.
+     *
+     * @param regex Regular expression, which must have been created in XML Schema mode and without any other options
+     * @return An automaton, or null if the expression cannot be converted
+     */
+    @Nullable
+    public static RegularExpressionAutomaton compile(final RegularExpression regex) {
+        if (regex.options != RegularExpression.XMLSCHEMA_MODE) {
+            return null;
+        }
+
+        try {
+            return new Compiler().compile(regex.tokentree);
+        } catch (NotCompilableException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Check whether the entire input matches this automaton.
+     *
+     * @param target Input to match
+     * @return True if the input matches, false otherwise
+     */
+    public boolean matches(final CharSequence target) {
+        final int length = target.length();
+        int state = 0;
+        int offset = 0;
+        while (offset < length) {
+            // Same as RegularExpression, we do not check the low surrogate
+            int ch = target.charAt(offset++);
+            if (REUtil.isHighSurrogate(ch) && offset < length) {
+                ch = REUtil.composeFromSurrogates(ch, target.charAt(offset++));
+            }
+
+            final int cls = ch < ASCII_LIMIT ? asciiClasses[ch] : classOf(classBounds, ch);
+            state = transitions[state * classCount + cls];
+            if (state < 0) {
+                return false;
+            }
+        }
+
+        return accepting[state];
+    }
+
+    private static int classOf(final int[] bounds, final int ch) {
+        final int pos = Arrays.binarySearch(bounds, ch);
+        return pos >= 0 ? pos : -pos - 2;
+    }
+
+    private static final class NotCompilableException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        NotCompilableException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Thompson construction of a non-deterministic automaton, followed by subset construction.
+     */
+    private static final class Compiler {
+        private final Map<Token, int[]> tokenRanges = new IdentityHashMap<>();
+        private final List<int[]> charRanges = new ArrayList<>();
+        private final List<Integer> charTargets = new ArrayList<>();
+        private final List<List<Integer>> epsilons = new ArrayList<>();
+
+        RegularExpressionAutomaton compile(final Token tree) throws NotCompilableException {
+            final int[] fragment = build(tree);
+            final int nfaStart = fragment[0];
+            final int nfaEnd = fragment[1];
+
+            // Partition the input alphabet
+            final TreeSet<Integer> boundSet = new TreeSet<>();
+            boundSet.add(0);
+            for (int[] ranges : charRanges) {
+                if (ranges != null) {
+                    for (int i = 0; i < ranges.length; i += 2) {
+                        boundSet.add(ranges[i]);
+                        if (ranges[i + 1] < Token.UTF16_MAX) {
+                            boundSet.add(ranges[i + 1] + 1);
+                        }
+                    }
+                }
+            }
+            final int[] bounds = new int[boundSet.size()];
+            int idx = 0;
+            for (Integer bound : boundSet) {
+                bounds[idx++] = bound;
+            }
+
+            final int nfaSize = charRanges.size();
+            final Map<int[], BitSet> rangeClasses = new IdentityHashMap<>();
+            final BitSet[] stateClasses = new BitSet[nfaSize];
+            for (int i = 0; i < nfaSize; ++i) {
+                final int[] ranges = charRanges.get(i);
+                if (ranges != null) {
+                    BitSet classes = rangeClasses.get(ranges);
+                    if (classes == null) {
+                        classes = new BitSet(bounds.length);
+                        for (int r = 0; r < ranges.length; r += 2) {
+                            classes.set(classOf(bounds, ranges[r]), classOf(bounds, ranges[r + 1]) + 1);
+                        }
+                        rangeClasses.put(ranges, classes);
+                    }
+                    stateClasses[i] = classes;
+                }
+            }
+
+            // Subset construction
+            final Map<BitSet, Integer> dfaIds = new HashMap<>();
+            final List<BitSet> dfaStates = new ArrayList<>();
+            final List<int[]> rows = new ArrayList<>();
+
+            final BitSet initial = new BitSet(nfaSize);
+            initial.set(nfaStart);
+            closure(initial);
+            dfaIds.put(initial, 0);
+            dfaStates.add(initial);
+
+            for (int d = 0; d < dfaStates.size(); ++d) {
+                final BitSet current = dfaStates.get(d);
+                final BitSet[] targets = new BitSet[bounds.length];
+                for (int s = current.nextSetBit(0); s >= 0; s = current.nextSetBit(s + 1)) {
+                    final BitSet classes = stateClasses[s];
+                    if (classes != null) {
+                        final int target = charTargets.get(s);
+                        for (int c = classes.nextSetBit(0); c >= 0; c = classes.nextSetBit(c + 1)) {
+                            if (targets[c] == null) {
+                                targets[c] = new BitSet(nfaSize);
+                            }
+                            targets[c].set(target);
+                        }
+                    }
+                }
+
+                final int[] row = new int[bounds.length];
+                final Map<BitSet, Integer> rowCache = new HashMap<>();
+                for (int c = 0; c < bounds.length; ++c) {
+                    final BitSet target = targets[c];
+                    if (target == null) {
+                        row[c] = -1;
+                        continue;
+                    }
+
+                    Integer id = rowCache.get(target);
+                    if (id == null) {
+                        final BitSet key = (BitSet) target.clone();
+                        closure(target);
+                        id = dfaIds.get(target);
+                        if (id == null) {
+                            id = dfaStates.size();
+                            if (id >= MAX_DFA_STATES || (long) (id + 1) * bounds.length > MAX_TABLE_SIZE) {
+                                throw new NotCompilableException();
+                            }
+                            dfaIds.put(target, id);
+                            dfaStates.add(target);
+                        }
+                        rowCache.put(key, id);
+                    }
+                    row[c] = id;
+                }
+                rows.add(row);
+            }
+
+            final int[] transitions = new int[rows.size() * bounds.length];
+            final boolean[] accepting = new boolean[rows.size()];
+            for (int d = 0; d < rows.size(); ++d) {
+                System.arraycopy(rows.get(d), 0, transitions, d * bounds.length, bounds.length);
+                accepting[d] = dfaStates.get(d).get(nfaEnd);
+            }
+
+            return new RegularExpressionAutomaton(bounds, transitions, accepting);
+        }
+
+        private void closure(final BitSet states) {
+            final List<Integer> work = new ArrayList<>();
+            for (int s = states.nextSetBit(0); s >= 0; s = states.nextSetBit(s + 1)) {
+                work.add(s);
+            }
+            while (!work.isEmpty()) {
+                final int s = work.remove(work.size() - 1);
+                for (Integer next : epsilons.get(s)) {
+                    if (!states.get(next)) {
+                        states.set(next);
+                        work.add(next);
+                    }
+                }
+            }
+        }
+
+        private int newState() throws NotCompilableException {
+            final int state = charRanges.size();
+            if (state >= MAX_NFA_STATES) {
+                throw new NotCompilableException();
+            }
+            charRanges.add(null);
+            charTargets.add(-1);
+            epsilons.add(new ArrayList<Integer>(2));
+            return state;
+        }
+
+        private void epsilon(final int from, final int to) {
+            epsilons.get(from).add(to);
+        }
+
+        private int[] charFragment(final int[] ranges) throws NotCompilableException {
+            final int start = newState();
+            final int end = newState();
+            charRanges.set(start, ranges);
+            charTargets.set(start, end);
+            return new int[] { start, end };
+        }
+
+        private int[] build(final Token tok) throws NotCompilableException {
+            switch (tok.type) {
+                case Token.CHAR:
+                    return charFragment(new int[] { tok.getChar(), tok.getChar() });
+                case Token.DOT:
+                    return charFragment(DOT_RANGES);
+                case Token.RANGE:
+                case Token.NRANGE:
+                    return charFragment(rangesOf((RangeToken) tok));
+                case Token.EMPTY: {
+                    final int state = newState();
+                    return new int[] { state, state };
+                }
+                case Token.STRING: {
+                    final String str = tok.getString();
+                    final int start = newState();
+                    int end = start;
+                    for (int i = 0; i < str.length(); ) {
+                        final int ch = str.codePointAt(i);
+                        i += Character.charCount(ch);
+                        final int[] f = charFragment(new int[] { ch, ch });
+                        epsilon(end, f[0]);
+                        end = f[1];
+                    }
+                    return new int[] { start, end };
+                }
+                case Token.CONCAT: {
+                    final int start = newState();
+                    int end = start;
+                    for (int i = 0; i < tok.size(); ++i) {
+                        final int[] f = build(tok.getChild(i));
+                        epsilon(end, f[0]);
+                        end = f[1];
+                    }
+                    return new int[] { start, end };
+                }
+                case Token.UNION: {
+                    final int start = newState();
+                    final int end = newState();
+                    for (int i = 0; i < tok.size(); ++i) {
+                        final int[] f = build(tok.getChild(i));
+                        epsilon(start, f[0]);
+                        epsilon(f[1], end);
+                    }
+                    return new int[] { start, end };
+                }
+                case Token.PAREN:
+                    return build(tok.getChild(0));
+                case Token.CLOSURE:
+                case Token.NONGREEDYCLOSURE:
+                    // Greediness does not matter when matching the entire input
+                    return buildClosure(tok.getChild(0), Math.max(tok.getMin(), 0), tok.getMax());
+                default:
+                    // Anchors, back references, look-around and similar are not part of XML Schema expressions
+                    throw new NotCompilableException();
+            }
+        }
+
+        private int[] buildClosure(final Token child, final int min, final int max) throws NotCompilableException {
+            if (min > MAX_NFA_STATES || max > MAX_NFA_STATES) {
+                throw new NotCompilableException();
+            }
+
+            final int start = newState();
+            int current = start;
+            for (int i = 0; i < min; ++i) {
+                final int[] f = build(child);
+                epsilon(current, f[0]);
+                current = f[1];
+            }
+
+            if (max < 0) {
+                final int loop = newState();
+                epsilon(current, loop);
+                final int[] f = build(child);
+                epsilon(loop, f[0]);
+                epsilon(f[1], loop);
+                return new int[] { start, loop };
+            }
+
+            final int end = newState();
+            for (int i = min; i < max; ++i) {
+                epsilon(current, end);
+                final int[] f = build(child);
+                epsilon(current, f[0]);
+                current = f[1];
+            }
+            epsilon(current, end);
+            return new int[] { start, end };
+        }
+
+        /*
+         * Return sorted, non-overlapping ranges of a RangeToken. We do not touch the token's own ranges, as tokens
+         * for character categories are shared.
+         */
+        private int[] rangesOf(final RangeToken tok) {
+            final int[] cached = tokenRanges.get(tok);
+            if (cached != null) {
+                return cached;
+            }
+
+            final int[] source = tok.ranges == null ? new int[0] : tok.ranges;
+            final int pairs = source.length / 2;
+            final long[] sorted = new long[pairs];
+            for (int i = 0; i < pairs; ++i) {
+                sorted[i] = (long) source[2 * i] << 32 | source[2 * i + 1];
+            }
+            Arrays.sort(sorted);
+
+            final List<Integer> merged = new ArrayList<>();
+            for (long range : sorted) {
+                final int lo = (int) (range >>> 32);
+                final int hi = (int) range;
+                final int last = merged.size() - 1;
+                if (last > 0 && lo <= merged.get(last) + 1) {
+                    merged.set(last, Math.max(merged.get(last), hi));
+                } else {
+                    merged.add(lo);
+                    merged.add(hi);
+                }
+            }
+
+            final int[] ranges;
+            if (tok.type == Token.NRANGE) {
+                final List<Integer> complement = new ArrayList<>();
+                int next = 0;
+                for (int i = 0; i < merged.size(); i += 2) {
+                    if (merged.get(i) > next) {
+                        complement.add(next);
+                        complement.add(merged.get(i) - 1);
+                    }
+                    next = merged.get(i + 1) + 1;
+                }
+                if (next <= Token.UTF16_MAX) {
+                    complement.add(next);
+                    complement.add(Token.UTF16_MAX);
+                }
+                ranges = toArray(complement);
+            } else {
+                ranges = toArray(merged);
+            }
+
+            tokenRanges.put(tok, ranges);
+            return ranges;
+        }
+
+        private static int[] toArray(final List<Integer> list) {
+            final int[] ret = new int[list.size()];
+            for (int i = 0; i < ret.length; ++i) {
+                ret[i] = list.get(i);
+            }
+            return ret;
+        }
+    }
+}
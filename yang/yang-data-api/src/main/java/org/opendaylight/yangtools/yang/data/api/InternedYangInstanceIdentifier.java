@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import org.opendaylight.yangtools.util.HashCodeBuilder;
+
+/**
+ * A {@link StackedYangInstanceIdentifier} which is a node in a {@link YangInstanceIdentifierInterner}'s trie. Its
+ * parent is either {@link YangInstanceIdentifier#EMPTY} or another interned identifier, and it knows its depth, so
+ * ancestry checks between interned identifiers reduce to walking parent pointers.
+ */
+final class InternedYangInstanceIdentifier extends StackedYangInstanceIdentifier {
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<InternedYangInstanceIdentifier, ConcurrentMap> CHILDREN_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(InternedYangInstanceIdentifier.class, ConcurrentMap.class,
+                "children");
+    private static final long serialVersionUID = 1L;
+
+    private final int depth;
+
+    // Allocated on first child, so leaves do not pay for it
+    private transient volatile ConcurrentMap<PathArgument, InternedYangInstanceIdentifier> children;
+
+    private InternedYangInstanceIdentifier(final YangInstanceIdentifier parent, final PathArgument pathArgument,
+            final int depth) {
+        super(parent, pathArgument, HashCodeBuilder.nextHashCode(parent.hashCode(), pathArgument));
+        this.depth = depth;
+    }
+
+    static InternedYangInstanceIdentifier getChild(
+            final ConcurrentMap<PathArgument, InternedYangInstanceIdentifier> map, final YangInstanceIdentifier parent,
+            final int parentDepth, final PathArgument arg) {
+        final InternedYangInstanceIdentifier existing = map.get(arg);
+        if (existing != null) {
+            return existing;
+        }
+
+        final InternedYangInstanceIdentifier created = new InternedYangInstanceIdentifier(parent, arg,
+            parentDepth + 1);
+        final InternedYangInstanceIdentifier raced = map.putIfAbsent(arg, created);
+        return raced != null ? raced : created;
+    }
+
+    InternedYangInstanceIdentifier getChild(final PathArgument arg) {
+        ConcurrentMap<PathArgument, InternedYangInstanceIdentifier> map = children;
+        if (map == null) {
+            final ConcurrentMap<PathArgument, InternedYangInstanceIdentifier> created = new ConcurrentHashMap<>(2);
+            map = CHILDREN_UPDATER.compareAndSet(this, null, created) ? created : children;
+        }
+
+        return getChild(map, this, depth, arg);
+    }
+
+    private YangInstanceIdentifier ancestorAt(final int ancestorDepth) {
+        YangInstanceIdentifier ret = this;
+        for (int i = depth; i > ancestorDepth; --i) {
+            ret = ret.getParent();
+        }
+        return ret;
+    }
+
+    /**
+     * Check whether an interned identifier is an ancestor of, or equal to, this identifier. Identifiers interned by the
+     * same interner are compared by reference, those from different interners fall back to {@link #equals(Object)}.
+     */
+    boolean hasAncestor(final InternedYangInstanceIdentifier ancestor) {
+        if (ancestor.depth > depth) {
+            return false;
+        }
+
+        final YangInstanceIdentifier candidate = ancestorAt(ancestor.depth);
+        return candidate == ancestor || candidate.equals(ancestor);
+    }
+
+    @Override
+    public YangInstanceIdentifier getAncestor(final int ancestorDepth) {
+        if (ancestorDepth < 0 || ancestorDepth > depth) {
+            return super.getAncestor(ancestorDepth);
+        }
+        return ancestorAt(ancestorDepth);
+    }
+
+    @Override
+    public Optional<YangInstanceIdentifier> relativeTo(final YangInstanceIdentifier ancestor) {
+        if (!(ancestor instanceof InternedYangInstanceIdentifier)) {
+            return super.relativeTo(ancestor);
+        }
+
+        final InternedYangInstanceIdentifier interned = (InternedYangInstanceIdentifier) ancestor;
+        if (!hasAncestor(interned)) {
+            return Optional.absent();
+        }
+
+        final List<PathArgument> reversed = new ArrayList<>(depth - interned.depth);
+        YangInstanceIdentifier wlk = this;
+        for (int i = depth; i > interned.depth; --i) {
+            reversed.add(wlk.getLastPathArgument());
+            wlk = wlk.getParent();
+        }
+        return Optional.of(YangInstanceIdentifier.create(Lists.reverse(reversed)));
+    }
+
+    private Object writeReplace() {
+        // Interning does not survive serialization, do not expose this class in the stream
+        return new StackedYangInstanceIdentifier(getParent(), getLastPathArgument(), hashCode());
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Map.Entry;
+import org.opendaylight.yangtools.util.SharedSingletonMap;
+import org.opendaylight.yangtools.yang.common.QName;
+
+/**
+ * Layout of {@link YangInstanceIdentifier.NodeIdentifierWithPredicates} keys whose values are all boxed integral
+ * primitives. Identifiers hold the values unboxed, as longs, and refer to an interned layout, which records the key
+ * QNames and the boxed type of each value, so the original values can be reconstructed.
+ */
+final class PrimitiveKeyLayout {
+    private static final Interner<PrimitiveKeyLayout> INTERNER = Interners.newWeakInterner();
+
+    private static final byte BYTE = 0;
+    private static final byte SHORT = 1;
+    private static final byte INTEGER = 2;
+    private static final byte LONG = 3;
+
+    private final QName[] keys;
+    private final byte[] types;
+    private final int hashCode;
+
+    private PrimitiveKeyLayout(final QName[] keys, final byte[] types) {
+        this.keys = keys;
+        this.types = types;
+        this.hashCode = 31 * Arrays.hashCode(keys) + Arrays.hashCode(types);
+    }
+
+    private static byte typeOf(final Object value) {
+        final Class<?> type = value == null ? null : value.getClass();
+        if (Long.class.equals(type)) {
+            return LONG;
+        }
+        if (Integer.class.equals(type)) {
+            return INTEGER;
+        }
+        if (Short.class.equals(type)) {
+            return SHORT;
+        }
+        if (Byte.class.equals(type)) {
+            return BYTE;
+        }
+        return -1;
+    }
+
+    /**
+     * Return the layout of a single key.
+     *
+     * @return Layout, or null if the value is not a boxed integral primitive
+     */
+    static PrimitiveKeyLayout forKey(final QName key, final Object value) {
+        final byte type = typeOf(value);
+        return type < 0 ? null : INTERNER.intern(new PrimitiveKeyLayout(new QName[] { key }, new byte[] { type }));
+    }
+
+    /**
+     * Return the layout of a set of keys, in the iteration order of the map.
+     *
+     * @return Layout, or null if the map is empty or any of its values is not a boxed integral primitive
+     */
+    static PrimitiveKeyLayout forKeys(final Map<QName, Object> keyValues) {
+        if (keyValues.isEmpty()) {
+            return null;
+        }
+
+        final QName[] keys = new QName[keyValues.size()];
+        final byte[] types = new byte[keys.length];
+        int i = 0;
+        for (Entry<QName, Object> entry : keyValues.entrySet()) {
+            final byte type = typeOf(entry.getValue());
+            if (type < 0) {
+                return null;
+            }
+
+            keys[i] = entry.getKey();
+            types[i] = type;
+            i++;
+        }
+
+        return INTERNER.intern(new PrimitiveKeyLayout(keys, types));
+    }
+
+    static long toLong(final Object value) {
+        return ((Number) value).longValue();
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    /**
+     * Extract values in layout order from a map this layout was created from.
+     */
+    long[] toLongs(final Map<QName, Object> keyValues) {
+        final long[] ret = new long[keys.length];
+        for (int i = 0; i < keys.length; ++i) {
+            ret[i] = toLong(keyValues.get(keys[i]));
+        }
+        return ret;
+    }
+
+    private Object toObject(final int offset, final long value) {
+        switch (types[offset]) {
+            case BYTE:
+                return (byte) value;
+            case SHORT:
+                return (short) value;
+            case INTEGER:
+                return (int) value;
+            default:
+                return value;
+        }
+    }
+
+    /**
+     * Return the hash code contribution of a key and its value, which matches that of the boxed value.
+     */
+    int entryHashCode(final int offset, final long value) {
+        final int valueHash = types[offset] == LONG ? (int) (value ^ value >>> 32) : (int) value;
+        return keys[offset].hashCode() + valueHash;
+    }
+
+    Map<QName, Object> toMap(final long value) {
+        return SharedSingletonMap.unorderedOf(keys[0], toObject(0, value));
+    }
+
+    Map<QName, Object> toMap(final long[] values) {
+        final ImmutableMap.Builder<QName, Object> builder = ImmutableMap.builder();
+        for (int i = 0; i < keys.length; ++i) {
+            builder.put(keys[i], toObject(i, values[i]));
+        }
+        return builder.build();
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof PrimitiveKeyLayout)) {
+            return false;
+        }
+        final PrimitiveKeyLayout other = (PrimitiveKeyLayout) obj;
+        return Arrays.equals(keys, other.keys) && Arrays.equals(types, other.types);
+    }
+}
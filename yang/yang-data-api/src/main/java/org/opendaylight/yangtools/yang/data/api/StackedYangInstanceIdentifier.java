@@ -18,7 +18,7 @@ import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
 
-final class StackedYangInstanceIdentifier extends YangInstanceIdentifier implements Cloneable {
+class StackedYangInstanceIdentifier extends YangInstanceIdentifier implements Cloneable {
     private static final long serialVersionUID = 1L;
     private static final Field PARENT_FIELD;
 
@@ -15,8 +15,13 @@ import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.lang.reflect.Array;
+import java.lang.reflect.Field;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
@@ -259,6 +264,9 @@ public abstract class YangInstanceIdentifier implements Path<YangInstanceIdentif
     @Override
     public final boolean contains(final YangInstanceIdentifier other) {
         Preconditions.checkArgument(other != null, "other should not be null");
+        if (this instanceof InternedYangInstanceIdentifier && other instanceof InternedYangInstanceIdentifier) {
+            return ((InternedYangInstanceIdentifier) other).hasAncestor((InternedYangInstanceIdentifier) this);
+        }
 
         final Iterator<?> lit = getPathArguments().iterator();
         final Iterator<?> oit = other.getPathArguments().iterator();
@@ -503,22 +511,92 @@ public abstract class YangInstanceIdentifier implements Path<YangInstanceIdentif
      */
     public static final class NodeIdentifierWithPredicates extends AbstractPathArgument {
         private static final long serialVersionUID = -4787195606494761540L;
+        // Serialized form carries the key values as a map, regardless of their representation
+        private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("keyValues", Map.class),
+        };
+
+        private static final Field[] STATE_FIELDS;
+
+        static {
+            final Field[] fields = new Field[4];
+            try {
+                fields[0] = NodeIdentifierWithPredicates.class.getDeclaredField("keyValues");
+                fields[1] = NodeIdentifierWithPredicates.class.getDeclaredField("layout");
+                fields[2] = NodeIdentifierWithPredicates.class.getDeclaredField("value");
+                fields[3] = NodeIdentifierWithPredicates.class.getDeclaredField("values");
+            } catch (NoSuchFieldException | SecurityException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+            for (Field f : fields) {
+                f.setAccessible(true);
+            }
+
+            STATE_FIELDS = fields;
+        }
+
+        /*
+         * When all key values are boxed integral primitives, such as the Longs and Integers of uint32 and int64 keys,
+         * they are held unboxed, either in value or, for multiple keys, in values. The layout describes the keys and
+         * is shared by all identifiers with the same keys. Otherwise the values are held in keyValues.
+         */
+        private final transient Map<QName, Object> keyValues;
+        private final transient PrimitiveKeyLayout layout;
+        private final transient long value;
+        private final transient long[] values;
 
-        private final Map<QName, Object> keyValues;
+        // Map view of primitive key values, instantiated on first access
+        private transient volatile Map<QName, Object> keyValuesView;
 
         public NodeIdentifierWithPredicates(final QName node, final Map<QName, Object> keyValues) {
             super(node);
-            // Retains ImmutableMap for empty maps. For larger sizes uses a shared key set.
-            this.keyValues = ImmutableOffsetMap.unorderedCopyOf(keyValues);
+            this.layout = PrimitiveKeyLayout.forKeys(keyValues);
+            if (layout == null) {
+                // Retains ImmutableMap for empty maps. For larger sizes uses a shared key set.
+                this.keyValues = ImmutableOffsetMap.unorderedCopyOf(keyValues);
+                this.value = 0;
+                this.values = null;
+            } else if (layout.size() == 1) {
+                this.keyValues = null;
+                this.value = PrimitiveKeyLayout.toLong(keyValues.values().iterator().next());
+                this.values = null;
+            } else {
+                this.keyValues = null;
+                this.value = 0;
+                this.values = layout.toLongs(keyValues);
+            }
         }
 
         public NodeIdentifierWithPredicates(final QName node, final QName key, final Object value) {
             super(node);
-            this.keyValues = SharedSingletonMap.unorderedOf(key, value);
+            this.layout = PrimitiveKeyLayout.forKey(key, value);
+            this.values = null;
+            if (layout != null) {
+                this.keyValues = null;
+                this.value = PrimitiveKeyLayout.toLong(value);
+            } else {
+                this.keyValues = SharedSingletonMap.unorderedOf(key, value);
+                this.value = 0;
+            }
         }
 
+        /**
+         * Return the key values of this identifier. If the values are held in primitive form, the returned map is
+         * instantiated on first invocation and retained afterwards.
+         *
+         * @return Immutable map of key values
+         */
         public Map<QName, Object> getKeyValues() {
-            return keyValues;
+            if (layout == null) {
+                return keyValues;
+            }
+
+            Map<QName, Object> ret = keyValuesView;
+            if (ret == null) {
+                ret = layout.size() == 1 ? layout.toMap(value) : layout.toMap(values);
+                keyValuesView = ret;
+            }
+            return ret;
         }
 
         @Override
@@ -527,6 +605,16 @@ public abstract class YangInstanceIdentifier implements Path<YangInstanceIdentif
             int result = super.hashCodeImpl();
             result = prime * result;
 
+            if (layout != null) {
+                if (layout.size() == 1) {
+                    return result + layout.entryHashCode(0, value);
+                }
+                for (int i = 0; i < values.length; ++i) {
+                    result += layout.entryHashCode(i, values[i]);
+                }
+                return result;
+            }
+
             for (Entry<QName, Object> entry : keyValues.entrySet()) {
                 result += Objects.hashCode(entry.getKey()) + YangInstanceIdentifier.hashCode(entry.getValue());
             }
@@ -539,17 +627,23 @@ public abstract class YangInstanceIdentifier implements Path<YangInstanceIdentif
                 return false;
             }
 
-            final Map<QName, Object> otherKeyValues = ((NodeIdentifierWithPredicates) obj).keyValues;
+            final NodeIdentifierWithPredicates other = (NodeIdentifierWithPredicates) obj;
+            if (layout != null && layout == other.layout) {
+                return layout.size() == 1 ? value == other.value : Arrays.equals(values, other.values);
+            }
+
+            final Map<QName, Object> thisKeyValues = getKeyValues();
+            final Map<QName, Object> otherKeyValues = other.getKeyValues();
 
             // TODO: benchmark to see if just calling equals() on the two maps is not faster
-            if (keyValues == otherKeyValues) {
+            if (thisKeyValues == otherKeyValues) {
                 return true;
             }
-            if (keyValues.size() != otherKeyValues.size()) {
+            if (thisKeyValues.size() != otherKeyValues.size()) {
                 return false;
             }
 
-            for (Entry<QName, Object> entry : keyValues.entrySet()) {
+            for (Entry<QName, Object> entry : thisKeyValues.entrySet()) {
                 if (!otherKeyValues.containsKey(entry.getKey())
                         || !Objects.deepEquals(entry.getValue(), otherKeyValues.get(entry.getKey()))) {
 
@@ -562,12 +656,34 @@ public abstract class YangInstanceIdentifier implements Path<YangInstanceIdentif
 
         @Override
         public String toString() {
-            return super.toString() + '[' + keyValues + ']';
+            return super.toString() + '[' + getKeyValues() + ']';
         }
 
         @Override
         public String toRelativeString(final PathArgument previous) {
-            return super.toRelativeString(previous) + '[' + keyValues + ']';
+            return super.toRelativeString(previous) + '[' + getKeyValues() + ']';
+        }
+
+        private void writeObject(final ObjectOutputStream out) throws IOException {
+            final ObjectOutputStream.PutField fields = out.putFields();
+            fields.put("keyValues", getKeyValues());
+            out.writeFields();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+            final ObjectInputStream.GetField fields = in.readFields();
+
+            // Pick the representation as the constructor does, then transfer it to this object
+            final NodeIdentifierWithPredicates template = new NodeIdentifierWithPredicates(getNodeType(),
+                (Map<QName, Object>) fields.get("keyValues", null));
+            try {
+                for (Field f : STATE_FIELDS) {
+                    f.set(this, f.get(template));
+                }
+            } catch (IllegalArgumentException | IllegalAccessException e) {
+                throw new IOException("Failed to restore key values", e);
+            }
         }
     }
 
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+
+/**
+ * Factory of interned {@link YangInstanceIdentifier}s, useful when a large number of identifiers sharing long
+ * prefixes needs to be retained. Interned identifiers are nodes in a concurrent trie. Each of them references its
+ * parent and holds a single {@link PathArgument}, so common prefixes are stored once. Equal paths interned by the same
+ * interner are the same object, which turns {@link YangInstanceIdentifier#contains(YangInstanceIdentifier)} and
+ * {@link YangInstanceIdentifier#relativeTo(YangInstanceIdentifier)} between them into O(depth) reference comparisons.
+ *
+ * <p>
+ * Interned identifiers are retained for the lifetime of the interner, hence its lifecycle should be tied to the
+ * structure holding the identifiers.
+ */
+@Beta
+@ThreadSafe
+public final class YangInstanceIdentifierInterner {
+    private final ConcurrentMap<PathArgument, InternedYangInstanceIdentifier> roots = new ConcurrentHashMap<>();
+
+    private YangInstanceIdentifierInterner() {
+        // Hidden on purpose
+    }
+
+    public static YangInstanceIdentifierInterner create() {
+        return new YangInstanceIdentifierInterner();
+    }
+
+    /**
+     * Return the interned equivalent of an identifier.
+     *
+     * @param path Identifier to intern
+     * @return Interned identifier, equal to the one supplied
+     */
+    @Nonnull public YangInstanceIdentifier intern(@Nonnull final YangInstanceIdentifier path) {
+        final Iterator<PathArgument> it = path.getPathArguments().iterator();
+        if (!it.hasNext()) {
+            return YangInstanceIdentifier.EMPTY;
+        }
+
+        InternedYangInstanceIdentifier ret = InternedYangInstanceIdentifier.getChild(roots,
+            YangInstanceIdentifier.EMPTY, 0, it.next());
+        while (it.hasNext()) {
+            ret = ret.getChild(it.next());
+        }
+        return ret;
+    }
+
+    /**
+     * Return the interned identifier of a child of an identifier. This is equivalent to
+     * {@code intern(parent.node(arg))}, but does not need to look up the parent if it has been interned by this
+     * interner.
+     *
+     * @param parent Interned parent identifier
+     * @param arg Child path argument
+     * @return Interned child identifier
+     */
+    @Nonnull public YangInstanceIdentifier intern(@Nonnull final YangInstanceIdentifier parent,
+            @Nonnull final PathArgument arg) {
+        Preconditions.checkNotNull(arg);
+        if (parent.isEmpty()) {
+            return InternedYangInstanceIdentifier.getChild(roots, YangInstanceIdentifier.EMPTY, 0, arg);
+        }
+
+        final YangInstanceIdentifier interned = isInterned(parent) ? parent : intern(parent);
+        return ((InternedYangInstanceIdentifier) interned).getChild(arg);
+    }
+
+    private boolean isInterned(final YangInstanceIdentifier path) {
+        if (!(path instanceof InternedYangInstanceIdentifier)) {
+            return false;
+        }
+
+        // Identifiers share their root with all their descendants, hence checking the root is sufficient
+        final YangInstanceIdentifier root = path.getAncestor(1);
+        return roots.get(root.getLastPathArgument()) == root;
+    }
+}
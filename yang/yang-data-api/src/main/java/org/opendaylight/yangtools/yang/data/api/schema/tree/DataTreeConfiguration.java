@@ -8,8 +8,10 @@
 package org.opendaylight.yangtools.yang.data.api.schema.tree;
 
 import com.google.common.annotations.Beta;
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import org.opendaylight.yangtools.concepts.Immutable;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathSchemaContextFactory;
 
 /**
  * DataTree configuration class.
@@ -19,6 +21,7 @@ import org.opendaylight.yangtools.concepts.Immutable;
  * <li>treeType</li>
  * <li>enable/disable unique indexes and unique constraint validation</li>
  * <li>enable/disable mandatory nodes validation</li>
+ * <li>enable/disable must and when constraint validation</li>
  * </ul>
  *
  * TreeConfig can be easily extended in order to support further data tree
@@ -36,19 +39,21 @@ import org.opendaylight.yangtools.concepts.Immutable;
 @Beta
 public class DataTreeConfiguration implements Immutable {
     public static final DataTreeConfiguration DEFAULT_CONFIGURATION = new DataTreeConfiguration(TreeType.CONFIGURATION,
-            false, true);
+            false, true, null);
     public static final DataTreeConfiguration DEFAULT_OPERATIONAL = new DataTreeConfiguration(TreeType.OPERATIONAL,
-            false, true);
+            false, true, null);
 
     private final TreeType treeType;
     private final boolean uniqueIndexes;
     private final boolean mandatoryNodesValidation;
+    private final XPathSchemaContextFactory xpathSchemaContextFactory;
 
     private DataTreeConfiguration(final TreeType treeType, final boolean uniqueIndexes,
-            final boolean mandatoryNodesValidation) {
+            final boolean mandatoryNodesValidation, final XPathSchemaContextFactory xpathSchemaContextFactory) {
         this.treeType = Preconditions.checkNotNull(treeType);
         this.uniqueIndexes = uniqueIndexes;
         this.mandatoryNodesValidation = mandatoryNodesValidation;
+        this.xpathSchemaContextFactory = xpathSchemaContextFactory;
     }
 
     public TreeType getTreeType() {
@@ -63,6 +68,16 @@ public class DataTreeConfiguration implements Immutable {
         return mandatoryNodesValidation;
     }
 
+    /**
+     * Return the factory used to compile must and when constraints. If it is not present, these constraints are not
+     * enforced.
+     *
+     * @return Optional XPath schema context factory
+     */
+    public Optional<XPathSchemaContextFactory> getXPathSchemaContextFactory() {
+        return Optional.fromNullable(xpathSchemaContextFactory);
+    }
+
     public static DataTreeConfiguration getDefault(final TreeType treeType) {
         Preconditions.checkNotNull(treeType);
         switch (treeType) {
@@ -71,7 +86,7 @@ public class DataTreeConfiguration implements Immutable {
         case OPERATIONAL:
             return DEFAULT_OPERATIONAL;
         default:
-            return new DataTreeConfiguration(treeType, false, true);
+            return new DataTreeConfiguration(treeType, false, true, null);
         }
     }
 
@@ -79,6 +94,7 @@ public class DataTreeConfiguration implements Immutable {
         private final TreeType treeType;
         private boolean uniqueIndexes;
         private boolean mandatoryNodesValidation;
+        private XPathSchemaContextFactory xpathSchemaContextFactory;
 
         public Builder(final TreeType treeType) {
             this.treeType = Preconditions.checkNotNull(treeType);
@@ -94,8 +110,21 @@ public class DataTreeConfiguration implements Immutable {
             return this;
         }
 
+        /**
+         * Enable validation of must and when constraints. Expressions are compiled once for each SchemaContext using
+         * the specified factory and are re-evaluated only when a modification touches data they depend on.
+         *
+         * @param xpathSchemaContextFactory Factory to use, null disables constraint validation
+         * @return This builder
+         */
+        public Builder setXPathSchemaContextFactory(final XPathSchemaContextFactory xpathSchemaContextFactory) {
+            this.xpathSchemaContextFactory = xpathSchemaContextFactory;
+            return this;
+        }
+
         public DataTreeConfiguration build() {
-            return new DataTreeConfiguration(treeType, uniqueIndexes, mandatoryNodesValidation);
+            return new DataTreeConfiguration(treeType, uniqueIndexes, mandatoryNodesValidation,
+                xpathSchemaContextFactory);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.xpath;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.common.QName;
+
+/**
+ * A subtree of data the result of an {@link XPathExpression} may depend on. The subtree is identified by the data path
+ * of its root, which is the sequence of data node QNames from the root of the data tree. Choices, cases and
+ * augmentations do not appear in data paths, and a list's QName stands for all of its entries.
+ *
+ * <p>The first {@link #getAnchorDepth()} components of the data path are anchored: they are always resolved to the
+ * same instances as the corresponding ancestors of the node at which the expression is evaluated. For example
+ * {@code ../name} evaluated on a leaf in a list entry depends only on the name leaf of that entry, hence its anchor
+ * depth is the depth of the list entry.
+ */
+@Beta
+public final class XPathDependency {
+    private static final XPathDependency UNBOUNDED = new XPathDependency(ImmutableList.<QName>of(), 0);
+
+    private final List<QName> dataPath;
+    private final int anchorDepth;
+
+    private XPathDependency(final List<QName> dataPath, final int anchorDepth) {
+        this.dataPath = ImmutableList.copyOf(dataPath);
+        Preconditions.checkArgument(anchorDepth >= 0 && anchorDepth <= dataPath.size(),
+            "Anchor depth %s is not valid for path %s", anchorDepth, dataPath);
+        this.anchorDepth = anchorDepth;
+    }
+
+    /**
+     * Create a new dependency.
+     *
+     * @param dataPath Data path of the subtree
+     * @param anchorDepth Number of anchored components of the data path
+     * @return A new dependency
+     * @throws NullPointerException if dataPath is null
+     * @throws IllegalArgumentException if the anchor depth is negative or exceeds the size of the data path
+     */
+    public static XPathDependency create(@Nonnull final List<QName> dataPath, final int anchorDepth) {
+        return new XPathDependency(dataPath, anchorDepth);
+    }
+
+    /**
+     * Return a dependency on the entire data tree.
+     *
+     * @return A dependency on the entire data tree
+     */
+    public static XPathDependency unbounded() {
+        return UNBOUNDED;
+    }
+
+    /**
+     * Return the data path of the subtree root.
+     *
+     * @return Data node QNames leading to the subtree root
+     */
+    @Nonnull public List<QName> getDataPath() {
+        return dataPath;
+    }
+
+    /**
+     * Return the number of leading data path components which are resolved to the ancestors of the evaluation node.
+     *
+     * @return Anchor depth
+     */
+    public int getAnchorDepth() {
+        return anchorDepth;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * dataPath.hashCode() + anchorDepth;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof XPathDependency)) {
+            return false;
+        }
+        final XPathDependency other = (XPathDependency) obj;
+        return anchorDepth == other.anchorDepth && dataPath.equals(other.dataPath);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{dataPath=" + dataPath + ", anchorDepth=" + anchorDepth + "}";
+    }
+}
@@ -9,6 +9,8 @@ package org.opendaylight.yangtools.yang.data.api.schema.xpath;
 
 import com.google.common.annotations.Beta;
 import com.google.common.base.Optional;
+import java.util.Collection;
+import java.util.Collections;
 import javax.annotation.Nonnull;
 import javax.xml.xpath.XPathExpressionException;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
@@ -55,4 +57,15 @@ public interface XPathExpression {
      *         cannot be conclusively determined.
      */
     @Nonnull SchemaPath getApexPath();
+
+    /**
+     * Return the subtrees of data the result of evaluation of this expression may depend on. The result is
+     * conservative: if none of the subtrees has been modified, evaluation is guaranteed to yield the same result. The
+     * default implementation reports a dependency on the entire data tree.
+     *
+     * @return Data subtrees this expression depends on
+     */
+    @Nonnull default Collection<XPathDependency> getDependencies() {
+        return Collections.singletonList(XPathDependency.unbounded());
+    }
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+
+public class YangInstanceIdentifierInternerTest {
+    private static final QName TOP = QName.create("urn:opendaylight:test", "2016-10-16", "top");
+    private static final QName LIST = QName.create(TOP, "list");
+    private static final QName KEY = QName.create(TOP, "key");
+    private static final QName LEAF = QName.create(TOP, "leaf");
+
+    private YangInstanceIdentifierInterner interner;
+
+    @Before
+    public void setup() {
+        interner = YangInstanceIdentifierInterner.create();
+    }
+
+    private static YangInstanceIdentifier entry(final Object key) {
+        return YangInstanceIdentifier.builder().node(TOP).node(LIST).nodeWithKey(LIST, KEY, key).build();
+    }
+
+    @Test
+    public void testIntern() {
+        final YangInstanceIdentifier first = interner.intern(entry(1));
+        final YangInstanceIdentifier second = interner.intern(entry(1));
+        assertSame(first, second);
+        assertEquals(entry(1), first);
+        assertEquals(entry(1).hashCode(), first.hashCode());
+        assertEquals(entry(1).getPathArguments(), first.getPathArguments());
+
+        // Shared prefix
+        assertSame(first.getParent(), interner.intern(entry(2)).getParent());
+        assertSame(YangInstanceIdentifier.EMPTY, interner.intern(YangInstanceIdentifier.EMPTY));
+
+        // Different interners do not share nodes
+        assertNotSame(first, YangInstanceIdentifierInterner.create().intern(entry(1)));
+    }
+
+    @Test
+    public void testInternChild() {
+        final YangInstanceIdentifier parent = interner.intern(entry(1));
+        final YangInstanceIdentifier child = interner.intern(parent, new NodeIdentifier(LEAF));
+        assertSame(parent, child.getParent());
+        assertSame(child, interner.intern(entry(1).node(LEAF)));
+        assertSame(child, interner.intern(entry(1), new NodeIdentifier(LEAF)));
+
+        final YangInstanceIdentifier foreign = YangInstanceIdentifierInterner.create().intern(entry(1));
+        assertSame(child, interner.intern(foreign, new NodeIdentifier(LEAF)));
+    }
+
+    @Test
+    public void testContains() {
+        final YangInstanceIdentifier list = interner.intern(YangInstanceIdentifier.builder().node(TOP).node(LIST)
+            .build());
+        final YangInstanceIdentifier entry = interner.intern(entry(1));
+        final YangInstanceIdentifier leaf = interner.intern(entry(1).node(LEAF));
+
+        assertTrue(list.contains(leaf));
+        assertTrue(entry.contains(leaf));
+        assertTrue(leaf.contains(leaf));
+        assertFalse(leaf.contains(entry));
+        assertFalse(interner.intern(entry(2)).contains(leaf));
+        assertTrue(YangInstanceIdentifier.EMPTY.contains(leaf));
+
+        // Mixed with other interners and non-interned identifiers
+        assertTrue(YangInstanceIdentifierInterner.create().intern(entry(1)).contains(leaf));
+        assertTrue(entry(1).contains(leaf));
+        assertTrue(entry.contains(entry(1).node(LEAF)));
+    }
+
+    @Test
+    public void testRelativeTo() {
+        final YangInstanceIdentifier entry = interner.intern(entry(1));
+        final YangInstanceIdentifier leaf = interner.intern(entry(1).node(LEAF));
+
+        assertEquals(YangInstanceIdentifier.create(new NodeIdentifier(LEAF)), leaf.relativeTo(entry).get());
+        assertEquals(YangInstanceIdentifier.EMPTY, leaf.relativeTo(leaf).get());
+        assertFalse(entry.relativeTo(leaf).isPresent());
+        assertFalse(leaf.relativeTo(interner.intern(entry(2))).isPresent());
+        assertEquals(YangInstanceIdentifier.create(new NodeIdentifierWithPredicates(LIST, KEY, 1),
+            new NodeIdentifier(LEAF)), leaf.relativeTo(entry.getParent()).get());
+        assertEquals(leaf, leaf.relativeTo(YangInstanceIdentifier.EMPTY).get());
+        assertEquals(YangInstanceIdentifier.create(new NodeIdentifier(LEAF)), leaf.relativeTo(entry(1)).get());
+    }
+
+    @Test
+    public void testGetAncestor() {
+        final YangInstanceIdentifier leaf = interner.intern(entry(1).node(LEAF));
+        assertSame(YangInstanceIdentifier.EMPTY, leaf.getAncestor(0));
+        assertSame(interner.intern(entry(1)), leaf.getAncestor(3));
+        assertSame(leaf, leaf.getAncestor(4));
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        final YangInstanceIdentifier leaf = interner.intern(entry(1).node(LEAF));
+
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(leaf);
+        }
+
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            final Object read = ois.readObject();
+            assertEquals(StackedYangInstanceIdentifier.class, read.getClass());
+            assertEquals(leaf, read);
+        }
+    }
+}
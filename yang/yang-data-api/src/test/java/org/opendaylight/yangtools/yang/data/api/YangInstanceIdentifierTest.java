@@ -270,6 +270,53 @@ public class YangInstanceIdentifierTest {
                 node1.equals( new NodeIdentifierWithPredicates( NODENAME1, KEY1, new byte[]{1,2,3} ) ) );
     }
 
+    @Test
+    public void testNodeIdentifierWithPrimitivePredicates() {
+        final NodeIdentifierWithPredicates node1 = new NodeIdentifierWithPredicates(NODENAME1, KEY1, 4000000000L);
+        verifyNodeIdentifierWithPredicates("NodeIdentifierWithPredicates", node1, NODENAME1, KEY1, 4000000000L);
+        assertEquals(Long.class, node1.getKeyValues().get(KEY1).getClass());
+        assertEquals(31 * (31 + NODENAME1.hashCode()) + KEY1.hashCode() + Long.valueOf(4000000000L).hashCode(),
+            node1.hashCode());
+
+        final NodeIdentifierWithPredicates node2 = new NodeIdentifierWithPredicates(NODENAME1,
+            ImmutableMap.<QName, Object>of(KEY1, 4000000000L));
+        assertEquals(node1, node2);
+        assertEquals(node1.hashCode(), node2.hashCode());
+        assertNotEquals(node1, new NodeIdentifierWithPredicates(NODENAME1, KEY1, 4000000001L));
+
+        // Same numeric value, different types
+        final NodeIdentifierWithPredicates intNode = new NodeIdentifierWithPredicates(NODENAME1, KEY1, 10);
+        assertEquals(Integer.valueOf(10), intNode.getKeyValues().get(KEY1));
+        assertNotEquals(intNode, new NodeIdentifierWithPredicates(NODENAME1, KEY1, 10L));
+        assertEquals((short) -10, new NodeIdentifierWithPredicates(NODENAME1, KEY1, (short) -10).getKeyValues()
+            .get(KEY1));
+        assertEquals((byte) -1, new NodeIdentifierWithPredicates(NODENAME1, KEY1, (byte) -1).getKeyValues()
+            .get(KEY1));
+
+        final ImmutableMap<QName, Object> keys = ImmutableMap.<QName, Object>of(KEY1, -5L, KEY2, 7);
+        final NodeIdentifierWithPredicates node3 = new NodeIdentifierWithPredicates(NODENAME1, keys);
+        assertEquals(keys, node3.getKeyValues());
+        // The map view is instantiated only once
+        assertSame(node3.getKeyValues(), node3.getKeyValues());
+        assertEquals(31 * (31 + NODENAME1.hashCode()) + KEY1.hashCode() + Long.valueOf(-5L).hashCode()
+            + KEY2.hashCode() + 7, node3.hashCode());
+
+        // Different iteration order
+        final NodeIdentifierWithPredicates node4 = new NodeIdentifierWithPredicates(NODENAME1,
+            ImmutableMap.<QName, Object>of(KEY2, 7, KEY1, -5L));
+        assertEquals(node3, node4);
+        assertEquals(node3.hashCode(), node4.hashCode());
+        assertNotEquals(node3, new NodeIdentifierWithPredicates(NODENAME1,
+            ImmutableMap.<QName, Object>of(KEY1, -5L, KEY2, 8)));
+
+        // Mixed with a non-primitive value
+        final NodeIdentifierWithPredicates node5 = new NodeIdentifierWithPredicates(NODENAME1,
+            ImmutableMap.<QName, Object>of(KEY1, -5L, KEY2, "foo"));
+        assertEquals(node5, new NodeIdentifierWithPredicates(NODENAME1,
+            ImmutableMap.<QName, Object>of(KEY2, "foo", KEY1, -5L)));
+        assertNotEquals(node3, node5);
+    }
+
     @Test
     public void testNodeWithValue() {
 
@@ -379,6 +426,12 @@ public class YangInstanceIdentifierTest {
         final YangInstanceIdentifier stacked = YangInstanceIdentifier.EMPTY.node(new NodeIdentifier(NODENAME1));
         assertEquals(stacked, serdes(stacked));
 
+        final YangInstanceIdentifier keyed = YangInstanceIdentifier.create(
+            new NodeIdentifierWithPredicates(NODENAME1, KEY1, 10L),
+            new NodeIdentifierWithPredicates(NODENAME2, ImmutableMap.<QName, Object>of(KEY1, 10L, KEY2, (short) 5)),
+            new NodeIdentifierWithPredicates(NODENAME3, KEY1, "foo"));
+        assertEquals(keyed, serdes(keyed));
+
         final YangInstanceIdentifier empty = serdes(YangInstanceIdentifier.EMPTY);
         assertSame(YangInstanceIdentifier.EMPTY, empty);
     }
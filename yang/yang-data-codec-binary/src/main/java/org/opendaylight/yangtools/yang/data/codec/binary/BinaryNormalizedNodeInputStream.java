@@ -0,0 +1,382 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binary;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.io.DataInput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.dom.DOMSource;
+import org.opendaylight.yangtools.concepts.WritableObjects;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Reader of streams produced by {@link BinaryNormalizedNodeStreamWriter}. Items have to be read in the same order
+ * as they were written, as both sides maintain identical {@link QName} and {@link QNameModule} dictionaries.
+ * Instances are not thread-safe.
+ */
+@Beta
+public final class BinaryNormalizedNodeInputStream {
+    private static final DocumentBuilderFactory BUILDER_FACTORY;
+
+    static {
+        final DocumentBuilderFactory f = DocumentBuilderFactory.newInstance();
+        f.setNamespaceAware(true);
+        f.setCoalescing(true);
+        f.setIgnoringElementContentWhitespace(true);
+        f.setIgnoringComments(true);
+        BUILDER_FACTORY = f;
+    }
+
+    private final List<QNameModule> modules = new ArrayList<>();
+    private final List<QName> qnames = new ArrayList<>();
+    private final DataInput input;
+    private boolean headerRead;
+
+    private BinaryNormalizedNodeInputStream(final DataInput input) {
+        this.input = Preconditions.checkNotNull(input);
+    }
+
+    /**
+     * Create a new reader backed by a {@link DataInput}.
+     *
+     * @param input Data input
+     * @return A new reader
+     */
+    public static BinaryNormalizedNodeInputStream create(final DataInput input) {
+        return new BinaryNormalizedNodeInputStream(input);
+    }
+
+    /**
+     * Read a {@link NormalizedNode} written by {@link BinaryNormalizedNodeStreamWriter}.
+     *
+     * @return A new immutable NormalizedNode
+     * @throws IOException if an I/O error occurs or the stream is corrupted
+     */
+    public NormalizedNode<?, ?> readNormalizedNode() throws IOException {
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        streamNormalizedNode(ImmutableNormalizedNodeStreamWriter.from(result));
+        return result.getResult();
+    }
+
+    /**
+     * Read a {@link NormalizedNode} written by {@link BinaryNormalizedNodeStreamWriter}, replaying the original
+     * events into a {@link NormalizedNodeStreamWriter}. This allows the data to be transcoded to another format
+     * without building an intermediate tree.
+     *
+     * @param writer Writer to receive events
+     * @throws IOException if an I/O error occurs, the stream is corrupted or the writer fails
+     */
+    public void streamNormalizedNode(final NormalizedNodeStreamWriter writer) throws IOException {
+        ensureHeader();
+
+        int depth = 0;
+        do {
+            final byte token = input.readByte();
+            switch (token) {
+                case BinaryTokens.LEAF:
+                    writer.leafNode(readNodeIdentifier(), readValue());
+                    break;
+                case BinaryTokens.LEAF_SET:
+                    writer.startLeafSet(readNodeIdentifier(), readSizeHint());
+                    depth++;
+                    break;
+                case BinaryTokens.ORDERED_LEAF_SET:
+                    writer.startOrderedLeafSet(readNodeIdentifier(), readSizeHint());
+                    depth++;
+                    break;
+                case BinaryTokens.LEAF_SET_ENTRY:
+                    writer.leafSetEntryNode(readQName(), readValue());
+                    break;
+                case BinaryTokens.CONTAINER:
+                    writer.startContainerNode(readNodeIdentifier(), readSizeHint());
+                    depth++;
+                    break;
+                case BinaryTokens.UNKEYED_LIST:
+                    writer.startUnkeyedList(readNodeIdentifier(), readSizeHint());
+                    depth++;
+                    break;
+                case BinaryTokens.UNKEYED_LIST_ITEM:
+                    writer.startUnkeyedListItem(readNodeIdentifier(), readSizeHint());
+                    depth++;
+                    break;
+                case BinaryTokens.MAP:
+                    writer.startMapNode(readNodeIdentifier(), readSizeHint());
+                    depth++;
+                    break;
+                case BinaryTokens.MAP_ENTRY:
+                    writer.startMapEntryNode(readPredicates(), readSizeHint());
+                    depth++;
+                    break;
+                case BinaryTokens.ORDERED_MAP:
+                    writer.startOrderedMapNode(readNodeIdentifier(), readSizeHint());
+                    depth++;
+                    break;
+                case BinaryTokens.CHOICE:
+                    writer.startChoiceNode(readNodeIdentifier(), readSizeHint());
+                    depth++;
+                    break;
+                case BinaryTokens.AUGMENTATION:
+                    writer.startAugmentationNode(readAugmentation());
+                    depth++;
+                    break;
+                case BinaryTokens.ANYXML:
+                    writer.anyxmlNode(readNodeIdentifier(), readValue());
+                    break;
+                case BinaryTokens.YANG_MODELED_ANYXML:
+                    writer.startYangModeledAnyXmlNode(readNodeIdentifier(), readSizeHint());
+                    depth++;
+                    break;
+                case BinaryTokens.END_NODE:
+                    if (depth == 0) {
+                        throw new StreamCorruptedException("Unexpected end of node");
+                    }
+                    writer.endNode();
+                    depth--;
+                    break;
+                default:
+                    throw new StreamCorruptedException("Unknown node token " + token);
+            }
+        } while (depth > 0);
+    }
+
+    /**
+     * Read a {@link YangInstanceIdentifier} written by
+     * {@link BinaryNormalizedNodeStreamWriter#writeYangInstanceIdentifier(YangInstanceIdentifier)}.
+     *
+     * @return An instance identifier
+     * @throws IOException if an I/O error occurs or the stream is corrupted
+     */
+    public YangInstanceIdentifier readYangInstanceIdentifier() throws IOException {
+        ensureHeader();
+        return readIdentifier();
+    }
+
+    /**
+     * Read a {@link PathArgument} written by {@link BinaryNormalizedNodeStreamWriter#writePathArgument(PathArgument)}.
+     *
+     * @return A path argument
+     * @throws IOException if an I/O error occurs or the stream is corrupted
+     */
+    public PathArgument readPathArgument() throws IOException {
+        ensureHeader();
+        return readArgument();
+    }
+
+    private void ensureHeader() throws IOException {
+        if (!headerRead) {
+            final byte version = input.readByte();
+            if (version != BinaryTokens.STREAM_VERSION) {
+                throw new StreamCorruptedException("Unsupported stream version " + version);
+            }
+            headerRead = true;
+        }
+    }
+
+    private int readSizeHint() throws IOException {
+        final long hint = WritableObjects.readLong(input);
+        return hint == 0 ? NormalizedNodeStreamWriter.UNKNOWN_SIZE : (int) (hint - 1);
+    }
+
+    private int readCount() throws IOException {
+        final long count = WritableObjects.readLong(input);
+        if (count < 0 || count > Integer.MAX_VALUE) {
+            throw new StreamCorruptedException("Invalid item count " + count);
+        }
+        return (int) count;
+    }
+
+    private static <T> T lookup(final List<T> dictionary, final long index) throws StreamCorruptedException {
+        if (index < 0 || index >= dictionary.size()) {
+            throw new StreamCorruptedException("Invalid dictionary reference " + index);
+        }
+        return dictionary.get((int) index);
+    }
+
+    private QNameModule readModule() throws IOException {
+        final byte header = WritableObjects.readLongHeader(input);
+        final long index = WritableObjects.readLongBody(input, header);
+        if (WritableObjects.longHeaderFlags(header) != BinaryTokens.DICTIONARY_DEFINITION) {
+            return lookup(modules, index);
+        }
+
+        final URI namespace;
+        try {
+            namespace = new URI(readString());
+        } catch (URISyntaxException e) {
+            throw new StreamCorruptedException("Invalid module namespace: " + e.getMessage());
+        }
+        final Date revision = input.readBoolean() ? QName.parseRevision(readString()) : null;
+        final QNameModule module = QNameModule.create(namespace, revision).intern();
+        modules.add(module);
+        return module;
+    }
+
+    private QName readQName() throws IOException {
+        final byte header = WritableObjects.readLongHeader(input);
+        final long index = WritableObjects.readLongBody(input, header);
+        if (WritableObjects.longHeaderFlags(header) != BinaryTokens.DICTIONARY_DEFINITION) {
+            return lookup(qnames, index);
+        }
+
+        final QNameModule module = readModule();
+        final QName qname = QName.create(module, readString()).intern();
+        qnames.add(qname);
+        return qname;
+    }
+
+    private NodeIdentifier readNodeIdentifier() throws IOException {
+        return NodeIdentifier.create(readQName());
+    }
+
+    private String readString() throws IOException {
+        return new String(readBytes(), StandardCharsets.UTF_8);
+    }
+
+    private byte[] readBytes() throws IOException {
+        final byte[] bytes = new byte[readCount()];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    private long readZigZag() throws IOException {
+        final long value = WritableObjects.readLong(input);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private YangInstanceIdentifier readIdentifier() throws IOException {
+        final int size = readCount();
+        final List<PathArgument> args = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            args.add(readArgument());
+        }
+        return YangInstanceIdentifier.create(args);
+    }
+
+    private PathArgument readArgument() throws IOException {
+        final byte token = input.readByte();
+        switch (token) {
+            case BinaryTokens.NODE_IDENTIFIER:
+                return readNodeIdentifier();
+            case BinaryTokens.NODE_IDENTIFIER_WITH_PREDICATES:
+                return readPredicates();
+            case BinaryTokens.NODE_WITH_VALUE:
+                return new NodeWithValue<>(readQName(), readValue());
+            case BinaryTokens.AUGMENTATION_IDENTIFIER:
+                return readAugmentation();
+            default:
+                throw new StreamCorruptedException("Unknown path argument token " + token);
+        }
+    }
+
+    private NodeIdentifierWithPredicates readPredicates() throws IOException {
+        final QName nodeType = readQName();
+        final int size = readCount();
+        if (size == 1) {
+            return new NodeIdentifierWithPredicates(nodeType, readQName(), readValue());
+        }
+
+        final ImmutableMap.Builder<QName, Object> keys = ImmutableMap.builder();
+        for (int i = 0; i < size; ++i) {
+            keys.put(readQName(), readValue());
+        }
+        return new NodeIdentifierWithPredicates(nodeType, keys.build());
+    }
+
+    private AugmentationIdentifier readAugmentation() throws IOException {
+        final int size = readCount();
+        final ImmutableSet.Builder<QName> names = ImmutableSet.builder();
+        for (int i = 0; i < size; ++i) {
+            names.add(readQName());
+        }
+        return new AugmentationIdentifier(names.build());
+    }
+
+    private Object readValue() throws IOException {
+        final byte token = input.readByte();
+        switch (token) {
+            case BinaryTokens.VALUE_NULL:
+                return null;
+            case BinaryTokens.VALUE_STRING:
+                return readString();
+            case BinaryTokens.VALUE_FALSE:
+                return Boolean.FALSE;
+            case BinaryTokens.VALUE_TRUE:
+                return Boolean.TRUE;
+            case BinaryTokens.VALUE_BYTE:
+                return input.readByte();
+            case BinaryTokens.VALUE_SHORT:
+                return (short) readZigZag();
+            case BinaryTokens.VALUE_INT:
+                return (int) readZigZag();
+            case BinaryTokens.VALUE_LONG:
+                return readZigZag();
+            case BinaryTokens.VALUE_BIG_INTEGER:
+                return new BigInteger(readBytes());
+            case BinaryTokens.VALUE_BIG_DECIMAL:
+                final int scale = (int) readZigZag();
+                return new BigDecimal(new BigInteger(readBytes()), scale);
+            case BinaryTokens.VALUE_BINARY:
+                return readBytes();
+            case BinaryTokens.VALUE_QNAME:
+                return readQName();
+            case BinaryTokens.VALUE_BITS:
+                final int size = readCount();
+                final ImmutableSet.Builder<String> bits = ImmutableSet.builder();
+                for (int i = 0; i < size; ++i) {
+                    bits.add(readString());
+                }
+                return bits.build();
+            case BinaryTokens.VALUE_YANG_INSTANCE_IDENTIFIER:
+                return readIdentifier();
+            case BinaryTokens.VALUE_DOM_SOURCE:
+                return readSource();
+            default:
+                throw new StreamCorruptedException("Unknown value token " + token);
+        }
+    }
+
+    private DOMSource readSource() throws IOException {
+        final String xml = readString();
+        final Document doc;
+        try {
+            doc = BUILDER_FACTORY.newDocumentBuilder().parse(new InputSource(new StringReader(xml)));
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("Failed to parse anyxml value " + xml, e);
+        }
+        return new DOMSource(doc.getDocumentElement());
+    }
+}
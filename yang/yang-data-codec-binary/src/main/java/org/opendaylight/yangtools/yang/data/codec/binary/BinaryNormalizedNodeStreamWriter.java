@@ -0,0 +1,397 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binary;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import java.io.Closeable;
+import java.io.DataOutput;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.TransformerFactoryConfigurationError;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import org.opendaylight.yangtools.concepts.WritableObjects;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+
+/**
+ * A {@link NormalizedNodeStreamWriter} emitting a compact binary representation of the data into a
+ * {@link DataOutput}. The resulting stream can be read back using {@link BinaryNormalizedNodeInputStream}.
+ *
+ * <p>The format is schema-less, hence values are written based on their Java type. Supported value types are those
+ * used by the default codecs: {@link String}, {@link Boolean}, {@link Byte}, {@link Short}, {@link Integer},
+ * {@link Long}, {@link BigInteger}, {@link BigDecimal}, byte arrays, {@link QName} (identityrefs), {@link Set}s of
+ * strings (bits), {@link YangInstanceIdentifier} and {@link DOMSource} (anyxml). Integral values are zig-zag encoded
+ * and written using {@link WritableObjects#writeLong(DataOutput, long)}, so small values take up only a few bytes.
+ *
+ * <p>Each instance maintains a dictionary of {@link QName}s and {@link QNameModule}s it has written, hence an instance
+ * has to be paired with exactly one {@link BinaryNormalizedNodeInputStream}, which has to read back all items written
+ * in the same order. Instances are not thread-safe.
+ */
+@Beta
+public final class BinaryNormalizedNodeStreamWriter implements NormalizedNodeStreamWriter {
+    private final Map<QNameModule, Integer> modules = new HashMap<>();
+    private final Map<QName, Integer> qnames = new HashMap<>();
+    private final DataOutput output;
+    private boolean headerWritten;
+
+    private BinaryNormalizedNodeStreamWriter(final DataOutput output) {
+        this.output = Preconditions.checkNotNull(output);
+    }
+
+    /**
+     * Create a new writer backed by a {@link DataOutput}. If the output also implements {@link Flushable} and/or
+     * {@link Closeable}, {@link #flush()} and {@link #close()} are propagated to it.
+     *
+     * @param output Data output
+     * @return A new writer
+     */
+    public static BinaryNormalizedNodeStreamWriter create(final DataOutput output) {
+        return new BinaryNormalizedNodeStreamWriter(output);
+    }
+
+    /**
+     * Write a {@link NormalizedNode} and all its children.
+     *
+     * @param node Node to write
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeNormalizedNode(final NormalizedNode<?, ?> node) throws IOException {
+        // Key leaves do not need to be ordered, as the format is not bound by RFC6020 XML encoding rules
+        NormalizedNodeWriter.forStreamWriter(this, false).write(node);
+    }
+
+    /**
+     * Write a {@link YangInstanceIdentifier}.
+     *
+     * @param identifier Instance identifier to write
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeYangInstanceIdentifier(final YangInstanceIdentifier identifier) throws IOException {
+        ensureHeader();
+        writeIdentifier(identifier);
+    }
+
+    /**
+     * Write a single {@link PathArgument}.
+     *
+     * @param pathArgument Path argument to write
+     * @throws IOException if an I/O error occurs
+     */
+    public void writePathArgument(final PathArgument pathArgument) throws IOException {
+        ensureHeader();
+        writeArgument(pathArgument);
+    }
+
+    @Override
+    public void leafNode(final NodeIdentifier name, final Object value) throws IOException {
+        writeToken(BinaryTokens.LEAF);
+        writeQName(name.getNodeType());
+        writeValue(value);
+    }
+
+    @Override
+    public void startLeafSet(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(BinaryTokens.LEAF_SET, name, childSizeHint);
+    }
+
+    @Override
+    public void startOrderedLeafSet(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(BinaryTokens.ORDERED_LEAF_SET, name, childSizeHint);
+    }
+
+    @Override
+    public void leafSetEntryNode(final QName name, final Object value) throws IOException {
+        writeToken(BinaryTokens.LEAF_SET_ENTRY);
+        writeQName(name);
+        writeValue(value);
+    }
+
+    @Override
+    public void startContainerNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(BinaryTokens.CONTAINER, name, childSizeHint);
+    }
+
+    @Override
+    public void startUnkeyedList(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(BinaryTokens.UNKEYED_LIST, name, childSizeHint);
+    }
+
+    @Override
+    public void startUnkeyedListItem(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(BinaryTokens.UNKEYED_LIST_ITEM, name, childSizeHint);
+    }
+
+    @Override
+    public void startMapNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(BinaryTokens.MAP, name, childSizeHint);
+    }
+
+    @Override
+    public void startMapEntryNode(final NodeIdentifierWithPredicates identifier, final int childSizeHint)
+            throws IOException {
+        writeToken(BinaryTokens.MAP_ENTRY);
+        writePredicates(identifier);
+        writeSizeHint(childSizeHint);
+    }
+
+    @Override
+    public void startOrderedMapNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(BinaryTokens.ORDERED_MAP, name, childSizeHint);
+    }
+
+    @Override
+    public void startChoiceNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(BinaryTokens.CHOICE, name, childSizeHint);
+    }
+
+    @Override
+    public void startAugmentationNode(final AugmentationIdentifier identifier) throws IOException {
+        writeToken(BinaryTokens.AUGMENTATION);
+        writeAugmentation(identifier);
+    }
+
+    @Override
+    public void anyxmlNode(final NodeIdentifier name, final Object value) throws IOException {
+        writeToken(BinaryTokens.ANYXML);
+        writeQName(name.getNodeType());
+        writeValue(value);
+    }
+
+    @Override
+    public void startYangModeledAnyXmlNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(BinaryTokens.YANG_MODELED_ANYXML, name, childSizeHint);
+    }
+
+    @Override
+    public void endNode() throws IOException {
+        output.writeByte(BinaryTokens.END_NODE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        if (output instanceof Closeable) {
+            ((Closeable) output).close();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (output instanceof Flushable) {
+            ((Flushable) output).flush();
+        }
+    }
+
+    private void ensureHeader() throws IOException {
+        if (!headerWritten) {
+            output.writeByte(BinaryTokens.STREAM_VERSION);
+            headerWritten = true;
+        }
+    }
+
+    private void writeToken(final byte token) throws IOException {
+        ensureHeader();
+        output.writeByte(token);
+    }
+
+    private void startNode(final byte token, final NodeIdentifier name, final int childSizeHint) throws IOException {
+        writeToken(token);
+        writeQName(name.getNodeType());
+        writeSizeHint(childSizeHint);
+    }
+
+    private void writeSizeHint(final int childSizeHint) throws IOException {
+        // UNKNOWN_SIZE (and any other negative value) is mapped to 0
+        WritableObjects.writeLong(output, childSizeHint < 0 ? 0 : childSizeHint + 1L);
+    }
+
+    private void writeModule(final QNameModule module) throws IOException {
+        final Integer index = modules.get(module);
+        if (index != null) {
+            WritableObjects.writeLong(output, index);
+            return;
+        }
+
+        modules.put(module, modules.size());
+        WritableObjects.writeLong(output, 0, BinaryTokens.DICTIONARY_DEFINITION);
+        writeString(module.getNamespace().toString());
+        final String revision = module.getFormattedRevision();
+        if (revision != null) {
+            output.writeBoolean(true);
+            writeString(revision);
+        } else {
+            output.writeBoolean(false);
+        }
+    }
+
+    private void writeQName(final QName qname) throws IOException {
+        final Integer index = qnames.get(qname);
+        if (index != null) {
+            WritableObjects.writeLong(output, index);
+            return;
+        }
+
+        qnames.put(qname, qnames.size());
+        WritableObjects.writeLong(output, 0, BinaryTokens.DICTIONARY_DEFINITION);
+        writeModule(qname.getModule());
+        writeString(qname.getLocalName());
+    }
+
+    private void writeString(final String str) throws IOException {
+        final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        WritableObjects.writeLong(output, bytes.length);
+        output.write(bytes);
+    }
+
+    private void writeBytes(final byte[] bytes) throws IOException {
+        WritableObjects.writeLong(output, bytes.length);
+        output.write(bytes);
+    }
+
+    private void writeZigZag(final long value) throws IOException {
+        WritableObjects.writeLong(output, (value << 1) ^ (value >> 63));
+    }
+
+    private void writeIdentifier(final YangInstanceIdentifier identifier) throws IOException {
+        final Collection<PathArgument> args = identifier.getPathArguments();
+        WritableObjects.writeLong(output, args.size());
+        for (final PathArgument arg : args) {
+            writeArgument(arg);
+        }
+    }
+
+    private void writeArgument(final PathArgument arg) throws IOException {
+        if (arg instanceof NodeIdentifier) {
+            output.writeByte(BinaryTokens.NODE_IDENTIFIER);
+            writeQName(arg.getNodeType());
+        } else if (arg instanceof NodeIdentifierWithPredicates) {
+            output.writeByte(BinaryTokens.NODE_IDENTIFIER_WITH_PREDICATES);
+            writePredicates((NodeIdentifierWithPredicates) arg);
+        } else if (arg instanceof NodeWithValue) {
+            output.writeByte(BinaryTokens.NODE_WITH_VALUE);
+            writeQName(arg.getNodeType());
+            writeValue(((NodeWithValue<?>) arg).getValue());
+        } else if (arg instanceof AugmentationIdentifier) {
+            output.writeByte(BinaryTokens.AUGMENTATION_IDENTIFIER);
+            writeAugmentation((AugmentationIdentifier) arg);
+        } else {
+            throw new IllegalArgumentException("Unhandled path argument " + arg);
+        }
+    }
+
+    private void writePredicates(final NodeIdentifierWithPredicates identifier) throws IOException {
+        writeQName(identifier.getNodeType());
+        final Map<QName, Object> keys = identifier.getKeyValues();
+        WritableObjects.writeLong(output, keys.size());
+        for (final Entry<QName, Object> e : keys.entrySet()) {
+            writeQName(e.getKey());
+            writeValue(e.getValue());
+        }
+    }
+
+    private void writeAugmentation(final AugmentationIdentifier identifier) throws IOException {
+        final Set<QName> names = identifier.getPossibleChildNames();
+        WritableObjects.writeLong(output, names.size());
+        for (final QName name : names) {
+            writeQName(name);
+        }
+    }
+
+    private void writeValue(final Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(BinaryTokens.VALUE_NULL);
+        } else if (value instanceof String) {
+            output.writeByte(BinaryTokens.VALUE_STRING);
+            writeString((String) value);
+        } else if (value instanceof Boolean) {
+            output.writeByte((Boolean) value ? BinaryTokens.VALUE_TRUE : BinaryTokens.VALUE_FALSE);
+        } else if (value instanceof Byte) {
+            output.writeByte(BinaryTokens.VALUE_BYTE);
+            output.writeByte((Byte) value);
+        } else if (value instanceof Short) {
+            output.writeByte(BinaryTokens.VALUE_SHORT);
+            writeZigZag((Short) value);
+        } else if (value instanceof Integer) {
+            output.writeByte(BinaryTokens.VALUE_INT);
+            writeZigZag((Integer) value);
+        } else if (value instanceof Long) {
+            output.writeByte(BinaryTokens.VALUE_LONG);
+            writeZigZag((Long) value);
+        } else if (value instanceof BigInteger) {
+            output.writeByte(BinaryTokens.VALUE_BIG_INTEGER);
+            writeBytes(((BigInteger) value).toByteArray());
+        } else if (value instanceof BigDecimal) {
+            final BigDecimal decimal = (BigDecimal) value;
+            output.writeByte(BinaryTokens.VALUE_BIG_DECIMAL);
+            writeZigZag(decimal.scale());
+            writeBytes(decimal.unscaledValue().toByteArray());
+        } else if (value instanceof byte[]) {
+            output.writeByte(BinaryTokens.VALUE_BINARY);
+            writeBytes((byte[]) value);
+        } else if (value instanceof QName) {
+            output.writeByte(BinaryTokens.VALUE_QNAME);
+            writeQName((QName) value);
+        } else if (value instanceof Set) {
+            writeBits((Set<?>) value);
+        } else if (value instanceof YangInstanceIdentifier) {
+            output.writeByte(BinaryTokens.VALUE_YANG_INSTANCE_IDENTIFIER);
+            writeIdentifier((YangInstanceIdentifier) value);
+        } else if (value instanceof DOMSource) {
+            output.writeByte(BinaryTokens.VALUE_DOM_SOURCE);
+            writeString(serializeSource((DOMSource) value));
+        } else {
+            throw new IllegalArgumentException("Unhandled value type " + value.getClass());
+        }
+    }
+
+    private void writeBits(final Set<?> bits) throws IOException {
+        // Sets are only produced by the bits codec, reject anything else before writing any part of the value
+        for (final Object bit : bits) {
+            Preconditions.checkArgument(bit instanceof String, "Unhandled bit %s in value %s, only sets of bit names"
+                    + " are supported", bit, bits);
+        }
+
+        output.writeByte(BinaryTokens.VALUE_BITS);
+        WritableObjects.writeLong(output, bits.size());
+        for (final Object bit : bits) {
+            writeString((String) bit);
+        }
+    }
+
+    private static String serializeSource(final DOMSource source) throws IOException {
+        final StringWriter writer = new StringWriter();
+        try {
+            TransformerFactory.newInstance().newTransformer().transform(source, new StreamResult(writer));
+        } catch (TransformerException | TransformerFactoryConfigurationError e) {
+            throw new IOException("Failed to serialize anyxml value " + source, e);
+        }
+        return writer.toString();
+    }
+}
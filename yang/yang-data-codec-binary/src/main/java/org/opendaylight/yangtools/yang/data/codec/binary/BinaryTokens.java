@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binary;
+
+/**
+ * Constants shared between {@link BinaryNormalizedNodeStreamWriter} and {@link BinaryNormalizedNodeInputStream}.
+ *
+ * <p>A stream starts with {@link #STREAM_VERSION}, followed by any number of nodes, path arguments and instance
+ * identifiers. Each node is a node token followed by its identifier and, for leaves, a value token and the encoded
+ * value. Start tokens are followed by a size hint and are balanced by {@link #END_NODE}.
+ *
+ * <p>{@link org.opendaylight.yangtools.yang.common.QName}s and
+ * {@link org.opendaylight.yangtools.yang.common.QNameModule}s are written into per-stream dictionaries. The first
+ * occurrence is written as a definition, marked by {@link #DICTIONARY_DEFINITION} in the flags of a
+ * {@link org.opendaylight.yangtools.concepts.WritableObjects#writeLong(java.io.DataOutput, long, int)} header,
+ * subsequent occurrences are written as the index of that definition.
+ */
+final class BinaryTokens {
+    static final byte STREAM_VERSION = 1;
+
+    static final int DICTIONARY_DEFINITION = 0x10;
+
+    // Node tokens
+    static final byte LEAF = 1;
+    static final byte LEAF_SET = 2;
+    static final byte ORDERED_LEAF_SET = 3;
+    static final byte LEAF_SET_ENTRY = 4;
+    static final byte CONTAINER = 5;
+    static final byte UNKEYED_LIST = 6;
+    static final byte UNKEYED_LIST_ITEM = 7;
+    static final byte MAP = 8;
+    static final byte MAP_ENTRY = 9;
+    static final byte ORDERED_MAP = 10;
+    static final byte CHOICE = 11;
+    static final byte AUGMENTATION = 12;
+    static final byte ANYXML = 13;
+    static final byte YANG_MODELED_ANYXML = 14;
+    static final byte END_NODE = 15;
+
+    // Path argument tokens
+    static final byte NODE_IDENTIFIER = 1;
+    static final byte NODE_IDENTIFIER_WITH_PREDICATES = 2;
+    static final byte NODE_WITH_VALUE = 3;
+    static final byte AUGMENTATION_IDENTIFIER = 4;
+
+    // Value tokens
+    static final byte VALUE_NULL = 0;
+    static final byte VALUE_STRING = 1;
+    static final byte VALUE_FALSE = 2;
+    static final byte VALUE_TRUE = 3;
+    static final byte VALUE_BYTE = 4;
+    static final byte VALUE_SHORT = 5;
+    static final byte VALUE_INT = 6;
+    static final byte VALUE_LONG = 7;
+    static final byte VALUE_BIG_INTEGER = 8;
+    static final byte VALUE_BIG_DECIMAL = 9;
+    static final byte VALUE_BINARY = 10;
+    static final byte VALUE_QNAME = 11;
+    static final byte VALUE_BITS = 12;
+    static final byte VALUE_YANG_INSTANCE_IDENTIFIER = 13;
+    static final byte VALUE_DOM_SOURCE = 14;
+
+    private BinaryTokens() {
+        throw new UnsupportedOperationException();
+    }
+}
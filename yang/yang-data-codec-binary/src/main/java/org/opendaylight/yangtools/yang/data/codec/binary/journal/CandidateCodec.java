@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binary.journal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidates;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.data.codec.binary.BinaryNormalizedNodeInputStream;
+import org.opendaylight.yangtools.yang.data.codec.binary.BinaryNormalizedNodeStreamWriter;
+
+/**
+ * Serialization of {@link DataTreeCandidate}s. Only the information needed to replay a candidate through
+ * {@link DataTreeCandidates#applyToModification(org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification,
+ * DataTreeCandidate)} is retained: unmodified nodes are skipped, written nodes carry their after-image and
+ * {@link ModificationType#APPEARED} and {@link ModificationType#DISAPPEARED} are recorded as subtree modifications.
+ */
+final class CandidateCodec {
+    private static final byte DELETE = 0;
+    private static final byte WRITE = 1;
+    private static final byte SUBTREE_MODIFIED = 2;
+
+    private CandidateCodec() {
+        throw new UnsupportedOperationException();
+    }
+
+    static void writeCandidate(final DataOutput output, final DataTreeCandidate candidate) throws IOException {
+        final BinaryNormalizedNodeStreamWriter writer = BinaryNormalizedNodeStreamWriter.create(output);
+        writer.writeYangInstanceIdentifier(candidate.getRootPath());
+        writeNode(writer, output, candidate.getRootNode());
+    }
+
+    static DataTreeCandidate readCandidate(final DataInput input) throws IOException {
+        final BinaryNormalizedNodeInputStream reader = BinaryNormalizedNodeInputStream.create(input);
+        final YangInstanceIdentifier rootPath = reader.readYangInstanceIdentifier();
+        return DataTreeCandidates.newDataTreeCandidate(rootPath, readNode(reader, input));
+    }
+
+    private static void writeNode(final BinaryNormalizedNodeStreamWriter writer, final DataOutput output,
+            final DataTreeCandidateNode node) throws IOException {
+        writer.writePathArgument(node.getIdentifier());
+
+        switch (node.getModificationType()) {
+            case DELETE:
+                output.writeByte(DELETE);
+                break;
+            case WRITE:
+                output.writeByte(WRITE);
+                writer.writeNormalizedNode(node.getDataAfter().get());
+                break;
+            case APPEARED:
+            case DISAPPEARED:
+            case SUBTREE_MODIFIED:
+                final List<DataTreeCandidateNode> children = new ArrayList<>();
+                for (DataTreeCandidateNode child : node.getChildNodes()) {
+                    if (child.getModificationType() != ModificationType.UNMODIFIED) {
+                        children.add(child);
+                    }
+                }
+
+                output.writeByte(SUBTREE_MODIFIED);
+                output.writeInt(children.size());
+                for (DataTreeCandidateNode child : children) {
+                    writeNode(writer, output, child);
+                }
+                break;
+            case UNMODIFIED:
+                // Should have been filtered out by the parent, except for the root. Record as no-op.
+                output.writeByte(SUBTREE_MODIFIED);
+                output.writeInt(0);
+                break;
+            default:
+                throw new IllegalArgumentException("Unhandled modification type " + node.getModificationType());
+        }
+    }
+
+    private static DataTreeCandidateNode readNode(final BinaryNormalizedNodeInputStream reader,
+            final DataInput input) throws IOException {
+        final PathArgument identifier = reader.readPathArgument();
+        final byte type = input.readByte();
+        switch (type) {
+            case DELETE:
+                return RecoveredCandidateNode.deleted(identifier);
+            case WRITE:
+                return RecoveredCandidateNode.written(identifier, reader.readNormalizedNode());
+            case SUBTREE_MODIFIED:
+                final int size = input.readInt();
+                if (size < 0) {
+                    throw new StreamCorruptedException("Invalid child count " + size);
+                }
+
+                final Map<PathArgument, DataTreeCandidateNode> children = new LinkedHashMap<>();
+                for (int i = 0; i < size; ++i) {
+                    final DataTreeCandidateNode child = readNode(reader, input);
+                    children.put(child.getIdentifier(), child);
+                }
+                return RecoveredCandidateNode.modified(identifier, children);
+            default:
+                throw new StreamCorruptedException("Invalid modification type " + type);
+        }
+    }
+}
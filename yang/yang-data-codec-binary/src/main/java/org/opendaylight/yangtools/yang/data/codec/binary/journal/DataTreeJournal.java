@@ -0,0 +1,617 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binary.journal;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidates;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.codec.binary.BinaryNormalizedNodeInputStream;
+import org.opendaylight.yangtools.yang.data.codec.binary.BinaryNormalizedNodeStreamWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Durability layer for a {@link DataTree}. Each committed {@link DataTreeCandidate} is appended to a write-ahead log
+ * and the contents of the data tree are periodically written into a snapshot, which allows older parts of the log to be
+ * discarded. When a journal is opened, the data tree is restored from the most recent snapshot and the log records
+ * following it, so recovery time is bounded by the size of the log tail rather than the size of the data.
+ *
+ * <p>The journal is kept in a dedicated directory, which contains:
+ * <ul>
+ *   <li>snapshot files, named {@code snapshot-<sequence>.bin}, each holding the data tree contents after applying
+ *       all records up to and including the sequence number,</li>
+ *   <li>log segments, named {@code journal-<sequence>.log}, holding consecutive records starting at the sequence
+ *       number.</li>
+ * </ul>
+ * Both file types are protected by CRC32 checksums. A torn record at the end of the log, as left behind by a crash,
+ * is discarded during recovery.
+ *
+ * <p>Records are written through a {@link FileChannel}. Synchronization to stable storage is performed asynchronously
+ * on the supplied executor and is shared by all records written since the previous synchronization, so concurrent
+ * committers amortize the cost of {@link FileChannel#force(boolean)}.
+ *
+ * <p>All commits to the data tree need to be performed through {@link #commit(DataTreeCandidate)} while the journal
+ * is open.
+ */
+@Beta
+@ThreadSafe
+public final class DataTreeJournal implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(DataTreeJournal.class);
+
+    private static final long DEFAULT_MAX_SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final int SNAPSHOT_MAGIC = 0x594A534E;
+    private static final int SEGMENT_MAGIC = 0x594A4C47;
+    private static final byte FORMAT_VERSION = 1;
+    private static final int SEGMENT_HEADER_SIZE = 5;
+    // Record header: payload length, sequence number, CRC32 of sequence number and payload
+    private static final int RECORD_HEADER_SIZE = 16;
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final List<SettableFuture<Void>> unsynced = new ArrayList<>();
+    private final AtomicBoolean syncScheduled = new AtomicBoolean();
+    private final AtomicBoolean snapshotScheduled = new AtomicBoolean();
+    private final Object syncLock = new Object();
+    private final Object lock = new Object();
+    private final DataTree dataTree;
+    private final Path directory;
+    private final Executor executor;
+    private final long maxSegmentSize;
+
+    private final Runnable syncTask = new Runnable() {
+        @Override
+        public void run() {
+            sync();
+        }
+    };
+
+    @GuardedBy("lock")
+    private FileChannel segment;
+    @GuardedBy("lock")
+    private long segmentSize;
+    @GuardedBy("lock")
+    private long lastSequence;
+    @GuardedBy("lock")
+    private IOException failure;
+
+    private DataTreeJournal(final DataTree dataTree, final Path directory, final Executor executor,
+            final long maxSegmentSize) {
+        this.dataTree = Preconditions.checkNotNull(dataTree);
+        this.directory = Preconditions.checkNotNull(directory);
+        this.executor = Preconditions.checkNotNull(executor);
+        Preconditions.checkArgument(maxSegmentSize > 0, "Segment size %s is not positive", maxSegmentSize);
+        this.maxSegmentSize = maxSegmentSize;
+    }
+
+    /**
+     * Open a journal with default maximum log segment size, recovering the contents of the data tree.
+     *
+     * @param dataTree Data tree, which must have its schema context set
+     * @param directory Directory holding the journal, created if it does not exist
+     * @param executor Executor used for synchronizing the log and writing snapshots
+     * @return An open journal
+     * @throws IOException if the journal cannot be read or written
+     * @throws DataValidationFailedException if recovered data fail to validate against the data tree
+     */
+    public static DataTreeJournal open(@Nonnull final DataTree dataTree, @Nonnull final Path directory,
+            @Nonnull final Executor executor) throws IOException, DataValidationFailedException {
+        return open(dataTree, directory, executor, DEFAULT_MAX_SEGMENT_SIZE);
+    }
+
+    /**
+     * Open a journal, recovering the contents of the data tree. A snapshot is taken whenever a log segment grows
+     * beyond specified size.
+     *
+     * @param dataTree Data tree, which must have its schema context set
+     * @param directory Directory holding the journal, created if it does not exist
+     * @param executor Executor used for synchronizing the log and writing snapshots
+     * @param maxSegmentSize Log segment size, in bytes, which triggers a snapshot
+     * @return An open journal
+     * @throws IOException if the journal cannot be read or written
+     * @throws DataValidationFailedException if recovered data fail to validate against the data tree
+     */
+    public static DataTreeJournal open(@Nonnull final DataTree dataTree, @Nonnull final Path directory,
+            @Nonnull final Executor executor, final long maxSegmentSize) throws IOException,
+            DataValidationFailedException {
+        final DataTreeJournal ret = new DataTreeJournal(dataTree, directory, executor, maxSegmentSize);
+        Files.createDirectories(directory);
+        ret.recover();
+        return ret;
+    }
+
+    /**
+     * Commit a candidate to the data tree and append it to the log. The returned future completes once the record
+     * has reached stable storage.
+     *
+     * @param candidate Candidate prepared by the data tree
+     * @return Future completing when the candidate is durable
+     * @throws IOException if the journal has previously failed or the record cannot be written. The candidate is not
+     *         committed in that case.
+     */
+    public ListenableFuture<Void> commit(@Nonnull final DataTreeCandidate candidate) throws IOException {
+        // Serialize outside of the lock, so only the append is serialized
+        final ByteArrayDataOutput payload = ByteStreams.newDataOutput();
+        CandidateCodec.writeCandidate(payload, candidate);
+        final byte[] bytes = payload.toByteArray();
+
+        final SettableFuture<Void> future = SettableFuture.create();
+        final boolean needSnapshot;
+        synchronized (lock) {
+            if (failure != null) {
+                throw new IOException("Journal has failed", failure);
+            }
+            Preconditions.checkState(segment != null, "Journal %s is closed", directory);
+
+            // Append the record first, so a candidate is never committed without being journaled
+            final long previousSize = segmentSize;
+            try {
+                appendRecord(lastSequence + 1, bytes);
+            } catch (IOException e) {
+                LOG.error("Journal {} failed to append record", directory, e);
+                failure = e;
+                throw e;
+            }
+
+            try {
+                dataTree.commit(candidate);
+            } catch (RuntimeException e) {
+                // The candidate has been rejected, remove its record so it is not replayed on recovery
+                try {
+                    segment.truncate(previousSize);
+                    segment.position(previousSize);
+                    segmentSize = previousSize;
+                } catch (IOException te) {
+                    LOG.error("Journal {} failed to remove record of rejected candidate", directory, te);
+                    e.addSuppressed(te);
+                    failure = te;
+                }
+                throw e;
+            }
+
+            lastSequence++;
+            unsynced.add(future);
+            needSnapshot = segmentSize >= maxSegmentSize;
+        }
+
+        if (syncScheduled.compareAndSet(false, true)) {
+            execute(syncTask);
+        }
+        if (needSnapshot) {
+            snapshot();
+        }
+        return future;
+    }
+
+    /**
+     * Schedule a snapshot of the data tree. Log segments covered by the snapshot are removed once it is written.
+     *
+     * @return Future completing when the snapshot has been written
+     */
+    public ListenableFuture<Void> snapshot() {
+        final SettableFuture<Void> future = SettableFuture.create();
+        if (!snapshotScheduled.compareAndSet(false, true)) {
+            // A snapshot is already pending, it will cover the current state well enough
+            future.set(null);
+            return future;
+        }
+
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    writeSnapshot();
+                    future.set(null);
+                } catch (IOException | RuntimeException e) {
+                    LOG.warn("Journal {} failed to write snapshot", directory, e);
+                    future.setException(e);
+                } finally {
+                    snapshotScheduled.set(false);
+                }
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (syncLock) {
+            synchronized (lock) {
+                if (segment != null) {
+                    try {
+                        forceAndComplete();
+                    } finally {
+                        segment.close();
+                        segment = null;
+                    }
+                }
+            }
+        }
+    }
+
+    private void execute(final Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            LOG.debug("Executor {} rejected task, running it in the current thread", executor, e);
+            task.run();
+        }
+    }
+
+    private void sync() {
+        while (syncScheduled.compareAndSet(true, false)) {
+            synchronized (syncLock) {
+                final List<SettableFuture<Void>> batch;
+                final FileChannel channel;
+                synchronized (lock) {
+                    if (unsynced.isEmpty() || segment == null) {
+                        continue;
+                    }
+                    batch = new ArrayList<>(unsynced);
+                    unsynced.clear();
+                    channel = segment;
+                }
+
+                // Segments are rotated only while holding syncLock, hence the channel remains open
+                try {
+                    channel.force(false);
+                } catch (IOException e) {
+                    LOG.error("Journal {} failed to synchronize", directory, e);
+                    synchronized (lock) {
+                        failure = e;
+                    }
+                    for (SettableFuture<Void> f : batch) {
+                        f.setException(e);
+                    }
+                    continue;
+                }
+
+                LOG.trace("Journal {} synchronized {} records", directory, batch.size());
+                for (SettableFuture<Void> f : batch) {
+                    f.set(null);
+                }
+            }
+        }
+    }
+
+    @GuardedBy("lock")
+    private void forceAndComplete() throws IOException {
+        final List<SettableFuture<Void>> batch = new ArrayList<>(unsynced);
+        unsynced.clear();
+        try {
+            segment.force(false);
+        } catch (IOException e) {
+            for (SettableFuture<Void> f : batch) {
+                f.setException(e);
+            }
+            throw e;
+        }
+        for (SettableFuture<Void> f : batch) {
+            f.set(null);
+        }
+    }
+
+    @GuardedBy("lock")
+    private void appendRecord(final long sequence, final byte[] payload) throws IOException {
+        final CRC32 crc = new CRC32();
+        final ByteBuffer buf = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length);
+        buf.putInt(payload.length).putLong(sequence);
+        crc.update(buf.array(), 4, 8);
+        crc.update(payload);
+        buf.putInt((int) crc.getValue()).put(payload);
+        buf.flip();
+        while (buf.hasRemaining()) {
+            segment.write(buf);
+        }
+        segmentSize += RECORD_HEADER_SIZE + payload.length;
+    }
+
+    @GuardedBy("lock")
+    private void openSegment(final long firstSequence) throws IOException {
+        final Path path = directory.resolve(fileName(SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        final ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE);
+        header.putInt(SEGMENT_MAGIC).put(FORMAT_VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(true);
+
+        segment = channel;
+        segmentSize = SEGMENT_HEADER_SIZE;
+        LOG.debug("Journal {} opened segment {}", directory, path);
+    }
+
+    private void writeSnapshot() throws IOException {
+        final Optional<NormalizedNode<?, ?>> data;
+        final long sequence;
+        synchronized (syncLock) {
+            synchronized (lock) {
+                Preconditions.checkState(segment != null, "Journal %s is closed", directory);
+                data = dataTree.takeSnapshot().readNode(YangInstanceIdentifier.EMPTY);
+                sequence = lastSequence;
+
+                // Rotate the log, so that the current segment is completely covered by the snapshot. If the segment
+                // is empty, it already starts at the next sequence number.
+                if (segmentSize > SEGMENT_HEADER_SIZE) {
+                    forceAndComplete();
+                    segment.close();
+                    segment = null;
+                    openSegment(sequence + 1);
+                }
+            }
+        }
+
+        final Path target = directory.resolve(fileName(SNAPSHOT_PREFIX, sequence, SNAPSHOT_SUFFIX));
+        final Path temp = directory.resolve(target.getFileName() + TEMP_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            final OutputStream os = Channels.newOutputStream(channel);
+            final CRC32 crc = new CRC32();
+            final DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(os),
+                crc));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(sequence);
+            out.writeBoolean(data.isPresent());
+            if (data.isPresent()) {
+                BinaryNormalizedNodeStreamWriter.create(out).writeNormalizedNode(data.get());
+            }
+            out.flush();
+            new DataOutputStream(os).writeInt((int) crc.getValue());
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        LOG.info("Journal {} wrote snapshot at sequence {}", directory, sequence);
+
+        // Remove everything the new snapshot supersedes
+        for (Path path : listFiles(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (sequenceOf(path, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX) < sequence) {
+                Files.deleteIfExists(path);
+            }
+        }
+        for (Path path : listFiles(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (sequenceOf(path, SEGMENT_PREFIX, SEGMENT_SUFFIX) <= sequence) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private void recover() throws IOException, DataValidationFailedException {
+        // Load the most recent readable snapshot
+        long sequence = 0;
+        final List<Path> snapshots = listFiles(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        Collections.reverse(snapshots);
+        for (Path path : snapshots) {
+            final Optional<NormalizedNode<?, ?>> data;
+            try {
+                data = readSnapshot(path, sequenceOf(path, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX));
+            } catch (IOException e) {
+                LOG.warn("Journal {} ignoring unreadable snapshot {}", directory, path, e);
+                continue;
+            }
+
+            final DataTreeModification mod = dataTree.takeSnapshot().newModification();
+            if (data.isPresent()) {
+                mod.write(YangInstanceIdentifier.EMPTY, data.get());
+            } else {
+                mod.delete(YangInstanceIdentifier.EMPTY);
+            }
+            commitRecovered(mod);
+            sequence = sequenceOf(path, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+            LOG.debug("Journal {} restored snapshot {}", directory, path);
+            break;
+        }
+
+        // Replay the log tail
+        final List<Path> segments = listFiles(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        int replayed = 0;
+        boolean intact = true;
+        for (Path path : segments) {
+            if (!intact) {
+                LOG.warn("Journal {} discarding segment {} following a damaged segment", directory, path);
+                Files.delete(path);
+                continue;
+            }
+
+            final long first = sequenceOf(path, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+            if (first > sequence + 1) {
+                LOG.warn("Journal {} segment {} does not follow sequence {}", directory, path, sequence);
+                intact = false;
+                Files.delete(path);
+                continue;
+            }
+
+            try (InputStream is = new BufferedInputStream(Files.newInputStream(path))) {
+                final DataInputStream in = new DataInputStream(is);
+                final long size = Files.size(path);
+                long offset = SEGMENT_HEADER_SIZE;
+                long expected = first;
+                try {
+                    if (in.readInt() != SEGMENT_MAGIC || in.readByte() != FORMAT_VERSION) {
+                        throw new StreamCorruptedException("Invalid segment header");
+                    }
+
+                    while (true) {
+                        final byte[] payload = readRecord(in, expected, size - offset - RECORD_HEADER_SIZE);
+                        if (payload == null) {
+                            break;
+                        }
+                        if (expected > sequence) {
+                            final DataTreeModification mod = dataTree.takeSnapshot().newModification();
+                            DataTreeCandidates.applyToModification(mod,
+                                CandidateCodec.readCandidate(new DataInputStream(new ByteArrayInputStream(payload))));
+                            commitRecovered(mod);
+                            sequence = expected;
+                            replayed++;
+                        }
+                        offset += RECORD_HEADER_SIZE + payload.length;
+                        expected++;
+                    }
+                } catch (IOException e) {
+                    LOG.warn("Journal {} segment {} is damaged at offset {}, discarding the rest of the log", directory,
+                        path, offset, e);
+                    intact = false;
+                }
+
+                if (!intact) {
+                    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                        channel.truncate(offset);
+                    }
+                }
+            }
+        }
+
+        synchronized (lock) {
+            // A segment starting after the last recovered record has no valid records
+            Files.deleteIfExists(directory.resolve(fileName(SEGMENT_PREFIX, sequence + 1, SEGMENT_SUFFIX)));
+            lastSequence = sequence;
+            openSegment(sequence + 1);
+        }
+        LOG.info("Journal {} recovered up to sequence {}, replayed {} records", directory, sequence, replayed);
+    }
+
+    private void commitRecovered(final DataTreeModification mod) throws DataValidationFailedException {
+        mod.ready();
+        dataTree.validate(mod);
+        dataTree.commit(dataTree.prepare(mod));
+    }
+
+    /*
+     * Read a single record. Returns null on clean end of segment, throws an IOException if the record is torn or
+     * otherwise damaged. The payload length is checked against the remaining bytes in the segment before anything
+     * is allocated, as a damaged length could be arbitrarily large.
+     */
+    private static byte[] readRecord(final DataInputStream in, final long expectedSequence,
+            final long maxLength) throws IOException {
+        final int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (length < 0) {
+            throw new StreamCorruptedException("Invalid record length " + length);
+        }
+        if (length > maxLength) {
+            throw new EOFException("Record length " + length + " exceeds remaining " + Math.max(maxLength, 0)
+                + " bytes");
+        }
+
+        final long sequence = in.readLong();
+        final int checksum = in.readInt();
+        final byte[] payload = new byte[length];
+        in.readFully(payload);
+
+        final CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(8).putLong(sequence).array());
+        crc.update(payload);
+        if ((int) crc.getValue() != checksum) {
+            throw new StreamCorruptedException("Record checksum mismatch");
+        }
+        if (sequence != expectedSequence) {
+            throw new StreamCorruptedException("Expected record " + expectedSequence + ", found " + sequence);
+        }
+        return payload;
+    }
+
+    private static Optional<NormalizedNode<?, ?>> readSnapshot(final Path path, final long expectedSequence)
+            throws IOException {
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(path))) {
+            final CRC32 crc = new CRC32();
+            final DataInputStream in = new DataInputStream(new CheckedInputStream(is, crc));
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readByte() != FORMAT_VERSION) {
+                throw new StreamCorruptedException("Invalid snapshot header");
+            }
+            final long sequence = in.readLong();
+            if (sequence != expectedSequence) {
+                throw new StreamCorruptedException("Snapshot sequence " + sequence + " does not match file name");
+            }
+
+            final Optional<NormalizedNode<?, ?>> ret;
+            if (in.readBoolean()) {
+                ret = Optional.<NormalizedNode<?, ?>>of(BinaryNormalizedNodeInputStream.create(in)
+                    .readNormalizedNode());
+            } else {
+                ret = Optional.absent();
+            }
+
+            final int expected = (int) crc.getValue();
+            if (new DataInputStream(is).readInt() != expected) {
+                throw new StreamCorruptedException("Snapshot checksum mismatch");
+            }
+            return ret;
+        }
+    }
+
+    private List<Path> listFiles(final String prefix, final String suffix) throws IOException {
+        final List<Path> ret = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+            for (Path path : stream) {
+                ret.add(path);
+            }
+        }
+
+        // Sequence numbers are zero-padded, hence lexicographic order matches numeric order
+        Collections.sort(ret);
+        return ret;
+    }
+
+    private static String fileName(final String prefix, final long sequence, final String suffix) {
+        return String.format("%s%016x%s", prefix, sequence, suffix);
+    }
+
+    private static long sequenceOf(final Path path, final String prefix, final String suffix) {
+        final String name = path.getFileName().toString();
+        return Long.parseUnsignedLong(name.substring(prefix.length(), name.length() - suffix.length()), 16);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binary.journal;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+
+/**
+ * A {@link DataTreeCandidateNode} read back from the journal. The before-image is not journalled, hence it is never
+ * available.
+ */
+final class RecoveredCandidateNode implements DataTreeCandidateNode {
+    private final Map<PathArgument, DataTreeCandidateNode> children;
+    private final Optional<NormalizedNode<?, ?>> dataAfter;
+    private final ModificationType type;
+    private final PathArgument identifier;
+
+    private RecoveredCandidateNode(final PathArgument identifier, final ModificationType type,
+            final Optional<NormalizedNode<?, ?>> dataAfter, final Map<PathArgument, DataTreeCandidateNode> children) {
+        this.identifier = Preconditions.checkNotNull(identifier);
+        this.type = Preconditions.checkNotNull(type);
+        this.dataAfter = Preconditions.checkNotNull(dataAfter);
+        this.children = Preconditions.checkNotNull(children);
+    }
+
+    static DataTreeCandidateNode deleted(final PathArgument identifier) {
+        return new RecoveredCandidateNode(identifier, ModificationType.DELETE, Optional.<NormalizedNode<?, ?>>absent(),
+            Collections.<PathArgument, DataTreeCandidateNode>emptyMap());
+    }
+
+    static DataTreeCandidateNode written(final PathArgument identifier, final NormalizedNode<?, ?> data) {
+        return new RecoveredCandidateNode(identifier, ModificationType.WRITE, Optional.<NormalizedNode<?, ?>>of(data),
+            Collections.<PathArgument, DataTreeCandidateNode>emptyMap());
+    }
+
+    static DataTreeCandidateNode modified(final PathArgument identifier,
+            final Map<PathArgument, DataTreeCandidateNode> children) {
+        return new RecoveredCandidateNode(identifier, ModificationType.SUBTREE_MODIFIED,
+            Optional.<NormalizedNode<?, ?>>absent(), children);
+    }
+
+    @Override
+    public PathArgument getIdentifier() {
+        return identifier;
+    }
+
+    @Override
+    public Collection<DataTreeCandidateNode> getChildNodes() {
+        return children.values();
+    }
+
+    @Override
+    public DataTreeCandidateNode getModifiedChild(final PathArgument childIdentifier) {
+        return children.get(childIdentifier);
+    }
+
+    @Override
+    public ModificationType getModificationType() {
+        return type;
+    }
+
+    @Nonnull
+    @Override
+    public Optional<NormalizedNode<?, ?>> getDataAfter() {
+        return dataAfter;
+    }
+
+    @Nonnull
+    @Override
+    public Optional<NormalizedNode<?, ?>> getDataBefore() {
+        return Optional.absent();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{identifier=" + identifier + ", type=" + type + "}";
+    }
+}
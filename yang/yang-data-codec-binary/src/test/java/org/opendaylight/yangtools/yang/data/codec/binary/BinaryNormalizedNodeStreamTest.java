@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binary;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+
+public class BinaryNormalizedNodeStreamTest {
+    private static final QName TOP = QName.create("urn:test:binary", "2016-10-16", "top");
+    private static final QName LIST = QName.create(TOP, "list");
+    private static final QName ID = QName.create(TOP, "id");
+    private static final QName NAME = QName.create(TOP, "name");
+    private static final QName LEAF_LIST = QName.create(TOP, "leaf-list");
+    private static final QName UNKEYED = QName.create(TOP, "unkeyed");
+    private static final QName CHOICE = QName.create(TOP, "choice");
+    private static final QName CASE_LEAF = QName.create(TOP, "case-leaf");
+    private static final QName AUGMENTED = QName.create("urn:test:binary:aug", "augmented");
+    private static final QName IDENTITY = QName.create("urn:test:binary:identity", "2016-10-16", "identity");
+
+    private static final YangInstanceIdentifier PATH = YangInstanceIdentifier.builder()
+            .node(TOP).node(LIST).nodeWithKey(LIST, ImmutableMap.of(ID, 5, NAME, "foo"))
+            .node(new AugmentationIdentifier(ImmutableSet.of(AUGMENTED))).node(AUGMENTED)
+            .node(LEAF_LIST).node(new NodeWithValue<>(LEAF_LIST, "bar"))
+            .build();
+
+    private static LeafNode<Object> leaf(final String localName, final Object value) {
+        return ImmutableNodes.leafNode(QName.create(TOP, localName), value);
+    }
+
+    private static ContainerNode createTestContainer() {
+        return Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(TOP))
+                .withChild(leaf("string", "a string é"))
+                .withChild(leaf("empty", null))
+                .withChild(leaf("boolean", Boolean.TRUE))
+                .withChild(leaf("byte", (byte) -8))
+                .withChild(leaf("short", (short) 255))
+                .withChild(leaf("int", Integer.MIN_VALUE))
+                .withChild(leaf("long", -1L))
+                .withChild(leaf("uint64", new BigInteger("18446744073709551615")))
+                .withChild(leaf("decimal", new BigDecimal("-3.1415")))
+                .withChild(leaf("identityref", IDENTITY))
+                .withChild(leaf("bits", ImmutableSet.of("one", "three")))
+                .withChild(leaf("instance-identifier", PATH))
+                .withChild(ImmutableNodes.mapNodeBuilder(LIST)
+                    .withChild(Builders.mapEntryBuilder()
+                        .withNodeIdentifier(new NodeIdentifierWithPredicates(LIST, ImmutableMap.of(ID, 1, NAME, "a")))
+                        .withChild(ImmutableNodes.leafNode(ID, 1))
+                        .withChild(ImmutableNodes.leafNode(NAME, "a"))
+                        .withChild(Builders.augmentationBuilder()
+                            .withNodeIdentifier(new AugmentationIdentifier(ImmutableSet.of(AUGMENTED)))
+                            .withChild(ImmutableNodes.leafNode(AUGMENTED, "augmented")).build())
+                        .build())
+                    .withChild(Builders.mapEntryBuilder()
+                        .withNodeIdentifier(new NodeIdentifierWithPredicates(LIST, ImmutableMap.of(ID, 2, NAME, "b")))
+                        .withChild(ImmutableNodes.leafNode(ID, 2))
+                        .withChild(ImmutableNodes.leafNode(NAME, "b"))
+                        .build())
+                    .build())
+                .withChild(Builders.orderedLeafSetBuilder().withNodeIdentifier(new NodeIdentifier(LEAF_LIST))
+                    .withChild(Builders.leafSetEntryBuilder().withNodeIdentifier(new NodeWithValue<>(LEAF_LIST, "x"))
+                        .withValue("x").build())
+                    .withChild(Builders.leafSetEntryBuilder().withNodeIdentifier(new NodeWithValue<>(LEAF_LIST, "y"))
+                        .withValue("y").build())
+                    .build())
+                .withChild(Builders.unkeyedListBuilder().withNodeIdentifier(new NodeIdentifier(UNKEYED))
+                    .withChild(Builders.unkeyedListEntryBuilder().withNodeIdentifier(new NodeIdentifier(UNKEYED))
+                        .withChild(leaf("entry", 1L)).build())
+                    .build())
+                .withChild(Builders.choiceBuilder().withNodeIdentifier(new NodeIdentifier(CHOICE))
+                    .withChild(ImmutableNodes.leafNode(CASE_LEAF, "case")).build())
+                .build();
+    }
+
+    @Test
+    public void testNormalizedNodeRoundTrip() throws IOException {
+        final ContainerNode container = createTestContainer();
+
+        final ByteArrayDataOutput output = ByteStreams.newDataOutput();
+        final BinaryNormalizedNodeStreamWriter writer = BinaryNormalizedNodeStreamWriter.create(output);
+        writer.writeNormalizedNode(container);
+        writer.writeNormalizedNode(container);
+
+        final BinaryNormalizedNodeInputStream input = BinaryNormalizedNodeInputStream.create(
+            ByteStreams.newDataInput(output.toByteArray()));
+        assertEquals(container, input.readNormalizedNode());
+        assertEquals(container, input.readNormalizedNode());
+    }
+
+    @Test
+    public void testDictionary() throws IOException {
+        final ContainerNode container = createTestContainer();
+
+        final ByteArrayDataOutput first = ByteStreams.newDataOutput();
+        BinaryNormalizedNodeStreamWriter.create(first).writeNormalizedNode(container);
+
+        final ByteArrayDataOutput both = ByteStreams.newDataOutput();
+        final BinaryNormalizedNodeStreamWriter writer = BinaryNormalizedNodeStreamWriter.create(both);
+        writer.writeNormalizedNode(container);
+        writer.writeNormalizedNode(container);
+
+        // The second copy refers to QNames defined by the first one, hence it is smaller
+        final int firstSize = first.toByteArray().length;
+        assertTrue(both.toByteArray().length - firstSize < firstSize);
+    }
+
+    @Test
+    public void testYangInstanceIdentifierRoundTrip() throws IOException {
+        final ByteArrayDataOutput output = ByteStreams.newDataOutput();
+        final BinaryNormalizedNodeStreamWriter writer = BinaryNormalizedNodeStreamWriter.create(output);
+        writer.writeYangInstanceIdentifier(PATH);
+        writer.writeYangInstanceIdentifier(YangInstanceIdentifier.EMPTY);
+        writer.writePathArgument(PATH.getLastPathArgument());
+
+        final BinaryNormalizedNodeInputStream input = BinaryNormalizedNodeInputStream.create(
+            ByteStreams.newDataInput(output.toByteArray()));
+        assertEquals(PATH, input.readYangInstanceIdentifier());
+        assertEquals(YangInstanceIdentifier.EMPTY, input.readYangInstanceIdentifier());
+        assertEquals(PATH.getLastPathArgument(), input.readPathArgument());
+    }
+
+    @Test
+    public void testBinaryValue() throws IOException {
+        final byte[] value = new byte[] { 0, 1, 2, -1 };
+
+        final ByteArrayDataOutput output = ByteStreams.newDataOutput();
+        BinaryNormalizedNodeStreamWriter.create(output).writeNormalizedNode(leaf("binary", value));
+
+        final NormalizedNode<?, ?> node = BinaryNormalizedNodeInputStream.create(
+            ByteStreams.newDataInput(output.toByteArray())).readNormalizedNode();
+        assertArrayEquals(value, (byte[]) node.getValue());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnexpectedSetValue() throws IOException {
+        BinaryNormalizedNodeStreamWriter.create(ByteStreams.newDataOutput())
+            .writeNormalizedNode(leaf("bits", ImmutableSet.of(1, 2)));
+    }
+
+    @Test(expected = StreamCorruptedException.class)
+    public void testUnsupportedVersion() throws IOException {
+        BinaryNormalizedNodeInputStream.create(ByteStreams.newDataInput(new byte[] { 0, 0 })).readNormalizedNode();
+    }
+}
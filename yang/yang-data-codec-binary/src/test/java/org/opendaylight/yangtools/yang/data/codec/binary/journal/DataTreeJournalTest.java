@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binary.journal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.parser.stmt.reactor.CrossSourceStatementReactor;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementSourceImpl;
+
+public class DataTreeJournalTest {
+    private static final QName TOP = QName.create("urn:test:journal", "2016-10-16", "top");
+    private static final QName ENTRY = QName.create(TOP, "entry");
+    private static final QName ID = QName.create(TOP, "id");
+    private static final QName VALUE = QName.create(TOP, "value");
+    private static final YangInstanceIdentifier TOP_PATH = YangInstanceIdentifier.of(TOP);
+    private static final YangInstanceIdentifier ENTRY_PATH = TOP_PATH.node(ENTRY);
+
+    private static SchemaContext schemaContext;
+
+    private final Path directory = Paths.get("target/journal-test");
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        final CrossSourceStatementReactor.BuildAction reactor = YangInferencePipeline.RFC6020_REACTOR.newBuild();
+        reactor.addSource(new YangStatementSourceImpl("/journal-test.yang", false));
+        schemaContext = reactor.buildEffective();
+    }
+
+    @Before
+    public void before() throws IOException {
+        if (Files.exists(directory)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                for (Path file : files) {
+                    Files.delete(file);
+                }
+            }
+        }
+        Files.createDirectories(directory);
+    }
+
+    private static DataTree createDataTree() {
+        final DataTree ret = InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        ret.setSchemaContext(schemaContext);
+        return ret;
+    }
+
+    private static DataTreeJournal openJournal(final DataTree dataTree, final Path directory) throws Exception {
+        return DataTreeJournal.open(dataTree, directory, MoreExecutors.directExecutor());
+    }
+
+    private static YangInstanceIdentifier entryPath(final int id) {
+        return YangInstanceIdentifier.builder(ENTRY_PATH).nodeWithKey(ENTRY, ID, id).build();
+    }
+
+    private static void writeEntry(final DataTree dataTree, final DataTreeJournal journal, final int id,
+            final String value) throws Exception {
+        final DataTreeModification mod = dataTree.takeSnapshot().newModification();
+        mod.write(entryPath(id), Builders.mapEntryBuilder()
+            .withNodeIdentifier(new YangInstanceIdentifier.NodeIdentifierWithPredicates(ENTRY, ID, id))
+            .withChild(ImmutableNodes.leafNode(ID, id))
+            .withChild(ImmutableNodes.leafNode(VALUE, value)).build());
+        mod.ready();
+        dataTree.validate(mod);
+        journal.commit(dataTree.prepare(mod)).get();
+    }
+
+    private static NormalizedNode<?, ?> readRoot(final DataTree dataTree) {
+        return dataTree.takeSnapshot().readNode(YangInstanceIdentifier.EMPTY).get();
+    }
+
+    private DataTree populate() throws Exception {
+        final DataTree dataTree = createDataTree();
+        try (DataTreeJournal journal = openJournal(dataTree, directory)) {
+            final DataTreeModification mod = dataTree.takeSnapshot().newModification();
+            mod.write(TOP_PATH, Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(TOP))
+                .withChild(ImmutableNodes.mapNodeBuilder(ENTRY).build()).build());
+            mod.ready();
+            dataTree.validate(mod);
+            journal.commit(dataTree.prepare(mod)).get();
+
+            for (int i = 0; i < 10; ++i) {
+                writeEntry(dataTree, journal, i, "value" + i);
+            }
+
+            final DataTreeModification delete = dataTree.takeSnapshot().newModification();
+            delete.delete(entryPath(5));
+            delete.ready();
+            dataTree.validate(delete);
+            journal.commit(dataTree.prepare(delete)).get();
+        }
+        return dataTree;
+    }
+
+    @Test
+    public void testReplay() throws Exception {
+        final DataTree original = populate();
+
+        final DataTree recovered = createDataTree();
+        openJournal(recovered, directory).close();
+        assertEquals(readRoot(original), readRoot(recovered));
+        assertFalse(recovered.takeSnapshot().readNode(entryPath(5)).isPresent());
+    }
+
+    @Test
+    public void testSnapshot() throws Exception {
+        populate();
+
+        final DataTree dataTree = createDataTree();
+        try (DataTreeJournal journal = openJournal(dataTree, directory)) {
+            journal.snapshot().get();
+            writeEntry(dataTree, journal, 42, "after snapshot");
+        }
+
+        // The snapshot supersedes the first segment
+        assertFalse(Files.exists(directory.resolve("journal-0000000000000001.log")));
+        assertTrue(Files.exists(directory.resolve("snapshot-000000000000000c.bin")));
+
+        final DataTree recovered = createDataTree();
+        openJournal(recovered, directory).close();
+        assertEquals(readRoot(dataTree), readRoot(recovered));
+    }
+
+    @Test
+    public void testTornRecord() throws Exception {
+        final DataTree original = populate();
+
+        final Path segment = directory.resolve("journal-0000000000000001.log");
+        final long size = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 0, 0, 0, 100, 0, 0, 0 }));
+        }
+
+        final DataTree recovered = createDataTree();
+        openJournal(recovered, directory).close();
+        assertEquals(readRoot(original), readRoot(recovered));
+        assertEquals(size, Files.size(segment));
+    }
+
+    @Test
+    public void testCorruptRecordLength() throws Exception {
+        final DataTree original = populate();
+
+        final Path segment = directory.resolve("journal-0000000000000001.log");
+        final long size = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.APPEND)) {
+            // A complete record header claiming a huge payload
+            channel.write(ByteBuffer.wrap(ByteBuffer.allocate(16).putInt(Integer.MAX_VALUE).putLong(13).putInt(0)
+                .array()));
+        }
+
+        final DataTree recovered = createDataTree();
+        openJournal(recovered, directory).close();
+        assertEquals(readRoot(original), readRoot(recovered));
+        assertEquals(size, Files.size(segment));
+    }
+
+    @Test
+    public void testRejectedCandidateNotJournaled() throws Exception {
+        populate();
+
+        final DataTree dataTree = createDataTree();
+        try (DataTreeJournal journal = openJournal(dataTree, directory)) {
+            final DataTreeModification first = dataTree.takeSnapshot().newModification();
+            first.delete(entryPath(1));
+            first.ready();
+            final DataTreeModification second = dataTree.takeSnapshot().newModification();
+            second.delete(entryPath(2));
+            second.ready();
+
+            dataTree.validate(first);
+            final DataTreeCandidate firstCandidate = dataTree.prepare(first);
+            dataTree.validate(second);
+            final DataTreeCandidate secondCandidate = dataTree.prepare(second);
+            journal.commit(firstCandidate).get();
+
+            // The second candidate is based on a stale root and has to be rejected
+            try {
+                journal.commit(secondCandidate);
+                fail("Stale candidate should have been rejected");
+            } catch (IllegalStateException e) {
+                // Expected
+            }
+        }
+
+        final DataTree recovered = createDataTree();
+        openJournal(recovered, directory).close();
+        assertEquals(readRoot(dataTree), readRoot(recovered));
+        assertTrue(recovered.takeSnapshot().readNode(entryPath(2)).isPresent());
+    }
+}
@@ -38,14 +38,24 @@ public final class JSONNormalizedNodeStreamWriter implements NormalizedNodeStrea
 
     private final SchemaTracker tracker;
     private final JSONCodecFactory codecs;
-    private final JsonWriter writer;
+    private final URI initialNs;
+    private final boolean exclusive;
+    private JsonWriter writer;
     private JSONStreamWriterContext context;
 
-    private JSONNormalizedNodeStreamWriter(final JSONCodecFactory codecFactory, final SchemaPath path, final JsonWriter JsonWriter, final JSONStreamWriterRootContext rootContext) {
-        this.writer = Preconditions.checkNotNull(JsonWriter);
+    private JSONNormalizedNodeStreamWriter(final JSONCodecFactory codecFactory, final SchemaPath path,
+            final URI initialNs, final JsonWriter jsonWriter, final boolean exclusive) {
+        this.writer = Preconditions.checkNotNull(jsonWriter);
         this.codecs = Preconditions.checkNotNull(codecFactory);
         this.tracker = SchemaTracker.create(codecFactory.getSchemaContext(), path);
-        this.context = Preconditions.checkNotNull(rootContext);
+        this.initialNs = initialNs;
+        this.exclusive = exclusive;
+        this.context = createRootContext();
+    }
+
+    private JSONStreamWriterRootContext createRootContext() {
+        return exclusive ? new JSONStreamWriterExclusiveRootContext(initialNs)
+                : new JSONStreamWriterSharedRootContext(initialNs);
     }
 
     /**
@@ -66,7 +76,7 @@ public final class JSONNormalizedNodeStreamWriter implements NormalizedNodeStrea
      * @return A stream writer instance
      */
     public static NormalizedNodeStreamWriter createExclusiveWriter(final JSONCodecFactory codecFactory, final SchemaPath path, final URI initialNs, final JsonWriter jsonWriter) {
-        return new JSONNormalizedNodeStreamWriter(codecFactory, path, jsonWriter, new JSONStreamWriterExclusiveRootContext(initialNs));
+        return new JSONNormalizedNodeStreamWriter(codecFactory, path, initialNs, jsonWriter, true);
     }
 
     /**
@@ -86,7 +96,56 @@ public final class JSONNormalizedNodeStreamWriter implements NormalizedNodeStrea
      * @return A stream writer instance
      */
     public static NormalizedNodeStreamWriter createNestedWriter(final JSONCodecFactory codecFactory, final SchemaPath path, final URI initialNs, final JsonWriter jsonWriter) {
-        return new JSONNormalizedNodeStreamWriter(codecFactory, path, jsonWriter, new JSONStreamWriterSharedRootContext(initialNs));
+        return new JSONNormalizedNodeStreamWriter(codecFactory, path, initialNs, jsonWriter, false);
+    }
+
+    /**
+     * Create a new stream writer, which writes to the specified output stream, like
+     * {@link #createExclusiveWriter(JSONCodecFactory, SchemaPath, URI, JsonWriter)}.
+     * The returned writer can be retargeted to another JsonWriter via {@link #reset(JsonWriter)},
+     * which avoids resolving the schema path again for each document.
+     *
+     * @param codecFactory JSON codec factory
+     * @param path Schema Path
+     * @param initialNs Initial namespace
+     * @param jsonWriter JsonWriter
+     * @return A reusable stream writer instance
+     */
+    public static JSONNormalizedNodeStreamWriter createReusableExclusiveWriter(final JSONCodecFactory codecFactory,
+            final SchemaPath path, final URI initialNs, final JsonWriter jsonWriter) {
+        return new JSONNormalizedNodeStreamWriter(codecFactory, path, initialNs, jsonWriter, true);
+    }
+
+    /**
+     * Create a new stream writer, which writes to the specified output stream, like
+     * {@link #createNestedWriter(JSONCodecFactory, SchemaPath, URI, JsonWriter)}.
+     * The returned writer can be retargeted to another JsonWriter via {@link #reset(JsonWriter)},
+     * which avoids resolving the schema path again for each document.
+     *
+     * @param codecFactory JSON codec factory
+     * @param path Schema Path
+     * @param initialNs Initial namespace
+     * @param jsonWriter JsonWriter
+     * @return A reusable stream writer instance
+     */
+    public static JSONNormalizedNodeStreamWriter createReusableNestedWriter(final JSONCodecFactory codecFactory,
+            final SchemaPath path, final URI initialNs, final JsonWriter jsonWriter) {
+        return new JSONNormalizedNodeStreamWriter(codecFactory, path, initialNs, jsonWriter, false);
+    }
+
+    /**
+     * Reset this writer, so it emits a new document into the specified JsonWriter. Any state left over from
+     * the previous document, even one which has not been completed, is discarded. The previous JsonWriter
+     * is not flushed nor closed.
+     *
+     * @param jsonWriter JsonWriter
+     * @return This writer
+     */
+    public JSONNormalizedNodeStreamWriter reset(final JsonWriter jsonWriter) {
+        writer = Preconditions.checkNotNull(jsonWriter);
+        tracker.reset();
+        context = createRootContext();
+        return this;
     }
 
     @Override
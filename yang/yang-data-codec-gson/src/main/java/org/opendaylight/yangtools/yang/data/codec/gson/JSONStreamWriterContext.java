@@ -55,20 +55,16 @@ abstract class JSONStreamWriterContext {
      * @throws IOException when the writer reports it
      */
     final void writeChildJsonIdentifier(final SchemaContext schema, final JsonWriter writer, final QName qname) throws IOException {
-
-        final StringBuilder sb = new StringBuilder();
         // Prepend module name if namespaces do not match
         final URI ns = qname.getNamespace();
-        if (!ns.equals(getNamespace())) {
-            final Module module = schema.findModuleByNamespaceAndRevision(ns, null);
-            Preconditions.checkArgument(module != null, "Could not find module for namespace {}", ns);
-
-            sb.append(module.getName());
-            sb.append(':');
+        if (ns.equals(getNamespace())) {
+            writer.name(qname.getLocalName());
+            return;
         }
-        sb.append(qname.getLocalName());
 
-        writer.name(sb.toString());
+        final Module module = schema.findModuleByNamespaceAndRevision(ns, null);
+        Preconditions.checkArgument(module != null, "Could not find module for namespace {}", ns);
+        writer.name(module.getName() + ':' + qname.getLocalName());
     }
 
     /**
@@ -13,6 +13,7 @@ import com.google.gson.JsonIOException;
 import com.google.gson.JsonParseException;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.google.gson.stream.MalformedJsonException;
 import java.io.Closeable;
 import java.io.EOFException;
@@ -22,8 +23,15 @@ import java.net.URI;
 import java.util.ArrayDeque;
 import java.util.Collections;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
 import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
 import org.opendaylight.yangtools.yang.data.util.AbstractNodeDataWithSchema;
 import org.opendaylight.yangtools.yang.data.util.AnyXmlNodeDataWithSchema;
@@ -33,14 +41,20 @@ import org.opendaylight.yangtools.yang.data.util.LeafListNodeDataWithSchema;
 import org.opendaylight.yangtools.yang.data.util.LeafNodeDataWithSchema;
 import org.opendaylight.yangtools.yang.data.util.ListEntryNodeDataWithSchema;
 import org.opendaylight.yangtools.yang.data.util.ListNodeDataWithSchema;
+import org.opendaylight.yangtools.yang.data.util.MixinNodeTracker;
 import org.opendaylight.yangtools.yang.data.util.ParserStreamUtils;
+import org.opendaylight.yangtools.yang.data.util.ResolvedChildSchema;
 import org.opendaylight.yangtools.yang.data.util.RpcAsContainer;
 import org.opendaylight.yangtools.yang.data.util.SimpleNodeDataWithSchema;
 import org.opendaylight.yangtools.yang.model.api.AnyXmlSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.ChoiceCaseNode;
 import org.opendaylight.yangtools.yang.model.api.ChoiceSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
 import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafListSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ListSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.Module;
 import org.opendaylight.yangtools.yang.model.api.RpcDefinition;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
@@ -50,34 +64,120 @@ import org.opendaylight.yangtools.yang.model.api.YangModeledAnyXmlSchemaNode;
 /**
  * This class parses JSON elements from a GSON JsonReader. It disallows multiple elements of the same name unlike the
  * default GSON JsonParser.
+ *
+ * <p>
+ * By default the entire JSON document is first read into an intermediate tree, which is then replayed into the target
+ * {@link NormalizedNodeStreamWriter}. Instances created via {@link #createStreaming(NormalizedNodeStreamWriter,
+ * SchemaContext, SchemaNode)} emit writer events as soon as the corresponding tokens are read, hence their heap usage
+ * is bounded by the depth of the document, not by its size. The only data buffered in streaming mode are list entries
+ * whose key leaves are not the first members of the entry object, as the entry identifier has to be known before the
+ * entry can be emitted, and members which belong to an augmentation or a choice. The latter may be interleaved with
+ * other members, yet they have to be emitted as a single node, hence they are emitted once their object ends.
  */
 @Beta
 public final class JsonParserStream implements Closeable, Flushable {
+    private final Map<DataSchemaNode, Map<String, ResolvedChildSchema>> resolutions = new HashMap<>();
     private final Deque<URI> namespaces = new ArrayDeque<>();
-    private final NormalizedNodeStreamWriter writer;
     private final JSONCodecFactory codecs;
     private final SchemaContext schema;
     private final DataSchemaNode parentNode;
+    private final boolean streaming;
+    private NormalizedNodeStreamWriter writer;
 
-    private JsonParserStream(final NormalizedNodeStreamWriter writer, final SchemaContext schemaContext,
-            final DataSchemaNode parentNode) {
-        this.schema = Preconditions.checkNotNull(schemaContext);
+    private JsonParserStream(final NormalizedNodeStreamWriter writer, final JSONCodecFactory codecs,
+            final DataSchemaNode parentNode, final boolean streaming) {
+        this.codecs = Preconditions.checkNotNull(codecs);
+        this.schema = codecs.getSchemaContext();
         this.writer = Preconditions.checkNotNull(writer);
-        this.codecs = JSONCodecFactory.create(schemaContext);
         this.parentNode = parentNode;
+        this.streaming = streaming;
     }
 
-    public static JsonParserStream create(final NormalizedNodeStreamWriter writer, final SchemaContext schemaContext,
-            final SchemaNode parentNode ) {
+    private static JsonParserStream create(final NormalizedNodeStreamWriter writer, final JSONCodecFactory codecs,
+            final SchemaNode parentNode, final boolean streaming) {
         if (parentNode instanceof RpcDefinition) {
-            return new JsonParserStream(writer, schemaContext, new RpcAsContainer((RpcDefinition) parentNode));
+            return new JsonParserStream(writer, codecs, new RpcAsContainer((RpcDefinition) parentNode), streaming);
         }
         Preconditions.checkArgument(parentNode instanceof DataSchemaNode, "Instance of DataSchemaNode class awaited.");
-        return new JsonParserStream(writer, schemaContext, (DataSchemaNode) parentNode);
+        return new JsonParserStream(writer, codecs, (DataSchemaNode) parentNode, streaming);
+    }
+
+    public static JsonParserStream create(final NormalizedNodeStreamWriter writer, final SchemaContext schemaContext,
+            final SchemaNode parentNode ) {
+        return create(writer, JSONCodecFactory.create(schemaContext), parentNode, false);
     }
 
     public static JsonParserStream create(final NormalizedNodeStreamWriter writer, final SchemaContext schemaContext) {
-        return new JsonParserStream(writer, schemaContext, schemaContext);
+        return new JsonParserStream(writer, JSONCodecFactory.create(schemaContext), schemaContext, false);
+    }
+
+    /**
+     * Create a new parser which uses an existing codec factory. Sharing a codec factory between parsers avoids
+     * instantiating value codecs for each parsed document.
+     *
+     * @param writer Target writer
+     * @param codecFactory JSON codec factory
+     * @param parentNode Schema node corresponding to the top-level JSON object
+     * @return A new parser
+     */
+    public static JsonParserStream create(final NormalizedNodeStreamWriter writer,
+            final JSONCodecFactory codecFactory, final SchemaNode parentNode) {
+        return create(writer, codecFactory, parentNode, false);
+    }
+
+    /**
+     * Create a new parser which emits writer events while the JSON document is being read, without building an
+     * intermediate tree.
+     *
+     * @param writer Target writer
+     * @param schemaContext Schema context
+     * @param parentNode Schema node corresponding to the top-level JSON object
+     * @return A new streaming parser
+     */
+    public static JsonParserStream createStreaming(final NormalizedNodeStreamWriter writer,
+            final SchemaContext schemaContext, final SchemaNode parentNode) {
+        return create(writer, JSONCodecFactory.create(schemaContext), parentNode, true);
+    }
+
+    /**
+     * Create a new streaming parser which uses an existing codec factory. Sharing a codec factory between parsers
+     * avoids instantiating value codecs for each parsed document.
+     *
+     * @param writer Target writer
+     * @param codecFactory JSON codec factory
+     * @param parentNode Schema node corresponding to the top-level JSON object
+     * @return A new streaming parser
+     */
+    public static JsonParserStream createStreaming(final NormalizedNodeStreamWriter writer,
+            final JSONCodecFactory codecFactory, final SchemaNode parentNode) {
+        return create(writer, codecFactory, parentNode, true);
+    }
+
+    /**
+     * Create a new parser which emits writer events while the JSON document is being read, without building an
+     * intermediate tree. Members of the top-level JSON object are expected to be top-level data nodes.
+     *
+     * @param writer Target writer
+     * @param schemaContext Schema context
+     * @return A new streaming parser
+     */
+    public static JsonParserStream createStreaming(final NormalizedNodeStreamWriter writer,
+            final SchemaContext schemaContext) {
+        return new JsonParserStream(writer, JSONCodecFactory.create(schemaContext), schemaContext, true);
+    }
+
+    /**
+     * Reset this parser, so it emits events of subsequently parsed documents into the specified writer. Value codecs
+     * and resolved schema children are retained, hence reusing a parser for multiple documents is cheaper than
+     * creating a new one for each of them. The previous writer is not flushed nor closed.
+     *
+     * @param writer Target writer
+     * @return This parser
+     */
+    public JsonParserStream reset(final NormalizedNodeStreamWriter writer) {
+        this.writer = Preconditions.checkNotNull(writer);
+        namespaces.clear();
+        return this;
     }
 
     public JsonParserStream parse(final JsonReader reader) {
@@ -89,9 +189,14 @@ public final class JsonParserStream implements Closeable, Flushable {
         try {
             reader.peek();
             isEmpty = false;
-            final CompositeNodeDataWithSchema compositeNodeDataWithSchema = new CompositeNodeDataWithSchema(parentNode);
-            read(reader, compositeNodeDataWithSchema);
-            compositeNodeDataWithSchema.write(writer);
+            if (streaming) {
+                streamObject(reader, parentNode);
+            } else {
+                final CompositeNodeDataWithSchema compositeNodeDataWithSchema =
+                        new CompositeNodeDataWithSchema(parentNode);
+                read(reader, compositeNodeDataWithSchema);
+                compositeNodeDataWithSchema.write(writer);
+            }
 
             return this;
         } catch (final EOFException e) {
@@ -160,48 +265,286 @@ public final class JsonParserStream implements Closeable, Flushable {
             if (isArray(parent)) {
                 parent = newArrayEntry(parent);
             }
-            while (in.hasNext()) {
-                final String jsonElementName = in.nextName();
-                DataSchemaNode parentSchema = parent.getSchema();
-                if (parentSchema instanceof YangModeledAnyXmlSchemaNode) {
-                    parentSchema = ((YangModeledAnyXmlSchemaNode) parentSchema).getSchemaOfAnyXmlData();
-                }
-                final NamespaceAndName namespaceAndName = resolveNamespace(jsonElementName, parentSchema);
-                final String localName = namespaceAndName.getName();
-                addNamespace(namespaceAndName.getUri());
-                if (namesakes.contains(jsonElementName)) {
-                    throw new JsonSyntaxException("Duplicate name " + jsonElementName + " in JSON input.");
+            readMembers(in, parent, namesakes);
+            in.endObject();
+            return;
+        case END_DOCUMENT:
+        case NAME:
+        case END_OBJECT:
+        case END_ARRAY:
+            break;
+        }
+    }
+
+    private void readMembers(final JsonReader in, final AbstractNodeDataWithSchema parent,
+            final Set<String> namesakes) throws IOException {
+        while (in.hasNext()) {
+            final String jsonElementName = in.nextName();
+            checkNamesake(jsonElementName, namesakes);
+            readMember(in, parent, jsonElementName);
+        }
+    }
+
+    private void readMember(final JsonReader in, final AbstractNodeDataWithSchema parent,
+            final String jsonElementName) throws IOException {
+        DataSchemaNode parentSchema = parent.getSchema();
+        if (parentSchema instanceof YangModeledAnyXmlSchemaNode) {
+            parentSchema = ((YangModeledAnyXmlSchemaNode) parentSchema).getSchemaOfAnyXmlData();
+        }
+        final NamespaceAndName namespaceAndName = resolveNamespace(jsonElementName, parentSchema);
+        final String localName = namespaceAndName.getName();
+        addNamespace(namespaceAndName.getUri());
+
+        final Deque<DataSchemaNode> childDataSchemaNodes =
+                ParserStreamUtils.findSchemaNodeByNameAndNamespace(parentSchema, localName, getCurrentNamespace());
+        if (childDataSchemaNodes.isEmpty()) {
+            throw new IllegalStateException("Schema for node with name " + localName + " and namespace "
+                    + getCurrentNamespace() + " doesn't exist.");
+        }
+
+        final AbstractNodeDataWithSchema newChild = ((CompositeNodeDataWithSchema) parent).addChild(childDataSchemaNodes);
+        /*
+         * FIXME:anyxml data shouldn't be skipped but should be loaded somehow.
+         * will be able to load anyxml which conforms to YANG data using these
+         * parser, for other anyxml will be harder.
+         */
+        if (newChild instanceof AnyXmlNodeDataWithSchema) {
+            in.skipValue();
+        } else {
+            read(in, newChild);
+        }
+        removeNamespace();
+    }
+
+    /**
+     * Stream a JSON object into the writer as the children of a parent node.
+     */
+    private void streamObject(final JsonReader in, final DataSchemaNode parentSchema) throws IOException {
+        in.beginObject();
+        streamMembers(in, parentSchema, new HashSet<>());
+        in.endObject();
+    }
+
+    /**
+     * Stream the remaining members of a JSON object into the writer. Leaves the reader positioned at the end of
+     * the object. Members which belong to an augmentation or a choice are buffered and emitted after all other
+     * members.
+     */
+    private void streamMembers(final JsonReader in, final DataSchemaNode parentSchema, final Set<String> namesakes)
+            throws IOException {
+        final MixinNodeTracker mixins = new MixinNodeTracker(writer);
+        CompositeNodeDataWithSchema buffered = null;
+        while (in.hasNext()) {
+            final String jsonElementName = in.nextName();
+            checkNamesake(jsonElementName, namesakes);
+
+            final ResolvedChildSchema child = resolveChild(parentSchema, jsonElementName);
+            if (child.isInChoiceOrAugmentation()) {
+                if (buffered == null) {
+                    buffered = new CompositeNodeDataWithSchema(parentSchema);
                 }
-                namesakes.add(jsonElementName);
+                readMember(in, buffered, jsonElementName);
+                continue;
+            }
+
+            addNamespace(child.getSchema().getQName().getNamespace());
+            mixins.enter(child.getMixins());
+            streamMember(in, child.getSchema());
+            removeNamespace();
+        }
+        mixins.exitAll();
+        if (buffered != null) {
+            buffered.write(writer);
+        }
+    }
 
-                final Deque<DataSchemaNode> childDataSchemaNodes =
-                        ParserStreamUtils.findSchemaNodeByNameAndNamespace(parentSchema, localName, getCurrentNamespace());
-                if (childDataSchemaNodes.isEmpty()) {
-                    throw new IllegalStateException("Schema for node with name " + localName + " and namespace "
-                            + getCurrentNamespace() + " doesn't exist.");
+    /**
+     * Stream the value of a single JSON object member, which has already been resolved to a schema node.
+     */
+    private void streamMember(final JsonReader in, final DataSchemaNode schema) throws IOException {
+        if (schema instanceof LeafSchemaNode) {
+            final Object value = readLeafValue(in, schema);
+            writer.nextDataSchemaNode(schema);
+            writer.leafNode(NodeIdentifier.create(schema.getQName()), value);
+        } else if (schema instanceof LeafListSchemaNode) {
+            in.beginArray();
+            while (in.hasNext()) {
+                final Object value = translateValueByType(readScalar(in), schema);
+                writer.nextDataSchemaNode(schema);
+                writer.leafSetEntryNode(schema.getQName(), value);
+            }
+            in.endArray();
+        } else if (schema instanceof YangModeledAnyXmlSchemaNode) {
+            writer.nextDataSchemaNode(schema);
+            writer.startYangModeledAnyXmlNode(NodeIdentifier.create(schema.getQName()),
+                NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+            streamObject(in, ((YangModeledAnyXmlSchemaNode) schema).getSchemaOfAnyXmlData());
+            writer.endNode();
+        } else if (schema instanceof AnyXmlSchemaNode) {
+            // FIXME: same as the buffering path, anyxml data are skipped
+            in.skipValue();
+            writer.nextDataSchemaNode(schema);
+            writer.anyxmlNode(NodeIdentifier.create(schema.getQName()), null);
+        } else if (schema instanceof ContainerSchemaNode) {
+            writer.nextDataSchemaNode(schema);
+            writer.startContainerNode(NodeIdentifier.create(schema.getQName()), NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+            streamObject(in, schema);
+            writer.endNode();
+        } else if (schema instanceof ListSchemaNode) {
+            final ListSchemaNode listSchema = (ListSchemaNode) schema;
+            // Lists with a single entry are sometimes serialized without the wrapping array
+            if (in.peek() == JsonToken.BEGIN_ARRAY) {
+                in.beginArray();
+                while (in.hasNext()) {
+                    streamListEntry(in, listSchema);
                 }
+                in.endArray();
+            } else {
+                streamListEntry(in, listSchema);
+            }
+        } else {
+            throw new IllegalStateException("Unhandled schema node " + schema);
+        }
+    }
 
-                final AbstractNodeDataWithSchema newChild = ((CompositeNodeDataWithSchema) parent).addChild(childDataSchemaNodes);
-                /*
-                 * FIXME:anyxml data shouldn't be skipped but should be loaded somehow.
-                 * will be able to load anyxml which conforms to YANG data using these
-                 * parser, for other anyxml will be harder.
-                 */
-                if (newChild instanceof AnyXmlNodeDataWithSchema) {
-                    in.skipValue();
-                } else {
-                    read(in, newChild);
+    private void streamListEntry(final JsonReader in, final ListSchemaNode schema) throws IOException {
+        if (schema.getKeyDefinition().isEmpty()) {
+            writer.nextDataSchemaNode(schema);
+            writer.startUnkeyedListItem(NodeIdentifier.create(schema.getQName()),
+                NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+            streamObject(in, schema);
+            writer.endNode();
+        } else {
+            streamMapEntry(in, schema);
+        }
+    }
+
+    /**
+     * Stream a single map entry. Key leaves are expected to be the first members of the entry object. If they are
+     * not, the rest of the entry is buffered until all keys are known.
+     */
+    private void streamMapEntry(final JsonReader in, final ListSchemaNode schema) throws IOException {
+        final List<QName> keyDef = schema.getKeyDefinition();
+        final DataSchemaNode[] keySchemas = new DataSchemaNode[keyDef.size()];
+        final Object[] keyValues = new Object[keyDef.size()];
+        final Set<String> namesakes = new HashSet<>();
+
+        int found = 0;
+        String pending = null;
+        in.beginObject();
+        while (found < keyDef.size() && in.hasNext()) {
+            final String jsonElementName = in.nextName();
+            checkNamesake(jsonElementName, namesakes);
+
+            final ResolvedChildSchema child = resolveChild(schema, jsonElementName);
+            final int offset = keyDef.indexOf(child.getSchema().getQName());
+            if (offset == -1 || !child.getMixins().isEmpty() || keySchemas[offset] != null) {
+                pending = jsonElementName;
+                break;
+            }
+
+            addNamespace(child.getSchema().getQName().getNamespace());
+            keySchemas[offset] = child.getSchema();
+            keyValues[offset] = readLeafValue(in, child.getSchema());
+            removeNamespace();
+            found++;
+        }
+
+        if (found != keyDef.size()) {
+            // Keys are not the first members, we need to buffer the rest of the entry
+            final ListEntryNodeDataWithSchema entry = new ListEntryNodeDataWithSchema(schema);
+            for (int i = 0; i < keySchemas.length; ++i) {
+                if (keySchemas[i] != null) {
+                    final LeafNodeDataWithSchema key = new LeafNodeDataWithSchema(keySchemas[i]);
+                    key.setValue(keyValues[i]);
+                    entry.addChild(key);
                 }
-                removeNamespace();
             }
+
+            if (pending != null) {
+                readMember(in, entry, pending);
+            }
+            readMembers(in, entry, namesakes);
             in.endObject();
+            entry.write(writer);
             return;
-        case END_DOCUMENT:
-        case NAME:
-        case END_OBJECT:
-        case END_ARRAY:
-            break;
         }
+
+        final Map<QName, Object> predicates = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; ++i) {
+            predicates.put(keyDef.get(i), keyValues[i]);
+        }
+
+        writer.nextDataSchemaNode(schema);
+        writer.startMapEntryNode(new NodeIdentifierWithPredicates(schema.getQName(), predicates),
+            NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+        for (int i = 0; i < keyValues.length; ++i) {
+            writer.nextDataSchemaNode(keySchemas[i]);
+            writer.leafNode(NodeIdentifier.create(keyDef.get(i)), keyValues[i]);
+        }
+        streamMembers(in, schema, namesakes);
+        in.endObject();
+        writer.endNode();
+    }
+
+    private Object readLeafValue(final JsonReader in, final DataSchemaNode schema) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_ARRAY) {
+            return translateValueByType(readScalar(in), schema);
+        }
+
+        // Leaves of type empty are encoded as [null]
+        Object value = null;
+        in.beginArray();
+        while (in.hasNext()) {
+            Preconditions.checkArgument(value == null, "Node '%s' has already set its value to '%s'",
+                schema.getQName(), value);
+            value = translateValueByType(readScalar(in), schema);
+        }
+        in.endArray();
+        return value;
+    }
+
+    private static String readScalar(final JsonReader in) throws IOException {
+        switch (in.peek()) {
+            case BOOLEAN:
+                return Boolean.toString(in.nextBoolean());
+            case NULL:
+                in.nextNull();
+                return null;
+            default:
+                return in.nextString();
+        }
+    }
+
+    private static void checkNamesake(final String jsonElementName, final Set<String> namesakes) {
+        if (!namesakes.add(jsonElementName)) {
+            throw new JsonSyntaxException("Duplicate name " + jsonElementName + " in JSON input.");
+        }
+    }
+
+    private ResolvedChildSchema resolveChild(final DataSchemaNode parentSchema, final String jsonElementName) {
+        Map<String, ResolvedChildSchema> children = resolutions.get(parentSchema);
+        if (children == null) {
+            children = new HashMap<>();
+            resolutions.put(parentSchema, children);
+        }
+
+        final ResolvedChildSchema cached = children.get(jsonElementName);
+        if (cached != null) {
+            return cached;
+        }
+
+        final NamespaceAndName namespaceAndName = resolveNamespace(jsonElementName, parentSchema);
+        final Deque<DataSchemaNode> childDataSchemaNodes = ParserStreamUtils.findSchemaNodeByNameAndNamespace(
+            parentSchema, namespaceAndName.getName(), namespaceAndName.getUri());
+        if (childDataSchemaNodes.isEmpty()) {
+            throw new IllegalStateException("Schema for node with name " + namespaceAndName.getName()
+                    + " and namespace " + namespaceAndName.getUri() + " doesn't exist.");
+        }
+
+        final ResolvedChildSchema ret = ResolvedChildSchema.create(parentSchema, childDataSchemaNodes);
+        children.put(jsonElementName, ret);
+        return ret;
     }
 
     private static boolean isArray(final AbstractNodeDataWithSchema parent) {
@@ -52,6 +52,7 @@ public class NormalizedNodeToJsonStreamTest {
 
     private static final QName CONT_1 = QName.create("ns:complex:json", "2014-08-11", "cont1");
     private static final QName EMPTY_LEAF = QName.create(CONT_1, "empty");
+    private static final QName LFLST11 = QName.create(CONT_1, "lflst11");
     private static SchemaContext schemaContext;
 
     public interface JsonValidator {
@@ -406,6 +407,40 @@ public class NormalizedNodeToJsonStreamTest {
         assertTrue(emptyObj.getAsJsonArray().get(0) instanceof JsonNull);
     }
 
+    @Test
+    public void testResetWriter() throws IOException {
+        final NormalizedNode<?, ?> first = TestingNormalizedNodeStructuresCreator.keyedListNodeInContainer();
+        final NormalizedNode<?, ?> second = TestingNormalizedNodeStructuresCreator
+                .leafNodeViaAugmentationInContainer();
+        final JSONNormalizedNodeStreamWriter jsonStream = JSONNormalizedNodeStreamWriter.createReusableExclusiveWriter(
+            JSONCodecFactory.create(schemaContext), SchemaPath.ROOT, null,
+            JsonWriterFactory.createJsonWriter(new StringWriter(), 2));
+
+        assertEquals(normalizedNodeToJsonStreamTransformation(new StringWriter(), first),
+            resetAndWrite(jsonStream, first));
+        assertEquals(normalizedNodeToJsonStreamTransformation(new StringWriter(), second),
+            resetAndWrite(jsonStream, second));
+
+        // Abandon a document half-way through, the next one must not be affected
+        jsonStream.reset(JsonWriterFactory.createJsonWriter(new StringWriter(), 2));
+        jsonStream.startContainerNode(new YangInstanceIdentifier.NodeIdentifier(CONT_1), 1);
+        jsonStream.startLeafSet(new YangInstanceIdentifier.NodeIdentifier(LFLST11), 1);
+        jsonStream.leafSetEntryNode(LFLST11, "dangling");
+        assertEquals(normalizedNodeToJsonStreamTransformation(new StringWriter(), second),
+            resetAndWrite(jsonStream, second));
+    }
+
+    private static String resetAndWrite(final JSONNormalizedNodeStreamWriter jsonStream,
+            final NormalizedNode<?, ?> inputStructure) throws IOException {
+        final Writer writer = new StringWriter();
+        jsonStream.reset(JsonWriterFactory.createJsonWriter(writer, 2));
+        final NormalizedNodeWriter nodeWriter = NormalizedNodeWriter.forStreamWriter(jsonStream);
+        nodeWriter.write(inputStructure);
+
+        nodeWriter.close();
+        return writer.toString();
+    }
+
     private static String normalizedNodeToJsonStreamTransformation(final Writer writer,
             final NormalizedNode<?, ?> inputStructure) throws IOException {
 
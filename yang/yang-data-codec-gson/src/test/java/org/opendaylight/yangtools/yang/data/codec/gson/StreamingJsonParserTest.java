@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.gson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.opendaylight.yangtools.yang.data.codec.gson.TestUtils.loadModules;
+import static org.opendaylight.yangtools.yang.data.codec.gson.TestUtils.loadTextFile;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URISyntaxException;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaNode;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+public class StreamingJsonParserTest {
+    private static final QName CONT_1 = QName.create("ns:complex:json", "2014-08-11", "cont1");
+
+    private static SchemaContext schemaContext;
+
+    @BeforeClass
+    public static void initialization() throws IOException, URISyntaxException, ReactorException {
+        schemaContext = loadModules("/complexjson/yang");
+    }
+
+    private static NormalizedNode<?, ?> parse(final String inputJson, final SchemaNode parentNode,
+            final boolean streaming) {
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        final NormalizedNodeStreamWriter streamWriter = ImmutableNormalizedNodeStreamWriter.from(result);
+        final JsonParserStream jsonParser = streaming
+                ? JsonParserStream.createStreaming(streamWriter, schemaContext, parentNode)
+                : JsonParserStream.create(streamWriter, schemaContext, parentNode);
+        jsonParser.parse(new JsonReader(new StringReader(inputJson)));
+        final NormalizedNode<?, ?> transformedInput = result.getResult();
+        assertNotNull(transformedInput);
+        return transformedInput;
+    }
+
+    private static void assertStreamingMatchesBuffered(final String resource) throws IOException,
+            URISyntaxException {
+        final String inputJson = loadTextFile(resource);
+        assertEquals(parse(inputJson, schemaContext, false), parse(inputJson, schemaContext, true));
+    }
+
+    @Test
+    public void testComplexJson() throws IOException, URISyntaxException {
+        assertStreamingMatchesBuffered("/complexjson/complex-json.json");
+    }
+
+    @Test
+    public void testChoiceAndAugmentations() throws IOException, URISyntaxException {
+        assertStreamingMatchesBuffered("/complexjson/case-node-augmentation-in-choice-in-container.json");
+        assertStreamingMatchesBuffered("/complexjson/case-node-external-augmentation-in-choice-in-container.json");
+        assertStreamingMatchesBuffered("/complexjson/choice-node-augmentation-in-container.json");
+        assertStreamingMatchesBuffered("/complexjson/multiple-choice-augmentation-in-container.json");
+    }
+
+    @Test
+    public void testInterleavedMembers() throws IOException, URISyntaxException {
+        // Members of augmentations and choices are separated by other members
+        assertStreamingMatchesBuffered("/complexjson/interleaved-members.json");
+    }
+
+    @Test
+    public void testLists() throws IOException, URISyntaxException {
+        assertStreamingMatchesBuffered("/complexjson/keyed-list-node-in-container.json");
+        assertStreamingMatchesBuffered("/complexjson/unkeyed-node-in-container.json");
+        assertStreamingMatchesBuffered("/complexjson/leaflist-node-in-container.json");
+    }
+
+    @Test
+    public void testLeafListFollowedByList() {
+        final String inputJson = "{\"complexjson:cont1\": {\"lflst11\": [\"value1\", \"value2\"], "
+                + "\"lst11\": [{\"key111\": \"key\", \"lf111\": \"value\"}]}}";
+        assertEquals(parse(inputJson, schemaContext, false), parse(inputJson, schemaContext, true));
+    }
+
+    @Test
+    public void testEmptyType() throws IOException, URISyntaxException {
+        assertStreamingMatchesBuffered("/complexjson/type-empty.json");
+    }
+
+    @Test
+    public void testKeysLast() throws IOException, URISyntaxException {
+        assertEquals(parse(loadTextFile("/complexjson/keyed-list-node-in-container.json"), schemaContext, false),
+            parse(loadTextFile("/complexjson/keyed-list-keys-last.json"), schemaContext, true));
+    }
+
+    @Test
+    public void testListItemWithoutArray() throws IOException, URISyntaxException {
+        final String inputJson = loadTextFile("/complexjson/keyed-list-restconf-behaviour.json");
+        final SchemaNode parentNode = schemaContext.getDataChildByName(CONT_1);
+        assertEquals(parse(inputJson, parentNode, false), parse(inputJson, parentNode, true));
+    }
+
+    @Test
+    public void testReusedParser() throws IOException, URISyntaxException {
+        final String first = loadTextFile("/complexjson/complex-json.json");
+        final String second = loadTextFile("/complexjson/keyed-list-node-in-container.json");
+
+        final JSONCodecFactory codecs = JSONCodecFactory.create(schemaContext);
+        NormalizedNodeResult result = new NormalizedNodeResult();
+        final JsonParserStream jsonParser = JsonParserStream.createStreaming(
+            ImmutableNormalizedNodeStreamWriter.from(result), codecs, schemaContext);
+
+        jsonParser.parse(new JsonReader(new StringReader(first)));
+        assertEquals(parse(first, schemaContext, true), result.getResult());
+
+        result = new NormalizedNodeResult();
+        jsonParser.reset(ImmutableNormalizedNodeStreamWriter.from(result)).parse(
+            new JsonReader(new StringReader(second)));
+        assertEquals(parse(second, schemaContext, true), result.getResult());
+    }
+
+    @Test
+    public void testDuplicateMember() {
+        try {
+            parse("{\"complexjson:cont1\": {\"lf11\": \"1\", \"lf11\": \"2\"}}", schemaContext, true);
+            fail("Expected exception not raised");
+        } catch (final JsonSyntaxException e) {
+            assertTrue(e.getMessage().contains("Duplicate name lf11 in JSON input."));
+        }
+    }
+}
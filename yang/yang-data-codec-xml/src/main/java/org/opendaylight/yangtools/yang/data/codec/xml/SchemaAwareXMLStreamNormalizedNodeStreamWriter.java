@@ -20,7 +20,6 @@ import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
-import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
 import org.opendaylight.yangtools.yang.data.impl.codec.SchemaTracker;
 import org.opendaylight.yangtools.yang.model.api.AnyXmlSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
@@ -42,11 +41,16 @@ final class SchemaAwareXMLStreamNormalizedNodeStreamWriter extends XMLStreamNorm
         this.streamUtils = XmlStreamUtils.create(context);
     }
 
-    static NormalizedNodeStreamWriter newInstance(final XMLStreamWriter writer, final SchemaContext context,
-            final SchemaPath path) {
+    static SchemaAwareXMLStreamNormalizedNodeStreamWriter newInstance(final XMLStreamWriter writer,
+            final SchemaContext context, final SchemaPath path) {
         return new SchemaAwareXMLStreamNormalizedNodeStreamWriter(writer, context, path);
     }
 
+    @Override
+    void resetState() {
+        tracker.reset();
+    }
+
     @Override
     protected void writeAttributes(@Nonnull final Map<QName, String> attributes) throws IOException {
         for (final Entry<QName, String> qNameStringEntry : attributes.entrySet()) {
@@ -35,7 +35,7 @@ class SchemalessXMLStreamNormalizedNodeStreamWriter extends XMLStreamNormalizedN
     }
 
     private final Deque<ContainerType> containerTypeStack = new ArrayDeque<>();
-    private final RandomPrefix randomPrefix;
+    private RandomPrefix randomPrefix;
 
     private SchemalessXMLStreamNormalizedNodeStreamWriter(XMLStreamWriter writer) {
         super(writer);
@@ -46,6 +46,12 @@ class SchemalessXMLStreamNormalizedNodeStreamWriter extends XMLStreamNormalizedN
         return new SchemalessXMLStreamNormalizedNodeStreamWriter(writer);
     }
 
+    @Override
+    void resetState() {
+        containerTypeStack.clear();
+        randomPrefix = new RandomPrefix();
+    }
+
     @Override
     public void leafNode(NodeIdentifier name, Object value, Map<QName, String> attributes) throws IOException {
         writeElement(name.getNodeType(), value, attributes, null);
@@ -63,7 +63,7 @@ public abstract class XMLStreamNormalizedNodeStreamWriter<T> implements Normaliz
         TRANSFORMER_FACTORY = f;
     }
 
-    final XMLStreamWriter writer;
+    XMLStreamWriter writer;
 
     XMLStreamNormalizedNodeStreamWriter(final XMLStreamWriter writer) {
         this.writer = Preconditions.checkNotNull(writer);
@@ -94,6 +94,23 @@ public abstract class XMLStreamNormalizedNodeStreamWriter<T> implements Normaliz
         return SchemaAwareXMLStreamNormalizedNodeStreamWriter.newInstance(writer, context, path);
     }
 
+    /**
+     * Create a new writer with the specified context and rooted in the specified schema path, like
+     * {@link #create(XMLStreamWriter, SchemaContext, SchemaPath)}. The returned writer can be retargeted to another
+     * XMLStreamWriter via {@link #reset(XMLStreamWriter)}, which avoids resolving the schema path again for each
+     * document.
+     *
+     * @param writer Output {@link XMLStreamWriter}
+     * @param context Associated {@link SchemaContext}.
+     * @param path path
+     *
+     * @return A new reusable writer
+     */
+    public static XMLStreamNormalizedNodeStreamWriter<?> createReusable(final XMLStreamWriter writer,
+            final SchemaContext context, final SchemaPath path) {
+        return SchemaAwareXMLStreamNormalizedNodeStreamWriter.newInstance(writer, context, path);
+    }
+
     /**
      * Create a new schema-less writer. Note that this version is intended for debugging
      * where doesn't have a SchemaContext available and isn't meant for production use.
@@ -106,6 +123,22 @@ public abstract class XMLStreamNormalizedNodeStreamWriter<T> implements Normaliz
         return SchemalessXMLStreamNormalizedNodeStreamWriter.newInstance(writer);
     }
 
+    /**
+     * Reset this writer, so it emits a new document into the specified XMLStreamWriter. Any state left over from
+     * the previous document, even one which has not been completed, is discarded. The previous XMLStreamWriter
+     * is not flushed nor closed.
+     *
+     * @param writer Output {@link XMLStreamWriter}
+     * @return This writer
+     */
+    public final XMLStreamNormalizedNodeStreamWriter<T> reset(final XMLStreamWriter writer) {
+        this.writer = Preconditions.checkNotNull(writer);
+        resetState();
+        return this;
+    }
+
+    abstract void resetState();
+
     abstract void writeAttributes(@Nonnull final Map<QName, String> attributes) throws IOException;
 
     abstract void writeValue(final XMLStreamWriter xmlWriter, final QName qname,
@@ -16,6 +16,8 @@ import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.annotation.concurrent.ThreadSafe;
 import javax.xml.namespace.NamespaceContext;
 import javax.xml.stream.XMLStreamException;
@@ -80,6 +82,11 @@ public final class XmlCodecFactory {
                 }
             });
 
+    /*
+     * Most codecs do not use the NamespaceContext they were created with. These are additionally indexed by their
+     * schema node alone, so they are shared across XML sources, each of which comes with its own NamespaceContext.
+     */
+    private final ConcurrentMap<DataSchemaNode, XmlCodec<?>> namespaceIndependentCodecs = new ConcurrentHashMap<>();
     private final SchemaContext schemaContext;
 
     private XmlCodecFactory(final SchemaContext context) {
@@ -155,7 +162,17 @@ public final class XmlCodecFactory {
     }
 
     XmlCodec<?> codecFor(final DataSchemaNode schema, final NamespaceContext namespaceContext) {
-        return codecs.getUnchecked(new SimpleImmutableEntry<>(schema, namespaceContext));
+        final XmlCodec<?> existing = namespaceIndependentCodecs.get(schema);
+        if (existing != null) {
+            return existing;
+        }
+
+        final XmlCodec<?> codec = codecs.getUnchecked(new SimpleImmutableEntry<>(schema, namespaceContext));
+        if (!(codec instanceof XmlStringIdentityrefCodec || codec instanceof XmlStringInstanceIdentifierCodec
+                || codec instanceof XmlStringUnionCodec)) {
+            namespaceIndependentCodecs.putIfAbsent(schema, codec);
+        }
+        return codec;
     }
 
     XmlCodec<?> codecFor(final DataSchemaNode schema, final TypeDefinition<?> unionSubType,
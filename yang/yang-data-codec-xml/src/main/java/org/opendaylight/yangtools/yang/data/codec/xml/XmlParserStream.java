@@ -16,8 +16,13 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayDeque;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import javax.annotation.concurrent.NotThreadSafe;
 import javax.xml.namespace.NamespaceContext;
@@ -28,6 +33,9 @@ import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.dom.DOMSource;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
 import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
 import org.opendaylight.yangtools.yang.data.util.AbstractNodeDataWithSchema;
 import org.opendaylight.yangtools.yang.data.util.AnyXmlNodeDataWithSchema;
@@ -37,11 +45,17 @@ import org.opendaylight.yangtools.yang.data.util.LeafListNodeDataWithSchema;
 import org.opendaylight.yangtools.yang.data.util.LeafNodeDataWithSchema;
 import org.opendaylight.yangtools.yang.data.util.ListEntryNodeDataWithSchema;
 import org.opendaylight.yangtools.yang.data.util.ListNodeDataWithSchema;
+import org.opendaylight.yangtools.yang.data.util.MixinNodeTracker;
 import org.opendaylight.yangtools.yang.data.util.ParserStreamUtils;
+import org.opendaylight.yangtools.yang.data.util.ResolvedChildSchema;
 import org.opendaylight.yangtools.yang.data.util.RpcAsContainer;
 import org.opendaylight.yangtools.yang.data.util.SimpleNodeDataWithSchema;
 import org.opendaylight.yangtools.yang.model.api.AnyXmlSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafListSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ListSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.RpcDefinition;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.api.SchemaNode;
@@ -55,6 +69,15 @@ import org.xml.sax.SAXException;
  * This class provides functionality for parsing an XML source containing YANG-modeled data. It disallows multiple
  * instances of the same element except for leaf-list and list entries. It also expects that the YANG-modeled data in
  * the XML source are wrapped in a root element.
+ *
+ * <p>
+ * By default the entire XML source is first read into an intermediate tree, which is then replayed into the target
+ * {@link NormalizedNodeStreamWriter}. Instances created via {@link #createStreaming(NormalizedNodeStreamWriter,
+ * SchemaContext, SchemaNode)} emit writer events as soon as the corresponding XML events are read, hence their heap
+ * usage is bounded by the depth of the document, not by its size. The only data buffered in streaming mode are list
+ * entries whose key leaves do not appear before all other children, as required by RFC6020 section 7.8.5, and
+ * children which belong to an augmentation or a choice. The latter may be interleaved with other siblings, yet they
+ * have to be emitted as a single node, hence they are emitted once their parent element ends.
  */
 @Beta
 @NotThreadSafe
@@ -67,28 +90,104 @@ public final class XmlParserStream implements Closeable, Flushable {
         FACTORY = f;
     }
 
-    private final NormalizedNodeStreamWriter writer;
+    private final Map<DataSchemaNode, Map<String, ResolvedChildSchema>> resolutions = new HashMap<>();
     private final XmlCodecFactory codecs;
     private final DataSchemaNode parentNode;
+    private final boolean streaming;
+    private NormalizedNodeStreamWriter writer;
 
-    private XmlParserStream(final NormalizedNodeStreamWriter writer, final SchemaContext schemaContext,
-                             final DataSchemaNode parentNode) {
+    private XmlParserStream(final NormalizedNodeStreamWriter writer, final XmlCodecFactory codecs,
+                             final DataSchemaNode parentNode, final boolean streaming) {
         this.writer = Preconditions.checkNotNull(writer);
-        this.codecs = XmlCodecFactory.create(schemaContext);
+        this.codecs = Preconditions.checkNotNull(codecs);
         this.parentNode = parentNode;
+        this.streaming = streaming;
     }
 
-    public static XmlParserStream create(final NormalizedNodeStreamWriter writer, final SchemaContext schemaContext,
-            final SchemaNode parentNode ) {
+    private static XmlParserStream create(final NormalizedNodeStreamWriter writer, final XmlCodecFactory codecs,
+            final SchemaNode parentNode, final boolean streaming) {
         if (parentNode instanceof RpcDefinition) {
-            return new XmlParserStream(writer, schemaContext, new RpcAsContainer((RpcDefinition) parentNode));
+            return new XmlParserStream(writer, codecs, new RpcAsContainer((RpcDefinition) parentNode), streaming);
         }
         Preconditions.checkArgument(parentNode instanceof DataSchemaNode, "Instance of DataSchemaNode class awaited.");
-        return new XmlParserStream(writer, schemaContext, (DataSchemaNode) parentNode);
+        return new XmlParserStream(writer, codecs, (DataSchemaNode) parentNode, streaming);
+    }
+
+    public static XmlParserStream create(final NormalizedNodeStreamWriter writer, final SchemaContext schemaContext,
+            final SchemaNode parentNode ) {
+        return create(writer, XmlCodecFactory.create(schemaContext), parentNode, false);
     }
 
     public static XmlParserStream create(final NormalizedNodeStreamWriter writer, final SchemaContext schemaContext) {
-        return new XmlParserStream(writer, schemaContext, schemaContext);
+        return new XmlParserStream(writer, XmlCodecFactory.create(schemaContext), schemaContext, false);
+    }
+
+    /**
+     * Create a new parser which uses an existing codec factory. Sharing a codec factory between parsers avoids
+     * instantiating value codecs for each parsed document.
+     *
+     * @param writer Target writer
+     * @param codecFactory XML codec factory
+     * @param parentNode Schema node corresponding to the root element of the XML source
+     * @return A new parser
+     */
+    public static XmlParserStream create(final NormalizedNodeStreamWriter writer,
+            final XmlCodecFactory codecFactory, final SchemaNode parentNode) {
+        return create(writer, codecFactory, parentNode, false);
+    }
+
+    /**
+     * Create a new parser which emits writer events while the XML source is being read, without building an
+     * intermediate tree.
+     *
+     * @param writer Target writer
+     * @param schemaContext Schema context
+     * @param parentNode Schema node corresponding to the root element of the XML source
+     * @return A new streaming parser
+     */
+    public static XmlParserStream createStreaming(final NormalizedNodeStreamWriter writer,
+            final SchemaContext schemaContext, final SchemaNode parentNode) {
+        return create(writer, XmlCodecFactory.create(schemaContext), parentNode, true);
+    }
+
+    /**
+     * Create a new streaming parser which uses an existing codec factory. Sharing a codec factory between parsers
+     * avoids instantiating value codecs for each parsed document.
+     *
+     * @param writer Target writer
+     * @param codecFactory XML codec factory
+     * @param parentNode Schema node corresponding to the root element of the XML source
+     * @return A new streaming parser
+     */
+    public static XmlParserStream createStreaming(final NormalizedNodeStreamWriter writer,
+            final XmlCodecFactory codecFactory, final SchemaNode parentNode) {
+        return create(writer, codecFactory, parentNode, true);
+    }
+
+    /**
+     * Create a new parser which emits writer events while the XML source is being read, without building an
+     * intermediate tree. The root element of the XML source is expected to wrap top-level data nodes.
+     *
+     * @param writer Target writer
+     * @param schemaContext Schema context
+     * @return A new streaming parser
+     */
+    public static XmlParserStream createStreaming(final NormalizedNodeStreamWriter writer,
+            final SchemaContext schemaContext) {
+        return new XmlParserStream(writer, XmlCodecFactory.create(schemaContext), schemaContext, true);
+    }
+
+    /**
+     * Reset this parser, so it emits events of subsequently parsed sources into the specified writer. Value codecs
+     * and resolved schema children are retained, hence reusing a parser for multiple sources is cheaper than
+     * creating a new one for each of them. The previous writer is not flushed nor closed.
+     *
+     * @param writer Target writer
+     * @return This parser
+     */
+    public XmlParserStream reset(final NormalizedNodeStreamWriter writer) {
+        this.writer = Preconditions.checkNotNull(writer);
+        return this;
     }
 
     /**
@@ -113,10 +212,17 @@ public final class XmlParserStream implements Closeable, Flushable {
     public XmlParserStream parse(final XMLStreamReader reader) throws XMLStreamException, URISyntaxException,
             IOException, ParserConfigurationException, SAXException {
         if (reader.hasNext()) {
-            final CompositeNodeDataWithSchema compositeNodeDataWithSchema = new CompositeNodeDataWithSchema(parentNode);
             reader.nextTag();
-            read(reader, compositeNodeDataWithSchema, reader.getLocalName());
-            compositeNodeDataWithSchema.write(writer);
+            if (streaming) {
+                final String rootElement = reader.getLocalName();
+                reader.nextTag();
+                streamChildren(reader, parentNode, new HashSet<>(), rootElement);
+            } else {
+                final CompositeNodeDataWithSchema compositeNodeDataWithSchema =
+                        new CompositeNodeDataWithSchema(parentNode);
+                read(reader, compositeNodeDataWithSchema, reader.getLocalName());
+                compositeNodeDataWithSchema.write(writer);
+            }
         }
 
         return this;
@@ -177,43 +283,7 @@ public final class XmlParserStream implements Closeable, Flushable {
 
         switch (in.nextTag()) {
             case XMLStreamConstants.START_ELEMENT:
-                final Set<String> namesakes = new HashSet<>();
-                while (in.hasNext()) {
-                    final String xmlElementName = in.getLocalName();
-                    if (rootElement.equals(xmlElementName)) {
-                        break;
-                    }
-
-                    DataSchemaNode parentSchema = parent.getSchema();
-
-                    final String parentSchemaName = parentSchema.getQName().getLocalName();
-                    if (parentSchemaName.equals(xmlElementName) && in.getEventType() == XMLStreamConstants.END_ELEMENT) {
-                        in.nextTag();
-                        break;
-                    }
-
-                    if (parentSchema instanceof YangModeledAnyXmlSchemaNode) {
-                        parentSchema = ((YangModeledAnyXmlSchemaNode) parentSchema).getSchemaOfAnyXmlData();
-                    }
-
-                    if (!namesakes.add(xmlElementName)) {
-                        final Location loc = in.getLocation();
-                        throw new IllegalStateException(String.format(
-                                "Duplicate element \"%s\" in XML input at: line %s column %s", xmlElementName,
-                                loc.getLineNumber(), loc.getColumnNumber()));
-                    }
-
-                    final String xmlElementNamespace = in.getNamespaceURI();
-                    final Deque<DataSchemaNode> childDataSchemaNodes =
-                            ParserStreamUtils.findSchemaNodeByNameAndNamespace(parentSchema, xmlElementName,
-                                    new URI(xmlElementNamespace));
-
-                    Preconditions.checkState(!childDataSchemaNodes.isEmpty(),
-                            "Schema for node with name %s and namespace %s doesn't exist.",
-                            xmlElementName, xmlElementNamespace);
-
-                    read(in, ((CompositeNodeDataWithSchema) parent).addChild(childDataSchemaNodes), rootElement);
-                }
+                readChildren(in, parent, rootElement, new HashSet<>());
                 break;
             case XMLStreamConstants.END_ELEMENT:
                 in.nextTag();
@@ -221,6 +291,243 @@ public final class XmlParserStream implements Closeable, Flushable {
         }
     }
 
+    private void readChildren(final XMLStreamReader in, final AbstractNodeDataWithSchema parent,
+            final String rootElement, final Set<String> namesakes) throws XMLStreamException, URISyntaxException,
+            ParserConfigurationException, SAXException, IOException {
+        while (in.hasNext()) {
+            final String xmlElementName = in.getLocalName();
+            if (rootElement.equals(xmlElementName)) {
+                break;
+            }
+
+            DataSchemaNode parentSchema = parent.getSchema();
+
+            final String parentSchemaName = parentSchema.getQName().getLocalName();
+            if (parentSchemaName.equals(xmlElementName) && in.getEventType() == XMLStreamConstants.END_ELEMENT) {
+                in.nextTag();
+                break;
+            }
+
+            if (parentSchema instanceof YangModeledAnyXmlSchemaNode) {
+                parentSchema = ((YangModeledAnyXmlSchemaNode) parentSchema).getSchemaOfAnyXmlData();
+            }
+
+            if (!namesakes.add(xmlElementName)) {
+                final Location loc = in.getLocation();
+                throw new IllegalStateException(String.format(
+                        "Duplicate element \"%s\" in XML input at: line %s column %s", xmlElementName,
+                        loc.getLineNumber(), loc.getColumnNumber()));
+            }
+
+            final String xmlElementNamespace = in.getNamespaceURI();
+            final Deque<DataSchemaNode> childDataSchemaNodes =
+                    ParserStreamUtils.findSchemaNodeByNameAndNamespace(parentSchema, xmlElementName,
+                            new URI(xmlElementNamespace));
+
+            Preconditions.checkState(!childDataSchemaNodes.isEmpty(),
+                    "Schema for node with name %s and namespace %s doesn't exist.",
+                    xmlElementName, xmlElementNamespace);
+
+            read(in, ((CompositeNodeDataWithSchema) parent).addChild(childDataSchemaNodes), rootElement);
+        }
+    }
+
+    /**
+     * Stream children of an element into the writer. Expects the reader to be positioned either at the first child
+     * element or at the end of the parent element. Leaves the reader positioned at the end of the parent element.
+     * Children which belong to an augmentation or a choice are buffered and emitted after all other children.
+     */
+    private void streamChildren(final XMLStreamReader in, final DataSchemaNode parentSchema,
+            final Set<String> namesakes, final String rootElement) throws XMLStreamException, URISyntaxException,
+            ParserConfigurationException, SAXException, IOException {
+        final MixinNodeTracker mixins = new MixinNodeTracker(writer);
+        CompositeNodeDataWithSchema buffered = null;
+        ResolvedChildSchema previous = null;
+
+        while (in.getEventType() == XMLStreamConstants.START_ELEMENT) {
+            final ResolvedChildSchema child = resolveChild(parentSchema, in.getLocalName(), in.getNamespaceURI());
+
+            // Consecutive entries of the same list or leaf-list are expected, everything else is a duplicate
+            if (child != previous || !child.isMultiple()) {
+                checkNamesake(in, namesakes);
+            }
+            previous = child;
+
+            if (child.isInChoiceOrAugmentation()) {
+                if (buffered == null) {
+                    buffered = new CompositeNodeDataWithSchema(parentSchema);
+                }
+                // Reads all consecutive entries of a list or a leaf-list
+                read(in, buffered.addChild(new ArrayDeque<>(child.getPath())), rootElement);
+            } else {
+                mixins.enter(child.getMixins());
+                streamChild(in, child.getSchema(), rootElement);
+            }
+        }
+
+        mixins.exitAll();
+        if (buffered != null) {
+            buffered.write(writer);
+        }
+    }
+
+    /**
+     * Stream a single child element. Expects the reader to be positioned at the start of the element. Leaves it
+     * positioned at the next tag after the end of the element.
+     */
+    private void streamChild(final XMLStreamReader in, final DataSchemaNode schema, final String rootElement)
+            throws XMLStreamException, URISyntaxException, ParserConfigurationException, SAXException, IOException {
+        if (schema instanceof LeafSchemaNode) {
+            final Object value = readSimpleValue(in, schema);
+            writer.nextDataSchemaNode(schema);
+            writer.leafNode(NodeIdentifier.create(schema.getQName()), value);
+            in.nextTag();
+        } else if (schema instanceof LeafListSchemaNode) {
+            final Object value = readSimpleValue(in, schema);
+            writer.nextDataSchemaNode(schema);
+            writer.leafSetEntryNode(schema.getQName(), value);
+            in.nextTag();
+        } else if (schema instanceof YangModeledAnyXmlSchemaNode) {
+            writer.nextDataSchemaNode(schema);
+            writer.startYangModeledAnyXmlNode(NodeIdentifier.create(schema.getQName()),
+                NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+            in.nextTag();
+            streamChildren(in, ((YangModeledAnyXmlSchemaNode) schema).getSchemaOfAnyXmlData(), new HashSet<>(),
+                rootElement);
+            writer.endNode();
+            in.nextTag();
+        } else if (schema instanceof AnyXmlSchemaNode) {
+            final Object value = translateValueByType(readAnyXmlValue(in), schema, in.getNamespaceContext());
+            writer.nextDataSchemaNode(schema);
+            writer.anyxmlNode(NodeIdentifier.create(schema.getQName()), value);
+            in.nextTag();
+        } else if (schema instanceof ContainerSchemaNode) {
+            writer.nextDataSchemaNode(schema);
+            writer.startContainerNode(NodeIdentifier.create(schema.getQName()), NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+            in.nextTag();
+            streamChildren(in, schema, new HashSet<>(), rootElement);
+            writer.endNode();
+            in.nextTag();
+        } else if (schema instanceof ListSchemaNode) {
+            final ListSchemaNode listSchema = (ListSchemaNode) schema;
+            if (listSchema.getKeyDefinition().isEmpty()) {
+                writer.nextDataSchemaNode(schema);
+                writer.startUnkeyedListItem(NodeIdentifier.create(schema.getQName()),
+                    NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+                in.nextTag();
+                streamChildren(in, schema, new HashSet<>(), rootElement);
+                writer.endNode();
+                in.nextTag();
+            } else {
+                streamMapEntry(in, listSchema, rootElement);
+            }
+        } else {
+            throw new IllegalStateException("Unhandled schema node " + schema);
+        }
+    }
+
+    /**
+     * Stream a single map entry. Key leaves are expected to be the first children of the entry. If they are not, the
+     * rest of the entry is buffered until all keys are known.
+     */
+    private void streamMapEntry(final XMLStreamReader in, final ListSchemaNode schema, final String rootElement)
+            throws XMLStreamException, URISyntaxException, ParserConfigurationException, SAXException, IOException {
+        final List<QName> keyDef = schema.getKeyDefinition();
+        final DataSchemaNode[] keySchemas = new DataSchemaNode[keyDef.size()];
+        final Object[] keyValues = new Object[keyDef.size()];
+        final Set<String> namesakes = new HashSet<>();
+
+        int found = 0;
+        in.nextTag();
+        while (found < keyDef.size() && in.getEventType() == XMLStreamConstants.START_ELEMENT) {
+            final ResolvedChildSchema child = resolveChild(schema, in.getLocalName(), in.getNamespaceURI());
+            final int offset = keyDef.indexOf(child.getSchema().getQName());
+            if (offset == -1 || !child.getMixins().isEmpty() || keyValues[offset] != null) {
+                break;
+            }
+
+            checkNamesake(in, namesakes);
+            keySchemas[offset] = child.getSchema();
+            keyValues[offset] = readSimpleValue(in, child.getSchema());
+            found++;
+            in.nextTag();
+        }
+
+        if (found != keyDef.size()) {
+            // Keys are not the first children, we need to buffer the rest of the entry
+            final ListEntryNodeDataWithSchema entry = new ListEntryNodeDataWithSchema(schema);
+            for (int i = 0; i < keySchemas.length; ++i) {
+                if (keySchemas[i] != null) {
+                    final LeafNodeDataWithSchema key = new LeafNodeDataWithSchema(keySchemas[i]);
+                    key.setValue(keyValues[i]);
+                    entry.addChild(key);
+                }
+            }
+
+            if (in.getEventType() == XMLStreamConstants.START_ELEMENT) {
+                readChildren(in, entry, rootElement, namesakes);
+            } else {
+                in.nextTag();
+            }
+            entry.write(writer);
+            return;
+        }
+
+        final Map<QName, Object> predicates = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; ++i) {
+            predicates.put(keyDef.get(i), keyValues[i]);
+        }
+
+        writer.nextDataSchemaNode(schema);
+        writer.startMapEntryNode(new NodeIdentifierWithPredicates(schema.getQName(), predicates),
+            NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+        for (int i = 0; i < keyValues.length; ++i) {
+            writer.nextDataSchemaNode(keySchemas[i]);
+            writer.leafNode(NodeIdentifier.create(keyDef.get(i)), keyValues[i]);
+        }
+        streamChildren(in, schema, namesakes, rootElement);
+        writer.endNode();
+        in.nextTag();
+    }
+
+    private Object readSimpleValue(final XMLStreamReader in, final DataSchemaNode schema) throws XMLStreamException,
+            ParserConfigurationException, SAXException, IOException {
+        return translateValueByType(in.getElementText().trim(), schema, in.getNamespaceContext());
+    }
+
+    private static void checkNamesake(final XMLStreamReader in, final Set<String> namesakes) {
+        final String xmlElementName = in.getLocalName();
+        if (!namesakes.add(xmlElementName)) {
+            final Location loc = in.getLocation();
+            throw new IllegalStateException(String.format(
+                    "Duplicate element \"%s\" in XML input at: line %s column %s", xmlElementName,
+                    loc.getLineNumber(), loc.getColumnNumber()));
+        }
+    }
+
+    private ResolvedChildSchema resolveChild(final DataSchemaNode parentSchema, final String localName,
+            final String namespace) throws URISyntaxException {
+        Map<String, ResolvedChildSchema> children = resolutions.get(parentSchema);
+        if (children == null) {
+            children = new HashMap<>();
+            resolutions.put(parentSchema, children);
+        }
+
+        final ResolvedChildSchema cached = children.get(localName);
+        if (cached != null && cached.getSchema().getQName().getNamespace().toString().equals(namespace)) {
+            return cached;
+        }
+
+        final Deque<DataSchemaNode> childDataSchemaNodes = ParserStreamUtils.findSchemaNodeByNameAndNamespace(
+            parentSchema, localName, new URI(namespace));
+        Preconditions.checkState(!childDataSchemaNodes.isEmpty(),
+                "Schema for node with name %s and namespace %s doesn't exist.", localName, namespace);
+
+        final ResolvedChildSchema ret = ResolvedChildSchema.create(parentSchema, childDataSchemaNodes);
+        children.put(localName, ret);
+        return ret;
+    }
+
     private void setValue(final AbstractNodeDataWithSchema parent, final String value, final NamespaceContext nsContext)
             throws ParserConfigurationException, SAXException, IOException {
         Preconditions.checkArgument(parent instanceof SimpleNodeDataWithSchema, "Node %s is not a simple type",
@@ -8,6 +8,8 @@
 
 package org.opendaylight.yangtools.yang.data.codec.xml;
 
+import static org.junit.Assert.assertEquals;
+
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Sets;
 import java.io.IOException;
@@ -18,6 +20,7 @@ import java.net.URISyntaxException;
 import java.text.ParseException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Function;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
@@ -57,6 +60,7 @@ import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStre
 import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
 import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
 import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
 import org.opendaylight.yangtools.yang.parser.stmt.reactor.CrossSourceStatementReactor;
 import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
@@ -160,6 +164,86 @@ public class NormalizedNodesToXmlTest {
         new XMLTestCase() {}.assertXMLEqual(diff, true);
     }
 
+    @Test
+    public void testResetWriter() throws ReactorException, XMLStreamException, IOException {
+        final CrossSourceStatementReactor.BuildAction reactor = YangInferencePipeline.RFC6020_REACTOR.newBuild();
+        reactor.addSource(new YangStatementSourceImpl("/baz.yang", false));
+        final SchemaContext schemaContext = reactor.buildEffective();
+
+        final XMLStreamNormalizedNodeStreamWriter<?> xmlStream = XMLStreamNormalizedNodeStreamWriter.createReusable(
+            createXmlStreamWriter(new StringWriter()), schemaContext, SchemaPath.ROOT);
+        assertResetWriter(xmlStream, new Function<XMLStreamWriter, NormalizedNodeStreamWriter>() {
+            @Override
+            public NormalizedNodeStreamWriter apply(final XMLStreamWriter writer) {
+                return XMLStreamNormalizedNodeStreamWriter.create(writer, schemaContext);
+            }
+        });
+    }
+
+    @Test
+    public void testResetSchemalessWriter() throws XMLStreamException, IOException {
+        final XMLStreamNormalizedNodeStreamWriter<?> xmlStream = (XMLStreamNormalizedNodeStreamWriter<?>)
+                XMLStreamNormalizedNodeStreamWriter.createSchemaless(createXmlStreamWriter(new StringWriter()));
+        assertResetWriter(xmlStream, new Function<XMLStreamWriter, NormalizedNodeStreamWriter>() {
+            @Override
+            public NormalizedNodeStreamWriter apply(final XMLStreamWriter writer) {
+                return XMLStreamNormalizedNodeStreamWriter.createSchemaless(writer);
+            }
+        });
+    }
+
+    /**
+     * Write two documents through a writer which is reset for each of them, then abandon a document half-way through
+     * and write another one. Each document has to match the output of a fresh writer.
+     */
+    private void assertResetWriter(final XMLStreamNormalizedNodeStreamWriter<?> xmlStream,
+            final Function<XMLStreamWriter, NormalizedNodeStreamWriter> freshWriter) throws XMLStreamException,
+            IOException {
+        final NormalizedNode<?, ?> first = buildOuterContainerNode();
+        final NormalizedNode<?, ?> second = buildSmallOuterContainerNode();
+
+        assertEquals(writeFresh(freshWriter, first), resetAndWrite(xmlStream, first));
+        assertEquals(writeFresh(freshWriter, second), resetAndWrite(xmlStream, second));
+
+        xmlStream.reset(createXmlStreamWriter(new StringWriter()));
+        xmlStream.startContainerNode(new NodeIdentifier(outerContainer), 1);
+        xmlStream.startContainerNode(new NodeIdentifier(myContainer1), 1);
+        xmlStream.startLeafSet(new NodeIdentifier(myLeafList), 1);
+        xmlStream.leafSetEntryNode(myLeafList, "dangling");
+        assertEquals(writeFresh(freshWriter, second), resetAndWrite(xmlStream, second));
+    }
+
+    private static XMLStreamWriter createXmlStreamWriter(final StringWriter out) throws XMLStreamException {
+        final XMLOutputFactory factory = XMLOutputFactory.newInstance();
+        factory.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, true);
+        return factory.createXMLStreamWriter(out);
+    }
+
+    private static String writeFresh(final Function<XMLStreamWriter, NormalizedNodeStreamWriter> freshWriter,
+            final NormalizedNode<?, ?> node) throws XMLStreamException, IOException {
+        final StringWriter out = new StringWriter();
+        final XMLStreamWriter xmlStreamWriter = createXmlStreamWriter(out);
+        NormalizedNodeWriter.forStreamWriter(freshWriter.apply(xmlStreamWriter)).write(node);
+        xmlStreamWriter.flush();
+        return out.toString();
+    }
+
+    private static String resetAndWrite(final XMLStreamNormalizedNodeStreamWriter<?> xmlStream,
+            final NormalizedNode<?, ?> node) throws XMLStreamException, IOException {
+        final StringWriter out = new StringWriter();
+        final XMLStreamWriter xmlStreamWriter = createXmlStreamWriter(out);
+        NormalizedNodeWriter.forStreamWriter(xmlStream.reset(xmlStreamWriter)).write(node);
+        xmlStreamWriter.flush();
+        return out.toString();
+    }
+
+    private NormalizedNode<?, ?> buildSmallOuterContainerNode() {
+        return Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(outerContainer))
+                .withChild(Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(myContainer2))
+                    .withChild(Builders.leafBuilder().withNodeIdentifier(new NodeIdentifier(myLeaf3))
+                        .withValue("other value3").build()).build()).build();
+    }
+
     private NormalizedNode<?, ?> buildOuterContainerNode() {
         // my-container-1
         MapNode myKeyedListNode = Builders.mapBuilder().withNodeIdentifier(new NodeIdentifier(myKeyedList))
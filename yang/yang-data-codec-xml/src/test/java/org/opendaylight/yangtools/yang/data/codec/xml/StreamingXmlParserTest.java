@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.opendaylight.yangtools.yang.parser.stmt.reactor.CrossSourceStatementReactor;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementSourceImpl;
+import org.xml.sax.SAXException;
+
+public class StreamingXmlParserTest {
+
+    private static SchemaContext createSchemaContext(final String yangResource) throws ReactorException {
+        final CrossSourceStatementReactor.BuildAction reactor = YangInferencePipeline.RFC6020_REACTOR.newBuild();
+        reactor.addSource(new YangStatementSourceImpl(yangResource, false));
+        return reactor.buildEffective();
+    }
+
+    private static NormalizedNode<?, ?> parse(final SchemaContext schemaContext, final String xmlResource,
+            final boolean streaming) throws XMLStreamException, URISyntaxException, IOException,
+            ParserConfigurationException, SAXException {
+        final InputStream resourceAsStream = StreamingXmlParserTest.class.getResourceAsStream(xmlResource);
+        final XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(resourceAsStream);
+
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        final NormalizedNodeStreamWriter streamWriter = ImmutableNormalizedNodeStreamWriter.from(result);
+        final XmlParserStream xmlParser = streaming ? XmlParserStream.createStreaming(streamWriter, schemaContext)
+                : XmlParserStream.create(streamWriter, schemaContext);
+        xmlParser.parse(reader);
+
+        final NormalizedNode<?, ?> ret = result.getResult();
+        assertNotNull(ret);
+        return ret;
+    }
+
+    @Test
+    public void testStreamingMatchesBuffered() throws ReactorException, XMLStreamException, URISyntaxException,
+            IOException, ParserConfigurationException, SAXException {
+        final SchemaContext schemaContext = createSchemaContext("/baz.yang");
+        assertEquals(parse(schemaContext, "/baz.xml", false), parse(schemaContext, "/baz.xml", true));
+    }
+
+    @Test
+    public void testStreamingLeafTypes() throws ReactorException, XMLStreamException, URISyntaxException,
+            IOException, ParserConfigurationException, SAXException {
+        final SchemaContext schemaContext = createSchemaContext("/foo.yang");
+        assertEquals(parse(schemaContext, "/foo.xml", false), parse(schemaContext, "/foo.xml", true));
+    }
+
+    @Test
+    public void testReusedParser() throws ReactorException, XMLStreamException, URISyntaxException,
+            IOException, ParserConfigurationException, SAXException {
+        final SchemaContext schemaContext = createSchemaContext("/baz.yang");
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+
+        NormalizedNodeResult result = new NormalizedNodeResult();
+        final XmlParserStream xmlParser = XmlParserStream.createStreaming(
+            ImmutableNormalizedNodeStreamWriter.from(result), XmlCodecFactory.create(schemaContext), schemaContext);
+        xmlParser.parse(factory.createXMLStreamReader(
+            StreamingXmlParserTest.class.getResourceAsStream("/baz.xml")));
+        final NormalizedNode<?, ?> first = result.getResult();
+        assertEquals(parse(schemaContext, "/baz.xml", false), first);
+
+        result = new NormalizedNodeResult();
+        xmlParser.reset(ImmutableNormalizedNodeStreamWriter.from(result)).parse(factory.createXMLStreamReader(
+            StreamingXmlParserTest.class.getResourceAsStream("/baz-keys-last.xml")));
+        assertEquals(first, result.getResult());
+    }
+
+    @Test
+    public void testStreamingKeysLast() throws ReactorException, XMLStreamException, URISyntaxException,
+            IOException, ParserConfigurationException, SAXException {
+        final SchemaContext schemaContext = createSchemaContext("/baz.yang");
+        assertEquals(parse(schemaContext, "/baz.xml", false), parse(schemaContext, "/baz-keys-last.xml", true));
+    }
+
+    @Test
+    public void testStreamingAdjacentMixins() throws ReactorException, XMLStreamException, URISyntaxException,
+            IOException, ParserConfigurationException, SAXException {
+        final SchemaContext schemaContext = createSchemaContext("/adjacent-mixins.yang");
+        assertEquals(parse(schemaContext, "/adjacent-mixins.xml", false),
+            parse(schemaContext, "/adjacent-mixins.xml", true));
+    }
+
+    @Test
+    public void testStreamingInterleavedMixins() throws ReactorException, XMLStreamException, URISyntaxException,
+            IOException, ParserConfigurationException, SAXException {
+        final SchemaContext schemaContext = createSchemaContext("/interleaved-mixins.yang");
+        assertEquals(parse(schemaContext, "/interleaved-mixins.xml", false),
+            parse(schemaContext, "/interleaved-mixins.xml", true));
+    }
+
+    @Test
+    public void testStreamingDuplicateLeaf() throws ReactorException, XMLStreamException, URISyntaxException,
+            IOException, ParserConfigurationException, SAXException {
+        final SchemaContext schemaContext = createSchemaContext("/foo.yang");
+        try {
+            parse(schemaContext, "/invalid-foo.xml", true);
+            fail("IllegalStateException should have been thrown because of duplicate leaf.");
+        } catch (IllegalStateException ex) {
+            assertTrue(ex.getMessage().contains("Duplicate element \"decimal64-leaf\" in XML input"));
+        }
+    }
+}
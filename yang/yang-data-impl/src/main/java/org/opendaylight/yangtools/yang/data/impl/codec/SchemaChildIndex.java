@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.codec;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.impl.schema.SchemaUtils;
+import org.opendaylight.yangtools.yang.model.api.AugmentationSchema;
+import org.opendaylight.yangtools.yang.model.api.AugmentationTarget;
+import org.opendaylight.yangtools.yang.model.api.ChoiceCaseNode;
+import org.opendaylight.yangtools.yang.model.api.ChoiceSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.util.EffectiveAugmentationSchema;
+
+/**
+ * Index of schema node children, resolving a child, the case holding a choice child or an augmentation with a single
+ * hash lookup. Indices are shared by all {@link SchemaTracker}s operating on the same {@link SchemaContext}. Each parent
+ * node is indexed the first time it is visited.
+ */
+final class SchemaChildIndex {
+    private static final LoadingCache<SchemaContext, SchemaChildIndex> INDICES = CacheBuilder.newBuilder()
+            .weakKeys().build(new CacheLoader<SchemaContext, SchemaChildIndex>() {
+                @Override
+                public SchemaChildIndex load(final SchemaContext key) {
+                    return new SchemaChildIndex();
+                }
+            });
+
+    /*
+     * Keyed by parent node identity. Values do not reference their parent, hence weak keys are sufficient to release
+     * them along with the schema.
+     */
+    private final LoadingCache<Object, Children> children = CacheBuilder.newBuilder().weakKeys()
+            .build(new CacheLoader<Object, Children>() {
+                @Override
+                public Children load(final Object key) {
+                    if (key instanceof ChoiceSchemaNode) {
+                        return Children.forChoice((ChoiceSchemaNode) key);
+                    }
+                    Preconditions.checkArgument(key instanceof DataNodeContainer, "Unsupported parent %s", key);
+                    return Children.forContainer((DataNodeContainer) key);
+                }
+            });
+
+    private SchemaChildIndex() {
+        // Hidden on purpose
+    }
+
+    static SchemaChildIndex forContext(final SchemaContext context) {
+        return INDICES.getUnchecked(context);
+    }
+
+    DataSchemaNode getChild(final DataNodeContainer parent, final QName qname) {
+        final DataSchemaNode ret = children.getUnchecked(parent).children.get(qname);
+
+        // Should never happen, but fall back to the container for consistency
+        return ret != null ? ret : parent.getDataChildByName(qname);
+    }
+
+    /**
+     * Find a child of a choice, looking through its cases.
+     */
+    DataSchemaNode getChild(final ChoiceSchemaNode parent, final QName qname) {
+        return children.getUnchecked(parent).children.get(qname);
+    }
+
+    /**
+     * Find the case of a choice which holds the specified child.
+     */
+    ChoiceCaseNode getCase(final ChoiceSchemaNode parent, final QName qname) {
+        return children.getUnchecked(parent).cases.get(qname);
+    }
+
+    /**
+     * Find the augmentation identified by an {@link AugmentationIdentifier}. The returned schema exposes the effective
+     * children as seen by the parent, rather than the ones declared in the augment statement.
+     *
+     * @param parent Augmentation target
+     */
+    AugmentationSchema getAugmentation(final DataNodeContainer parent, final AugmentationIdentifier identifier) {
+        final ConcurrentMap<AugmentationIdentifier, AugmentationSchema> augmentations =
+                children.getUnchecked(parent).augmentations;
+        final AugmentationSchema existing = augmentations.get(identifier);
+        if (existing != null) {
+            return existing;
+        }
+
+        final AugmentationSchema schema = SchemaUtils.findSchemaForAugment((AugmentationTarget) parent,
+            identifier.getPossibleChildNames());
+        final Set<DataSchemaNode> realChildSchemas = new HashSet<>();
+        for (final DataSchemaNode child : schema.getChildNodes()) {
+            realChildSchemas.add(parent.getDataChildByName(child.getQName()));
+        }
+
+        final AugmentationSchema created = new EffectiveAugmentationSchema(schema, realChildSchemas);
+        final AugmentationSchema raced = augmentations.putIfAbsent(identifier, created);
+        return raced != null ? raced : created;
+    }
+
+    private static final class Children {
+        final ConcurrentMap<AugmentationIdentifier, AugmentationSchema> augmentations = new ConcurrentHashMap<>();
+        final Map<QName, DataSchemaNode> children;
+        final Map<QName, ChoiceCaseNode> cases;
+
+        private Children(final Map<QName, DataSchemaNode> children, final Map<QName, ChoiceCaseNode> cases) {
+            this.children = ImmutableMap.copyOf(children);
+            this.cases = ImmutableMap.copyOf(cases);
+        }
+
+        static Children forContainer(final DataNodeContainer container) {
+            final Map<QName, DataSchemaNode> children = new HashMap<>();
+            for (final DataSchemaNode child : container.getChildNodes()) {
+                if (!children.containsKey(child.getQName())) {
+                    children.put(child.getQName(), child);
+                }
+            }
+            return new Children(children, ImmutableMap.<QName, ChoiceCaseNode>of());
+        }
+
+        static Children forChoice(final ChoiceSchemaNode choice) {
+            final Map<QName, DataSchemaNode> children = new HashMap<>();
+            final Map<QName, ChoiceCaseNode> cases = new HashMap<>();
+
+            // First case wins, as when searching the cases in order
+            for (final ChoiceCaseNode caze : choice.getCases()) {
+                for (final DataSchemaNode child : caze.getChildNodes()) {
+                    if (!children.containsKey(child.getQName())) {
+                        children.put(child.getQName(), child);
+                        cases.put(child.getQName(), caze);
+                    }
+                }
+            }
+            return new Children(children, cases);
+        }
+    }
+}
@@ -13,7 +13,6 @@ import com.google.common.collect.Iterables;
 import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.HashSet;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
@@ -23,11 +22,9 @@ import org.opendaylight.yangtools.yang.data.impl.schema.SchemaUtils;
 import org.opendaylight.yangtools.yang.model.api.AnyXmlSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.AugmentationSchema;
 import org.opendaylight.yangtools.yang.model.api.AugmentationTarget;
-import org.opendaylight.yangtools.yang.model.api.ChoiceCaseNode;
 import org.opendaylight.yangtools.yang.model.api.ChoiceSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
-import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.GroupingDefinition;
 import org.opendaylight.yangtools.yang.model.api.LeafListSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
@@ -37,7 +34,6 @@ import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.api.SchemaNode;
 import org.opendaylight.yangtools.yang.model.api.SchemaPath;
 import org.opendaylight.yangtools.yang.model.api.YangModeledAnyXmlSchemaNode;
-import org.opendaylight.yangtools.yang.model.util.EffectiveAugmentationSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,9 +45,11 @@ import org.slf4j.LoggerFactory;
 public final class SchemaTracker {
     private static final Logger LOG = LoggerFactory.getLogger(SchemaTracker.class);
     private final Deque<Object> schemaStack = new ArrayDeque<>();
+    private final SchemaChildIndex index;
     private final DataNodeContainer root;
 
     private SchemaTracker(final SchemaContext context, final SchemaPath path) {
+        index = SchemaChildIndex.forContext(context);
         SchemaNode current = SchemaUtils.findParentSchemaOnPath(context, path);
         Preconditions.checkArgument(current instanceof DataNodeContainer,"Schema path must point to container or list or an rpc input/output. Supplied path %s pointed to: %s",path,current);
         root = (DataNodeContainer) current;
@@ -91,7 +89,7 @@ public final class SchemaTracker {
         SchemaNode schema = null;
         final QName qname = name.getNodeType();
         if (parent instanceof DataNodeContainer) {
-            schema = ((DataNodeContainer)parent).getDataChildByName(qname);
+            schema = index.getChild((DataNodeContainer) parent, qname);
 
             if (schema == null && parent instanceof GroupingDefinition) {
                 schema = ((GroupingDefinition) parent);
@@ -101,7 +99,7 @@ public final class SchemaTracker {
                 schema = ((NotificationDefinition) parent);
             }
         } else if (parent instanceof ChoiceSchemaNode) {
-            schema = findChildInCases((ChoiceSchemaNode) parent, qname);
+            schema = index.getChild((ChoiceSchemaNode) parent, qname);
         } else {
             throw new IllegalStateException("Unsupported schema type "+ parent.getClass() +" on stack.");
         }
@@ -109,30 +107,6 @@ public final class SchemaTracker {
         return schema;
     }
 
-    private static SchemaNode findChildInCases(final ChoiceSchemaNode parent, final QName qname) {
-        DataSchemaNode schema = null;
-        for (final ChoiceCaseNode caze : parent.getCases()) {
-            final DataSchemaNode potential = caze.getDataChildByName(qname);
-            if (potential != null) {
-                schema = potential;
-                break;
-            }
-        }
-        return schema;
-    }
-
-    private static SchemaNode findCaseByChild(final ChoiceSchemaNode parent, final QName qname) {
-        DataSchemaNode schema = null;
-        for (final ChoiceCaseNode caze : parent.getCases()) {
-            final DataSchemaNode potential = caze.getDataChildByName(qname);
-            if (potential != null) {
-                schema = caze;
-                break;
-            }
-        }
-        return schema;
-    }
-
     public void startList(final PathArgument name) {
         final SchemaNode schema = getSchema(name);
         Preconditions.checkArgument(schema instanceof ListSchemaNode, "Node %s is not a list", schema.getPath());
@@ -221,15 +195,10 @@ public final class SchemaTracker {
         Preconditions.checkArgument(parent instanceof AugmentationTarget, "Augmentation not allowed under %s", parent);
         if (parent instanceof ChoiceSchemaNode) {
             final QName name = Iterables.get(identifier.getPossibleChildNames(), 0);
-            parent = findCaseByChild((ChoiceSchemaNode) parent, name);
+            parent = index.getCase((ChoiceSchemaNode) parent, name);
         }
         Preconditions.checkArgument(parent instanceof DataNodeContainer, "Augmentation allowed only in DataNodeContainer",parent);
-        final AugmentationSchema schema = SchemaUtils.findSchemaForAugment((AugmentationTarget) parent, identifier.getPossibleChildNames());
-        final HashSet<DataSchemaNode> realChildSchemas = new HashSet<>();
-        for (final DataSchemaNode child : schema.getChildNodes()) {
-            realChildSchemas.add(((DataNodeContainer) parent).getDataChildByName(child.getQName()));
-        }
-        final AugmentationSchema resolvedSchema = new EffectiveAugmentationSchema(schema, realChildSchemas);
+        final AugmentationSchema resolvedSchema = index.getAugmentation((DataNodeContainer) parent, identifier);
         schemaStack.push(resolvedSchema);
         return resolvedSchema;
     }
@@ -245,4 +214,11 @@ public final class SchemaTracker {
         return schemaStack.pop();
     }
 
+    /**
+     * Reset this tracker to its root, so it can be used to track another tree rooted at the same schema path.
+     */
+    public void reset() {
+        schemaStack.clear();
+    }
+
 }
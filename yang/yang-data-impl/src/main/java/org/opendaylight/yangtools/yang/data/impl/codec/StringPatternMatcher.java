@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.codec;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import org.opendaylight.yangtools.xsd.regex.ParseException;
+import org.opendaylight.yangtools.xsd.regex.RegularExpression;
+import org.opendaylight.yangtools.xsd.regex.RegularExpressionAutomaton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Matcher for a YANG pattern. Patterns are interpreted as XML Schema regular expressions and are compiled into
+ * a deterministic automaton where possible, falling back to the backtracking XML Schema engine and finally to
+ * {@link Pattern} for expressions which the XML Schema parser rejects.
+ *
+ * <p>Matchers are thread-safe and are shared by all codecs, across schema contexts, as long as they are in use.
+ */
+abstract class StringPatternMatcher {
+    private static final class Automaton extends StringPatternMatcher {
+        private final RegularExpressionAutomaton automaton;
+
+        Automaton(final RegularExpressionAutomaton automaton) {
+            this.automaton = automaton;
+        }
+
+        @Override
+        boolean matches(final String str) {
+            return automaton.matches(str);
+        }
+    }
+
+    private static final class Backtracking extends StringPatternMatcher {
+        private final RegularExpression regex;
+
+        Backtracking(final RegularExpression regex) {
+            this.regex = regex;
+        }
+
+        @Override
+        boolean matches(final String str) {
+            return regex.matches(str);
+        }
+    }
+
+    private static final class Java extends StringPatternMatcher {
+        private final Pattern pattern;
+
+        Java(final Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        @Override
+        boolean matches(final String str) {
+            return pattern.matcher(str).matches();
+        }
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(StringPatternMatcher.class);
+    private static final String XSD_OPTIONS = "X";
+
+    private static final LoadingCache<String, StringPatternMatcher> CACHE = CacheBuilder.newBuilder().weakValues()
+            .build(new CacheLoader<String, StringPatternMatcher>() {
+                @Override
+                public StringPatternMatcher load(final String key) {
+                    return compile(key);
+                }
+            });
+
+    /**
+     * Return a matcher for a regular expression, as reported by
+     * {@link org.opendaylight.yangtools.yang.model.api.type.PatternConstraint#getRegularExpression()}.
+     *
+     * @param regex Regular expression
+     * @return A matcher
+     * @throws PatternSyntaxException if the expression cannot be compiled
+     */
+    static StringPatternMatcher forRegularExpression(final String regex) {
+        try {
+            return CACHE.getUnchecked(regex);
+        } catch (UncheckedExecutionException e) {
+            Throwables.propagateIfInstanceOf(e.getCause(), PatternSyntaxException.class);
+            throw e;
+        }
+    }
+
+    private static StringPatternMatcher compile(final String regex) {
+        final RegularExpression xsd;
+        try {
+            xsd = new RegularExpression(toXsdRegularExpression(regex), XSD_OPTIONS);
+        } catch (ParseException e) {
+            LOG.debug("Pattern {} is not a valid XSD regular expression, using Java semantics", regex, e);
+            return new Java(Pattern.compile("^" + regex + "$"));
+        }
+
+        final RegularExpressionAutomaton automaton = RegularExpressionAutomaton.compile(xsd);
+        if (automaton != null) {
+            return new Automaton(automaton);
+        }
+
+        LOG.debug("Pattern {} cannot be compiled into an automaton, using backtracking", regex);
+        return new Backtracking(xsd);
+    }
+
+    /**
+     * Undo the transformations performed by the parser when it converts a YANG pattern into Java regular expression
+     * syntax: the expression is anchored by '^' and '$' and Unicode block escapes use 'In' instead of 'Is'. XML Schema
+     * expressions are implicitly anchored and treat these characters as literals.
+     */
+    @VisibleForTesting
+    static String toXsdRegularExpression(final String regex) {
+        int begin = 0;
+        int end = regex.length();
+        if (end > 0 && regex.charAt(0) == '^') {
+            begin = 1;
+        }
+        if (end > begin && regex.charAt(end - 1) == '$' && !isEscaped(regex, end - 1)) {
+            end--;
+        }
+
+        return regex.substring(begin, end).replace("\\p{In", "\\p{Is").replace("\\P{In", "\\P{Is");
+    }
+
+    private static boolean isEscaped(final String str, final int offset) {
+        int backslashes = 0;
+        for (int i = offset - 1; i >= 0 && str.charAt(i) == '\\'; --i) {
+            backslashes++;
+        }
+        return backslashes % 2 != 0;
+    }
+
+    abstract boolean matches(String str);
+}
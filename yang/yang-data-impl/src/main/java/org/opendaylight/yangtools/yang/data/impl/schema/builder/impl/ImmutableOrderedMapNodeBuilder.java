@@ -7,12 +7,17 @@
  */
 package org.opendaylight.yangtools.yang.data.impl.schema.builder.impl;
 
+import com.google.common.base.Function;
 import com.google.common.base.Optional;
-import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
+import java.util.AbstractCollection;
 import java.util.Collection;
-import java.util.LinkedHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 import org.opendaylight.yangtools.concepts.Immutable;
+import org.opendaylight.yangtools.util.MapAdaptor;
 import org.opendaylight.yangtools.util.UnmodifiableCollection;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
@@ -24,29 +29,36 @@ import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNo
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.NormalizedNodeContainerBuilder;
 import org.opendaylight.yangtools.yang.data.impl.schema.nodes.AbstractImmutableNormalizedNode;
 
+/**
+ * Builder for {@link OrderedMapNode}s. Entries are stored in a map obtained from {@link MapAdaptor}, which switches
+ * to a persistent map for large lists, so that modifying a single entry of a large list does not copy all of them.
+ * Iteration order is tracked separately in a persistent {@link OrderedKeyIndex}, so adding or removing a key shares
+ * most of the order with the previous version, too. Keys added while building are collected in a transient set and
+ * appended to the index once, when the node is built.
+ */
 public class ImmutableOrderedMapNodeBuilder implements CollectionNodeBuilder<MapEntryNode, OrderedMapNode> {
     private static final int DEFAULT_CAPACITY = 4;
     private Map<NodeIdentifierWithPredicates, MapEntryNode> value;
+    private OrderedKeyIndex<NodeIdentifierWithPredicates> order;
+    private final Set<NodeIdentifierWithPredicates> appended = new LinkedHashSet<>();
     private NodeIdentifier nodeIdentifier;
     private boolean dirty;
 
     protected ImmutableOrderedMapNodeBuilder() {
-        this.value = new LinkedHashMap<>(DEFAULT_CAPACITY);
-        this.dirty = false;
+        this(DEFAULT_CAPACITY);
     }
 
     protected ImmutableOrderedMapNodeBuilder(final int sizeHint) {
-        if (sizeHint >= 0) {
-            this.value = new LinkedHashMap<>(sizeHint + sizeHint / 3);
-        } else {
-            this.value = new LinkedHashMap<>(DEFAULT_CAPACITY);
-        }
+        final int capacity = sizeHint >= 0 ? sizeHint : DEFAULT_CAPACITY;
+        this.value = MapAdaptor.getDefaultInstance().initialSnapshot(capacity);
+        this.order = OrderedKeyIndex.of();
         this.dirty = false;
     }
 
     protected ImmutableOrderedMapNodeBuilder(final ImmutableOrderedMapNode node) {
         this.nodeIdentifier = node.getIdentifier();
         this.value = node.children;
+        this.order = node.order;
         this.dirty = true;
     }
 
@@ -68,7 +80,7 @@ public class ImmutableOrderedMapNodeBuilder implements CollectionNodeBuilder<Map
 
     private void checkDirty() {
         if (dirty) {
-            value = new LinkedHashMap<>(value);
+            value = MapAdaptor.getDefaultInstance().takeSnapshot(value);
             dirty = false;
         }
     }
@@ -76,14 +88,18 @@ public class ImmutableOrderedMapNodeBuilder implements CollectionNodeBuilder<Map
     @Override
     public CollectionNodeBuilder<MapEntryNode, OrderedMapNode> withChild(final MapEntryNode child) {
         checkDirty();
-        this.value.put(child.getIdentifier(), child);
+        if (this.value.put(child.getIdentifier(), child) == null) {
+            appended.add(child.getIdentifier());
+        }
         return this;
     }
 
     @Override
     public CollectionNodeBuilder<MapEntryNode, OrderedMapNode> withoutChild(final PathArgument key) {
         checkDirty();
-        this.value.remove(key);
+        if (this.value.remove(key) != null && !appended.remove(key)) {
+            this.order = this.order.remove(key);
+        }
         return this;
     }
 
@@ -105,8 +121,11 @@ public class ImmutableOrderedMapNodeBuilder implements CollectionNodeBuilder<Map
 
     @Override
     public OrderedMapNode build() {
+        value = MapAdaptor.getDefaultInstance().optimize(value);
+        order = order.appendAll(appended);
+        appended.clear();
         dirty = true;
-        return new ImmutableOrderedMapNode(nodeIdentifier, value);
+        return new ImmutableOrderedMapNode(nodeIdentifier, value, order);
     }
 
     @Override
@@ -125,11 +144,14 @@ public class ImmutableOrderedMapNodeBuilder implements CollectionNodeBuilder<Map
     protected static final class ImmutableOrderedMapNode extends AbstractImmutableNormalizedNode<NodeIdentifier, Collection<MapEntryNode>> implements Immutable, OrderedMapNode {
 
         private final Map<NodeIdentifierWithPredicates, MapEntryNode> children;
+        private final OrderedKeyIndex<NodeIdentifierWithPredicates> order;
 
         ImmutableOrderedMapNode(final NodeIdentifier nodeIdentifier,
-                         final Map<NodeIdentifierWithPredicates, MapEntryNode> children) {
+                         final Map<NodeIdentifierWithPredicates, MapEntryNode> children,
+                         final OrderedKeyIndex<NodeIdentifierWithPredicates> order) {
             super(nodeIdentifier);
             this.children = children;
+            this.order = order;
         }
 
         @Override
@@ -149,7 +171,7 @@ public class ImmutableOrderedMapNodeBuilder implements CollectionNodeBuilder<Map
 
         @Override
         public MapEntryNode getChild(final int position) {
-            return Iterables.get(children.values(), position);
+            return children.get(order.get(position));
         }
 
         @Override
@@ -159,7 +181,23 @@ public class ImmutableOrderedMapNodeBuilder implements CollectionNodeBuilder<Map
 
         @Override
         public Collection<MapEntryNode> getValue() {
-            return UnmodifiableCollection.create(children.values());
+            return UnmodifiableCollection.create(new AbstractCollection<MapEntryNode>() {
+                @Override
+                public Iterator<MapEntryNode> iterator() {
+                    return Iterators.transform(order.iterator(),
+                        new Function<NodeIdentifierWithPredicates, MapEntryNode>() {
+                            @Override
+                            public MapEntryNode apply(final NodeIdentifierWithPredicates input) {
+                                return children.get(input);
+                            }
+                        });
+                }
+
+                @Override
+                public int size() {
+                    return order.size();
+                }
+            });
         }
     }
 }
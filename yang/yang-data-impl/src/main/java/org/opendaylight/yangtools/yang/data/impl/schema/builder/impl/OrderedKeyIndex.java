@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.builder.impl;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.opendaylight.yangtools.util.ImmutableHashTrieMap;
+import org.opendaylight.yangtools.util.MutableHashTrieMap;
+
+/**
+ * Persistent sequence of distinct keys, kept in insertion order. Each key is assigned an increasing sequence number
+ * when it is appended. Keys are held in an AVL tree ordered by sequence number, whose nodes track subtree sizes, and
+ * a {@link ImmutableHashTrieMap} maps keys to their sequence numbers. Appending, removing and positional access take
+ * O(log n) time. Instances are immutable, modifications copy only the affected tree path and share the rest with the
+ * original.
+ *
+ * @param <K> key type
+ */
+final class OrderedKeyIndex<K> implements Iterable<K> {
+    private static final class Node<K> {
+        final Node<K> left;
+        final Node<K> right;
+        final long seq;
+        final K key;
+        final int height;
+        final int size;
+
+        Node(final Node<K> left, final long seq, final K key, final Node<K> right) {
+            this.left = left;
+            this.right = right;
+            this.seq = seq;
+            this.key = key;
+            this.height = Math.max(height(left), height(right)) + 1;
+            this.size = size(left) + size(right) + 1;
+        }
+    }
+
+    private static final OrderedKeyIndex<?> EMPTY = new OrderedKeyIndex<>(null, ImmutableHashTrieMap.<Object, Long>of(),
+        0);
+
+    private final ImmutableHashTrieMap<K, Long> sequences;
+    private final Node<K> root;
+    private final long nextSeq;
+
+    private OrderedKeyIndex(final Node<K> root, final ImmutableHashTrieMap<K, Long> sequences, final long nextSeq) {
+        this.root = root;
+        this.sequences = sequences;
+        this.nextSeq = nextSeq;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K> OrderedKeyIndex<K> of() {
+        return (OrderedKeyIndex<K>) EMPTY;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * Return the key at specified position.
+     *
+     * @param index Position of the key
+     * @return Key at specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    K get(final int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of range of size " + size());
+        }
+
+        Node<K> node = root;
+        int i = index;
+        while (true) {
+            final int leftSize = size(node.left);
+            if (i < leftSize) {
+                node = node.left;
+            } else if (i == leftSize) {
+                return node.key;
+            } else {
+                i -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Append a key, which must not be present.
+     *
+     * @param key Key to append
+     * @return Index with the key appended
+     */
+    OrderedKeyIndex<K> append(final K key) {
+        final MutableHashTrieMap<K, Long> newSequences = sequences.toModifiableMap();
+        Preconditions.checkArgument(newSequences.put(key, nextSeq) == null, "Key %s is already present", key);
+        return new OrderedKeyIndex<>(insert(root, nextSeq, key), newSequences.toUnmodifiableMap(), nextSeq + 1);
+    }
+
+    /**
+     * Append a number of keys, none of which may be present. This is equivalent to appending them one by one, but
+     * updates the key map only once and builds the tree in linear time when this index is empty.
+     *
+     * @param keys Keys to append, in order
+     * @return Index with the keys appended
+     */
+    OrderedKeyIndex<K> appendAll(final Collection<? extends K> keys) {
+        if (keys.isEmpty()) {
+            return this;
+        }
+
+        final MutableHashTrieMap<K, Long> newSequences = sequences.toModifiableMap();
+        long seq = nextSeq;
+        for (final K key : keys) {
+            Preconditions.checkArgument(newSequences.put(key, seq++) == null, "Key %s is already present", key);
+        }
+
+        final Node<K> newRoot;
+        if (root == null) {
+            final List<? extends K> list = keys instanceof List ? (List<? extends K>) keys : new ArrayList<>(keys);
+            newRoot = build(list, 0, list.size(), nextSeq);
+        } else {
+            Node<K> node = root;
+            seq = nextSeq;
+            for (final K key : keys) {
+                node = insert(node, seq++, key);
+            }
+            newRoot = node;
+        }
+        return new OrderedKeyIndex<>(newRoot, newSequences.toUnmodifiableMap(), seq);
+    }
+
+    /**
+     * Remove a key.
+     *
+     * @param key Key to remove
+     * @return Index without the key, or this index if the key is not present
+     */
+    OrderedKeyIndex<K> remove(final Object key) {
+        final Long seq = sequences.get(key);
+        if (seq == null) {
+            return this;
+        }
+
+        final MutableHashTrieMap<K, Long> newSequences = sequences.toModifiableMap();
+        newSequences.remove(key);
+        return new OrderedKeyIndex<>(delete(root, seq), newSequences.toUnmodifiableMap(), nextSeq);
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return new Iterator<K>() {
+            private final Deque<Node<K>> stack = new ArrayDeque<>();
+
+            {
+                pushLeft(root);
+            }
+
+            private void pushLeft(final Node<K> start) {
+                for (Node<K> node = start; node != null; node = node.left) {
+                    stack.push(node);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public K next() {
+                if (stack.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                final Node<K> node = stack.pop();
+                pushLeft(node.right);
+                return node.key;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private static int height(final Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(final Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static <K> Node<K> build(final List<? extends K> keys, final int from, final int to,
+            final long firstSeq) {
+        if (from >= to) {
+            return null;
+        }
+        final int mid = (from + to) >>> 1;
+        return new Node<>(build(keys, from, mid, firstSeq), firstSeq + mid, keys.get(mid),
+            build(keys, mid + 1, to, firstSeq));
+    }
+
+    private static <K> Node<K> insert(final Node<K> node, final long seq, final K key) {
+        if (node == null) {
+            return new Node<>(null, seq, key, null);
+        }
+        if (seq < node.seq) {
+            return balance(insert(node.left, seq, key), node.seq, node.key, node.right);
+        }
+        return balance(node.left, node.seq, node.key, insert(node.right, seq, key));
+    }
+
+    private static <K> Node<K> delete(final Node<K> node, final long seq) {
+        if (node == null) {
+            return null;
+        }
+        if (seq < node.seq) {
+            return balance(delete(node.left, seq), node.seq, node.key, node.right);
+        }
+        if (seq > node.seq) {
+            return balance(node.left, node.seq, node.key, delete(node.right, seq));
+        }
+
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+
+        // Replace the node with its in-order successor
+        Node<K> successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(node.left, successor.seq, successor.key, delete(node.right, successor.seq));
+    }
+
+    private static <K> Node<K> balance(final Node<K> left, final long seq, final K key, final Node<K> right) {
+        final int diff = height(left) - height(right);
+        if (diff > 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Node<>(left.left, left.seq, left.key, new Node<>(left.right, seq, key, right));
+            }
+            final Node<K> pivot = left.right;
+            return new Node<>(new Node<>(left.left, left.seq, left.key, pivot.left), pivot.seq, pivot.key,
+                new Node<>(pivot.right, seq, key, right));
+        }
+        if (diff < -1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node<>(new Node<>(left, seq, key, right.left), right.seq, right.key, right.right);
+            }
+            final Node<K> pivot = right.left;
+            return new Node<>(new Node<>(left, seq, key, pivot.left), pivot.seq, pivot.key,
+                new Node<>(pivot.right, right.seq, right.key, right.right));
+        }
+        return new Node<>(left, seq, key, right);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("[");
+        final Iterator<K> it = iterator();
+        while (it.hasNext()) {
+            sb.append(it.next());
+            if (it.hasNext()) {
+                sb.append(", ");
+            }
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.annotations.Beta;
+import java.util.Collection;
+import java.util.EventListener;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+
+/**
+ * Listener registered with a {@link DataTreeChangeDispatcher} for changes to a particular subtree.
+ */
+@Beta
+public interface DataTreeCandidateListener extends EventListener {
+    /**
+     * Invoked when the registered subtree has been modified. Each candidate is rooted at the registered path,
+     * with wildcards replaced by the actual path arguments, or at a path below it if the committed candidate
+     * itself was rooted there.
+     *
+     * @param changes Non-empty collection of changes, in commit order
+     */
+    void onDataTreeChanged(@Nonnull Collection<DataTreeCandidate> changes);
+}
@@ -0,0 +1,358 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import org.opendaylight.yangtools.concepts.AbstractListenerRegistration;
+import org.opendaylight.yangtools.concepts.ListenerRegistration;
+import org.opendaylight.yangtools.util.concurrent.QueuedNotificationManager;
+import org.opendaylight.yangtools.util.concurrent.QueuedNotificationManager.Invoker;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidates;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Dispatcher of committed {@link DataTreeCandidate}s to {@link DataTreeCandidateListener}s registered for a particular
+ * subtree. Registrations are kept in a tree keyed by {@link PathArgument}s, which is walked in lockstep with each
+ * candidate, so that the cost of dispatching a candidate is proportional to the number of modified nodes which have
+ * registrations at or below them, not to the number of registered listeners. Each listener receives only the candidate
+ * nodes rooted at its registered path.
+ *
+ * <p>Registration paths may contain wildcards for list and leaf-list entries. These are expressed by a path argument
+ * created by {@link #wildcard(QName)} in place of the entry identifier, for example {@code /foo/bar/<wildcard bar>/baz}
+ * matches {@code baz} in all entries of list {@code bar}.
+ *
+ * <p>Notifications are delivered through a {@link QueuedNotificationManager}, hence each registration observes
+ * changes in the order in which they were dispatched, while distinct registrations are notified concurrently.
+ */
+@Beta
+@ThreadSafe
+public final class DataTreeChangeDispatcher {
+    private static final Logger LOG = LoggerFactory.getLogger(DataTreeChangeDispatcher.class);
+
+    private static final Invoker<Registration<?>, Collection<DataTreeCandidate>> INVOKER =
+            new Invoker<Registration<?>, Collection<DataTreeCandidate>>() {
+                @Override
+                public void invokeListener(final Registration<?> listener,
+                        final Collection<DataTreeCandidate> notification) {
+                    listener.notifyListener(notification);
+                }
+            };
+
+    private final QueuedNotificationManager<Registration<?>, Collection<DataTreeCandidate>> notificationManager;
+    private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+    private final RegistrationNode rootNode = new RegistrationNode(null, null);
+
+    private DataTreeChangeDispatcher(final Executor executor, final int maxQueueCapacity, final String name) {
+        notificationManager = new QueuedNotificationManager<>(executor, INVOKER, maxQueueCapacity, name);
+    }
+
+    /**
+     * Create a new dispatcher.
+     *
+     * @param executor Executor used to invoke listeners
+     * @param maxQueueCapacity Maximum number of notifications queued for each registration
+     * @param name Name of the dispatcher, used for logging
+     * @return A new dispatcher
+     */
+    public static DataTreeChangeDispatcher create(@Nonnull final Executor executor, final int maxQueueCapacity,
+            @Nonnull final String name) {
+        return new DataTreeChangeDispatcher(executor, maxQueueCapacity, name);
+    }
+
+    /**
+     * Create a path argument matching all entries of a list or leaf-list, for use in registration paths.
+     *
+     * @param nodeType QName of the list or leaf-list
+     * @return Wildcard path argument
+     */
+    public static PathArgument wildcard(@Nonnull final QName nodeType) {
+        return new Wildcard(nodeType);
+    }
+
+    /**
+     * Register a listener for changes to a subtree.
+     *
+     * @param path Path of the subtree, which may contain wildcards
+     * @param listener Listener to register
+     * @return Listener registration, closing it stops further notifications
+     */
+    public <L extends DataTreeCandidateListener> ListenerRegistration<L> registerListener(
+            @Nonnull final YangInstanceIdentifier path, @Nonnull final L listener) {
+        rwLock.writeLock().lock();
+        try {
+            RegistrationNode node = rootNode;
+            for (PathArgument arg : path.getPathArguments()) {
+                node = node.ensureChild(arg);
+            }
+
+            final Registration<L> reg = new Registration<>(node, listener);
+            node.registrations.add(reg);
+            LOG.debug("Registered listener {} at {}", listener, path);
+            return reg;
+        } finally {
+            rwLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Dispatch a committed candidate to registered listeners. Candidates need to be dispatched in the order in which
+     * they were committed.
+     *
+     * @param candidate Committed candidate
+     */
+    public synchronized void dispatch(@Nonnull final DataTreeCandidate candidate) {
+        final Map<Registration<?>, List<DataTreeCandidate>> notifications = new LinkedHashMap<>();
+
+        rwLock.readLock().lock();
+        try {
+            dispatchRoot(rootNode, candidate.getRootPath().getPathArguments(), 0, candidate, notifications);
+        } finally {
+            rwLock.readLock().unlock();
+        }
+
+        for (Entry<Registration<?>, List<DataTreeCandidate>> e : notifications.entrySet()) {
+            notificationManager.submitNotification(e.getKey(), e.getValue());
+        }
+    }
+
+    private static boolean isEntry(final PathArgument arg) {
+        return arg instanceof NodeIdentifierWithPredicates || arg instanceof NodeWithValue;
+    }
+
+    /**
+     * Walk the registration tree down to the root of the candidate. Registrations encountered on the way are
+     * interested in the entire candidate.
+     */
+    private static void dispatchRoot(final RegistrationNode node, final List<PathArgument> rootArgs, final int offset,
+            final DataTreeCandidate candidate, final Map<Registration<?>, List<DataTreeCandidate>> notifications) {
+        if (offset == rootArgs.size()) {
+            dispatchNode(node, candidate.getRootPath(), candidate.getRootNode(), candidate, notifications);
+            return;
+        }
+        if (candidate.getRootNode().getModificationType() == ModificationType.UNMODIFIED) {
+            return;
+        }
+
+        node.addNotifications(candidate, notifications);
+
+        final PathArgument arg = rootArgs.get(offset);
+        final RegistrationNode exact = node.children.get(arg);
+        if (exact != null) {
+            dispatchRoot(exact, rootArgs, offset + 1, candidate, notifications);
+        }
+        if (isEntry(arg)) {
+            final RegistrationNode wildcard = node.wildcards.get(arg.getNodeType());
+            if (wildcard != null) {
+                dispatchRoot(wildcard, rootArgs, offset + 1, candidate, notifications);
+            }
+        }
+    }
+
+    /**
+     * Walk the registration tree in lockstep with the candidate.
+     */
+    private static void dispatchNode(final RegistrationNode node, final YangInstanceIdentifier path,
+            final DataTreeCandidateNode candidateNode, final DataTreeCandidate rootCandidate,
+            final Map<Registration<?>, List<DataTreeCandidate>> notifications) {
+        if (candidateNode.getModificationType() == ModificationType.UNMODIFIED) {
+            return;
+        }
+
+        if (!node.registrations.isEmpty()) {
+            node.addNotifications(candidateNode == rootCandidate.getRootNode() ? rootCandidate
+                    : DataTreeCandidates.newDataTreeCandidate(path, candidateNode), notifications);
+        }
+
+        if (node.children.isEmpty() && node.wildcards.isEmpty()) {
+            return;
+        }
+
+        final Collection<DataTreeCandidateNode> candidateChildren = candidateNode.getChildNodes();
+        if (node.wildcards.isEmpty() && node.children.size() < candidateChildren.size()) {
+            // Fewer registered children than modified ones, look them up
+            for (Entry<PathArgument, RegistrationNode> e : node.children.entrySet()) {
+                final DataTreeCandidateNode child = candidateNode.getModifiedChild(e.getKey());
+                if (child != null) {
+                    dispatchNode(e.getValue(), path.node(e.getKey()), child, rootCandidate, notifications);
+                }
+            }
+            return;
+        }
+
+        for (DataTreeCandidateNode child : candidateChildren) {
+            if (child.getModificationType() == ModificationType.UNMODIFIED) {
+                continue;
+            }
+
+            final PathArgument arg = child.getIdentifier();
+            final RegistrationNode exact = node.children.get(arg);
+            final RegistrationNode wildcard = isEntry(arg) ? node.wildcards.get(arg.getNodeType()) : null;
+            if (exact != null || wildcard != null) {
+                final YangInstanceIdentifier childPath = path.node(arg);
+                if (exact != null) {
+                    dispatchNode(exact, childPath, child, rootCandidate, notifications);
+                }
+                if (wildcard != null) {
+                    dispatchNode(wildcard, childPath, child, rootCandidate, notifications);
+                }
+            }
+        }
+    }
+
+    private void removeRegistration(final Registration<?> reg) {
+        rwLock.writeLock().lock();
+        try {
+            RegistrationNode node = reg.node;
+            node.registrations.remove(reg);
+
+            // Prune nodes which are no longer needed
+            while (node.parent != null && node.isEmpty()) {
+                node.parent.removeChild(node);
+                node = node.parent;
+            }
+        } finally {
+            rwLock.writeLock().unlock();
+        }
+        LOG.debug("Unregistered listener {}", reg.getInstance());
+    }
+
+    private static final class RegistrationNode {
+        final Map<PathArgument, RegistrationNode> children = new HashMap<>();
+        final Map<QName, RegistrationNode> wildcards = new HashMap<>(0);
+        final Set<Registration<?>> registrations = new HashSet<>(0);
+        final RegistrationNode parent;
+        final PathArgument identifier;
+
+        RegistrationNode(final RegistrationNode parent, final PathArgument identifier) {
+            this.parent = parent;
+            this.identifier = identifier;
+        }
+
+        RegistrationNode ensureChild(final PathArgument arg) {
+            final boolean isWildcard = arg instanceof Wildcard;
+            RegistrationNode ret = isWildcard ? wildcards.get(arg.getNodeType()) : children.get(arg);
+            if (ret == null) {
+                ret = new RegistrationNode(this, arg);
+                if (isWildcard) {
+                    wildcards.put(arg.getNodeType(), ret);
+                } else {
+                    children.put(arg, ret);
+                }
+            }
+            return ret;
+        }
+
+        void removeChild(final RegistrationNode child) {
+            if (child.identifier instanceof Wildcard) {
+                wildcards.remove(child.identifier.getNodeType());
+            } else {
+                children.remove(child.identifier);
+            }
+        }
+
+        boolean isEmpty() {
+            return registrations.isEmpty() && children.isEmpty() && wildcards.isEmpty();
+        }
+
+        void addNotifications(final DataTreeCandidate candidate,
+                final Map<Registration<?>, List<DataTreeCandidate>> notifications) {
+            for (Registration<?> reg : registrations) {
+                List<DataTreeCandidate> list = notifications.get(reg);
+                if (list == null) {
+                    list = new ArrayList<>(1);
+                    notifications.put(reg, list);
+                }
+                list.add(candidate);
+            }
+        }
+    }
+
+    private static final class Wildcard implements PathArgument {
+        private static final long serialVersionUID = 1L;
+        private final QName nodeType;
+
+        Wildcard(final QName nodeType) {
+            this.nodeType = Preconditions.checkNotNull(nodeType);
+        }
+
+        @Override
+        public QName getNodeType() {
+            return nodeType;
+        }
+
+        @Override
+        public int compareTo(final PathArgument o) {
+            return nodeType.compareTo(o.getNodeType());
+        }
+
+        @Override
+        public String toRelativeString(final PathArgument previous) {
+            return toString();
+        }
+
+        @Override
+        public int hashCode() {
+            return nodeType.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return this == obj || obj instanceof Wildcard && nodeType.equals(((Wildcard) obj).nodeType);
+        }
+
+        @Override
+        public String toString() {
+            return nodeType + "[*]";
+        }
+    }
+
+    private final class Registration<L extends DataTreeCandidateListener> extends AbstractListenerRegistration<L> {
+        final RegistrationNode node;
+
+        Registration(final RegistrationNode node, final L listener) {
+            super(listener);
+            this.node = Preconditions.checkNotNull(node);
+        }
+
+        void notifyListener(final Collection<DataTreeCandidate> changes) {
+            // Registration may have been closed while the notification was queued
+            if (!isClosed()) {
+                getInstance().onDataTreeChanged(changes);
+            }
+        }
+
+        @Override
+        protected void removeRegistration() {
+            DataTreeChangeDispatcher.this.removeRegistration(this);
+        }
+    }
+}
@@ -0,0 +1,392 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateTip;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeTip;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TipProducingDataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TipProducingDataTreeTip;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Commit pipeline allowing multiple threads to submit modifications to a {@link TipProducingDataTree} without
+ * coordinating among themselves. Submitted modifications are processed in groups:
+ * <ol>
+ *   <li>All modifications in the group are validated against the current data tree in parallel, using the supplied
+ *       executor.</li>
+ *   <li>Modifications are then prepared in submission order, each on top of the {@link DataTreeCandidateTip}
+ *       produced by its predecessor. A modification whose footprint overlaps with a preceding modification in the
+ *       same group, or which failed the parallel validation, is re-validated against that tip, so that conflicts
+ *       are reported exactly as if the modifications were committed one by one.</li>
+ *   <li>The resulting candidates are committed to the data tree as a group.</li>
+ * </ol>
+ *
+ * <p>The footprint of a modification is determined at the granularity of the closest enclosing list entry (or the
+ * parent node, if there is no enclosing entry), so modifications of different entries of a list are validated in
+ * parallel. Constraints which span a whole list, like unique and min/max-elements, are enforced again when such
+ * a modification is prepared on top of its predecessors. If that fails, the modification is validated against the tip
+ * to report the violation. Must and when constraints can span arbitrary subtrees, hence if the data tree enforces
+ * them, or if it is not an {@link InMemoryDataTree}, the parallel validation is skipped and every modification is
+ * validated against the tip.
+ *
+ * <p>While a coordinator is in use, all commits to the backing data tree need to be submitted through it.
+ */
+@Beta
+@ThreadSafe
+public final class DataTreeCommitCoordinator {
+    private static final Logger LOG = LoggerFactory.getLogger(DataTreeCommitCoordinator.class);
+    private static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    private final Queue<PendingCommit> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicLong tipValidations = new AtomicLong();
+    private final TipProducingDataTree dataTree;
+    private final Executor executor;
+    private final int maxBatchSize;
+    private final boolean revalidateAll;
+
+    private final Runnable processor = new Runnable() {
+        @Override
+        public void run() {
+            processQueue();
+        }
+    };
+
+    private DataTreeCommitCoordinator(final TipProducingDataTree dataTree, final Executor executor,
+            final int maxBatchSize) {
+        this.dataTree = Preconditions.checkNotNull(dataTree);
+        this.executor = Preconditions.checkNotNull(executor);
+        Preconditions.checkArgument(maxBatchSize > 0, "Batch size %s is not positive", maxBatchSize);
+        this.maxBatchSize = maxBatchSize;
+        this.revalidateAll = !(dataTree instanceof InMemoryDataTree)
+                || ((InMemoryDataTree) dataTree).enforcesXPathConstraints();
+    }
+
+    /**
+     * Create a new coordinator with default batch size.
+     *
+     * @param dataTree Data tree to which modifications are committed
+     * @param executor Executor used to process commits and validate modifications
+     * @return A new coordinator
+     */
+    public static DataTreeCommitCoordinator create(@Nonnull final TipProducingDataTree dataTree,
+            @Nonnull final Executor executor) {
+        return create(dataTree, executor, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Create a new coordinator.
+     *
+     * @param dataTree Data tree to which modifications are committed
+     * @param executor Executor used to process commits and validate modifications
+     * @param maxBatchSize Maximum number of modifications processed in a single group
+     * @return A new coordinator
+     */
+    public static DataTreeCommitCoordinator create(@Nonnull final TipProducingDataTree dataTree,
+            @Nonnull final Executor executor, final int maxBatchSize) {
+        return new DataTreeCommitCoordinator(dataTree, executor, maxBatchSize);
+    }
+
+    /**
+     * Submit a modification for commit. The returned future completes with the committed candidate, or fails with
+     * {@link DataValidationFailedException} if the modification cannot be applied.
+     *
+     * @param modification A sealed modification
+     * @return Future completing when the modification has been committed
+     */
+    public ListenableFuture<DataTreeCandidate> submit(@Nonnull final DataTreeModification modification) {
+        Preconditions.checkArgument(modification instanceof InMemoryDataTreeModification,
+            "Invalid modification class %s", modification.getClass());
+        Preconditions.checkArgument(((InMemoryDataTreeModification) modification).isSealed(),
+            "Attempted to submit unsealed modification %s", modification);
+
+        final PendingCommit commit = new PendingCommit(modification);
+        queue.add(commit);
+        schedule();
+        return commit.future;
+    }
+
+    /**
+     * Return the number of modifications which have been validated against the tip, as opposed to in parallel.
+     *
+     * @return Number of modifications validated against the tip
+     */
+    @VisibleForTesting
+    long getTipValidationCount() {
+        return tipValidations.get();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(processor);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                LOG.warn("Executor {} rejected commit processing", executor, e);
+                failQueue(e);
+            }
+        }
+    }
+
+    private void failQueue(final Exception cause) {
+        PendingCommit commit;
+        while ((commit = queue.poll()) != null) {
+            commit.future.setException(cause);
+        }
+    }
+
+    private void processQueue() {
+        while (true) {
+            final List<PendingCommit> batch = new ArrayList<>();
+            PendingCommit commit;
+            while (batch.size() < maxBatchSize && (commit = queue.poll()) != null) {
+                batch.add(commit);
+            }
+
+            if (batch.isEmpty()) {
+                scheduled.set(false);
+
+                // Re-check for commits which were queued after our last poll, but before we cleared the flag
+                if (queue.isEmpty() || !scheduled.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+
+            try {
+                processBatch(batch);
+            } catch (RuntimeException e) {
+                LOG.error("Unexpected failure while processing commits", e);
+                for (PendingCommit c : batch) {
+                    c.future.setException(e);
+                }
+            }
+        }
+    }
+
+    private void processBatch(final List<PendingCommit> batch) {
+        LOG.debug("Processing {} commits", batch.size());
+        if (!revalidateAll) {
+            validateAll(batch);
+        }
+
+        // Prepare the modifications on top of each other, re-validating them where we have to.
+        final Footprint accepted = new Footprint();
+        final List<PendingCommit> prepared = new ArrayList<>(batch.size());
+        TipProducingDataTreeTip tip = dataTree;
+        for (PendingCommit c : batch) {
+            if (c.unexpectedFailure != null) {
+                c.future.setException(c.unexpectedFailure);
+                continue;
+            }
+            final boolean validateOnTip = revalidateAll || c.validationFailure != null
+                    || accepted.overlaps(c.footprint);
+            if (validateOnTip && !validateOnTip(tip, c)) {
+                continue;
+            }
+
+            final DataTreeCandidateTip candidate;
+            try {
+                candidate = tip.prepare(c.modification);
+            } catch (RuntimeException e) {
+                // A list-wide constraint may have been violated in combination with a preceding modification, in
+                // which case validation against the tip reports it properly
+                if (!validateOnTip && !validateOnTip(tip, c)) {
+                    continue;
+                }
+                LOG.debug("Modification {} failed to prepare", c.modification, e);
+                c.future.setException(e);
+                continue;
+            }
+
+            c.candidate = candidate;
+            if (!revalidateAll) {
+                accepted.addAll(c.footprint);
+            }
+            prepared.add(c);
+            tip = candidate;
+        }
+
+        // Commit the candidates as a group
+        for (int i = 0; i < prepared.size(); ++i) {
+            final PendingCommit c = prepared.get(i);
+            try {
+                dataTree.commit(c.candidate);
+            } catch (RuntimeException e) {
+                // Subsequent candidates are based on this one, hence they cannot be committed either
+                LOG.warn("Failed to commit candidate {}, data tree was modified outside of coordinator", c.candidate,
+                    e);
+                for (PendingCommit f : prepared.subList(i, prepared.size())) {
+                    f.future.setException(e);
+                }
+                return;
+            }
+        }
+        for (PendingCommit c : prepared) {
+            c.future.set(c.candidate);
+        }
+    }
+
+    private boolean validateOnTip(final DataTreeTip tip, final PendingCommit commit) {
+        tipValidations.incrementAndGet();
+        try {
+            tip.validate(commit.modification);
+            return true;
+        } catch (DataValidationFailedException e) {
+            LOG.debug("Modification {} failed validation", commit.modification, e);
+            commit.future.setException(e);
+            return false;
+        }
+    }
+
+    /*
+     * Validate all modifications against the current data tree. The calling thread participates in the work, so
+     * we do not deadlock even if the executor has no spare threads.
+     */
+    private void validateAll(final List<PendingCommit> batch) {
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicInteger remaining = new AtomicInteger(batch.size());
+        final Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                int i;
+                while ((i = next.getAndIncrement()) < batch.size()) {
+                    final PendingCommit commit = batch.get(i);
+                    try {
+                        commit.validate(dataTree);
+                    } catch (Throwable t) {
+                        // Report the failure through the commit's future, its footprint may be incomplete
+                        LOG.debug("Unexpected failure while validating {}", commit.modification, t);
+                        commit.unexpectedFailure = t;
+                    } finally {
+                        if (remaining.decrementAndGet() == 0) {
+                            synchronized (remaining) {
+                                remaining.notifyAll();
+                            }
+                        }
+                    }
+                }
+            }
+        };
+
+        final int helpers = Math.min(batch.size() - 1, Runtime.getRuntime().availableProcessors() - 1);
+        for (int i = 0; i < helpers; ++i) {
+            try {
+                executor.execute(worker);
+            } catch (RejectedExecutionException e) {
+                LOG.debug("Executor {} rejected validation, continuing in current thread", executor, e);
+                break;
+            }
+        }
+        worker.run();
+
+        // Wait for modifications claimed by helpers
+        boolean interrupted = false;
+        synchronized (remaining) {
+            while (remaining.get() != 0) {
+                try {
+                    remaining.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class PendingCommit {
+        final SettableFuture<DataTreeCandidate> future = SettableFuture.create();
+        final DataTreeModification modification;
+        Set<YangInstanceIdentifier> footprint;
+        DataValidationFailedException validationFailure;
+        Throwable unexpectedFailure;
+        DataTreeCandidateTip candidate;
+
+        PendingCommit(final DataTreeModification modification) {
+            this.modification = Preconditions.checkNotNull(modification);
+        }
+
+        void validate(final DataTreeTip tip) {
+            final FootprintCursor cursor = new FootprintCursor();
+            modification.applyToCursor(cursor);
+            footprint = cursor.getFootprint();
+
+            try {
+                tip.validate(modification);
+            } catch (DataValidationFailedException e) {
+                validationFailure = e;
+            } catch (RuntimeException e) {
+                LOG.debug("Unexpected failure while validating {}", modification, e);
+                validationFailure = new DataValidationFailedException(YangInstanceIdentifier.EMPTY,
+                    "Unexpected validation failure", e);
+            }
+        }
+    }
+
+    /**
+     * Set of footprint paths, supporting overlap checks in time proportional to path length.
+     */
+    private static final class Footprint {
+        private final Set<YangInstanceIdentifier> paths = new HashSet<>();
+        private final Set<YangInstanceIdentifier> ancestors = new HashSet<>();
+
+        void addAll(final Set<YangInstanceIdentifier> footprint) {
+            for (YangInstanceIdentifier path : footprint) {
+                if (paths.add(path)) {
+                    YangInstanceIdentifier p = path;
+                    while (p != null && ancestors.add(p)) {
+                        p = p.getParent();
+                    }
+                }
+            }
+        }
+
+        boolean overlaps(final Set<YangInstanceIdentifier> footprint) {
+            for (YangInstanceIdentifier path : footprint) {
+                // Is the path a parent of an accepted path?
+                if (ancestors.contains(path)) {
+                    return true;
+                }
+                // Is an accepted path a parent of this path?
+                YangInstanceIdentifier p = path.getParent();
+                while (p != null) {
+                    if (paths.contains(p)) {
+                        return true;
+                    }
+                    p = p.getParent();
+                }
+            }
+            return false;
+        }
+    }
+}
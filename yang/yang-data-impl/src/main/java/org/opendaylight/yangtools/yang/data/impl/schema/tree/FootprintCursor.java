@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModificationCursor;
+
+/**
+ * Cursor collecting the footprint of a modification. Each modified path is reduced to the closest enclosing list, or
+ * leaf-list, entry, including its key. Paths which are not enclosed in any entry are reduced to their parent.
+ * Modifications whose footprints do not overlap cannot affect each other's validation outcome, except through
+ * constraints spanning a whole list, like unique and min/max-elements, which are enforced again when the modification
+ * is applied on top of a data tree which has moved since validation.
+ */
+final class FootprintCursor implements DataTreeModificationCursor {
+    private final Set<YangInstanceIdentifier> footprint = new HashSet<>();
+    private YangInstanceIdentifier current = YangInstanceIdentifier.EMPTY;
+
+    Set<YangInstanceIdentifier> getFootprint() {
+        return footprint;
+    }
+
+    static YangInstanceIdentifier footprintOf(final YangInstanceIdentifier path) {
+        final List<PathArgument> args = path.getPathArguments();
+        for (int i = args.size() - 1; i >= 0; --i) {
+            final PathArgument arg = args.get(i);
+            if (arg instanceof NodeIdentifierWithPredicates || arg instanceof NodeWithValue) {
+                return YangInstanceIdentifier.create(args.subList(0, i + 1));
+            }
+        }
+
+        final YangInstanceIdentifier parent = path.getParent();
+        return parent != null ? parent : YangInstanceIdentifier.EMPTY;
+    }
+
+    private void record(final PathArgument child) {
+        footprint.add(footprintOf(current.node(child)));
+    }
+
+    @Override
+    public void delete(final PathArgument child) {
+        record(child);
+    }
+
+    @Override
+    public void merge(final PathArgument child, final NormalizedNode<?, ?> data) {
+        record(child);
+    }
+
+    @Override
+    public void write(final PathArgument child, final NormalizedNode<?, ?> data) {
+        record(child);
+    }
+
+    @Override
+    public void enter(final PathArgument child) {
+        current = current.node(child);
+    }
+
+    @Override
+    public void enter(final PathArgument... path) {
+        for (PathArgument arg : path) {
+            enter(arg);
+        }
+    }
+
+    @Override
+    public void enter(final Iterable<PathArgument> path) {
+        for (PathArgument arg : path) {
+            enter(arg);
+        }
+    }
+
+    @Override
+    public void exit() {
+        exit(1);
+    }
+
+    @Override
+    public void exit(final int depth) {
+        Preconditions.checkArgument(depth >= 0);
+        for (int i = 0; i < depth; ++i) {
+            current = Preconditions.checkNotNull(current.getParent(), "Attempted to exit past root");
+        }
+    }
+
+    @Override
+    public Optional<NormalizedNode<?, ?>> readNode(final PathArgument child) {
+        throw new UnsupportedOperationException("Footprint cursor does not support reads");
+    }
+
+    @Override
+    public void close() {
+        // No-op
+    }
+}
@@ -8,6 +8,7 @@
 package org.opendaylight.yangtools.yang.data.impl.schema.tree;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import javax.annotation.Nonnull;
@@ -18,6 +19,7 @@ import org.opendaylight.yangtools.yang.data.api.schema.tree.TipProducingDataTree
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathSchemaContextFactory;
 import org.opendaylight.yangtools.yang.data.util.DataSchemaContextNode;
 import org.opendaylight.yangtools.yang.data.util.DataSchemaContextTree;
 import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
@@ -79,7 +81,7 @@ final class InMemoryDataTree extends AbstractDataTreeTip implements TipProducing
             return;
         }
 
-        final ModificationApplyOperation rootNode;
+        ModificationApplyOperation rootNode;
         if (rootSchemaNode instanceof ContainerSchemaNode) {
             // FIXME: real root needs to enfore presence, but that require pre-population
             rootNode = new ContainerModificationStrategy((ContainerSchemaNode) rootSchemaNode, treeConfig);
@@ -87,6 +89,11 @@ final class InMemoryDataTree extends AbstractDataTreeTip implements TipProducing
             rootNode = SchemaAwareApplyOperation.from(rootSchemaNode, treeConfig);
         }
 
+        final Optional<XPathSchemaContextFactory> xpathFactory = treeConfig.getXPathSchemaContextFactory();
+        if (xpathFactory.isPresent()) {
+            rootNode = XPathConstraintValidation.from(rootNode, rootPath, newSchemaContext, xpathFactory.get());
+        }
+
         DataTreeState currentState, newState;
         do {
             currentState = state;
@@ -134,6 +141,16 @@ final class InMemoryDataTree extends AbstractDataTreeTip implements TipProducing
         return o.getClass().getName() + "@" + Integer.toHexString(o.hashCode());
     }
 
+    /**
+     * Check whether this tree enforces must and when constraints. These may span arbitrary subtrees, hence the result
+     * of validating a modification cannot be reused once the tree has changed.
+     *
+     * @return True if must and when constraints are enforced
+     */
+    boolean enforcesXPathConstraints() {
+        return treeConfig.getXPathSchemaContextFactory().isPresent();
+    }
+
     @Override
     public YangInstanceIdentifier getRootPath() {
         return rootPath;
@@ -88,6 +88,23 @@ final class MinMaxElementsValidation extends SchemaAwareApplyOperation {
         modification.setValidatedNode(this, current, applied);
     }
 
+    /**
+     * Enforce the constraints on the result of applying a modification which has been validated against a different
+     * current node, i.e. the data tree has moved since validation. Modifications which have not been validated at all
+     * are applied when reading uncommitted data, hence their result is not enforced.
+     */
+    private TreeNode revalidate(final ModifiedNode modification, final TreeNode applied) {
+        if (modification.isValidatedBy(this)) {
+            try {
+                validateMinMaxElements(YangInstanceIdentifier.create(modification.getIdentifier()),
+                    modification.getIdentifier(), applied.getData());
+            } catch (DataValidationFailedException e) {
+                throw new SchemaValidationFailedException(e.getMessage(), e);
+            }
+        }
+        return applied;
+    }
+
     private static int numOfChildrenFromValue(final NormalizedNode<?, ?> value) {
         if (value instanceof NormalizedNodeContainer) {
             return ((NormalizedNodeContainer<?, ?, ?>) value).getValue().size();
@@ -138,8 +155,7 @@ final class MinMaxElementsValidation extends SchemaAwareApplyOperation {
             return validated;
         }
 
-        // FIXME: the result moved, make sure we enforce again
-        return delegate.applyMerge(modification, currentMeta, version);
+        return revalidate(modification, delegate.applyMerge(modification, currentMeta, version));
     }
 
     @Override
@@ -149,8 +165,7 @@ final class MinMaxElementsValidation extends SchemaAwareApplyOperation {
             return validated;
         }
 
-        // FIXME: the result moved, make sure we enforce again
-        return delegate.applyTouch(modification, currentMeta, version);
+        return revalidate(modification, delegate.applyTouch(modification, currentMeta, version));
     }
 
     @Override
@@ -161,8 +176,7 @@ final class MinMaxElementsValidation extends SchemaAwareApplyOperation {
             return validated;
         }
 
-        // FIXME: the result moved, make sure we enforce again
-        return delegate.applyWrite(modification, currentMeta, version);
+        return revalidate(modification, delegate.applyWrite(modification, currentMeta, version));
     }
 
     @Override
@@ -362,4 +362,8 @@ final class ModifiedNode extends NodeModification implements StoreTreeNode<Modif
     TreeNode getValidatedNode(final SchemaAwareApplyOperation op, final Optional<TreeNode> current) {
         return op.equals(validatedOp) && current.equals(validatedCurrent) ? validatedNode : null;
     }
+
+    boolean isValidatedBy(final SchemaAwareApplyOperation op) {
+        return op.equals(validatedOp);
+    }
 }
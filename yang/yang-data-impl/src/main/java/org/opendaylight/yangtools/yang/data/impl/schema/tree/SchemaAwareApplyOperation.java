@@ -85,9 +85,11 @@ abstract class SchemaAwareApplyOperation extends ModificationApplyOperation {
         if (keyDefinition == null || keyDefinition.isEmpty()) {
             op = new UnkeyedListModificationStrategy(schemaNode, treeConfig);
         } else if (schemaNode.isUserOrdered()) {
-            op =  new OrderedMapModificationStrategy(schemaNode, treeConfig);
+            op = UniqueValidation.from(new OrderedMapModificationStrategy(schemaNode, treeConfig), schemaNode,
+                treeConfig);
         } else {
-            op = new UnorderedMapModificationStrategy(schemaNode, treeConfig);
+            op = UniqueValidation.from(new UnorderedMapModificationStrategy(schemaNode, treeConfig), schemaNode,
+                treeConfig);
         }
         return MinMaxElementsValidation.from(op, schemaNode);
     }
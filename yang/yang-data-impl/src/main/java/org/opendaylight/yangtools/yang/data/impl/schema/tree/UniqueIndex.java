@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.opendaylight.yangtools.concepts.Immutable;
+import org.opendaylight.yangtools.util.MapAdaptor;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.UniqueValidator.Values;
+
+/**
+ * Secondary index of a single keyed list, mapping the values of each 'unique' statement to the entry holding them.
+ * Individual maps are managed through {@link MapAdaptor}, hence large indices are backed by persistent maps and
+ * deriving a new index is proportional to the number of modified entries.
+ */
+final class UniqueIndex implements Immutable {
+    private static final MapAdaptor MAP_ADAPTOR = MapAdaptor.getDefaultInstance();
+
+    private final List<Map<Values, PathArgument>> indices;
+
+    private UniqueIndex(final List<Map<Values, PathArgument>> indices) {
+        this.indices = Preconditions.checkNotNull(indices);
+    }
+
+    /**
+     * Create a new index by scanning all entries of a list.
+     *
+     * @param path Path to the list, used for error reporting
+     * @param validators Validators for individual unique statements
+     * @param list List tree node
+     * @return A new index
+     * @throws DataValidationFailedException if any of the unique constraints is violated
+     */
+    static UniqueIndex create(final YangInstanceIdentifier path, final List<UniqueValidator> validators,
+            final TreeNode list) throws DataValidationFailedException {
+        final Collection<MapEntryNode> entries = ((MapNode) list.getData()).getValue();
+        final List<Map<Values, PathArgument>> indices = new ArrayList<>(validators.size());
+
+        for (final UniqueValidator validator : validators) {
+            final Map<Values, PathArgument> index = MAP_ADAPTOR.initialSnapshot(entries.size());
+            for (final MapEntryNode entry : entries) {
+                indexEntry(path, validator, index, entry.getIdentifier(), entry);
+            }
+            indices.add(MAP_ADAPTOR.optimize(index));
+        }
+
+        return new UniqueIndex(indices);
+    }
+
+    /**
+     * Derive an index of a modified list from this index. Entries which have been modified are first removed from
+     * the index and then indexed again, so that swapping values between two entries in a single transaction is not
+     * reported as a violation.
+     *
+     * @param path Path to the list, used for error reporting
+     * @param validators Validators for individual unique statements
+     * @param current List tree node corresponding to this index
+     * @param applied List tree node resulting from modification
+     * @param modified Identifiers of modified entries
+     * @return A new index
+     * @throws DataValidationFailedException if any of the unique constraints is violated
+     */
+    UniqueIndex update(final YangInstanceIdentifier path, final List<UniqueValidator> validators,
+            final TreeNode current, final TreeNode applied, final Collection<PathArgument> modified)
+                    throws DataValidationFailedException {
+        if (modified.isEmpty()) {
+            return this;
+        }
+
+        final List<Map<Values, PathArgument>> updated = new ArrayList<>(validators.size());
+        for (int i = 0; i < validators.size(); ++i) {
+            final UniqueValidator validator = validators.get(i);
+            final Map<Values, PathArgument> index = MAP_ADAPTOR.takeSnapshot(indices.get(i));
+
+            for (final PathArgument id : modified) {
+                final Optional<TreeNode> before = current.getChild(id);
+                if (before.isPresent()) {
+                    final Values values = validator.extractValues(before.get().getData());
+                    if (values != null) {
+                        index.remove(values, id);
+                    }
+                }
+            }
+            for (final PathArgument id : modified) {
+                final Optional<TreeNode> after = applied.getChild(id);
+                if (after.isPresent()) {
+                    indexEntry(path, validator, index, id, after.get().getData());
+                }
+            }
+
+            updated.add(MAP_ADAPTOR.optimize(index));
+        }
+
+        return new UniqueIndex(updated);
+    }
+
+    private static void indexEntry(final YangInstanceIdentifier path, final UniqueValidator validator,
+            final Map<Values, PathArgument> index, final PathArgument id,
+            final NormalizedNode<?, ?> entry) throws DataValidationFailedException {
+        final Values values = validator.extractValues(entry);
+        if (values != null) {
+            final PathArgument existing = index.put(values, id);
+            if (existing != null && !existing.equals(id)) {
+                throw new DataValidationFailedException(path, String.format(
+                    "%s violates unique constraint %s on values %s already used by %s", id, validator, values,
+                    existing));
+            }
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Verify;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import java.util.Collection;
+import java.util.List;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.Version;
+import org.opendaylight.yangtools.yang.model.api.ListSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.UniqueConstraint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Enforcement of YANG 'unique' statements on keyed lists. Each list {@link TreeNode} which passed validation has
+ * a {@link UniqueIndex} associated with it. Validation of a subsequent modification derives a new index from that
+ * of the current node, so the cost of a transaction scales with the number of modified entries, not with the size
+ * of the list. Indices are only rebuilt from scratch when the list is written as a whole, or the index of the
+ * current node has been evicted.
+ */
+final class UniqueValidation extends SchemaAwareApplyOperation {
+    private static final Logger LOG = LoggerFactory.getLogger(UniqueValidation.class);
+
+    /*
+     * TreeNodes are immutable, hence the index associated with them never changes. Weak keys use identity comparison,
+     * which is exactly what we need, and release indices of nodes which have been replaced in the data tree.
+     */
+    private final Cache<TreeNode, UniqueIndex> indices = CacheBuilder.newBuilder().weakKeys().build();
+    private final SchemaAwareApplyOperation delegate;
+    private final List<UniqueValidator> validators;
+
+    private UniqueValidation(final SchemaAwareApplyOperation delegate, final List<UniqueValidator> validators) {
+        this.delegate = Preconditions.checkNotNull(delegate);
+        this.validators = Preconditions.checkNotNull(validators);
+    }
+
+    static SchemaAwareApplyOperation from(final SchemaAwareApplyOperation delegate, final ListSchemaNode schema,
+            final DataTreeConfiguration treeConfig) {
+        if (!treeConfig.isUniqueIndexEnabled()) {
+            return delegate;
+        }
+        final Collection<UniqueConstraint> constraints = schema.getUniqueConstraints();
+        if (constraints.isEmpty()) {
+            return delegate;
+        }
+
+        final ImmutableList.Builder<UniqueValidator> builder = ImmutableList.builder();
+        for (final UniqueConstraint constraint : constraints) {
+            builder.add(UniqueValidator.create(schema, constraint));
+        }
+        return new UniqueValidation(delegate, builder.build());
+    }
+
+    private void checkUnique(final YangInstanceIdentifier path, final NodeModification nodeMod,
+            final Optional<TreeNode> current, final Version version) throws DataValidationFailedException {
+        if (!(nodeMod instanceof ModifiedNode)) {
+            LOG.debug("Could not validate {}, does not implement expected class {}", nodeMod, ModifiedNode.class);
+            return;
+        }
+
+        final ModifiedNode modification = (ModifiedNode) nodeMod;
+
+        // Same as MinMaxElementsValidation, we need to have the result of the operation. Merges get their children
+        // expanded as a side-effect, hence we can inspect them afterwards.
+        final Optional<TreeNode> maybeApplied = delegate.apply(modification, current, version);
+        Verify.verify(maybeApplied.isPresent());
+
+        final TreeNode applied = maybeApplied.get();
+        enforce(path, modification, current, applied);
+        modification.setValidatedNode(this, current, applied);
+    }
+
+    private void enforce(final YangInstanceIdentifier path, final ModifiedNode modification,
+            final Optional<TreeNode> current, final TreeNode applied) throws DataValidationFailedException {
+        if (!(applied.getData() instanceof MapNode)) {
+            // DataTree rooted at a MapEntryNode, there is nothing to enforce
+            return;
+        }
+
+        final UniqueIndex index;
+        final UniqueIndex base = current.isPresent() ? indices.getIfPresent(current.get()) : null;
+        if (base != null && isIncremental(modification)) {
+            index = base.update(path, validators, current.get(), applied, modifiedEntries(modification));
+        } else {
+            index = UniqueIndex.create(path, validators, applied);
+        }
+
+        indices.put(applied, index);
+    }
+
+    /**
+     * Enforce uniqueness on the result of applying a modification which has been validated against a different
+     * current node, i.e. the data tree has moved since validation. Modifications which have not been validated
+     * at all are applied when reading uncommitted data, hence their result is not enforced.
+     */
+    private TreeNode revalidate(final ModifiedNode modification, final Optional<TreeNode> current,
+            final TreeNode applied) {
+        if (modification.isValidatedBy(this)) {
+            try {
+                enforce(YangInstanceIdentifier.create(modification.getIdentifier()), modification, current, applied);
+            } catch (DataValidationFailedException e) {
+                throw new SchemaValidationFailedException(e.getMessage(), e);
+            }
+        }
+        return applied;
+    }
+
+    private static boolean isIncremental(final ModifiedNode modification) {
+        switch (modification.getOperation()) {
+            case MERGE:
+            case TOUCH:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static Collection<PathArgument> modifiedEntries(final ModifiedNode modification) {
+        final ImmutableList.Builder<PathArgument> builder = ImmutableList.builder();
+        for (final ModifiedNode child : modification.getChildren()) {
+            if (child.getModificationType() != ModificationType.UNMODIFIED
+                    && child.getIdentifier() instanceof NodeIdentifierWithPredicates) {
+                builder.add(child.getIdentifier());
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    protected void checkTouchApplicable(final YangInstanceIdentifier path, final NodeModification modification,
+            final Optional<TreeNode> current, final Version version) throws DataValidationFailedException {
+        delegate.checkTouchApplicable(path, modification, current, version);
+        checkUnique(path, modification, current, version);
+    }
+
+    @Override
+    protected void checkMergeApplicable(final YangInstanceIdentifier path, final NodeModification modification,
+            final Optional<TreeNode> current, final Version version) throws DataValidationFailedException {
+        delegate.checkMergeApplicable(path, modification, current, version);
+        checkUnique(path, modification, current, version);
+    }
+
+    @Override
+    protected void checkWriteApplicable(final YangInstanceIdentifier path, final NodeModification modification,
+            final Optional<TreeNode> current, final Version version) throws DataValidationFailedException {
+        delegate.checkWriteApplicable(path, modification, current, version);
+        checkUnique(path, modification, current, version);
+    }
+
+    @Override
+    public Optional<ModificationApplyOperation> getChild(final PathArgument child) {
+        return delegate.getChild(child);
+    }
+
+    @Override
+    protected void verifyStructure(final NormalizedNode<?, ?> modification, final boolean verifyChildren) {
+        delegate.verifyStructure(modification, verifyChildren);
+    }
+
+    @Override
+    protected TreeNode applyMerge(final ModifiedNode modification, final TreeNode currentMeta, final Version version) {
+        final TreeNode validated = modification.getValidatedNode(this, Optional.of(currentMeta));
+        if (validated != null) {
+            return validated;
+        }
+
+        return revalidate(modification, Optional.of(currentMeta), delegate.applyMerge(modification, currentMeta, version));
+    }
+
+    @Override
+    protected TreeNode applyTouch(final ModifiedNode modification, final TreeNode currentMeta, final Version version) {
+        final TreeNode validated = modification.getValidatedNode(this, Optional.of(currentMeta));
+        if (validated != null) {
+            return validated;
+        }
+
+        return revalidate(modification, Optional.of(currentMeta), delegate.applyTouch(modification, currentMeta, version));
+    }
+
+    @Override
+    protected TreeNode applyWrite(final ModifiedNode modification, final Optional<TreeNode> currentMeta,
+            final Version version) {
+        final TreeNode validated = modification.getValidatedNode(this, currentMeta);
+        if (validated != null) {
+            return validated;
+        }
+
+        return revalidate(modification, currentMeta, delegate.applyWrite(modification, currentMeta, version));
+    }
+
+    @Override
+    protected ChildTrackingPolicy getChildPolicy() {
+        return delegate.getChildPolicy();
+    }
+
+    @Override
+    void mergeIntoModifiedNode(final ModifiedNode node, final NormalizedNode<?, ?> value, final Version version) {
+        delegate.mergeIntoModifiedNode(node, value, version);
+    }
+
+    @Override
+    void recursivelyVerifyStructure(final NormalizedNode<?, ?> value) {
+        delegate.recursivelyVerifyStructure(value);
+    }
+
+    @Override
+    public String toString() {
+        return "UniqueValidation [delegate=" + delegate + ", validators=" + validators + "]";
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.opendaylight.yangtools.concepts.Immutable;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.SchemaUtils;
+import org.opendaylight.yangtools.yang.model.api.AugmentationSchema;
+import org.opendaylight.yangtools.yang.model.api.ChoiceCaseNode;
+import org.opendaylight.yangtools.yang.model.api.ChoiceSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ListSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.UniqueConstraint;
+import org.opendaylight.yangtools.yang.model.api.stmt.SchemaNodeIdentifier.Relative;
+
+/**
+ * Extractor of the values identified by a single 'unique' statement from a list entry. Leaves which are not present
+ * in the entry are not subject to the constraint (RFC6020 section 7.8.3), hence such entries do not produce any
+ * values.
+ */
+final class UniqueValidator implements Immutable {
+    /**
+     * Values of the leaves referenced by a unique statement in a single list entry. Values are compared by content,
+     * so binary values, which are held in arrays, are equal if they contain the same bytes.
+     */
+    static final class Values implements Immutable {
+        private final Object[] values;
+        private final int hashCode;
+
+        Values(final Object[] values) {
+            this.values = Preconditions.checkNotNull(values);
+            this.hashCode = Arrays.deepHashCode(values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Values)) {
+                return false;
+            }
+            final Values other = (Values) obj;
+            return hashCode == other.hashCode && Arrays.deepEquals(values, other.values);
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.deepToString(values);
+        }
+    }
+
+    private final Collection<YangInstanceIdentifier> leafPaths;
+
+    private UniqueValidator(final Collection<YangInstanceIdentifier> leafPaths) {
+        this.leafPaths = Preconditions.checkNotNull(leafPaths);
+    }
+
+    /**
+     * Create a validator for a unique statement of a list.
+     *
+     * @param list List schema node
+     * @param constraint Unique statement
+     * @return A new validator
+     * @throws IllegalArgumentException if a descendant path of the statement does not lead to a leaf, or leads
+     *                                  through a nested list
+     */
+    static UniqueValidator create(final ListSchemaNode list, final UniqueConstraint constraint) {
+        final ImmutableList.Builder<YangInstanceIdentifier> builder = ImmutableList.builder();
+        for (final Relative tag : constraint.getTag()) {
+            builder.add(YangInstanceIdentifier.create(dataPath(list, tag)).toOptimized());
+        }
+        return new UniqueValidator(builder.build());
+    }
+
+    /**
+     * Resolve a descendant schema node identifier to the path of the leaf in a list entry. Choice nodes and
+     * augmentations are part of the data path, while cases are not.
+     */
+    private static List<PathArgument> dataPath(final ListSchemaNode list, final Relative tag) {
+        final ImmutableList.Builder<PathArgument> path = ImmutableList.builder();
+        DataSchemaNode current = list;
+        for (final QName qname : tag.getPathFromRoot()) {
+            final DataSchemaNode child;
+            if (current instanceof ChoiceSchemaNode) {
+                child = ((ChoiceSchemaNode) current).getCaseNodeByName(qname);
+            } else if (current instanceof DataNodeContainer && (current == list
+                    || !(current instanceof ListSchemaNode))) {
+                child = ((DataNodeContainer) current).getDataChildByName(qname);
+            } else {
+                throw new IllegalArgumentException(String.format("Unique statement %s of %s descends into %s",
+                    tag, list.getQName(), current.getQName()));
+            }
+            Preconditions.checkArgument(child != null, "Unique statement %s of %s refers to non-existent node %s",
+                tag, list.getQName(), qname);
+
+            if (!(child instanceof ChoiceCaseNode)) {
+                final AugmentationSchema augmentation = SchemaUtils.findCorrespondingAugment(current, child);
+                if (augmentation != null) {
+                    path.add(SchemaUtils.getNodeIdentifierForAugmentation(augmentation));
+                }
+                path.add(NodeIdentifier.create(qname));
+            }
+            current = child;
+        }
+
+        Preconditions.checkArgument(current instanceof LeafSchemaNode, "Unique statement %s of %s refers to %s, which"
+                + " is not a leaf", tag, list.getQName(), current.getQName());
+        return path.build();
+    }
+
+    /**
+     * Extract the values of referenced leaves from a list entry.
+     *
+     * @param entry List entry
+     * @return Values, or null if any of the leaves is not present
+     */
+    Values extractValues(final NormalizedNode<?, ?> entry) {
+        final Object[] values = new Object[leafPaths.size()];
+        int offset = 0;
+        for (final YangInstanceIdentifier path : leafPaths) {
+            final Optional<NormalizedNode<?, ?>> leaf = NormalizedNodes.findNode(entry, path);
+            if (!leaf.isPresent()) {
+                return null;
+            }
+            values[offset++] = leaf.get().getValue();
+        }
+        return new Values(values);
+    }
+
+    @Override
+    public String toString() {
+        return "UniqueValidator [leafPaths=" + leafPaths + "]";
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Verify;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.Version;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathSchemaContextFactory;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Root operation decorator enforcing must and when constraints. Constraints are evaluated when the modification is
+ * validated, against the result of applying it. Only constraints whose scope intersects the modification are
+ * evaluated, see {@link XPathConstraints}. The result is then reused when the modification is prepared.
+ */
+final class XPathConstraintValidation extends SchemaAwareApplyOperation {
+    private static final Logger LOG = LoggerFactory.getLogger(XPathConstraintValidation.class);
+
+    private final SchemaAwareApplyOperation delegate;
+    private final XPathConstraints constraints;
+
+    private XPathConstraintValidation(final SchemaAwareApplyOperation delegate, final XPathConstraints constraints) {
+        this.delegate = Preconditions.checkNotNull(delegate);
+        this.constraints = Preconditions.checkNotNull(constraints);
+    }
+
+    static ModificationApplyOperation from(final ModificationApplyOperation delegate,
+            final YangInstanceIdentifier rootPath, final SchemaContext schemaContext,
+            final XPathSchemaContextFactory factory) {
+        if (!rootPath.isEmpty()) {
+            LOG.warn("Constraint validation requires the entire data tree, not enforcing constraints at {}",
+                rootPath);
+            return delegate;
+        }
+        if (!(delegate instanceof SchemaAwareApplyOperation)) {
+            LOG.warn("Unsupported root operation {}, not enforcing constraints", delegate);
+            return delegate;
+        }
+
+        final Optional<XPathConstraints> constraints = XPathConstraints.compile(schemaContext, factory);
+        if (!constraints.isPresent()) {
+            return delegate;
+        }
+
+        return new XPathConstraintValidation((SchemaAwareApplyOperation) delegate, constraints.get());
+    }
+
+    private void enforceConstraints(final NodeModification nodeMod, final Optional<TreeNode> current,
+            final Version version) throws DataValidationFailedException {
+        if (!(nodeMod instanceof ModifiedNode)) {
+            LOG.debug("Could not validate {}, does not implement expected class {}", nodeMod, ModifiedNode.class);
+            return;
+        }
+
+        final ModifiedNode modification = (ModifiedNode) nodeMod;
+
+        // Constraints are evaluated against the result, hence we need to apply the modification. Stash the result
+        // so it can be picked up by the apply operation.
+        final Optional<TreeNode> maybeApplied = delegate.apply(modification, current, version);
+        Verify.verify(maybeApplied.isPresent());
+
+        final TreeNode applied = maybeApplied.get();
+        constraints.validate(modification, applied.getData());
+        modification.setValidatedNode(this, current, applied);
+    }
+
+    @Override
+    protected void checkTouchApplicable(final YangInstanceIdentifier path, final NodeModification modification,
+            final Optional<TreeNode> current, final Version version) throws DataValidationFailedException {
+        delegate.checkTouchApplicable(path, modification, current, version);
+        enforceConstraints(modification, current, version);
+    }
+
+    @Override
+    protected void checkMergeApplicable(final YangInstanceIdentifier path, final NodeModification modification,
+            final Optional<TreeNode> current, final Version version) throws DataValidationFailedException {
+        delegate.checkMergeApplicable(path, modification, current, version);
+        enforceConstraints(modification, current, version);
+    }
+
+    @Override
+    protected void checkWriteApplicable(final YangInstanceIdentifier path, final NodeModification modification,
+            final Optional<TreeNode> current, final Version version) throws DataValidationFailedException {
+        delegate.checkWriteApplicable(path, modification, current, version);
+        enforceConstraints(modification, current, version);
+    }
+
+    @Override
+    public Optional<ModificationApplyOperation> getChild(final PathArgument child) {
+        return delegate.getChild(child);
+    }
+
+    @Override
+    protected void verifyStructure(final NormalizedNode<?, ?> modification, final boolean verifyChildren) {
+        delegate.verifyStructure(modification, verifyChildren);
+    }
+
+    @Override
+    protected TreeNode applyMerge(final ModifiedNode modification, final TreeNode currentMeta, final Version version) {
+        final TreeNode validated = modification.getValidatedNode(this, Optional.of(currentMeta));
+        return validated != null ? validated : delegate.applyMerge(modification, currentMeta, version);
+    }
+
+    @Override
+    protected TreeNode applyTouch(final ModifiedNode modification, final TreeNode currentMeta, final Version version) {
+        final TreeNode validated = modification.getValidatedNode(this, Optional.of(currentMeta));
+        return validated != null ? validated : delegate.applyTouch(modification, currentMeta, version);
+    }
+
+    @Override
+    protected TreeNode applyWrite(final ModifiedNode modification, final Optional<TreeNode> currentMeta,
+            final Version version) {
+        final TreeNode validated = modification.getValidatedNode(this, currentMeta);
+        return validated != null ? validated : delegate.applyWrite(modification, currentMeta, version);
+    }
+
+    @Override
+    protected ChildTrackingPolicy getChildPolicy() {
+        return delegate.getChildPolicy();
+    }
+
+    @Override
+    void mergeIntoModifiedNode(final ModifiedNode node, final NormalizedNode<?, ?> value, final Version version) {
+        delegate.mergeIntoModifiedNode(node, value, version);
+    }
+
+    @Override
+    void recursivelyVerifyStructure(final NormalizedNode<?, ?> value) {
+        delegate.recursivelyVerifyStructure(value);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{delegate=" + delegate + ", constraints=" + constraints + "}";
+    }
+}
@@ -0,0 +1,698 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.base.Converter;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import javax.xml.xpath.XPathExpressionException;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.AugmentationNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafSetNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MixinNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedNodeContainer;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.PrefixConverters;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathBooleanResult;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathDependency;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathDocument;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathExpression;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathNodesetResult;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathNumberResult;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathResult;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathSchemaContext;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathSchemaContextFactory;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathStringResult;
+import org.opendaylight.yangtools.yang.model.api.AugmentationSchema;
+import org.opendaylight.yangtools.yang.model.api.AugmentationTarget;
+import org.opendaylight.yangtools.yang.model.api.ChoiceCaseNode;
+import org.opendaylight.yangtools.yang.model.api.ChoiceSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ConstraintDefinition;
+import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.MustDefinition;
+import org.opendaylight.yangtools.yang.model.api.RevisionAwareXPath;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaNode;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.opendaylight.yangtools.yang.model.api.UsesNode;
+import org.opendaylight.yangtools.yang.model.util.SchemaContextUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Must and when constraints of a {@link SchemaContext}, compiled into {@link XPathExpression}s and indexed by the
+ * data they depend on, as reported by {@link XPathExpression#getDependencies()}. A constraint is evaluated on each
+ * instance of its node which a modification creates or modifies. Each dependency is anchored at an ancestor of the
+ * node: when a modification touches the dependency below an instance of that ancestor, the constraint is re-evaluated
+ * on all instances of the node below that instance. Modifications which do not touch any dependency of a constraint
+ * do not cause it to be evaluated.
+ */
+final class XPathConstraints {
+    private static final Logger LOG = LoggerFactory.getLogger(XPathConstraints.class);
+
+    /**
+     * A node in the scope tree. Children are keyed by data node QNames, hence they skip choices, cases and
+     * augmentations.
+     */
+    private static final class ScopeNode {
+        final Map<QName, ScopeNode> children = new HashMap<>(0);
+        // Constraints of this node
+        final List<Constraint> constraints = new ArrayList<>(0);
+        // Constraints of descendant nodes, which depend on data below this node
+        final List<Dependent> dependents = new ArrayList<>(0);
+
+        ScopeNode ensureChild(final QName qname) {
+            ScopeNode ret = children.get(qname);
+            if (ret == null) {
+                ret = new ScopeNode();
+                children.put(qname, ret);
+            }
+            return ret;
+        }
+    }
+
+    private static final class Constraint {
+        final XPathExpression expression;
+        final String xpath;
+        final String errorMessage;
+        final boolean when;
+        // Children guarded by an augment or uses when condition, evaluated on their parent, empty otherwise
+        final List<QName> guarded;
+
+        Constraint(final XPathExpression expression, final String xpath, final String errorMessage,
+                final boolean when, final List<QName> guarded) {
+            this.expression = Preconditions.checkNotNull(expression);
+            this.xpath = Preconditions.checkNotNull(xpath);
+            this.errorMessage = errorMessage;
+            this.when = when;
+            this.guarded = ImmutableList.copyOf(guarded);
+        }
+
+        /**
+         * Check whether the constraint applies to a node. Conditions of augment and uses statements apply only if
+         * their parent contains any of the nodes they define.
+         */
+        boolean appliesTo(final NormalizedNode<?, ?> data, final YangInstanceIdentifier path) {
+            for (QName qname : guarded) {
+                final List<Instance> children = new ArrayList<>(1);
+                addChildren(children, data, path, qname);
+                if (!children.isEmpty()) {
+                    return true;
+                }
+            }
+            return guarded.isEmpty();
+        }
+
+        String failureMessage(final YangInstanceIdentifier path) {
+            if (errorMessage != null) {
+                return errorMessage;
+            }
+            if (!guarded.isEmpty()) {
+                return String.format("Node %s contains data whose when condition \"%s\" is not satisfied", path,
+                    xpath);
+            }
+            return when ? String.format("Node %s is present, but its when condition \"%s\" is not satisfied", path,
+                xpath) : String.format("Node %s does not satisfy must constraint \"%s\"", path, xpath);
+        }
+    }
+
+    /**
+     * A constraint anchored at an ancestor of its node, depending on data below that ancestor.
+     */
+    private static final class Dependent {
+        final Constraint constraint;
+        final List<QName> nodePath;
+        final List<List<QName>> dataPaths;
+
+        Dependent(final Constraint constraint, final List<QName> nodePath, final List<List<QName>> dataPaths) {
+            this.constraint = Preconditions.checkNotNull(constraint);
+            this.nodePath = ImmutableList.copyOf(nodePath);
+            this.dataPaths = ImmutableList.copyOf(dataPaths);
+        }
+    }
+
+    private static final class Instance {
+        final NormalizedNode<?, ?> data;
+        final YangInstanceIdentifier path;
+
+        Instance(final NormalizedNode<?, ?> data, final YangInstanceIdentifier path) {
+            this.data = data;
+            this.path = path;
+        }
+    }
+
+    private final XPathSchemaContext xpathContext;
+    private final ScopeNode root;
+    private final int size;
+
+    private XPathConstraints(final XPathSchemaContext xpathContext, final ScopeNode root, final int size) {
+        this.xpathContext = Preconditions.checkNotNull(xpathContext);
+        this.root = Preconditions.checkNotNull(root);
+        this.size = size;
+    }
+
+    /**
+     * Compile all constraints in a SchemaContext.
+     *
+     * @param schemaContext SchemaContext to compile
+     * @param factory Factory to use for compilation
+     * @return Compiled constraints, or absent if the SchemaContext does not contain any supported constraints
+     */
+    static Optional<XPathConstraints> compile(final SchemaContext schemaContext,
+            final XPathSchemaContextFactory factory) {
+        final Compiler compiler = new Compiler(schemaContext, factory.createContext(schemaContext));
+        compiler.addChildren(schemaContext, Collections.<QName>emptyList(), SchemaPath.ROOT);
+        if (compiler.size == 0) {
+            return Optional.absent();
+        }
+
+        LOG.debug("Compiled {} constraints in {}", compiler.size, schemaContext);
+        return Optional.of(new XPathConstraints(compiler.xpathContext, compiler.root, compiler.size));
+    }
+
+    private static final class Compiler {
+        final Map<QNameModule, Converter<String, QNameModule>> prefixes = new HashMap<>();
+        final ScopeNode root = new ScopeNode();
+        final XPathSchemaContext xpathContext;
+        final SchemaContext schemaContext;
+        int size;
+
+        Compiler(final SchemaContext schemaContext, final XPathSchemaContext xpathContext) {
+            this.schemaContext = Preconditions.checkNotNull(schemaContext);
+            this.xpathContext = Preconditions.checkNotNull(xpathContext);
+        }
+
+        /**
+         * Add constraints of a container's children and of the augment and uses statements applied to it.
+         *
+         * @param container Container to examine
+         * @param parentPath Data path of the closest data node, which is the container itself unless it is a case
+         * @param parentSchemaPath SchemaPath of the closest data node
+         */
+        void addChildren(final DataNodeContainer container, final List<QName> parentPath,
+                final SchemaPath parentSchemaPath) {
+            addAugmentConditions(container, parentPath, parentSchemaPath);
+            addUsesConditions(container, parentPath, parentSchemaPath);
+
+            for (DataSchemaNode child : container.getChildNodes()) {
+                if (child instanceof ChoiceSchemaNode) {
+                    addAugmentConditions(child, parentPath, parentSchemaPath);
+                    for (ChoiceCaseNode caseNode : ((ChoiceSchemaNode) child).getCases()) {
+                        addChildren(caseNode, parentPath, parentSchemaPath);
+                    }
+                    continue;
+                }
+
+                final List<QName> dataPath = ImmutableList.<QName>builder().addAll(parentPath)
+                        .add(child.getQName()).build();
+                addConstraints(child, dataPath);
+
+                if (child instanceof DataNodeContainer) {
+                    addChildren((DataNodeContainer) child, dataPath, child.getPath());
+                }
+            }
+        }
+
+        private void addConstraints(final DataSchemaNode node, final List<QName> dataPath) {
+            final ConstraintDefinition constraints = node.getConstraints();
+            if (constraints == null) {
+                return;
+            }
+
+            final QNameModule module = node.getQName().getModule();
+            final List<QName> unguarded = Collections.emptyList();
+            final RevisionAwareXPath when = constraints.getWhenCondition();
+            if (when != null) {
+                addConstraint(module, node.getPath(), dataPath, when.toString(), null, true, unguarded);
+            }
+            final Collection<MustDefinition> musts = constraints.getMustConstraints();
+            if (musts != null) {
+                for (MustDefinition must : musts) {
+                    addConstraint(module, node.getPath(), dataPath, must.getXpath().toString(),
+                        must.getErrorMessage(), false, unguarded);
+                }
+            }
+        }
+
+        /**
+         * Add when conditions of augmentations of a node. They are evaluated on the closest data node, which is the
+         * target itself unless it is a choice or a case.
+         */
+        private void addAugmentConditions(final Object target, final List<QName> parentPath,
+                final SchemaPath parentSchemaPath) {
+            if (!(target instanceof AugmentationTarget)) {
+                return;
+            }
+
+            for (AugmentationSchema augmentation : ((AugmentationTarget) target).getAvailableAugmentations()) {
+                final RevisionAwareXPath when = augmentation.getWhenCondition();
+                if (when != null) {
+                    addGuardedCondition(parentPath, parentSchemaPath, when.toString(),
+                        dataChildren(augmentation.getChildNodes()));
+                }
+            }
+        }
+
+        /**
+         * Add when conditions of uses statements in a container. They are evaluated on the closest data node.
+         */
+        private void addUsesConditions(final DataNodeContainer container, final List<QName> parentPath,
+                final SchemaPath parentSchemaPath) {
+            for (UsesNode uses : container.getUses()) {
+                final Optional<RevisionAwareXPath> when = uses.getWhenCondition();
+                if (!when.isPresent()) {
+                    continue;
+                }
+
+                final SchemaNode grouping = SchemaContextUtil.findDataSchemaNode(schemaContext,
+                    uses.getGroupingPath());
+                if (!(grouping instanceof DataNodeContainer)) {
+                    LOG.warn("Cannot find grouping {}, not enforcing constraint \"{}\"", uses.getGroupingPath(),
+                        when.get());
+                    continue;
+                }
+
+                // Nodes defined by the grouping are instantiated in the namespace of the container
+                final List<DataSchemaNode> instantiated = new ArrayList<>();
+                for (DataSchemaNode groupingChild : ((DataNodeContainer) grouping).getChildNodes()) {
+                    for (DataSchemaNode child : container.getChildNodes()) {
+                        if (child.isAddedByUses()
+                                && child.getQName().getLocalName().equals(groupingChild.getQName().getLocalName())) {
+                            instantiated.add(child);
+                        }
+                    }
+                }
+                addGuardedCondition(parentPath, parentSchemaPath, when.get().toString(),
+                    dataChildren(instantiated));
+            }
+        }
+
+        private void addGuardedCondition(final List<QName> parentPath, final SchemaPath parentSchemaPath,
+                final String xpath, final List<QName> guarded) {
+            if (guarded.isEmpty()) {
+                LOG.debug("Condition \"{}\" at {} does not define any data nodes, ignoring it", xpath,
+                    parentSchemaPath);
+                return;
+            }
+
+            // The nodes are defined in the same module as the statement
+            addConstraint(guarded.get(0).getModule(), parentSchemaPath, parentPath, xpath, null, true, guarded);
+        }
+
+        /**
+         * Return QNames of data nodes among a set of schema nodes, looking through choices and cases.
+         */
+        private static List<QName> dataChildren(final Collection<DataSchemaNode> nodes) {
+            final List<QName> ret = new ArrayList<>();
+            for (DataSchemaNode node : nodes) {
+                if (node instanceof ChoiceSchemaNode) {
+                    for (ChoiceCaseNode caseNode : ((ChoiceSchemaNode) node).getCases()) {
+                        ret.addAll(dataChildren(caseNode.getChildNodes()));
+                    }
+                } else if (node instanceof ChoiceCaseNode) {
+                    ret.addAll(dataChildren(((ChoiceCaseNode) node).getChildNodes()));
+                } else {
+                    ret.add(node.getQName());
+                }
+            }
+            return ret;
+        }
+
+        private void addConstraint(final QNameModule module, final SchemaPath schemaPath, final List<QName> dataPath,
+                final String xpath, final String errorMessage, final boolean when, final List<QName> guarded) {
+            final Converter<String, QNameModule> converter = prefixes(module);
+            if (converter == null) {
+                LOG.warn("Cannot find module defining {}, not enforcing constraint \"{}\"", schemaPath, xpath);
+                return;
+            }
+
+            final XPathExpression expression;
+            try {
+                expression = xpathContext.compileExpression(schemaPath, converter, xpath);
+            } catch (XPathExpressionException e) {
+                LOG.warn("Failed to compile constraint \"{}\" of {}, not enforcing it", xpath, schemaPath, e);
+                return;
+            }
+
+            final Constraint constraint = new Constraint(expression, xpath, errorMessage, when, guarded);
+            ensureScope(dataPath).constraints.add(constraint);
+
+            // Group the dependencies by their anchor, each anchor is a scope at which the constraint is re-evaluated
+            final Map<Integer, List<List<QName>>> anchored = new TreeMap<>();
+            for (XPathDependency dependency : expression.getDependencies()) {
+                final List<QName> depPath = dependency.getDataPath();
+                int anchor = 0;
+                while (anchor < dependency.getAnchorDepth() && anchor < dataPath.size()
+                        && dataPath.get(anchor).equals(depPath.get(anchor))) {
+                    anchor++;
+                }
+                if (anchor == dataPath.size()) {
+                    // Data within the node itself, it is evaluated whenever its instance is modified
+                    continue;
+                }
+
+                List<List<QName>> paths = anchored.get(anchor);
+                if (paths == null) {
+                    paths = new ArrayList<>();
+                    anchored.put(anchor, paths);
+                }
+                paths.add(depPath.subList(anchor, depPath.size()));
+            }
+
+            for (Entry<Integer, List<List<QName>>> e : anchored.entrySet()) {
+                final int anchor = e.getKey();
+                ensureScope(dataPath.subList(0, anchor)).dependents.add(new Dependent(constraint,
+                    dataPath.subList(anchor, dataPath.size()), e.getValue()));
+            }
+            size++;
+
+            LOG.trace("Constraint \"{}\" of {} depends on {}", xpath, schemaPath, expression.getDependencies());
+        }
+
+        private ScopeNode ensureScope(final List<QName> path) {
+            ScopeNode scope = root;
+            for (QName qname : path) {
+                scope = scope.ensureChild(qname);
+            }
+            return scope;
+        }
+
+        private Converter<String, QNameModule> prefixes(final QNameModule module) {
+            Converter<String, QNameModule> ret = prefixes.get(module);
+            if (ret == null) {
+                final Module m = schemaContext.findModuleByNamespaceAndRevision(module.getNamespace(),
+                    module.getRevision());
+                if (m == null) {
+                    return null;
+                }
+                ret = PrefixConverters.create(schemaContext, m);
+                prefixes.put(module, ret);
+            }
+            return ret;
+        }
+    }
+
+    /**
+     * Validate constraints affected by a modification which has been applied.
+     *
+     * @param modification Root modification, already applied
+     * @param rootData Resulting root node
+     * @throws DataValidationFailedException if a constraint is not satisfied
+     */
+    void validate(final ModifiedNode modification, final NormalizedNode<?, ?> rootData)
+            throws DataValidationFailedException {
+        validateModified(root, modification, rootData, YangInstanceIdentifier.EMPTY,
+            xpathContext.createDocument(rootData));
+    }
+
+    private static void validateModified(final ScopeNode scope, final ModifiedNode modification,
+            final NormalizedNode<?, ?> data, final YangInstanceIdentifier path, final XPathDocument document)
+                    throws DataValidationFailedException {
+        switch (modification.getModificationType()) {
+            case DELETE:
+            case DISAPPEARED:
+            case UNMODIFIED:
+                // Constraints on nodes which no longer exist are irrelevant, enclosing scopes have been validated
+                return;
+            default:
+                break;
+        }
+
+        switch (modification.getOperation()) {
+            case MERGE:
+            case WRITE:
+                // All data in the subtree may have changed
+                validateSubtree(scope, data, path, document);
+                return;
+            default:
+                break;
+        }
+
+        // Mixin nodes share the scope of their parent, which has already been validated
+        if (!(data instanceof MixinNode)) {
+            validateNode(scope, data, path, document);
+            validateDependents(scope, modification, data, path, document);
+        }
+        if (scope.children.isEmpty()) {
+            return;
+        }
+
+        for (ModifiedNode child : modification.getChildren()) {
+            final Optional<NormalizedNode<?, ?>> maybeChildData = NormalizedNodes.getDirectChild(data,
+                child.getIdentifier());
+            if (maybeChildData.isPresent()) {
+                final NormalizedNode<?, ?> childData = maybeChildData.get();
+                final ScopeNode childScope = childData instanceof MixinNode ? scope
+                        : scope.children.get(childData.getNodeType());
+                if (childScope != null) {
+                    validateModified(childScope, child, childData, path.node(child.getIdentifier()), document);
+                }
+            }
+        }
+    }
+
+    private static void validateSubtree(final ScopeNode scope, final NormalizedNode<?, ?> data,
+            final YangInstanceIdentifier path, final XPathDocument document) throws DataValidationFailedException {
+        if (data instanceof MixinNode) {
+            // Descend into the entries, choices and augmentations, looking up their data nodes in the same scope
+            for (NormalizedNode<?, ?> child : mixinChildren(data)) {
+                final ScopeNode childScope = child instanceof MixinNode ? scope
+                        : scope.children.get(child.getNodeType());
+                if (childScope != null) {
+                    validateSubtree(childScope, child, path.node(child.getIdentifier()), document);
+                }
+            }
+            return;
+        }
+
+        validateNode(scope, data, path, document);
+
+        for (Entry<QName, ScopeNode> e : scope.children.entrySet()) {
+            final List<Instance> children = new ArrayList<>();
+            addChildren(children, data, path, e.getKey());
+            for (Instance child : children) {
+                validateSubtree(e.getValue(), child.data, child.path, document);
+            }
+        }
+    }
+
+    private static Collection<? extends NormalizedNode<?, ?>> mixinChildren(final NormalizedNode<?, ?> mixin) {
+        if (mixin instanceof NormalizedNodeContainer) {
+            return ((NormalizedNodeContainer<?, ?, ?>) mixin).getValue();
+        }
+        if (mixin instanceof OrderedNodeContainer) {
+            return ((OrderedNodeContainer<?>) mixin).getValue();
+        }
+        return Collections.emptyList();
+    }
+
+    private static void validateNode(final ScopeNode scope, final NormalizedNode<?, ?> data,
+            final YangInstanceIdentifier path, final XPathDocument document) throws DataValidationFailedException {
+        for (Constraint constraint : scope.constraints) {
+            evaluate(constraint, data, path, document);
+        }
+    }
+
+    private static void validateDependents(final ScopeNode scope, final ModifiedNode modification,
+            final NormalizedNode<?, ?> data, final YangInstanceIdentifier path, final XPathDocument document)
+                    throws DataValidationFailedException {
+        for (Dependent dependent : scope.dependents) {
+            if (touchesAny(modification, data, dependent.dataPaths)) {
+                List<Instance> instances = Collections.singletonList(new Instance(data, path));
+                for (QName qname : dependent.nodePath) {
+                    final List<Instance> children = new ArrayList<>();
+                    for (Instance instance : instances) {
+                        addChildren(children, instance.data, instance.path, qname);
+                    }
+                    instances = children;
+                }
+
+                for (Instance instance : instances) {
+                    evaluate(dependent.constraint, instance.data, instance.path, document);
+                }
+            }
+        }
+    }
+
+    private static boolean touchesAny(final ModifiedNode modification, final NormalizedNode<?, ?> data,
+            final List<List<QName>> dataPaths) {
+        for (List<QName> dataPath : dataPaths) {
+            if (touches(modification, data, dataPath, 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether a modification touches data at, below or above a data path.
+     *
+     * @param modification Modification to examine
+     * @param data Resulting data, null if the node has been removed
+     * @param dataPath Data path, relative to the modified node
+     * @param offset Number of data path components already matched
+     * @return True if any data at the data path may have changed
+     */
+    private static boolean touches(final ModifiedNode modification, final NormalizedNode<?, ?> data,
+            final List<QName> dataPath, final int offset) {
+        if (offset == dataPath.size()) {
+            return true;
+        }
+
+        switch (modification.getOperation()) {
+            case DELETE:
+            case MERGE:
+            case WRITE:
+                // The entire subtree may have changed
+                return true;
+            default:
+                break;
+        }
+
+        for (ModifiedNode child : modification.getChildren()) {
+            if (child.getModificationType() == ModificationType.UNMODIFIED) {
+                continue;
+            }
+
+            final PathArgument id = child.getIdentifier();
+            final NormalizedNode<?, ?> childData = childData(data, child);
+            final boolean touched;
+            if (id instanceof AugmentationIdentifier || id instanceof NodeIdentifierWithPredicates
+                    || id instanceof NodeWithValue || childData instanceof ChoiceNode) {
+                // Augmentations, choices and list entries do not appear in data paths
+                touched = touches(child, childData, dataPath, offset);
+            } else if (dataPath.get(offset).equals(id.getNodeType())) {
+                touched = touches(child, childData, dataPath, offset + 1);
+            } else {
+                // Conservatively assume a node we cannot identify may be a choice
+                touched = childData == null && touches(child, null, dataPath, offset);
+            }
+
+            if (touched) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static NormalizedNode<?, ?> childData(final NormalizedNode<?, ?> data, final ModifiedNode child) {
+        if (data != null) {
+            final Optional<NormalizedNode<?, ?>> current = NormalizedNodes.getDirectChild(data, child.getIdentifier());
+            if (current.isPresent()) {
+                return current.get();
+            }
+        }
+
+        final Optional<TreeNode> original = child.getOriginal();
+        return original.isPresent() ? original.get().getData() : null;
+    }
+
+    /**
+     * Find data nodes with specified QName, looking through choices and augmentations and expanding lists and
+     * leaf-lists into their entries.
+     */
+    private static void addChildren(final List<Instance> result, final NormalizedNode<?, ?> data,
+            final YangInstanceIdentifier path, final QName qname) {
+        final Optional<NormalizedNode<?, ?>> direct = NormalizedNodes.getDirectChild(data, NodeIdentifier.create(qname));
+        if (direct.isPresent()) {
+            final NormalizedNode<?, ?> child = direct.get();
+            final YangInstanceIdentifier childPath = path.node(child.getIdentifier());
+            if (child instanceof MapNode || child instanceof LeafSetNode) {
+                for (NormalizedNode<?, ?> entry : ((NormalizedNodeContainer<?, ?, ?>) child).getValue()) {
+                    result.add(new Instance(entry, childPath.node(entry.getIdentifier())));
+                }
+            } else if (!(child instanceof MixinNode)) {
+                result.add(new Instance(child, childPath));
+            }
+            return;
+        }
+
+        if (data instanceof NormalizedNodeContainer) {
+            for (NormalizedNode<?, ?> child : ((NormalizedNodeContainer<?, ?, ?>) data).getValue()) {
+                if (child instanceof ChoiceNode || child instanceof AugmentationNode) {
+                    addChildren(result, child, path.node(child.getIdentifier()), qname);
+                }
+            }
+        }
+    }
+
+    private static void evaluate(final Constraint constraint, final NormalizedNode<?, ?> data,
+            final YangInstanceIdentifier path, final XPathDocument document) throws DataValidationFailedException {
+        if (!constraint.appliesTo(data, path)) {
+            return;
+        }
+
+        final Optional<? extends XPathResult<?>> result;
+        try {
+            result = constraint.expression.evaluate(document, path);
+        } catch (XPathExpressionException e) {
+            throw new DataValidationFailedException(path, String.format("Failed to evaluate \"%s\"", constraint.xpath),
+                e);
+        }
+
+        if (!toBoolean(result)) {
+            throw new DataValidationFailedException(path, constraint.failureMessage(path));
+        }
+    }
+
+    /**
+     * Convert an evaluation result to a boolean, as per the XPath boolean() function.
+     */
+    private static boolean toBoolean(final Optional<? extends XPathResult<?>> result) {
+        if (!result.isPresent()) {
+            return false;
+        }
+
+        final XPathResult<?> value = result.get();
+        if (value instanceof XPathBooleanResult) {
+            return ((XPathBooleanResult) value).getValue();
+        }
+        if (value instanceof XPathNodesetResult) {
+            return !((XPathNodesetResult) value).getValue().isEmpty();
+        }
+        if (value instanceof XPathStringResult) {
+            return !((XPathStringResult) value).getValue().isEmpty();
+        }
+        if (value instanceof XPathNumberResult) {
+            final double number = ((XPathNumberResult) value).getValue().doubleValue();
+            return number != 0 && !Double.isNaN(number);
+        }
+
+        throw new IllegalArgumentException("Unhandled result " + value);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{size=" + size + "}";
+    }
+}
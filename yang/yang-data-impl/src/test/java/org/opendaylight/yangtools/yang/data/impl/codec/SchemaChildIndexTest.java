@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.TestModel;
+import org.opendaylight.yangtools.yang.model.api.ChoiceSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ListSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+
+public class SchemaChildIndexTest {
+    private static final QName TEST = TestModel.TEST_QNAME;
+    private static final QName OUTER_LIST = QName.create(TEST, "outer-list");
+    private static final QName OUTER_CHOICE = QName.create(TEST, "outer-choice");
+    private static final QName TWO_THREE = QName.create(TEST, "two-three");
+    private static final QName THREE = QName.create(TEST, "three");
+
+    private static SchemaContext schemaContext;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        schemaContext = TestModel.createTestContext("/case-exclusion-test.yang");
+    }
+
+    @Test
+    public void testSharedIndex() {
+        assertSame(SchemaChildIndex.forContext(schemaContext), SchemaChildIndex.forContext(schemaContext));
+    }
+
+    @Test
+    public void testChoiceLookup() {
+        final SchemaChildIndex index = SchemaChildIndex.forContext(schemaContext);
+        final ContainerSchemaNode test = (ContainerSchemaNode) index.getChild(schemaContext, TEST);
+        final ListSchemaNode list = (ListSchemaNode) index.getChild(test, OUTER_LIST);
+        final ChoiceSchemaNode choice = (ChoiceSchemaNode) index.getChild(list, OUTER_CHOICE);
+
+        assertSame(choice.getCaseNodeByName(TWO_THREE).getDataChildByName(THREE), index.getChild(choice, THREE));
+        assertEquals(TWO_THREE, index.getCase(choice, THREE).getQName());
+        assertNull(index.getChild(choice, OUTER_LIST));
+        assertNull(index.getCase(choice, OUTER_LIST));
+    }
+
+    @Test
+    public void testTracker() throws IOException {
+        final SchemaTracker tracker = SchemaTracker.create(schemaContext);
+        tracker.startContainerNode(new NodeIdentifier(TEST));
+        tracker.startList(new NodeIdentifier(OUTER_LIST));
+        tracker.startChoiceNode(new NodeIdentifier(OUTER_CHOICE));
+        assertEquals(THREE, tracker.leafNode(new NodeIdentifier(THREE)).getQName());
+    }
+}
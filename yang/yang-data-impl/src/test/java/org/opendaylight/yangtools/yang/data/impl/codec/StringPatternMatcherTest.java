@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.regex.PatternSyntaxException;
+import org.junit.Test;
+
+public class StringPatternMatcherTest {
+
+    @Test
+    public void testToXsdRegularExpression() {
+        assertEquals("[a-z]+", StringPatternMatcher.toXsdRegularExpression("^[a-z]+$"));
+        assertEquals("[a-z]+", StringPatternMatcher.toXsdRegularExpression("[a-z]+"));
+        assertEquals("a\\$", StringPatternMatcher.toXsdRegularExpression("^a\\$"));
+        assertEquals("a\\\\", StringPatternMatcher.toXsdRegularExpression("^a\\\\$"));
+        assertEquals("\\p{IsBasicLatin}*", StringPatternMatcher.toXsdRegularExpression("^\\p{InBasicLatin}*$"));
+    }
+
+    @Test
+    public void testMatching() {
+        final StringPatternMatcher matcher = StringPatternMatcher.forRegularExpression(
+            "^(([0-9]|[1-9][0-9]|1[0-9][0-9]|2[0-4][0-9]|25[0-5])\\.){3}([0-9]|[1-9][0-9]|1[0-9][0-9]|2[0-4][0-9]|25[0-5])$");
+        assertTrue(matcher.matches("192.168.1.1"));
+        assertTrue(matcher.matches("0.0.0.0"));
+        assertFalse(matcher.matches("256.1.1.1"));
+        assertFalse(matcher.matches("1.1.1"));
+        assertFalse(matcher.matches(""));
+
+        // XSD character class subtraction
+        final StringPatternMatcher subtraction = StringPatternMatcher.forRegularExpression("^[a-z-[aeiou]]+$");
+        assertTrue(subtraction.matches("xyz"));
+        assertFalse(subtraction.matches("xaz"));
+
+        // Large counted repetition does not fit into an automaton
+        final StringPatternMatcher large = StringPatternMatcher.forRegularExpression("^[a-z]{1,100000}$");
+        assertTrue(large.matches("abc"));
+        assertFalse(large.matches("ab1"));
+    }
+
+    @Test
+    public void testJavaFallback() {
+        final StringPatternMatcher matcher = StringPatternMatcher.forRegularExpression("^(?!foo)[a-z]+$");
+        assertTrue(matcher.matches("bar"));
+        assertFalse(matcher.matches("foobar"));
+    }
+
+    @Test(expected = PatternSyntaxException.class)
+    public void testInvalidPattern() {
+        StringPatternMatcher.forRegularExpression("^[a-$");
+    }
+
+    @Test
+    public void testSharing() {
+        assertSame(StringPatternMatcher.forRegularExpression("^[A-Z]+$"),
+            StringPatternMatcher.forRegularExpression("^[A-Z]+$"));
+    }
+}
@@ -11,6 +11,8 @@ package org.opendaylight.yangtools.yang.data.impl.schema;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.Mockito.mock;
+
+import com.google.common.collect.Iterables;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.net.URISyntaxException;
@@ -137,6 +139,33 @@ public class BuilderTest {
         assertEquals(orderedMapNodeSchemaAware.getChild(0), orderedMapNodeSchemaAwareMapNodeConst.getChild(0));
     }
 
+    @Test
+    public void immutableOrderedMapBuilderLargeTest() {
+        final CollectionNodeBuilder<MapEntryNode, OrderedMapNode> builder = ImmutableOrderedMapNodeBuilder.create()
+                .withNodeIdentifier(NODE_IDENTIFIER_LIST);
+        for (int i = 0; i < 1000; ++i) {
+            builder.withChild(ImmutableNodes.mapEntry(LIST_MAIN, LIST_MAIN_CHILD_QNAME_1, i));
+        }
+        final OrderedMapNode original = builder.build();
+
+        final MapEntryNode replacement = ImmutableNodes.mapEntryBuilder(LIST_MAIN, LIST_MAIN_CHILD_QNAME_1, 500)
+                .withChild(ImmutableNodes.leafNode(LEAF_LIST_MAIN, "replaced")).build();
+        final OrderedMapNode modified = ImmutableOrderedMapNodeBuilder.create(original)
+                .withChild(replacement)
+                .withoutChild(ImmutableNodes.mapEntry(LIST_MAIN, LIST_MAIN_CHILD_QNAME_1, 0).getIdentifier())
+                .withChild(ImmutableNodes.mapEntry(LIST_MAIN, LIST_MAIN_CHILD_QNAME_1, 1000))
+                .build();
+
+        assertEquals(1000, original.getSize());
+        assertEquals(1000, modified.getSize());
+        assertEquals(ImmutableNodes.mapEntry(LIST_MAIN, LIST_MAIN_CHILD_QNAME_1, 500), original.getChild(500));
+        assertEquals(replacement, modified.getChild(499));
+        assertEquals(ImmutableNodes.mapEntry(LIST_MAIN, LIST_MAIN_CHILD_QNAME_1, 1), modified.getChild(0));
+        assertEquals(ImmutableNodes.mapEntry(LIST_MAIN, LIST_MAIN_CHILD_QNAME_1, 1000), modified.getChild(999));
+        assertEquals(replacement, Iterables.get(modified.getValue(), 499));
+        assertEquals(replacement, modified.getChild(replacement.getIdentifier()).get());
+    }
+
     @Test
     public void immutableOrderedLeafSetNodeBuilderTest() {
         final NormalizedNode<?, ?> orderedLeafSet = ImmutableOrderedLeafSetNodeBuilder.create()
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.builder.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class OrderedKeyIndexTest {
+
+    private static void assertContents(final List<Integer> expected, final OrderedKeyIndex<Integer> index) {
+        assertEquals(expected.size(), index.size());
+        assertEquals(expected, Lists.newArrayList(index));
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.get(i), index.get(i));
+        }
+    }
+
+    @Test
+    public void testAppendAndRemove() {
+        final Random random = new Random(42);
+        final List<Integer> expected = new ArrayList<>();
+        OrderedKeyIndex<Integer> index = OrderedKeyIndex.of();
+
+        for (int i = 0; i < 1000; ++i) {
+            expected.add(i);
+            index = index.append(i);
+        }
+        assertContents(expected, index);
+
+        final OrderedKeyIndex<Integer> original = index;
+        final List<Integer> originalExpected = ImmutableList.copyOf(expected);
+        for (int i = 0; i < 500; ++i) {
+            final Integer key = expected.remove(random.nextInt(expected.size()));
+            index = index.remove(key);
+            if (i % 10 == 0) {
+                expected.add(key);
+                index = index.append(key);
+            }
+        }
+        assertContents(expected, index);
+
+        // The original index is not affected
+        assertContents(originalExpected, original);
+    }
+
+    @Test
+    public void testAppendAll() {
+        final List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            expected.add(i);
+        }
+
+        OrderedKeyIndex<Integer> index = OrderedKeyIndex.<Integer>of().appendAll(expected.subList(0, 50));
+        assertContents(expected.subList(0, 50), index);
+
+        // Appending to a non-empty index, followed by removals, behaves like individual appends
+        index = index.appendAll(expected.subList(50, 100)).remove(0).remove(75);
+        expected.remove(Integer.valueOf(0));
+        expected.remove(Integer.valueOf(75));
+        assertContents(expected, index);
+        assertSame(index, index.appendAll(ImmutableList.<Integer>of()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAppendAllPresent() {
+        OrderedKeyIndex.<Integer>of().append(1).appendAll(ImmutableList.of(2, 1));
+    }
+
+    @Test
+    public void testRemoveAbsent() {
+        final OrderedKeyIndex<Integer> index = OrderedKeyIndex.<Integer>of().append(1);
+        assertSame(index, index.remove(2));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfRange() {
+        OrderedKeyIndex.<Integer>of().append(1).get(1);
+    }
+}
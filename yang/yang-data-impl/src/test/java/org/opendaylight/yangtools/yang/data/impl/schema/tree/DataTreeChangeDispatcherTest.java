@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapEntry;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapNodeBuilder;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.concepts.ListenerRegistration;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidates;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableContainerNodeBuilder;
+
+public class DataTreeChangeDispatcherTest {
+    private static final QName TEST_QNAME = QName.create(
+        "urn:opendaylight:params:xml:ns:yang:controller:md:sal:dom:store:test", "2014-03-13", "test");
+    private static final QName OUTER_LIST_QNAME = QName.create(TEST_QNAME, "outer-list");
+    private static final QName INNER_CONTAINER_QNAME = QName.create(TEST_QNAME, "inner-container");
+    private static final QName ID_QNAME = QName.create(TEST_QNAME, "id");
+    private static final YangInstanceIdentifier TEST_PATH = YangInstanceIdentifier.of(TEST_QNAME);
+    private static final YangInstanceIdentifier OUTER_LIST_PATH = TEST_PATH.node(OUTER_LIST_QNAME);
+
+    private static final class RecordingListener implements DataTreeCandidateListener {
+        final List<Collection<DataTreeCandidate>> notifications = new ArrayList<>();
+
+        @Override
+        public void onDataTreeChanged(final Collection<DataTreeCandidate> changes) {
+            notifications.add(changes);
+        }
+    }
+
+    private DataTreeChangeDispatcher dispatcher;
+
+    private static YangInstanceIdentifier outerListPath(final int id) {
+        return YangInstanceIdentifier.builder(OUTER_LIST_PATH).nodeWithKey(OUTER_LIST_QNAME, ID_QNAME, id).build();
+    }
+
+    private static DataTreeCandidate writeOuterList(final int... ids) {
+        final CollectionNodeBuilder<MapEntryNode, MapNode> list = mapNodeBuilder(OUTER_LIST_QNAME);
+        for (int id : ids) {
+            list.withChild(mapEntry(OUTER_LIST_QNAME, ID_QNAME, id));
+        }
+
+        return DataTreeCandidates.fromNormalizedNode(TEST_PATH, ImmutableContainerNodeBuilder.create()
+            .withNodeIdentifier(new NodeIdentifier(TEST_QNAME)).withChild(list.build()).build());
+    }
+
+    @Before
+    public void setup() {
+        dispatcher = DataTreeChangeDispatcher.create(MoreExecutors.directExecutor(), 100, "test");
+    }
+
+    @Test
+    public void testExactRegistration() {
+        final RecordingListener listener = new RecordingListener();
+        dispatcher.registerListener(outerListPath(1), listener);
+
+        dispatcher.dispatch(writeOuterList(1, 2));
+        assertEquals(1, listener.notifications.size());
+
+        final Collection<DataTreeCandidate> changes = listener.notifications.get(0);
+        assertEquals(1, changes.size());
+        final DataTreeCandidate change = changes.iterator().next();
+        assertEquals(outerListPath(1), change.getRootPath());
+        assertEquals(ModificationType.WRITE, change.getRootNode().getModificationType());
+
+        dispatcher.dispatch(writeOuterList(2, 3));
+        assertEquals(1, listener.notifications.size());
+    }
+
+    @Test
+    public void testWildcardRegistration() {
+        final RecordingListener listener = new RecordingListener();
+        dispatcher.registerListener(OUTER_LIST_PATH.node(DataTreeChangeDispatcher.wildcard(OUTER_LIST_QNAME)),
+            listener);
+
+        dispatcher.dispatch(writeOuterList(1, 2));
+        assertEquals(1, listener.notifications.size());
+
+        final List<YangInstanceIdentifier> paths = new ArrayList<>();
+        for (DataTreeCandidate change : listener.notifications.get(0)) {
+            paths.add(change.getRootPath());
+        }
+        assertEquals(2, paths.size());
+        assertTrue(paths.contains(outerListPath(1)));
+        assertTrue(paths.contains(outerListPath(2)));
+    }
+
+    @Test
+    public void testNestedSameName() {
+        // container test { container test { ... } } must not be mistaken for a wildcard
+        final YangInstanceIdentifier nestedPath = TEST_PATH.node(TEST_QNAME);
+        final RecordingListener listener = new RecordingListener();
+        dispatcher.registerListener(nestedPath, listener);
+
+        dispatcher.dispatch(DataTreeCandidates.fromNormalizedNode(TEST_PATH, ImmutableContainerNodeBuilder.create()
+            .withNodeIdentifier(new NodeIdentifier(TEST_QNAME))
+            .withChild(ImmutableContainerNodeBuilder.create().withNodeIdentifier(new NodeIdentifier(TEST_QNAME))
+                .build())
+            .build()));
+        assertEquals(1, listener.notifications.size());
+
+        final Collection<DataTreeCandidate> changes = listener.notifications.get(0);
+        assertEquals(1, changes.size());
+        assertEquals(nestedPath, changes.iterator().next().getRootPath());
+    }
+
+    @Test
+    public void testAncestorRegistration() {
+        final RecordingListener root = new RecordingListener();
+        final RecordingListener unrelated = new RecordingListener();
+        dispatcher.registerListener(YangInstanceIdentifier.EMPTY, root);
+        dispatcher.registerListener(TEST_PATH.node(INNER_CONTAINER_QNAME), unrelated);
+
+        final DataTreeCandidate candidate = writeOuterList(1);
+        dispatcher.dispatch(candidate);
+        assertEquals(1, root.notifications.size());
+        assertEquals(candidate, root.notifications.get(0).iterator().next());
+        assertTrue(unrelated.notifications.isEmpty());
+    }
+
+    @Test
+    public void testClosedRegistration() {
+        final RecordingListener listener = new RecordingListener();
+        final ListenerRegistration<RecordingListener> reg = dispatcher.registerListener(outerListPath(1), listener);
+        reg.close();
+
+        dispatcher.dispatch(writeOuterList(1));
+        assertTrue(listener.notifications.isEmpty());
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapEntry;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapEntryBuilder;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapNodeBuilder;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ConflictingModificationAppliedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeSnapshot;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TipProducingDataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableContainerNodeBuilder;
+
+public class DataTreeCommitCoordinatorTest {
+    /**
+     * Executor which runs tasks only when asked to, so we can control batching.
+     */
+    private static final class ManualExecutor implements Executor {
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public synchronized void execute(final Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            while (true) {
+                final Runnable task;
+                synchronized (this) {
+                    if (tasks.isEmpty()) {
+                        return;
+                    }
+                    task = tasks.remove(0);
+                }
+                task.run();
+            }
+        }
+    }
+
+    private TipProducingDataTree dataTree;
+    private ExecutorService executor;
+
+    private static YangInstanceIdentifier outerListPath(final int id) {
+        return YangInstanceIdentifier.builder(TestModel.OUTER_LIST_PATH)
+                .nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id).build();
+    }
+
+    @Before
+    public void setup() throws Exception {
+        dataTree = InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        dataTree.setSchemaContext(TestModel.createTestContext());
+
+        final DataTreeModification mod = dataTree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, ImmutableContainerNodeBuilder.create()
+            .withNodeIdentifier(new YangInstanceIdentifier.NodeIdentifier(TestModel.TEST_QNAME))
+            .withChild(mapNodeBuilder(TestModel.OUTER_LIST_QNAME).build()).build());
+        mod.ready();
+        dataTree.validate(mod);
+        dataTree.commit(dataTree.prepare(mod));
+
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testIndependentModifications() throws Exception {
+        // Queue all modifications before processing them, so they form a single group
+        final ManualExecutor manual = new ManualExecutor();
+        final DataTreeCommitCoordinator coordinator = DataTreeCommitCoordinator.create(dataTree, manual);
+        final DataTreeSnapshot snapshot = dataTree.takeSnapshot();
+
+        final List<ListenableFuture<DataTreeCandidate>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            final DataTreeModification mod = snapshot.newModification();
+            mod.write(outerListPath(i), mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, i));
+            mod.ready();
+            futures.add(coordinator.submit(mod));
+        }
+        manual.runAll();
+
+        for (ListenableFuture<DataTreeCandidate> f : futures) {
+            f.get();
+        }
+
+        // Disjoint entries of the same list do not overlap, hence none of them is validated against the tip
+        assertEquals(0, coordinator.getTipValidationCount());
+
+        final NormalizedNode<?, ?> list = dataTree.takeSnapshot().readNode(TestModel.OUTER_LIST_PATH).get();
+        assertEquals(100, ((MapNode) list).getValue().size());
+    }
+
+    @Test
+    public void testConcurrentValidation() throws Exception {
+        final DataTreeCommitCoordinator coordinator = DataTreeCommitCoordinator.create(dataTree, executor);
+        final DataTreeSnapshot snapshot = dataTree.takeSnapshot();
+
+        final List<ListenableFuture<DataTreeCandidate>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            final DataTreeModification mod = snapshot.newModification();
+            mod.write(outerListPath(i), mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, i));
+            mod.ready();
+            futures.add(coordinator.submit(mod));
+        }
+
+        for (ListenableFuture<DataTreeCandidate> f : futures) {
+            f.get();
+        }
+
+        assertEquals(0, coordinator.getTipValidationCount());
+        final NormalizedNode<?, ?> list = dataTree.takeSnapshot().readNode(TestModel.OUTER_LIST_PATH).get();
+        assertEquals(100, ((MapNode) list).getValue().size());
+    }
+
+    @Test
+    public void testListConstraintAcrossEntries() throws Exception {
+        final QName servers = QName.create("urn:opendaylight:params:xml:ns:yang:unique-constraint-test", "2016-10-16",
+            "servers");
+        final QName server = QName.create(servers, "server");
+        final QName name = QName.create(servers, "name");
+        final QName ip = QName.create(servers, "ip");
+        final YangInstanceIdentifier serverPath = YangInstanceIdentifier.of(servers).node(server);
+
+        final TipProducingDataTree tree = InMemoryDataTreeFactory.getInstance().create(
+            new DataTreeConfiguration.Builder(TreeType.CONFIGURATION).setUniqueIndexes(true).build());
+        tree.setSchemaContext(TestModel.createTestContext("/unique-constraint-test.yang"));
+        final DataTreeModification init = tree.takeSnapshot().newModification();
+        init.write(YangInstanceIdentifier.of(servers), Builders.containerBuilder()
+            .withNodeIdentifier(new YangInstanceIdentifier.NodeIdentifier(servers))
+            .withChild(mapNodeBuilder(server).build()).build());
+        init.ready();
+        tree.validate(init);
+        tree.commit(tree.prepare(init));
+
+        // Each modification is valid on its own, but not in combination with the other one
+        final ManualExecutor manual = new ManualExecutor();
+        final DataTreeCommitCoordinator coordinator = DataTreeCommitCoordinator.create(tree, manual);
+        final DataTreeSnapshot snapshot = tree.takeSnapshot();
+        final List<ListenableFuture<DataTreeCandidate>> futures = new ArrayList<>();
+        for (String n : new String[] { "foo", "bar" }) {
+            final DataTreeModification mod = snapshot.newModification();
+            mod.write(serverPath.node(new NodeIdentifierWithPredicates(server, name, n)),
+                mapEntryBuilder(server, name, n).withChild(ImmutableNodes.leafNode(ip, "10.0.0.1")).build());
+            mod.ready();
+            futures.add(coordinator.submit(mod));
+        }
+        manual.runAll();
+
+        futures.get(0).get();
+        try {
+            futures.get(1).get();
+            fail("Unique constraint violation should have been detected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof DataValidationFailedException);
+        }
+
+        final NormalizedNode<?, ?> list = tree.takeSnapshot().readNode(serverPath).get();
+        assertEquals(1, ((MapNode) list).getValue().size());
+    }
+
+    @Test
+    public void testConflictingModificationsInGroup() throws Exception {
+        final ManualExecutor manual = new ManualExecutor();
+        final DataTreeCommitCoordinator coordinator = DataTreeCommitCoordinator.create(dataTree, manual);
+        final DataTreeSnapshot snapshot = dataTree.takeSnapshot();
+
+        final DataTreeModification mod1 = snapshot.newModification();
+        mod1.write(outerListPath(1), mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 1));
+        mod1.ready();
+        final DataTreeModification mod2 = snapshot.newModification();
+        mod2.write(outerListPath(1), mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 1)
+            .withChild(mapNodeBuilder(TestModel.INNER_LIST_QNAME).build()).build());
+        mod2.ready();
+        final DataTreeModification mod3 = snapshot.newModification();
+        mod3.write(outerListPath(2), mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 2));
+        mod3.ready();
+
+        final ListenableFuture<DataTreeCandidate> f1 = coordinator.submit(mod1);
+        final ListenableFuture<DataTreeCandidate> f2 = coordinator.submit(mod2);
+        final ListenableFuture<DataTreeCandidate> f3 = coordinator.submit(mod3);
+        manual.runAll();
+
+        f1.get();
+        f3.get();
+        try {
+            f2.get();
+            fail("Conflicting modification should have failed");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ConflictingModificationAppliedException);
+        }
+
+        final NormalizedNode<?, ?> list = dataTree.takeSnapshot().readNode(TestModel.OUTER_LIST_PATH).get();
+        assertEquals(2, ((MapNode) list).getValue().size());
+    }
+
+    @Test
+    public void testDependentModificationsInGroup() throws Exception {
+        final ManualExecutor manual = new ManualExecutor();
+        final DataTreeCommitCoordinator coordinator = DataTreeCommitCoordinator.create(dataTree, manual);
+        final DataTreeSnapshot snapshot = dataTree.takeSnapshot();
+
+        // The second modification requires the entry created by the first one
+        final DataTreeModification mod1 = snapshot.newModification();
+        mod1.write(outerListPath(1), mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 1));
+        mod1.ready();
+        final DataTreeModification mod2 = snapshot.newModification();
+        mod2.merge(outerListPath(1).node(TestModel.INNER_LIST_QNAME),
+            mapNodeBuilder(TestModel.INNER_LIST_QNAME).withChild(
+                mapEntry(TestModel.INNER_LIST_QNAME, TestModel.NAME_QNAME, "foo")).build());
+        mod2.ready();
+
+        final ListenableFuture<DataTreeCandidate> f1 = coordinator.submit(mod1);
+        final ListenableFuture<DataTreeCandidate> f2 = coordinator.submit(mod2);
+        manual.runAll();
+
+        f1.get();
+        f2.get();
+
+        final NormalizedNode<?, ?> inner = dataTree.takeSnapshot().readNode(
+            outerListPath(1).node(TestModel.INNER_LIST_QNAME)).get();
+        assertEquals(1, ((MapNode) inner).getValue().size());
+    }
+
+    @Test
+    public void testFootprint() {
+        final YangInstanceIdentifier entry = outerListPath(1);
+        assertEquals(entry, FootprintCursor.footprintOf(entry));
+        assertEquals(entry, FootprintCursor.footprintOf(entry.node(TestModel.INNER_LIST_QNAME)));
+        assertEquals(TestModel.TEST_PATH, FootprintCursor.footprintOf(TestModel.OUTER_LIST_PATH));
+        assertEquals(YangInstanceIdentifier.EMPTY, FootprintCursor.footprintOf(TestModel.TEST_PATH));
+        assertEquals(YangInstanceIdentifier.EMPTY, FootprintCursor.footprintOf(YangInstanceIdentifier.EMPTY));
+    }
+}
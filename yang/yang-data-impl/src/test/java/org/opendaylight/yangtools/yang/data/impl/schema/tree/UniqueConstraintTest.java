@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+public class UniqueConstraintTest {
+    private static final QName SERVERS_QNAME = QName.create(
+        "urn:opendaylight:params:xml:ns:yang:unique-constraint-test", "2016-10-16", "servers");
+    private static final QName SERVER_QNAME = QName.create(SERVERS_QNAME, "server");
+    private static final QName NAME_QNAME = QName.create(SERVERS_QNAME, "name");
+    private static final QName IP_QNAME = QName.create(SERVERS_QNAME, "ip");
+    private static final QName PORT_QNAME = QName.create(SERVERS_QNAME, "port");
+
+    private static final QName DEVICES_QNAME = QName.create(SERVERS_QNAME, "devices");
+    private static final QName DEVICE_QNAME = QName.create(SERVERS_QNAME, "device");
+    private static final QName SERIAL_QNAME = QName.create(SERVERS_QNAME, "serial");
+    private static final QName TRANSPORT_QNAME = QName.create(SERVERS_QNAME, "transport");
+    private static final QName TCP_PORT_QNAME = QName.create(SERVERS_QNAME, "tcp-port");
+    private static final QName LOCATION_QNAME = QName.create(SERVERS_QNAME, "location");
+
+    private static final YangInstanceIdentifier SERVERS_PATH = YangInstanceIdentifier.of(SERVERS_QNAME);
+    private static final YangInstanceIdentifier SERVER_PATH = SERVERS_PATH.node(SERVER_QNAME);
+    private static final YangInstanceIdentifier DEVICES_PATH = YangInstanceIdentifier.of(DEVICES_QNAME);
+    private static final YangInstanceIdentifier DEVICE_PATH = DEVICES_PATH.node(DEVICE_QNAME);
+
+    private SchemaContext schemaContext;
+
+    @Before
+    public void prepare() throws ReactorException {
+        schemaContext = TestModel.createTestContext("/unique-constraint-test.yang");
+        assertNotNull("Schema context must not be null.", schemaContext);
+    }
+
+    private InMemoryDataTree initDataTree(final boolean uniqueIndexes) throws DataValidationFailedException {
+        final InMemoryDataTree inMemoryDataTree = (InMemoryDataTree) InMemoryDataTreeFactory.getInstance().create(
+                new DataTreeConfiguration.Builder(TreeType.CONFIGURATION).setUniqueIndexes(uniqueIndexes).build());
+        inMemoryDataTree.setSchemaContext(schemaContext);
+
+        final DataTreeModification modificationTree = inMemoryDataTree.takeSnapshot().newModification();
+        modificationTree.write(SERVERS_PATH, ImmutableNodes.containerNode(SERVERS_QNAME));
+        modificationTree.write(SERVER_PATH, ImmutableNodes.mapNodeBuilder(SERVER_QNAME)
+            .withChild(server("foo", "10.0.0.1", 80))
+            .withChild(server("bar", "10.0.0.1", 8080)).build());
+        modificationTree.ready();
+        inMemoryDataTree.validate(modificationTree);
+        inMemoryDataTree.commit(inMemoryDataTree.prepare(modificationTree));
+        return inMemoryDataTree;
+    }
+
+    private static MapEntryNode server(final String name, final String ip, final int port) {
+        return ImmutableNodes.mapEntryBuilder(SERVER_QNAME, NAME_QNAME, name)
+                .withChild(ImmutableNodes.leafNode(IP_QNAME, ip))
+                .withChild(ImmutableNodes.leafNode(PORT_QNAME, port)).build();
+    }
+
+    private static YangInstanceIdentifier serverPath(final String name) {
+        return SERVER_PATH.node(new NodeIdentifierWithPredicates(SERVER_QNAME, NAME_QNAME, name));
+    }
+
+    private static MapEntryNode device(final String name, final byte[] serial, final int tcpPort,
+            final String location) {
+        return ImmutableNodes.mapEntryBuilder(DEVICE_QNAME, NAME_QNAME, name)
+                .withChild(ImmutableNodes.leafNode(SERIAL_QNAME, serial))
+                .withChild(Builders.choiceBuilder().withNodeIdentifier(new NodeIdentifier(TRANSPORT_QNAME))
+                    .withChild(ImmutableNodes.leafNode(TCP_PORT_QNAME, tcpPort)).build())
+                .withChild(Builders.augmentationBuilder()
+                    .withNodeIdentifier(new AugmentationIdentifier(ImmutableSet.of(LOCATION_QNAME)))
+                    .withChild(ImmutableNodes.leafNode(LOCATION_QNAME, location)).build()).build();
+    }
+
+    private static YangInstanceIdentifier devicePath(final String name) {
+        return DEVICE_PATH.node(new NodeIdentifierWithPredicates(DEVICE_QNAME, NAME_QNAME, name));
+    }
+
+    private InMemoryDataTree initDevices() throws DataValidationFailedException {
+        final InMemoryDataTree inMemoryDataTree = initDataTree(true);
+
+        final DataTreeModification modificationTree = inMemoryDataTree.takeSnapshot().newModification();
+        modificationTree.write(DEVICES_PATH, ImmutableNodes.containerNode(DEVICES_QNAME));
+        modificationTree.write(DEVICE_PATH, ImmutableNodes.mapNodeBuilder(DEVICE_QNAME)
+            .withChild(device("foo", new byte[] { 1, 2, 3 }, 22, "lab")).build());
+        commit(inMemoryDataTree, modificationTree);
+        return inMemoryDataTree;
+    }
+
+    private static void assertViolation(final InMemoryDataTree inMemoryDataTree,
+            final DataTreeModification modificationTree) {
+        modificationTree.ready();
+        try {
+            inMemoryDataTree.validate(modificationTree);
+            fail("Unique constraint violation should have been detected");
+        } catch (final DataValidationFailedException e) {
+            assertTrue(e.getMessage().contains("violates unique constraint"));
+        }
+    }
+
+    private static void commit(final InMemoryDataTree inMemoryDataTree, final DataTreeModification modificationTree)
+            throws DataValidationFailedException {
+        modificationTree.ready();
+        inMemoryDataTree.validate(modificationTree);
+        inMemoryDataTree.commit(inMemoryDataTree.prepare(modificationTree));
+    }
+
+    @Test
+    public void testUniqueWrite() throws DataValidationFailedException {
+        final InMemoryDataTree inMemoryDataTree = initDataTree(true);
+
+        final DataTreeModification modificationTree = inMemoryDataTree.takeSnapshot().newModification();
+        modificationTree.write(serverPath("baz"), server("baz", "10.0.0.2", 80));
+        commit(inMemoryDataTree, modificationTree);
+
+        assertTrue(inMemoryDataTree.takeSnapshot().readNode(serverPath("baz")).isPresent());
+    }
+
+    @Test
+    public void testDuplicateEntryWrite() throws DataValidationFailedException {
+        final InMemoryDataTree inMemoryDataTree = initDataTree(true);
+
+        final DataTreeModification modificationTree = inMemoryDataTree.takeSnapshot().newModification();
+        modificationTree.write(serverPath("baz"), server("baz", "10.0.0.1", 80));
+        modificationTree.ready();
+        try {
+            inMemoryDataTree.validate(modificationTree);
+            fail("Unique constraint violation should have been detected");
+        } catch (final DataValidationFailedException e) {
+            assertTrue(e.getMessage().contains("violates unique constraint"));
+        }
+    }
+
+    @Test
+    public void testDuplicateListWrite() throws DataValidationFailedException {
+        final InMemoryDataTree inMemoryDataTree = initDataTree(true);
+
+        final DataTreeModification modificationTree = inMemoryDataTree.takeSnapshot().newModification();
+        modificationTree.write(SERVER_PATH, ImmutableNodes.mapNodeBuilder(SERVER_QNAME)
+            .withChild(server("foo", "10.0.0.3", 22))
+            .withChild(server("bar", "10.0.0.3", 22)).build());
+        modificationTree.ready();
+        try {
+            inMemoryDataTree.validate(modificationTree);
+            fail("Unique constraint violation should have been detected");
+        } catch (final DataValidationFailedException e) {
+            assertTrue(e.getMessage().contains("violates unique constraint"));
+        }
+    }
+
+    @Test
+    public void testSwapValues() throws DataValidationFailedException {
+        final InMemoryDataTree inMemoryDataTree = initDataTree(true);
+
+        final DataTreeModification modificationTree = inMemoryDataTree.takeSnapshot().newModification();
+        modificationTree.write(serverPath("foo"), server("foo", "10.0.0.1", 8080));
+        modificationTree.write(serverPath("bar"), server("bar", "10.0.0.1", 80));
+        commit(inMemoryDataTree, modificationTree);
+    }
+
+    @Test
+    public void testReuseDeletedValues() throws DataValidationFailedException {
+        final InMemoryDataTree inMemoryDataTree = initDataTree(true);
+
+        DataTreeModification modificationTree = inMemoryDataTree.takeSnapshot().newModification();
+        modificationTree.delete(serverPath("foo"));
+        commit(inMemoryDataTree, modificationTree);
+
+        modificationTree = inMemoryDataTree.takeSnapshot().newModification();
+        modificationTree.merge(serverPath("baz"), server("baz", "10.0.0.1", 80));
+        commit(inMemoryDataTree, modificationTree);
+
+        modificationTree = inMemoryDataTree.takeSnapshot().newModification();
+        modificationTree.merge(serverPath("foo"), server("foo", "10.0.0.1", 80));
+        modificationTree.ready();
+        try {
+            inMemoryDataTree.validate(modificationTree);
+            fail("Unique constraint violation should have been detected");
+        } catch (final DataValidationFailedException e) {
+            assertTrue(e.getMessage().contains("violates unique constraint"));
+        }
+    }
+
+    @Test
+    public void testIncompleteEntries() throws DataValidationFailedException {
+        final InMemoryDataTree inMemoryDataTree = initDataTree(true);
+
+        final DataTreeModification modificationTree = inMemoryDataTree.takeSnapshot().newModification();
+        modificationTree.write(serverPath("baz"), ImmutableNodes.mapEntryBuilder(SERVER_QNAME, NAME_QNAME, "baz")
+            .withChild(ImmutableNodes.leafNode(IP_QNAME, "10.0.0.1")).build());
+        modificationTree.write(serverPath("qux"), ImmutableNodes.mapEntryBuilder(SERVER_QNAME, NAME_QNAME, "qux")
+            .withChild(ImmutableNodes.leafNode(IP_QNAME, "10.0.0.1")).build());
+        commit(inMemoryDataTree, modificationTree);
+    }
+
+    @Test
+    public void testDisabledIndexes() throws DataValidationFailedException {
+        final InMemoryDataTree inMemoryDataTree = initDataTree(false);
+
+        final DataTreeModification modificationTree = inMemoryDataTree.takeSnapshot().newModification();
+        modificationTree.write(serverPath("baz"), server("baz", "10.0.0.1", 80));
+        commit(inMemoryDataTree, modificationTree);
+    }
+
+    @Test
+    public void testLeafModification() throws DataValidationFailedException {
+        final InMemoryDataTree inMemoryDataTree = initDataTree(true);
+
+        final DataTreeModification modificationTree = inMemoryDataTree.takeSnapshot().newModification();
+        modificationTree.write(serverPath("bar").node(new NodeIdentifier(PORT_QNAME)),
+            ImmutableNodes.leafNode(PORT_QNAME, 80));
+        modificationTree.ready();
+        try {
+            inMemoryDataTree.validate(modificationTree);
+            fail("Unique constraint violation should have been detected");
+        } catch (final DataValidationFailedException e) {
+            assertTrue(e.getMessage().contains("violates unique constraint"));
+        }
+    }
+
+    @Test
+    public void testUniqueDevices() throws DataValidationFailedException {
+        final InMemoryDataTree inMemoryDataTree = initDevices();
+
+        final DataTreeModification modificationTree = inMemoryDataTree.takeSnapshot().newModification();
+        modificationTree.write(devicePath("bar"), device("bar", new byte[] { 1, 2, 4 }, 23, "office"));
+        commit(inMemoryDataTree, modificationTree);
+
+        assertTrue(inMemoryDataTree.takeSnapshot().readNode(devicePath("bar")).isPresent());
+    }
+
+    @Test
+    public void testDuplicateBinaryValues() throws DataValidationFailedException {
+        final InMemoryDataTree inMemoryDataTree = initDevices();
+
+        // Equal content in a distinct array
+        final DataTreeModification modificationTree = inMemoryDataTree.takeSnapshot().newModification();
+        modificationTree.write(devicePath("bar"), device("bar", new byte[] { 1, 2, 3 }, 23, "office"));
+        assertViolation(inMemoryDataTree, modificationTree);
+    }
+
+    @Test
+    public void testDuplicateChoiceValues() throws DataValidationFailedException {
+        final InMemoryDataTree inMemoryDataTree = initDevices();
+
+        final DataTreeModification modificationTree = inMemoryDataTree.takeSnapshot().newModification();
+        modificationTree.write(devicePath("bar"), device("bar", new byte[] { 1, 2, 4 }, 22, "office"));
+        assertViolation(inMemoryDataTree, modificationTree);
+    }
+
+    @Test
+    public void testDuplicateAugmentationValues() throws DataValidationFailedException {
+        final InMemoryDataTree inMemoryDataTree = initDevices();
+
+        final DataTreeModification modificationTree = inMemoryDataTree.takeSnapshot().newModification();
+        modificationTree.write(devicePath("bar"), device("bar", new byte[] { 1, 2, 4 }, 23, "lab"));
+        assertViolation(inMemoryDataTree, modificationTree);
+    }
+
+    @Test
+    public void testConflictAfterValidation() throws DataValidationFailedException {
+        final InMemoryDataTree inMemoryDataTree = initDataTree(true);
+
+        final DataTreeModification first = inMemoryDataTree.takeSnapshot().newModification();
+        first.write(serverPath("baz"), server("baz", "10.0.0.2", 80));
+        first.ready();
+        inMemoryDataTree.validate(first);
+
+        // A conflicting entry is committed after the first modification has been validated
+        final DataTreeModification second = inMemoryDataTree.takeSnapshot().newModification();
+        second.write(serverPath("qux"), server("qux", "10.0.0.2", 80));
+        commit(inMemoryDataTree, second);
+
+        try {
+            inMemoryDataTree.prepare(first);
+            fail("Unique constraint violation should have been detected");
+        } catch (final SchemaValidationFailedException e) {
+            assertTrue(e.getMessage().contains("violates unique constraint"));
+        }
+    }
+}
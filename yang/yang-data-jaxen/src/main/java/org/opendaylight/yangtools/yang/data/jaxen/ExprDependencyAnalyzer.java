@@ -0,0 +1,425 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.jaxen;
+
+import com.google.common.base.Converter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.jaxen.expr.BinaryExpr;
+import org.jaxen.expr.Expr;
+import org.jaxen.expr.FilterExpr;
+import org.jaxen.expr.FunctionCallExpr;
+import org.jaxen.expr.LiteralExpr;
+import org.jaxen.expr.LocationPath;
+import org.jaxen.expr.NameStep;
+import org.jaxen.expr.NumberExpr;
+import org.jaxen.expr.PathExpr;
+import org.jaxen.expr.Predicate;
+import org.jaxen.expr.Step;
+import org.jaxen.expr.UnaryExpr;
+import org.jaxen.expr.UnionExpr;
+import org.jaxen.saxpath.Axis;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathDependency;
+import org.opendaylight.yangtools.yang.model.api.ChoiceCaseNode;
+import org.opendaylight.yangtools.yang.model.api.ChoiceSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaNode;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+
+/**
+ * Static analysis of compiled expressions, determining the data they read. Each location path is followed from the
+ * node at which the expression is evaluated, or from the root, tracking the data path of the nodes it selects and how
+ * many of its components are shared with the evaluation node's ancestors. The analysis is conservative: names which
+ * cannot be resolved select all children, descendant axes select whole subtrees and anything which cannot be
+ * followed, such as variable references or functions returning arbitrary nodes, results in a dependency on the entire
+ * data tree.
+ */
+final class ExprDependencyAnalyzer {
+    /**
+     * Possible location of selected nodes. Unresolved names are represented by null components.
+     */
+    private static final class Location {
+        final List<QName> steps;
+        final int anchor;
+        // The location covers all nodes at or below steps
+        final boolean deep;
+
+        Location(final List<QName> steps, final int anchor, final boolean deep) {
+            this.steps = steps;
+            this.anchor = Math.min(anchor, steps.size());
+            this.deep = deep;
+        }
+
+        Location child(final QName name) {
+            if (deep) {
+                return this;
+            }
+
+            final List<QName> childSteps = new ArrayList<>(steps.size() + 1);
+            childSteps.addAll(steps);
+            childSteps.add(name);
+            return new Location(childSteps, anchor, false);
+        }
+
+        Location parent() {
+            return steps.isEmpty() ? this : prefix(steps.size() - 1, deep);
+        }
+
+        Location prefix(final int size, final boolean deepPrefix) {
+            return new Location(steps.subList(0, size), anchor, deepPrefix);
+        }
+
+        Location descendants() {
+            return deep ? this : new Location(steps, anchor, true);
+        }
+
+        XPathDependency toDependency() {
+            int size = steps.indexOf(null);
+            if (size == -1) {
+                size = steps.size();
+            }
+            return XPathDependency.create(steps.subList(0, size), Math.min(anchor, size));
+        }
+    }
+
+    private static final Location ROOT = new Location(ImmutableList.<QName>of(), 0, false);
+    private static final Location UNBOUNDED = new Location(ImmutableList.<QName>of(), 0, true);
+
+    // Core and YANG functions which do not return node-sets
+    private static final Set<String> VALUE_FUNCTIONS = ImmutableSet.of("boolean", "not", "true", "false", "lang",
+        "number", "sum", "floor", "ceiling", "round", "count", "string", "concat", "starts-with", "contains",
+        "substring-before", "substring-after", "substring", "string-length", "normalize-space", "translate", "last",
+        "position", "local-name", "namespace-uri", "name", "re-match", "derived-from", "derived-from-or-self",
+        "enum-value", "bit-is-set");
+
+    private final Set<XPathDependency> dependencies = new LinkedHashSet<>();
+    private final Converter<String, QNameModule> converter;
+    private final Location evaluation;
+
+    private ExprDependencyAnalyzer(final Converter<String, QNameModule> converter, final List<QName> evaluationPath) {
+        this.converter = converter;
+        this.evaluation = new Location(evaluationPath, evaluationPath.size(), false);
+    }
+
+    /**
+     * Determine the data an expression depends on.
+     *
+     * @param context SchemaContext in which the expression is defined
+     * @param evaluationPath SchemaPath at which the expression is evaluated
+     * @param converter Prefix converter used to resolve names
+     * @param expr Expression to analyze
+     * @return Dependencies of the expression
+     */
+    static Collection<XPathDependency> dependencies(final SchemaContext context, final SchemaPath evaluationPath,
+            final Converter<String, QNameModule> converter, final Expr expr) {
+        final List<QName> dataPath = dataPath(context, evaluationPath);
+        if (dataPath == null) {
+            // Not a data tree path, e.g. an RPC or a grouping
+            return Collections.singletonList(XPathDependency.unbounded());
+        }
+
+        final ExprDependencyAnalyzer analyzer = new ExprDependencyAnalyzer(converter, dataPath);
+        analyzer.evaluate(expr, Collections.singletonList(analyzer.evaluation));
+        return ImmutableList.copyOf(analyzer.dependencies);
+    }
+
+    /**
+     * Determine the topmost ancestor of the evaluation node, which contains all dependencies reachable from the
+     * evaluation node.
+     *
+     * @param context SchemaContext in which the expression is defined
+     * @param evaluationPath SchemaPath at which the expression is evaluated
+     * @param dependencies Dependencies of the expression
+     * @return Apex SchemaPath
+     */
+    static SchemaPath apexPath(final SchemaContext context, final SchemaPath evaluationPath,
+            final Collection<XPathDependency> dependencies) {
+        final List<QName> dataPath = dataPath(context, evaluationPath);
+        if (dataPath == null) {
+            return SchemaPath.ROOT;
+        }
+
+        int common = dataPath.size();
+        for (XPathDependency dependency : dependencies) {
+            final List<QName> path = dependency.getDataPath();
+            int i = 0;
+            while (i < common && i < path.size() && dataPath.get(i).equals(path.get(i))) {
+                i++;
+            }
+            common = i;
+        }
+        if (common == 0) {
+            return SchemaPath.ROOT;
+        }
+
+        // Map the data path prefix back to the SchemaPath, which also contains choices and cases
+        final List<QName> qnames = new ArrayList<>();
+        int dataNodes = 0;
+        Object parent = context;
+        for (QName qname : evaluationPath.getPathFromRoot()) {
+            final SchemaNode child = schemaChild(parent, qname);
+            qnames.add(qname);
+            if (isDataNode(child) && ++dataNodes == common) {
+                break;
+            }
+            parent = child;
+        }
+        return SchemaPath.create(qnames, true);
+    }
+
+    private static List<QName> dataPath(final SchemaContext context, final SchemaPath evaluationPath) {
+        final List<QName> ret = new ArrayList<>();
+        Object parent = context;
+        for (QName qname : evaluationPath.getPathFromRoot()) {
+            final SchemaNode child = schemaChild(parent, qname);
+            if (child == null) {
+                return null;
+            }
+            if (isDataNode(child)) {
+                ret.add(qname);
+            }
+            parent = child;
+        }
+        return ret;
+    }
+
+    private static SchemaNode schemaChild(final Object parent, final QName qname) {
+        if (parent instanceof ChoiceSchemaNode) {
+            return ((ChoiceSchemaNode) parent).getCaseNodeByName(qname);
+        }
+        if (parent instanceof DataNodeContainer) {
+            return ((DataNodeContainer) parent).getDataChildByName(qname);
+        }
+        return null;
+    }
+
+    private static boolean isDataNode(final SchemaNode node) {
+        return !(node instanceof ChoiceSchemaNode) && !(node instanceof ChoiceCaseNode);
+    }
+
+    private void record(final Collection<Location> locations) {
+        for (Location location : locations) {
+            dependencies.add(location.toDependency());
+        }
+    }
+
+    private List<Location> unbounded() {
+        record(Collections.singletonList(UNBOUNDED));
+        return Collections.singletonList(UNBOUNDED);
+    }
+
+    /**
+     * Evaluate an expression, recording the data it reads.
+     *
+     * @param expr Expression to evaluate
+     * @param context Locations of the context nodes
+     * @return Locations of the resulting node-set, empty if the expression does not result in a node-set
+     */
+    private List<Location> evaluate(final Expr expr, final List<Location> context) {
+        if (expr instanceof LocationPath) {
+            final LocationPath path = (LocationPath) expr;
+            final List<Location> ret = steps(path.getSteps(), path.isAbsolute() ? Collections.singletonList(ROOT)
+                    : context);
+            record(ret);
+            return ret;
+        }
+        if (expr instanceof PathExpr) {
+            final PathExpr path = (PathExpr) expr;
+            final Expr filter = path.getFilterExpr();
+            final LocationPath location = path.getLocationPath();
+            final List<Location> start = filter == null ? context : evaluate(filter, context);
+            if (location == null) {
+                return start;
+            }
+
+            final List<Location> ret = steps(location.getSteps(), location.isAbsolute()
+                    ? Collections.singletonList(ROOT) : start);
+            record(ret);
+            return ret;
+        }
+        if (expr instanceof FilterExpr) {
+            final FilterExpr filter = (FilterExpr) expr;
+            final List<Location> ret = evaluate(filter.getExpr(), context);
+            predicates(filter.getPredicates(), ret);
+            return ret;
+        }
+        if (expr instanceof UnionExpr) {
+            final UnionExpr union = (UnionExpr) expr;
+            final List<Location> ret = new ArrayList<>(evaluate(union.getLHS(), context));
+            ret.addAll(evaluate(union.getRHS(), context));
+            return ret;
+        }
+        if (expr instanceof BinaryExpr) {
+            final BinaryExpr binary = (BinaryExpr) expr;
+            evaluate(binary.getLHS(), context);
+            evaluate(binary.getRHS(), context);
+            return Collections.emptyList();
+        }
+        if (expr instanceof UnaryExpr) {
+            evaluate(((UnaryExpr) expr).getExpr(), context);
+            return Collections.emptyList();
+        }
+        if (expr instanceof FunctionCallExpr) {
+            return function((FunctionCallExpr) expr, context);
+        }
+        if (expr instanceof LiteralExpr || expr instanceof NumberExpr) {
+            return Collections.emptyList();
+        }
+
+        // Variable references and anything we do not recognize
+        return unbounded();
+    }
+
+    private List<Location> function(final FunctionCallExpr call, final List<Location> context) {
+        final List<?> params = call.getParameters();
+        for (Object param : params) {
+            evaluate((Expr) param, context);
+        }
+
+        final String prefix = call.getPrefix();
+        if (prefix != null && !prefix.isEmpty()) {
+            // Extension functions
+            return unbounded();
+        }
+
+        final String name = call.getFunctionName();
+        if ("current".equals(name)) {
+            // The evaluation node, but be conservative about what the function context considers current
+            final List<Location> ret = new ArrayList<>(context.size() + 1);
+            ret.add(evaluation);
+            ret.addAll(context);
+            record(ret);
+            return ret;
+        }
+        if (VALUE_FUNCTIONS.contains(name)) {
+            if (params.isEmpty()) {
+                // Functions without arguments operate on the context node or the context node-set
+                record(context);
+            }
+            return Collections.emptyList();
+        }
+
+        // id(), deref() and other functions returning arbitrary nodes
+        return unbounded();
+    }
+
+    private List<Location> steps(final List<?> steps, final List<Location> start) {
+        List<Location> current = start;
+        for (Object obj : steps) {
+            final Step step = (Step) obj;
+            final List<Location> next = new ArrayList<>();
+            for (Location location : current) {
+                step(step, location, next);
+            }
+
+            predicates(step.getPredicates(), next);
+            current = next;
+        }
+        return current;
+    }
+
+    private void step(final Step step, final Location location, final List<Location> result) {
+        switch (step.getAxis()) {
+            case Axis.CHILD:
+                result.add(location.child(name(step)));
+                break;
+            case Axis.ATTRIBUTE:
+            case Axis.NAMESPACE:
+                result.add(location.child(null));
+                break;
+            case Axis.DESCENDANT:
+            case Axis.DESCENDANT_OR_SELF:
+                result.add(location.descendants());
+                break;
+            case Axis.SELF:
+                result.add(location);
+                break;
+            case Axis.PARENT:
+                result.add(location.parent());
+                break;
+            case Axis.ANCESTOR:
+            case Axis.ANCESTOR_OR_SELF:
+                ancestors(location, name(step), step.getAxis() == Axis.ANCESTOR_OR_SELF, result);
+                break;
+            case Axis.FOLLOWING_SIBLING:
+            case Axis.PRECEDING_SIBLING:
+                // Siblings are children of the parent, not necessarily of the same list entry
+                if (!location.steps.isEmpty()) {
+                    result.add(location.parent().child(name(step)));
+                }
+                break;
+            default:
+                result.add(UNBOUNDED);
+                break;
+        }
+    }
+
+    private static void ancestors(final Location location, final QName name, final boolean orSelf,
+            final List<Location> result) {
+        final int size = location.steps.size();
+        for (int i = 0; i <= size; ++i) {
+            if (i == size && !orSelf && !location.deep) {
+                break;
+            }
+
+            final QName step = i == 0 ? null : location.steps.get(i - 1);
+            // Nodes below a deep location may have any name
+            if (i == 0 || name == null || step == null || name.equals(step) || i == size && location.deep) {
+                result.add(location.prefix(i, i == size && location.deep));
+            }
+        }
+    }
+
+    private void predicates(final List<?> predicates, final List<Location> context) {
+        if (predicates.isEmpty()) {
+            return;
+        }
+
+        // Predicates filter the context node-set, their result depends on its members
+        record(context);
+        for (Object obj : predicates) {
+            evaluate(((Predicate) obj).getExpr(), context);
+        }
+    }
+
+    /**
+     * Resolve the name tested by a step, if it tests for a particular name.
+     *
+     * @param step Step to examine
+     * @return Tested name, or null if the step can match nodes with any name
+     */
+    private QName name(final Step step) {
+        if (!(step instanceof NameStep)) {
+            return null;
+        }
+
+        final NameStep nameStep = (NameStep) step;
+        final String prefix = nameStep.getPrefix();
+        final String localName = nameStep.getLocalName();
+        if (prefix == null || prefix.isEmpty() || "*".equals(localName)) {
+            return null;
+        }
+
+        final QNameModule module;
+        try {
+            module = converter.convert(prefix);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return module == null ? null : QName.create(module, localName);
+    }
+}
@@ -20,8 +20,6 @@ import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.api.SchemaPath;
 
 final class JaxenSchemaContext implements XPathSchemaContext {
-    // Will be needed for compileExpression()
-    @SuppressWarnings("unused")
     private final SchemaContext context;
 
     JaxenSchemaContext(final SchemaContext context) {
@@ -32,7 +30,7 @@ final class JaxenSchemaContext implements XPathSchemaContext {
     public XPathExpression compileExpression(final SchemaPath schemaPath,
             final Converter<String, QNameModule> prefixes, final String xpath) throws XPathExpressionException {
         try {
-            return JaxenXPath.create(prefixes, schemaPath, xpath);
+            return JaxenXPath.create(context, prefixes, schemaPath, xpath);
         } catch (JaxenException e) {
             throw new XPathExpressionException(e);
         }
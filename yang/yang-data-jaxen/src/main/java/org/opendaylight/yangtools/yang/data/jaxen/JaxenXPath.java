@@ -23,12 +23,14 @@ import org.opendaylight.yangtools.yang.common.QNameModule;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathBooleanResult;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathDependency;
 import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathDocument;
 import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathExpression;
 import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathNodesetResult;
 import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathNumberResult;
 import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathResult;
 import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathStringResult;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.api.SchemaPath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,17 +46,21 @@ final class JaxenXPath implements XPathExpression {
     };
     private final Converter<String, QNameModule> converter;
     private final SchemaPath schemaPath;
+    private final SchemaPath apexPath;
+    private final Collection<XPathDependency> dependencies;
     private final BaseXPath xpath;
 
     private JaxenXPath(final Converter<String, QNameModule> converter, final SchemaPath schemaPath,
-            final BaseXPath xpath) {
+            final SchemaPath apexPath, final Collection<XPathDependency> dependencies, final BaseXPath xpath) {
         this.converter = Preconditions.checkNotNull(converter);
         this.schemaPath = Preconditions.checkNotNull(schemaPath);
+        this.apexPath = Preconditions.checkNotNull(apexPath);
+        this.dependencies = Preconditions.checkNotNull(dependencies);
         this.xpath = Preconditions.checkNotNull(xpath);
     }
 
-    static JaxenXPath create(final Converter<String, QNameModule> converter, final SchemaPath schemaPath,
-            final String xpath) throws JaxenException {
+    static JaxenXPath create(final SchemaContext context, final Converter<String, QNameModule> converter,
+            final SchemaPath schemaPath, final String xpath) throws JaxenException {
         final BaseXPath compiled = new BaseXPath(xpath) {
             private static final long serialVersionUID = 1L;
 
@@ -67,9 +73,13 @@ final class JaxenXPath implements XPathExpression {
         final Expr expr = compiled.getRootExpr();
         LOG.debug("Compiled {} to expression {}", xpath, expr);
 
-        // FIXME: perform expression introspection to understand things like apex, etc.
+        final Collection<XPathDependency> dependencies = ExprDependencyAnalyzer.dependencies(context, schemaPath,
+            converter, expr);
+        final SchemaPath apexPath = ExprDependencyAnalyzer.apexPath(context, schemaPath, dependencies);
+        LOG.debug("Expression {} evaluated at {} has apex {} and depends on {}", xpath, schemaPath, apexPath,
+            dependencies);
 
-        return new JaxenXPath(converter, schemaPath, compiled);
+        return new JaxenXPath(converter, schemaPath, apexPath, dependencies, compiled);
     }
 
     @Override
@@ -129,7 +139,11 @@ final class JaxenXPath implements XPathExpression {
 
     @Override
     public SchemaPath getApexPath() {
-        // TODO: improve this
-        return SchemaPath.ROOT;
+        return apexPath;
+    }
+
+    @Override
+    public Collection<XPathDependency> getDependencies() {
+        return dependencies;
     }
 }
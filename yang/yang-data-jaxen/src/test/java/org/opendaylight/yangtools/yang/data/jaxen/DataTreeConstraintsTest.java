@@ -0,0 +1,336 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.jaxen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableBiMap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TipProducingDataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathDependency;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathExpression;
+import org.opendaylight.yangtools.yang.data.api.schema.xpath.XPathSchemaContext;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableAugmentationNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.DataTreeCommitCoordinator;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+
+/**
+ * Enforcement of must and when constraints by a data tree, using Jaxen to evaluate them.
+ */
+public class DataTreeConstraintsTest {
+    private static final QName TOP = QName.create("urn:opendaylight.constraints", "2016-10-16", "top");
+    private static final QName ENABLED = QName.create(TOP, "enabled");
+    private static final QName MTU = QName.create(TOP, "mtu");
+    private static final QName ITEM = QName.create(TOP, "item");
+    private static final QName NAME = QName.create(TOP, "name");
+    private static final QName REF = QName.create(TOP, "ref");
+    private static final QName EXTRA = QName.create(TOP, "extra");
+    private static final QName BOUNDED = QName.create(TOP, "bounded");
+    private static final QName ENTRY = QName.create(TOP, "entry");
+    private static final QName VALUE = QName.create(TOP, "value");
+    private static final QName REMOTE = QName.create(TOP, "remote");
+    private static final QName AUGMENTED = QName.create(TOP, "augmented");
+    private static final QName EXTENSION = QName.create(TOP, "extension");
+    private static final QName USED = QName.create(TOP, "used");
+    private static final QName EXTRA_VALUE = QName.create(TOP, "extra-value");
+
+    private static final YangInstanceIdentifier TOP_PATH = YangInstanceIdentifier.of(TOP);
+    private static final YangInstanceIdentifier ITEM_PATH = TOP_PATH.node(ITEM);
+    private static final YangInstanceIdentifier BOUNDED_PATH = YangInstanceIdentifier.of(BOUNDED);
+    private static final YangInstanceIdentifier ENTRY_PATH = BOUNDED_PATH.node(ENTRY);
+    private static final YangInstanceIdentifier REMOTE_PATH = YangInstanceIdentifier.of(REMOTE);
+    private static final YangInstanceIdentifier AUGMENTED_PATH = YangInstanceIdentifier.of(AUGMENTED);
+    private static final YangInstanceIdentifier USED_PATH = YangInstanceIdentifier.of(USED);
+
+    private SchemaContext schemaContext;
+    private TipProducingDataTree dataTree;
+
+    @Before
+    public void setup() throws Exception {
+        schemaContext = TestUtils.loadModules("/constraints");
+        dataTree = InMemoryDataTreeFactory.getInstance().create(new DataTreeConfiguration.Builder(
+            TreeType.CONFIGURATION).setXPathSchemaContextFactory(new JaxenSchemaContextFactory()).build());
+        dataTree.setSchemaContext(schemaContext);
+
+        final DataTreeModification mod = dataTree.takeSnapshot().newModification();
+        mod.write(TOP_PATH, ImmutableNodes.containerNode(TOP));
+        mod.write(ITEM_PATH, ImmutableNodes.mapNodeBuilder(ITEM).build());
+        commit(mod);
+    }
+
+    private void commit(final DataTreeModification mod) throws DataValidationFailedException {
+        mod.ready();
+        dataTree.validate(mod);
+        dataTree.commit(dataTree.prepare(mod));
+    }
+
+    private void assertRejected(final DataTreeModification mod) {
+        mod.ready();
+        try {
+            dataTree.validate(mod);
+            fail("Modification should have been rejected");
+        } catch (DataValidationFailedException e) {
+            // Expected
+        }
+    }
+
+    private DataTreeModification writeLeaf(final QName qname, final Object value) {
+        final DataTreeModification mod = dataTree.takeSnapshot().newModification();
+        mod.write(TOP_PATH.node(qname), ImmutableNodes.leafNode(qname, value));
+        return mod;
+    }
+
+    private static YangInstanceIdentifier itemPath(final String name) {
+        return YangInstanceIdentifier.builder(ITEM_PATH).nodeWithKey(ITEM, NAME, name).build();
+    }
+
+    private static NormalizedNode<?, ?> entry(final String name, final String value) {
+        return ImmutableNodes.mapEntryBuilder(ENTRY, NAME, name).withChild(ImmutableNodes.leafNode(VALUE, value))
+                .build();
+    }
+
+    private void enableBounded() throws DataValidationFailedException {
+        final DataTreeModification mod = dataTree.takeSnapshot().newModification();
+        mod.write(BOUNDED_PATH, ImmutableContainerNodeBuilder.create()
+            .withNodeIdentifier(new NodeIdentifier(BOUNDED))
+            .withChild(ImmutableNodes.leafNode(ENABLED, true)).build());
+        commit(mod);
+    }
+
+    private static NormalizedNode<?, ?> item(final String name) {
+        return ImmutableNodes.mapEntryBuilder(ITEM, NAME, name).withChild(ImmutableNodes.leafNode(REF, "ref")).build();
+    }
+
+    @Test
+    public void testMust() throws DataValidationFailedException {
+        commit(writeLeaf(MTU, 1500));
+        assertRejected(writeLeaf(MTU, 10));
+    }
+
+    @Test
+    public void testMustReferencingAncestor() throws DataValidationFailedException {
+        final DataTreeModification rejected = dataTree.takeSnapshot().newModification();
+        rejected.write(itemPath("foo"), item("foo"));
+        assertRejected(rejected);
+
+        final DataTreeModification accepted = writeLeaf(ENABLED, true);
+        accepted.write(itemPath("foo"), item("foo"));
+        commit(accepted);
+
+        // Modifying the referenced leaf re-evaluates the constraint
+        assertRejected(writeLeaf(ENABLED, false));
+    }
+
+    @Test
+    public void testWhen() throws DataValidationFailedException {
+        final DataTreeModification rejected = writeLeaf(ENABLED, false);
+        rejected.write(TOP_PATH.node(EXTRA), ImmutableNodes.containerNode(EXTRA));
+        assertRejected(rejected);
+
+        final DataTreeModification accepted = writeLeaf(ENABLED, true);
+        accepted.write(TOP_PATH.node(EXTRA), ImmutableNodes.containerNode(EXTRA));
+        commit(accepted);
+    }
+
+    @Test
+    public void testAugmentWhen() throws DataValidationFailedException {
+        final AugmentationIdentifier augId = new AugmentationIdentifier(ImmutableSet.of(EXTENSION));
+        final NormalizedNode<?, ?> augmentation = ImmutableAugmentationNodeBuilder.create()
+                .withNodeIdentifier(augId).withChild(ImmutableNodes.leafNode(EXTENSION, "foo")).build();
+
+        final DataTreeModification rejected = dataTree.takeSnapshot().newModification();
+        rejected.write(AUGMENTED_PATH, ImmutableContainerNodeBuilder.create()
+            .withNodeIdentifier(new NodeIdentifier(AUGMENTED)).withChild(ImmutableNodes.leafNode(ENABLED, false))
+            .withChild(augmentation).build());
+        assertRejected(rejected);
+
+        final DataTreeModification accepted = dataTree.takeSnapshot().newModification();
+        accepted.write(AUGMENTED_PATH, ImmutableContainerNodeBuilder.create()
+            .withNodeIdentifier(new NodeIdentifier(AUGMENTED)).withChild(ImmutableNodes.leafNode(ENABLED, true))
+            .withChild(augmentation).build());
+        commit(accepted);
+
+        // The condition is evaluated on the augmentation target
+        final DataTreeModification disable = dataTree.takeSnapshot().newModification();
+        disable.write(AUGMENTED_PATH.node(ENABLED), ImmutableNodes.leafNode(ENABLED, false));
+        assertRejected(disable);
+
+        // Without augmented data the condition does not apply
+        final DataTreeModification removed = dataTree.takeSnapshot().newModification();
+        removed.write(AUGMENTED_PATH.node(ENABLED), ImmutableNodes.leafNode(ENABLED, false));
+        removed.delete(AUGMENTED_PATH.node(augId));
+        commit(removed);
+    }
+
+    @Test
+    public void testUsesWhen() throws DataValidationFailedException {
+        final DataTreeModification rejected = dataTree.takeSnapshot().newModification();
+        rejected.write(USED_PATH, ImmutableContainerNodeBuilder.create()
+            .withNodeIdentifier(new NodeIdentifier(USED)).withChild(ImmutableNodes.leafNode(ENABLED, false))
+            .withChild(ImmutableNodes.leafNode(EXTRA_VALUE, "foo")).build());
+        assertRejected(rejected);
+
+        final DataTreeModification accepted = dataTree.takeSnapshot().newModification();
+        accepted.write(USED_PATH, ImmutableContainerNodeBuilder.create()
+            .withNodeIdentifier(new NodeIdentifier(USED)).withChild(ImmutableNodes.leafNode(ENABLED, true))
+            .withChild(ImmutableNodes.leafNode(EXTRA_VALUE, "foo")).build());
+        commit(accepted);
+
+        // The condition is evaluated on the node containing the uses statement
+        final DataTreeModification disable = dataTree.takeSnapshot().newModification();
+        disable.write(USED_PATH.node(ENABLED), ImmutableNodes.leafNode(ENABLED, false));
+        assertRejected(disable);
+
+        final DataTreeModification removed = dataTree.takeSnapshot().newModification();
+        removed.write(USED_PATH.node(ENABLED), ImmutableNodes.leafNode(ENABLED, false));
+        removed.delete(USED_PATH.node(EXTRA_VALUE));
+        commit(removed);
+    }
+
+    @Test
+    public void testContainerMustWithListEntryWrite() throws DataValidationFailedException {
+        enableBounded();
+
+        // The container's constraint must not be evaluated against the list node
+        final DataTreeModification mod = dataTree.takeSnapshot().newModification();
+        mod.write(YangInstanceIdentifier.builder(ENTRY_PATH).nodeWithKey(ENTRY, NAME, "foo").build(),
+            entry("foo", "allowed"));
+        commit(mod);
+    }
+
+    @Test
+    public void testEntryMustWithWholeMapWrite() throws DataValidationFailedException {
+        enableBounded();
+
+        final DataTreeModification rejected = dataTree.takeSnapshot().newModification();
+        rejected.write(ENTRY_PATH, ImmutableNodes.mapNodeBuilder(ENTRY).withChild(entry("foo", "allowed"))
+            .withChild(entry("bar", "forbidden")).build());
+        assertRejected(rejected);
+
+        final DataTreeModification accepted = dataTree.takeSnapshot().newModification();
+        accepted.write(ENTRY_PATH, ImmutableNodes.mapNodeBuilder(ENTRY).withChild(entry("foo", "allowed"))
+            .withChild(entry("bar", "allowed")).build());
+        commit(accepted);
+    }
+
+    @Test
+    public void testCoordinatorRevalidatesConstraints() throws Exception {
+        commit(writeLeaf(ENABLED, true));
+
+        final List<Runnable> tasks = new ArrayList<>();
+        final DataTreeCommitCoordinator coordinator = DataTreeCommitCoordinator.create(dataTree, new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                tasks.add(command);
+            }
+        });
+
+        // Each modification is valid on its own and their footprints do not overlap, but together they violate
+        // the constraint on the remote leaf.
+        final DataTreeModification disable = writeLeaf(ENABLED, false);
+        disable.ready();
+        final DataTreeModification remote = dataTree.takeSnapshot().newModification();
+        remote.write(REMOTE_PATH, ImmutableContainerNodeBuilder.create().withNodeIdentifier(new NodeIdentifier(REMOTE))
+            .withChild(ImmutableNodes.leafNode(VALUE, "foo")).build());
+        remote.ready();
+
+        final ListenableFuture<DataTreeCandidate> disableFuture = coordinator.submit(disable);
+        final ListenableFuture<DataTreeCandidate> remoteFuture = coordinator.submit(remote);
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+
+        disableFuture.get();
+        try {
+            remoteFuture.get();
+            fail("Modification should have been rejected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof DataValidationFailedException);
+        }
+    }
+
+    @Test
+    public void testApexPath() throws Exception {
+        final XPathSchemaContext xpathContext = new JaxenSchemaContextFactory().createContext(schemaContext);
+        final SchemaPath refPath = SchemaPath.create(true, TOP, ITEM, REF);
+
+        final XPathExpression parent = xpathContext.compileExpression(refPath,
+            Maps.asConverter(ImmutableBiMap.of("c", TOP.getModule())), "../../c:enabled = 'true'");
+        assertEquals(SchemaPath.create(true, TOP), parent.getApexPath());
+
+        final XPathExpression self = xpathContext.compileExpression(refPath,
+            Maps.asConverter(ImmutableBiMap.of("c", TOP.getModule())), ". != 'foo'");
+        assertEquals(refPath, self.getApexPath());
+
+        final XPathExpression absolute = xpathContext.compileExpression(refPath,
+            Maps.asConverter(ImmutableBiMap.of("c", TOP.getModule())), "/c:top/c:enabled = 'true'");
+        assertEquals(SchemaPath.create(true, TOP), absolute.getApexPath());
+
+        final XPathExpression variable = xpathContext.compileExpression(refPath,
+            Maps.asConverter(ImmutableBiMap.of("c", TOP.getModule())), "$foo = 'true'");
+        assertEquals(SchemaPath.ROOT, variable.getApexPath());
+    }
+
+    @Test
+    public void testDependencies() throws Exception {
+        final XPathSchemaContext xpathContext = new JaxenSchemaContextFactory().createContext(schemaContext);
+        final SchemaPath refPath = SchemaPath.create(true, TOP, ITEM, REF);
+
+        final XPathExpression parent = xpathContext.compileExpression(refPath,
+            Maps.asConverter(ImmutableBiMap.of("c", TOP.getModule())), "../../c:enabled = 'true'");
+        assertEquals(ImmutableSet.of(XPathDependency.create(ImmutableList.of(TOP, ENABLED), 1)),
+            ImmutableSet.copyOf(parent.getDependencies()));
+
+        final XPathExpression self = xpathContext.compileExpression(refPath,
+            Maps.asConverter(ImmutableBiMap.of("c", TOP.getModule())), ". != 'foo'");
+        assertEquals(ImmutableSet.of(XPathDependency.create(ImmutableList.of(TOP, ITEM, REF), 3)),
+            ImmutableSet.copyOf(self.getDependencies()));
+
+        final XPathExpression absolute = xpathContext.compileExpression(refPath,
+            Maps.asConverter(ImmutableBiMap.of("c", TOP.getModule())), "/c:top/c:enabled = 'true'");
+        assertEquals(ImmutableSet.of(XPathDependency.create(ImmutableList.of(TOP, ENABLED), 0)),
+            ImmutableSet.copyOf(absolute.getDependencies()));
+
+        // A sibling in the same entry is anchored at the entry, entries selected from the root are not
+        final XPathExpression leafref = xpathContext.compileExpression(refPath,
+            Maps.asConverter(ImmutableBiMap.of("c", TOP.getModule())),
+            "/c:top/c:item[c:name = current()/../c:name]");
+        assertTrue(leafref.getDependencies().contains(XPathDependency.create(ImmutableList.of(TOP, ITEM, NAME), 2)));
+        assertTrue(leafref.getDependencies().contains(XPathDependency.create(ImmutableList.of(TOP, ITEM, NAME), 0)));
+        assertTrue(leafref.getDependencies().contains(XPathDependency.create(ImmutableList.of(TOP, ITEM), 0)));
+
+        final XPathExpression variable = xpathContext.compileExpression(refPath,
+            Maps.asConverter(ImmutableBiMap.of("c", TOP.getModule())), "$foo = 'true'");
+        assertTrue(variable.getDependencies().contains(XPathDependency.unbounded()));
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.util;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.concurrent.NotThreadSafe;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.model.api.AugmentationSchema;
+import org.opendaylight.yangtools.yang.model.api.ChoiceCaseNode;
+import org.opendaylight.yangtools.yang.model.api.ChoiceSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafListSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ListSchemaNode;
+
+/**
+ * Tracker of mixin nodes open in a {@link NormalizedNodeStreamWriter} within a single parent node, as needed by
+ * streaming parsers. Siblings which share enclosing mixin nodes, as described by {@link ResolvedChildSchema#getMixins()},
+ * are emitted into the same mixin node for as long as they are adjacent. Once a mixin node is closed, it cannot be
+ * reopened, as that would result in two nodes with the same identifier.
+ */
+@Beta
+@NotThreadSafe
+public final class MixinNodeTracker {
+    private final List<Object> open = new ArrayList<>();
+    private final NormalizedNodeStreamWriter writer;
+    private Set<Object> closed;
+
+    public MixinNodeTracker(final NormalizedNodeStreamWriter writer) {
+        this.writer = Preconditions.checkNotNull(writer);
+    }
+
+    /**
+     * Make sure the writer is positioned inside the specified mixin nodes, closing and opening nodes as needed.
+     *
+     * @param mixins Enclosing mixin nodes, as returned by {@link ResolvedChildSchema#getMixins()}
+     * @throws IOException if the writer reports an error
+     * @throws IllegalArgumentException if a different case of an open choice is requested
+     * @throws IllegalStateException if a mixin node which has been closed is requested
+     */
+    public void enter(final List<Object> mixins) throws IOException {
+        int common = 0;
+        while (common < open.size() && common < mixins.size() && open.get(common).equals(mixins.get(common))) {
+            common++;
+        }
+
+        if (common < open.size() && common < mixins.size()) {
+            final Object previous = open.get(common);
+            final Object next = mixins.get(common);
+            if (previous instanceof ChoiceCaseNode && next instanceof ChoiceCaseNode) {
+                throw new IllegalArgumentException(String.format("Data from case %s are specified but other data from "
+                        + "case %s were specified earlier. Data aren't from the same case.",
+                        ((ChoiceCaseNode) next).getQName(), ((ChoiceCaseNode) previous).getQName()));
+            }
+        }
+
+        exitTo(common);
+        for (int i = common; i < mixins.size(); ++i) {
+            final Object mixin = mixins.get(i);
+            Preconditions.checkState(closed == null || !closed.contains(mixin),
+                "Data for %s are not adjacent and cannot be streamed", mixin);
+            start(mixin);
+            open.add(mixin);
+        }
+    }
+
+    /**
+     * Close all open mixin nodes.
+     *
+     * @throws IOException if the writer reports an error
+     */
+    public void exitAll() throws IOException {
+        exitTo(0);
+    }
+
+    private void exitTo(final int size) throws IOException {
+        while (open.size() > size) {
+            final Object mixin = open.remove(open.size() - 1);
+            if (!(mixin instanceof ChoiceCaseNode)) {
+                writer.endNode();
+            }
+            if (closed == null) {
+                closed = new HashSet<>();
+            }
+            closed.add(mixin);
+        }
+    }
+
+    private void start(final Object mixin) throws IOException {
+        if (mixin instanceof AugmentationSchema) {
+            writer.startAugmentationNode(CompositeNodeDataWithSchema.getNodeIdentifierForAugmentation(
+                (AugmentationSchema) mixin));
+        } else if (mixin instanceof ChoiceSchemaNode) {
+            final ChoiceSchemaNode choice = (ChoiceSchemaNode) mixin;
+            writer.nextDataSchemaNode(choice);
+            writer.startChoiceNode(NodeIdentifier.create(choice.getQName()), NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+        } else if (mixin instanceof ListSchemaNode) {
+            final ListSchemaNode list = (ListSchemaNode) mixin;
+            final NodeIdentifier id = NodeIdentifier.create(list.getQName());
+            writer.nextDataSchemaNode(list);
+            if (list.getKeyDefinition().isEmpty()) {
+                writer.startUnkeyedList(id, NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+            } else if (list.isUserOrdered()) {
+                writer.startOrderedMapNode(id, NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+            } else {
+                writer.startMapNode(id, NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+            }
+        } else if (mixin instanceof LeafListSchemaNode) {
+            final LeafListSchemaNode leafList = (LeafListSchemaNode) mixin;
+            final NodeIdentifier id = NodeIdentifier.create(leafList.getQName());
+            writer.nextDataSchemaNode(leafList);
+            if (leafList.isUserOrdered()) {
+                writer.startOrderedLeafSet(id, NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+            } else {
+                writer.startLeafSet(id, NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+            }
+        } else {
+            Preconditions.checkArgument(mixin instanceof ChoiceCaseNode, "Unhandled mixin %s", mixin);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.util;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.util.Deque;
+import java.util.List;
+import org.opendaylight.yangtools.concepts.Immutable;
+import org.opendaylight.yangtools.yang.model.api.AugmentationSchema;
+import org.opendaylight.yangtools.yang.model.api.AugmentationTarget;
+import org.opendaylight.yangtools.yang.model.api.ChoiceCaseNode;
+import org.opendaylight.yangtools.yang.model.api.ChoiceSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafListSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ListSchemaNode;
+
+/**
+ * Schema of a data child of a parent node, as seen by a streaming parser. Aside from the child schema itself, this
+ * class captures the mixin nodes which need to be open in a {@link
+ * org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter} before an entry of the child
+ * can be emitted: augmentations, choices, cases and, for lists and leaf-lists, the list itself.
+ */
+@Beta
+public final class ResolvedChildSchema implements Immutable {
+    private final List<DataSchemaNode> path;
+    private final List<Object> mixins;
+    private final DataSchemaNode schema;
+
+    private ResolvedChildSchema(final List<DataSchemaNode> path, final DataSchemaNode schema,
+            final List<Object> mixins) {
+        this.path = Preconditions.checkNotNull(path);
+        this.schema = Preconditions.checkNotNull(schema);
+        this.mixins = Preconditions.checkNotNull(mixins);
+    }
+
+    /**
+     * Create a resolved child schema.
+     *
+     * @param parent Parent schema node
+     * @param path Path to the child, as returned by
+     *             {@link ParserStreamUtils#findSchemaNodeByNameAndNamespace(DataSchemaNode, String, java.net.URI)}
+     * @return A resolved child schema
+     */
+    public static ResolvedChildSchema create(final DataSchemaNode parent, final Deque<DataSchemaNode> path) {
+        Preconditions.checkArgument(!path.isEmpty(), "Expecting at least one schema");
+
+        final ImmutableList.Builder<Object> builder = ImmutableList.builder();
+        DataSchemaNode current = parent;
+        DataSchemaNode child = null;
+        for (final DataSchemaNode node : path) {
+            if (!(current instanceof ChoiceSchemaNode) && node.isAugmenting()) {
+                final AugmentationSchema augmentation = findCorrespondingAugment(current, node);
+                if (augmentation != null) {
+                    builder.add(augmentation);
+                }
+            }
+
+            if (node instanceof ChoiceSchemaNode || node instanceof ChoiceCaseNode) {
+                builder.add(node);
+                current = node;
+            } else {
+                child = node;
+            }
+        }
+
+        Preconditions.checkArgument(child != null, "Path %s does not lead to a data node", path);
+        if (child instanceof ListSchemaNode || child instanceof LeafListSchemaNode) {
+            builder.add(child);
+        }
+        return new ResolvedChildSchema(ImmutableList.copyOf(path), child, builder.build());
+    }
+
+    private static AugmentationSchema findCorrespondingAugment(final DataSchemaNode parent,
+            final DataSchemaNode child) {
+        if (parent instanceof AugmentationTarget) {
+            for (final AugmentationSchema augmentation : ((AugmentationTarget) parent).getAvailableAugmentations()) {
+                if (augmentation.getDataChildByName(child.getQName()) != null) {
+                    return augmentation;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return the schema of the child.
+     *
+     * @return Child schema node
+     */
+    public DataSchemaNode getSchema() {
+        return schema;
+    }
+
+    /**
+     * Return the path from the parent to the child, as passed to {@link #create(DataSchemaNode, Deque)}. It can be used
+     * to add the child to a {@link CompositeNodeDataWithSchema}.
+     *
+     * @return Schema nodes leading to the child, including choices and cases
+     */
+    public List<DataSchemaNode> getPath() {
+        return path;
+    }
+
+    /**
+     * Return the mixin nodes enclosing the child, outermost first. Each element is one of {@link AugmentationSchema},
+     * {@link ChoiceSchemaNode}, {@link ChoiceCaseNode}, {@link ListSchemaNode} or {@link LeafListSchemaNode}.
+     *
+     * @return Enclosing mixin nodes
+     */
+    public List<Object> getMixins() {
+        return mixins;
+    }
+
+    /**
+     * Check whether the child can have multiple consecutive entries, i.e. it is a list or a leaf-list.
+     *
+     * @return True if the child is a list or a leaf-list.
+     */
+    public boolean isMultiple() {
+        return schema instanceof ListSchemaNode || schema instanceof LeafListSchemaNode;
+    }
+
+    /**
+     * Check whether the child belongs to an augmentation or a choice of its parent. Such children may be interleaved
+     * with other siblings, yet they have to be emitted in a single mixin node.
+     *
+     * @return True if the outermost enclosing mixin node is an augmentation or a choice.
+     */
+    public boolean isInChoiceOrAugmentation() {
+        return !mixins.isEmpty() && (mixins.get(0) instanceof AugmentationSchema
+                || mixins.get(0) instanceof ChoiceSchemaNode);
+    }
+
+    @Override
+    public String toString() {
+        return "ResolvedChildSchema [schema=" + schema.getQName() + ", mixins=" + mixins + "]";
+    }
+}
@@ -7,12 +7,14 @@
  */
 package org.opendaylight.yangtools.yang.model.api;
 
+import com.google.common.annotations.Beta;
 import com.google.common.base.Optional;
 import java.net.URI;
 import java.util.Date;
 import java.util.Set;
 import javax.annotation.concurrent.Immutable;
 import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
 
 /**
  * The interface represents static view of compiled yang files,
@@ -127,4 +129,81 @@ public interface SchemaContext extends ContainerSchemaNode {
      */
     Set<ModuleIdentifier> getAllModuleIdentifiers();
 
+    /**
+     * Returns the module with the specified namespace and revision. Unlike
+     * {@link #findModuleByNamespaceAndRevision(URI, Date)}, a null revision
+     * matches only a module without a revision.
+     *
+     * @param qnameModule module namespace and revision
+     * @return module, or absent if no such module exists in the context
+     */
+    @Beta
+    default Optional<Module> findModule(final QNameModule qnameModule) {
+        for (Module module : findModuleByNamespace(qnameModule.getNamespace())) {
+            final Date revision = module.getRevision();
+            if (revision == null ? qnameModule.getRevision() == null : revision.equals(qnameModule.getRevision())) {
+                return Optional.of(module);
+            }
+        }
+        return Optional.absent();
+    }
+
+    /**
+     * Returns the rpc definition identified by a QName.
+     *
+     * @param qname rpc name
+     * @return rpc definition, or absent if no such rpc exists in the context
+     */
+    @Beta
+    default Optional<RpcDefinition> findOperation(final QName qname) {
+        final Optional<Module> module = findModule(qname.getModule());
+        if (module.isPresent()) {
+            for (RpcDefinition rpc : module.get().getRpcs()) {
+                if (qname.equals(rpc.getQName())) {
+                    return Optional.of(rpc);
+                }
+            }
+        }
+        return Optional.absent();
+    }
+
+    /**
+     * Returns the top-level notification definition identified by a QName.
+     *
+     * @param qname notification name
+     * @return notification definition, or absent if no such notification
+     *         exists in the context
+     */
+    @Beta
+    default Optional<NotificationDefinition> findNotification(final QName qname) {
+        final Optional<Module> module = findModule(qname.getModule());
+        if (module.isPresent()) {
+            for (NotificationDefinition notification : module.get().getNotifications()) {
+                if (qname.equals(notification.getQName())) {
+                    return Optional.of(notification);
+                }
+            }
+        }
+        return Optional.absent();
+    }
+
+    /**
+     * Returns the identity identified by a QName.
+     *
+     * @param qname identity name
+     * @return identity, or absent if no such identity exists in the context
+     */
+    @Beta
+    default Optional<IdentitySchemaNode> findIdentity(final QName qname) {
+        final Optional<Module> module = findModule(qname.getModule());
+        if (module.isPresent()) {
+            for (IdentitySchemaNode identity : module.get().getIdentities()) {
+                if (qname.equals(identity.getQName())) {
+                    return Optional.of(identity);
+                }
+            }
+        }
+        return Optional.absent();
+    }
+
 }
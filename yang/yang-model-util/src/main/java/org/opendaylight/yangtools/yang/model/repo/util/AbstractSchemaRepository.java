@@ -8,10 +8,7 @@
 package org.opendaylight.yangtools.yang.model.repo.util;
 
 import com.google.common.annotations.Beta;
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.ListMultimap;
-import com.google.common.collect.Lists;
-import com.google.common.collect.Multimap;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.FutureFallback;
@@ -21,10 +18,11 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.Map;
-import javax.annotation.concurrent.GuardedBy;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import org.opendaylight.yangtools.util.concurrent.ExceptionMapper;
 import org.opendaylight.yangtools.util.concurrent.ReflectiveExceptionMapper;
 import org.opendaylight.yangtools.yang.model.repo.api.MissingSchemaSourceException;
@@ -46,6 +44,10 @@ import org.slf4j.LoggerFactory;
  * Abstract base class for {@link SchemaRepository} implementations. It handles registration
  * and lookup of schema sources, subclasses need only to provide their own
  * {@link #createSchemaContextFactory(SchemaSourceFilter)} implementation.
+ *
+ * <p>Lookups do not lock the repository: registrations are kept in immutable snapshots, which are replaced
+ * whenever a source is registered or unregistered. Modifications are serialized, so that listeners observe
+ * them in the order they have been made.
  */
 @Beta
 public abstract class AbstractSchemaRepository implements SchemaRepository, SchemaSourceRegistry {
@@ -54,16 +56,16 @@ public abstract class AbstractSchemaRepository implements SchemaRepository, Sche
 
     /*
      * Source identifier -> representation -> provider map. We usually are looking for
-     * a specific representation of a source.
+     * a specific representation of a source. Values are immutable and providers of each
+     * representation are sorted by their cost, so lookups need neither to lock nor to sort.
+     * Values are replaced only while holding the lock on this object.
      */
-    @GuardedBy("this")
-    private final Map<SourceIdentifier, ListMultimap<Class<? extends SchemaSourceRepresentation>, AbstractSchemaSourceRegistration<?>>> sources = new HashMap<>();
+    private final ConcurrentMap<SourceIdentifier, ImmutableListMultimap<Class<? extends SchemaSourceRepresentation>, AbstractSchemaSourceRegistration<?>>> sources = new ConcurrentHashMap<>();
 
     /*
-     * Schema source listeners.
+     * Schema source listeners. Modified only while holding the lock on this object.
      */
-    @GuardedBy("this")
-    private final Collection<SchemaListenerRegistration> listeners = new ArrayList<>();
+    private final Collection<SchemaListenerRegistration> listeners = new CopyOnWriteArrayList<>();
 
     private static <T extends SchemaSourceRepresentation> CheckedFuture<T, SchemaSourceException> fetchSource(final SourceIdentifier id, final Iterator<AbstractSchemaSourceRegistration<?>> it) {
         final AbstractSchemaSourceRegistration<?> reg = it.next();
@@ -87,21 +89,13 @@ public abstract class AbstractSchemaRepository implements SchemaRepository, Sche
 
     @Override
     public <T extends SchemaSourceRepresentation> CheckedFuture<T, SchemaSourceException> getSchemaSource(final SourceIdentifier id, final Class<T> representation) {
-        final ArrayList<AbstractSchemaSourceRegistration<?>> sortedSchemaSourceRegistrations;
-
-        synchronized (this) {
-            final ListMultimap<Class<? extends SchemaSourceRepresentation>, AbstractSchemaSourceRegistration<?>> srcs = sources.get(id);
-            if (srcs == null) {
-                return Futures.immediateFailedCheckedFuture(new MissingSchemaSourceException("No providers registered for source" + id, id));
-            }
-
-            sortedSchemaSourceRegistrations = Lists.newArrayList(srcs.get(representation));
+        final ImmutableListMultimap<Class<? extends SchemaSourceRepresentation>, AbstractSchemaSourceRegistration<?>> srcs = sources.get(id);
+        if (srcs == null) {
+            return Futures.immediateFailedCheckedFuture(new MissingSchemaSourceException("No providers registered for source" + id, id));
         }
 
-        // TODO, remove and make sources keep sorted multimap (e.g. ArrayListMultimap with SortedLists)
-        Collections.sort(sortedSchemaSourceRegistrations, SchemaProviderCostComparator.INSTANCE);
-
-        final Iterator<AbstractSchemaSourceRegistration<?>> regs = sortedSchemaSourceRegistrations.iterator();
+        // Registrations are kept sorted by cost
+        final Iterator<AbstractSchemaSourceRegistration<?>> regs = srcs.get(representation).iterator();
         if (!regs.hasNext()) {
             return Futures.immediateFailedCheckedFuture(
                     new MissingSchemaSourceException("No providers for source " + id + " representation " + representation + " available", id));
@@ -127,13 +121,20 @@ public abstract class AbstractSchemaRepository implements SchemaRepository, Sche
     }
 
     private synchronized <T extends SchemaSourceRepresentation> void addSource(final PotentialSchemaSource<T> source, final AbstractSchemaSourceRegistration<T> reg) {
-        ListMultimap<Class<? extends SchemaSourceRepresentation>, AbstractSchemaSourceRegistration<?>> m = sources.get(source.getSourceIdentifier());
-        if (m == null) {
-            m = ArrayListMultimap.create();
-            sources.put(source.getSourceIdentifier(), m);
+        final ImmutableListMultimap<Class<? extends SchemaSourceRepresentation>, AbstractSchemaSourceRegistration<?>> m = sources.get(source.getSourceIdentifier());
+        final List<AbstractSchemaSourceRegistration<?>> regs = new ArrayList<>();
+        if (m != null) {
+            regs.addAll(m.get(source.getRepresentation()));
         }
 
-        m.put(source.getRepresentation(), reg);
+        // Insert after all registrations with the same cost, so providers of the same cost are tried in the order
+        // they have been registered
+        int offset = 0;
+        while (offset < regs.size() && SchemaProviderCostComparator.INSTANCE.compare(regs.get(offset), reg) <= 0) {
+            offset++;
+        }
+        regs.add(offset, reg);
+        sources.put(source.getSourceIdentifier(), withRegistrations(m, source.getRepresentation(), regs));
 
         final Collection<PotentialSchemaSource<?>> reps = Collections.singleton(source);
         for (SchemaListenerRegistration l : listeners) {
@@ -142,18 +143,37 @@ public abstract class AbstractSchemaRepository implements SchemaRepository, Sche
     }
 
     private synchronized <T extends SchemaSourceRepresentation> void removeSource(final PotentialSchemaSource<?> source, final SchemaSourceRegistration<?> reg) {
-        final Multimap<Class<? extends SchemaSourceRepresentation>, AbstractSchemaSourceRegistration<?>> m = sources.get(source.getSourceIdentifier());
+        final ImmutableListMultimap<Class<? extends SchemaSourceRepresentation>, AbstractSchemaSourceRegistration<?>> m = sources.get(source.getSourceIdentifier());
         if (m != null) {
-            m.remove(source.getRepresentation(), reg);
+            final List<AbstractSchemaSourceRegistration<?>> regs = new ArrayList<>(m.get(source.getRepresentation()));
+            regs.remove(reg);
+
+            final ImmutableListMultimap<Class<? extends SchemaSourceRepresentation>, AbstractSchemaSourceRegistration<?>> updated = withRegistrations(m, source.getRepresentation(), regs);
+            if (updated.isEmpty()) {
+                sources.remove(source.getSourceIdentifier());
+            } else {
+                sources.put(source.getSourceIdentifier(), updated);
+            }
 
             for (SchemaListenerRegistration l : listeners) {
                 l.getInstance().schemaSourceUnregistered(source);
             }
+        }
+    }
 
-            if (m.isEmpty()) {
-                sources.remove(source.getSourceIdentifier());
+    private static ImmutableListMultimap<Class<? extends SchemaSourceRepresentation>, AbstractSchemaSourceRegistration<?>> withRegistrations(
+            final ImmutableListMultimap<Class<? extends SchemaSourceRepresentation>, AbstractSchemaSourceRegistration<?>> current,
+            final Class<? extends SchemaSourceRepresentation> representation, final List<AbstractSchemaSourceRegistration<?>> regs) {
+        final ImmutableListMultimap.Builder<Class<? extends SchemaSourceRepresentation>, AbstractSchemaSourceRegistration<?>> b = ImmutableListMultimap.builder();
+        if (current != null) {
+            for (Class<? extends SchemaSourceRepresentation> key : current.keySet()) {
+                if (!representation.equals(key)) {
+                    b.putAll(key, current.get(key));
+                }
             }
         }
+        b.putAll(representation, regs);
+        return b.build();
     }
 
     @Override
@@ -176,13 +196,13 @@ public abstract class AbstractSchemaRepository implements SchemaRepository, Sche
         final SchemaListenerRegistration ret = new AbstractSchemaListenerRegistration(listener) {
             @Override
             protected void removeRegistration() {
-                listeners.remove(this);
+                removeListener(this);
             }
         };
 
         synchronized (this) {
             final Collection<PotentialSchemaSource<?>> col = new ArrayList<>();
-            for (Multimap<Class<? extends SchemaSourceRepresentation>, AbstractSchemaSourceRegistration<?>> m : sources.values()) {
+            for (ImmutableListMultimap<Class<? extends SchemaSourceRepresentation>, AbstractSchemaSourceRegistration<?>> m : sources.values()) {
                 for (AbstractSchemaSourceRegistration<?> r : m.values()) {
                     col.add(r.getInstance());
                 }
@@ -196,6 +216,10 @@ public abstract class AbstractSchemaRepository implements SchemaRepository, Sche
         return ret;
     }
 
+    private synchronized void removeListener(final SchemaListenerRegistration reg) {
+        listeners.remove(reg);
+    }
+
     private static class SchemaProviderCostComparator implements Comparator<AbstractSchemaSourceRegistration<?>> {
         public static final SchemaProviderCostComparator INSTANCE = new SchemaProviderCostComparator();
 
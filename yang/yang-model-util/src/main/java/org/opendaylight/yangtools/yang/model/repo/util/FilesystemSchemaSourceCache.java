@@ -14,10 +14,12 @@ import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
+import com.google.common.io.ByteSource;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
@@ -35,8 +37,13 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import org.opendaylight.yangtools.util.concurrent.ExceptionMapper;
+import org.opendaylight.yangtools.util.concurrent.ReflectiveExceptionMapper;
 import org.opendaylight.yangtools.yang.model.repo.api.MissingSchemaSourceException;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceException;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceRepresentation;
@@ -48,11 +55,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Cache implementation that stores schemas in form of files under provided folder
+ * Cache implementation that stores schemas in form of files under provided folder. Sources are read from
+ * the files on an executor, which is specified when the cache is created, so that callers of
+ * {@link #getSource(SourceIdentifier)} need not block on file I/O. Reads do not lock the cache: files are written
+ * to a temporary file first and moved into place, so a file is never observed partially written.
  */
 public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentation> extends AbstractSchemaSourceCache<T> {
 
     private static final Logger LOG = LoggerFactory.getLogger(FilesystemSchemaSourceCache.class);
+    private static final ExceptionMapper<SchemaSourceException> RESTORE_MAPPER =
+            ReflectiveExceptionMapper.create("Schema source restore", SchemaSourceException.class);
+    private static final String TEMPORARY_SUFFIX = ".tmp";
 
     // Init storage adapters
     private static final Map<Class<? extends SchemaSourceRepresentation>, StorageAdapter<? extends SchemaSourceRepresentation>> STORAGE_ADAPTERS =
@@ -66,12 +79,34 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
 
     private final Class<T> representation;
     private final File storageDirectory;
+    private final Executor ioExecutor;
 
+    /**
+     * Create a new cache, which reads sources in the threads calling {@link #getSource(SourceIdentifier)}.
+     *
+     * @param consumer Registry to register cached sources with
+     * @param representation Cached source representation
+     * @param storageDirectory Directory to store sources in
+     */
     public FilesystemSchemaSourceCache(
             final SchemaSourceRegistry consumer, final Class<T> representation, final File storageDirectory) {
+        this(consumer, representation, storageDirectory, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Create a new cache, which reads sources on the specified executor.
+     *
+     * @param consumer Registry to register cached sources with
+     * @param representation Cached source representation
+     * @param storageDirectory Directory to store sources in
+     * @param ioExecutor Executor to read sources on
+     */
+    public FilesystemSchemaSourceCache(final SchemaSourceRegistry consumer, final Class<T> representation,
+            final File storageDirectory, final Executor ioExecutor) {
         super(consumer, representation, Costs.LOCAL_IO);
         this.representation = representation;
         this.storageDirectory = Preconditions.checkNotNull(storageDirectory);
+        this.ioExecutor = Preconditions.checkNotNull(ioExecutor);
 
         checkSupportedRepresentation(representation);
 
@@ -116,16 +151,41 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
     }
 
     @Override
-    public synchronized CheckedFuture<? extends T, SchemaSourceException> getSource(final SourceIdentifier sourceIdentifier) {
+    public CheckedFuture<? extends T, SchemaSourceException> getSource(final SourceIdentifier sourceIdentifier) {
+        final ListenableFutureTask<T> task = ListenableFutureTask.create(new Callable<T>() {
+            @Override
+            public T call() throws SchemaSourceException {
+                return restoreSource(sourceIdentifier);
+            }
+        });
+
+        try {
+            ioExecutor.execute(task);
+        } catch (final RejectedExecutionException e) {
+            LOG.debug("Failed to schedule restore of source {}", sourceIdentifier, e);
+            return Futures.immediateFailedCheckedFuture(new MissingSchemaSourceException("Source cannot be restored",
+                sourceIdentifier, e));
+        }
+
+        return Futures.makeChecked(task, RESTORE_MAPPER);
+    }
+
+    private T restoreSource(final SourceIdentifier sourceIdentifier) throws SchemaSourceException {
         final File file = sourceIdToFile(sourceIdentifier, storageDirectory);
         if (file.exists() && file.canRead()) {
             LOG.trace("Source {} found in cache as {}", sourceIdentifier, file);
-            final SchemaSourceRepresentation restored = STORAGE_ADAPTERS.get(representation).restore(sourceIdentifier, file);
-            return Futures.immediateCheckedFuture(representation.cast(restored));
+            final SchemaSourceRepresentation restored;
+            try {
+                restored = STORAGE_ADAPTERS.get(representation).restore(sourceIdentifier, file);
+            } catch (final IOException e) {
+                LOG.debug("Failed to read source {} from {}", sourceIdentifier, file, e);
+                throw new MissingSchemaSourceException("Source cannot be read", sourceIdentifier, e);
+            }
+            return representation.cast(restored);
         }
 
         LOG.debug("Source {} not found in cache as {}", sourceIdentifier, file);
-        return Futures.immediateFailedCheckedFuture(new MissingSchemaSourceException("Source not found", sourceIdentifier));
+        throw new MissingSchemaSourceException("Source not found", sourceIdentifier);
     }
 
     @Override
@@ -205,7 +265,24 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
     }
 
     private void storeSource(final File file, final T schemaRepresentation) {
-        STORAGE_ADAPTERS.get(representation).store(file, schemaRepresentation);
+        // Readers do not lock the cache, hence they must not observe a partially-written file
+        final File tmp;
+        try {
+            tmp = File.createTempFile(file.getName(), TEMPORARY_SUFFIX, storageDirectory);
+        } catch (final IOException e) {
+            throw new IllegalStateException("Cannot create temporary file for " + file, e);
+        }
+
+        try {
+            STORAGE_ADAPTERS.get(representation).store(tmp, schemaRepresentation);
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException e) {
+            throw new IllegalStateException("Cannot move " + tmp + " to " + file, e);
+        } finally {
+            if (tmp.exists() && !tmp.delete()) {
+                LOG.warn("Failed to delete temporary file {}", tmp);
+            }
+        }
     }
 
     private static abstract class StorageAdapter<T extends SchemaSourceRepresentation> {
@@ -226,14 +303,15 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
 
         protected abstract void storeAsType(final File file, final T cast);
 
-        public T restore(final SourceIdentifier sourceIdentifier, final File cachedSource) {
+        public T restore(final SourceIdentifier sourceIdentifier, final File cachedSource) throws IOException {
             Preconditions.checkArgument(cachedSource.isFile());
             Preconditions.checkArgument(cachedSource.exists());
             Preconditions.checkArgument(cachedSource.canRead());
             return restoreAsType(sourceIdentifier, cachedSource);
         }
 
-        protected abstract T restoreAsType(final SourceIdentifier sourceIdentifier, final File cachedSource);
+        protected abstract T restoreAsType(final SourceIdentifier sourceIdentifier, final File cachedSource)
+                throws IOException;
     }
 
     private static final class YangTextSchemaStorageAdapter extends StorageAdapter<YangTextSchemaSource> {
@@ -252,7 +330,10 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
         }
 
         @Override
-        public YangTextSchemaSource restoreAsType(final SourceIdentifier sourceIdentifier, final File cachedSource) {
+        public YangTextSchemaSource restoreAsType(final SourceIdentifier sourceIdentifier, final File cachedSource)
+                throws IOException {
+            // Read the file eagerly, so the I/O happens on the cache executor rather than in the consumer
+            final ByteSource content = ByteSource.wrap(Files.readAllBytes(cachedSource.toPath()));
             return new YangTextSchemaSource(sourceIdentifier) {
 
                 @Override
@@ -262,7 +343,7 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
 
                 @Override
                 public InputStream openStream() throws IOException {
-                    return new FileInputStream(cachedSource);
+                    return content.openStream();
                 }
             };
         }
@@ -275,6 +356,10 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
         public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
             final FileVisitResult fileVisitResult = super.visitFile(file, attrs);
             String fileName = file.toFile().getName();
+            if (fileName.endsWith(TEMPORARY_SUFFIX)) {
+                LOG.debug("Skipping temporary file {}", file);
+                return fileVisitResult;
+            }
             fileName = com.google.common.io.Files.getNameWithoutExtension(fileName);
 
             final Optional<SourceIdentifier> si = getSourceIdentifier(fileName);
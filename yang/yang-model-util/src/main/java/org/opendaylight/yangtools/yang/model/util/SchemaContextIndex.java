@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.util;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.concurrent.Immutable;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ExtensionDefinition;
+import org.opendaylight.yangtools.yang.model.api.GroupingDefinition;
+import org.opendaylight.yangtools.yang.model.api.IdentitySchemaNode;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.NotificationDefinition;
+import org.opendaylight.yangtools.yang.model.api.RpcDefinition;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaNode;
+import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.UnknownSchemaNode;
+
+/**
+ * Immutable aggregate views and lookup tables of a {@link SchemaContext}'s modules. {@link SchemaContext}
+ * implementations build this index once and serve their aggregate views and QName-based lookups from it, instead of
+ * iterating over all modules on each invocation.
+ */
+@Beta
+@Immutable
+public final class SchemaContextIndex {
+    private final Map<QNameModule, Module> modules;
+    private final Map<QName, DataSchemaNode> dataNodes;
+    private final Map<QName, RpcDefinition> operations;
+    private final Map<QName, NotificationDefinition> notifications;
+    private final Map<QName, IdentitySchemaNode> identities;
+    private final Set<DataSchemaNode> childNodes;
+    private final Set<RpcDefinition> operationSet;
+    private final Set<NotificationDefinition> notificationSet;
+    private final Set<ExtensionDefinition> extensions;
+    private final Set<GroupingDefinition> groupings;
+    private final Set<TypeDefinition<?>> typeDefinitions;
+    private final List<UnknownSchemaNode> unknownSchemaNodes;
+
+    private SchemaContextIndex(final Collection<Module> modules) {
+        final Map<QNameModule, Module> moduleMap = new HashMap<>();
+        final Map<QName, DataSchemaNode> dataMap = new HashMap<>();
+        final Map<QName, RpcDefinition> rpcMap = new HashMap<>();
+        final Map<QName, NotificationDefinition> notificationMap = new HashMap<>();
+        final Map<QName, IdentitySchemaNode> identityMap = new HashMap<>();
+        final ImmutableSet.Builder<DataSchemaNode> childBuilder = ImmutableSet.builder();
+        final ImmutableSet.Builder<RpcDefinition> rpcBuilder = ImmutableSet.builder();
+        final ImmutableSet.Builder<NotificationDefinition> notificationBuilder = ImmutableSet.builder();
+        final ImmutableSet.Builder<ExtensionDefinition> extensionBuilder = ImmutableSet.builder();
+        final ImmutableSet.Builder<GroupingDefinition> groupingBuilder = ImmutableSet.builder();
+        final ImmutableSet.Builder<TypeDefinition<?>> typeBuilder = ImmutableSet.builder();
+        final ImmutableList.Builder<UnknownSchemaNode> unknownBuilder = ImmutableList.builder();
+
+        for (Module m : modules) {
+            final QNameModule qnameModule = QNameModule.create(m.getNamespace(), m.getRevision());
+            if (!moduleMap.containsKey(qnameModule)) {
+                moduleMap.put(qnameModule, m);
+            }
+
+            indexNodes(dataMap, m.getChildNodes());
+            indexNodes(rpcMap, m.getRpcs());
+            indexNodes(notificationMap, m.getNotifications());
+            indexNodes(identityMap, m.getIdentities());
+
+            childBuilder.addAll(m.getChildNodes());
+            rpcBuilder.addAll(m.getRpcs());
+            notificationBuilder.addAll(m.getNotifications());
+            extensionBuilder.addAll(m.getExtensionSchemaNodes());
+            groupingBuilder.addAll(m.getGroupings());
+            typeBuilder.addAll(m.getTypeDefinitions());
+            unknownBuilder.addAll(m.getUnknownSchemaNodes());
+        }
+
+        this.modules = ImmutableMap.copyOf(moduleMap);
+        this.dataNodes = ImmutableMap.copyOf(dataMap);
+        this.operations = ImmutableMap.copyOf(rpcMap);
+        this.notifications = ImmutableMap.copyOf(notificationMap);
+        this.identities = ImmutableMap.copyOf(identityMap);
+        this.childNodes = childBuilder.build();
+        this.operationSet = rpcBuilder.build();
+        this.notificationSet = notificationBuilder.build();
+        this.extensions = extensionBuilder.build();
+        this.groupings = groupingBuilder.build();
+        this.typeDefinitions = typeBuilder.build();
+        this.unknownSchemaNodes = unknownBuilder.build();
+    }
+
+    /**
+     * Index a set of modules. When multiple nodes share the same QName, the one from the module encountered first
+     * is indexed.
+     *
+     * @param modules Modules to index, in lookup order
+     * @return A new index
+     */
+    public static SchemaContextIndex create(final Collection<Module> modules) {
+        return new SchemaContextIndex(modules);
+    }
+
+    private static <T extends SchemaNode> void indexNodes(final Map<QName, T> map, final Collection<T> nodes) {
+        for (T node : nodes) {
+            final QName qname = node.getQName();
+            if (qname != null && !map.containsKey(qname)) {
+                map.put(qname, node);
+            }
+        }
+    }
+
+    public Optional<Module> findModule(final QNameModule qnameModule) {
+        return Optional.fromNullable(modules.get(qnameModule));
+    }
+
+    public Optional<DataSchemaNode> findDataChild(final QName qname) {
+        return Optional.fromNullable(dataNodes.get(qname));
+    }
+
+    public Optional<RpcDefinition> findOperation(final QName qname) {
+        return Optional.fromNullable(operations.get(qname));
+    }
+
+    public Optional<NotificationDefinition> findNotification(final QName qname) {
+        return Optional.fromNullable(notifications.get(qname));
+    }
+
+    public Optional<IdentitySchemaNode> findIdentity(final QName qname) {
+        return Optional.fromNullable(identities.get(qname));
+    }
+
+    /**
+     * @return Top-level data nodes of all modules, in module order
+     */
+    public Set<DataSchemaNode> getChildNodes() {
+        return childNodes;
+    }
+
+    public Set<RpcDefinition> getOperations() {
+        return operationSet;
+    }
+
+    public Set<NotificationDefinition> getNotifications() {
+        return notificationSet;
+    }
+
+    public Set<ExtensionDefinition> getExtensions() {
+        return extensions;
+    }
+
+    public Set<GroupingDefinition> getGroupings() {
+        return groupings;
+    }
+
+    public Set<TypeDefinition<?>> getTypeDefinitions() {
+        return typeDefinitions;
+    }
+
+    public List<UnknownSchemaNode> getUnknownSchemaNodes() {
+        return unknownSchemaNodes;
+    }
+}
@@ -255,12 +255,13 @@ public final class SchemaContextUtil {
     @Nullable public static NotificationDefinition getNotificationSchema(@Nonnull final SchemaContext schema, @Nonnull final SchemaPath path) {
         Preconditions.checkNotNull(schema, "Schema context must not be null.");
         Preconditions.checkNotNull(path, "Schema path must not be null.");
-        for (final NotificationDefinition potential : schema.getNotifications()) {
-            if (path.equals(potential.getPath())) {
-               return potential;
-            }
+        final QName name = path.getLastComponent();
+        if (name == null) {
+            return null;
         }
-        return null;
+
+        final Optional<NotificationDefinition> potential = schema.findNotification(name);
+        return potential.isPresent() && path.equals(potential.get().getPath()) ? potential.get() : null;
     }
 
     /**
@@ -279,12 +280,8 @@ public final class SchemaContextUtil {
         final QName rpcName = it.next();
         Preconditions.checkArgument(it.hasNext(), "input or output must be part of path.");
         final QName inOrOut = it.next();
-        for (final RpcDefinition potential : schema.getOperations()) {
-            if (rpcName.equals(potential.getQName())) {
-               return SchemaNodeUtils.getRpcDataSchema(potential, inOrOut);
-            }
-        }
-        return null;
+        final Optional<RpcDefinition> potential = schema.findOperation(rpcName);
+        return potential.isPresent() ? SchemaNodeUtils.getRpcDataSchema(potential.get(), inOrOut) : null;
     }
 
     private static SchemaNode findNodeInModule(final Module module, final Iterable<QName> path) {
@@ -36,6 +36,8 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -220,6 +222,26 @@ public class FilesystemSchemaSourceCacheTest {
         checked.get();
     }
 
+    @Test
+    public void testRestoreOnExecutor() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final FilesystemSchemaSourceCache<YangTextSchemaSource> cache = new FilesystemSchemaSourceCache<>(
+                    this.registry, YangTextSchemaSource.class, this.storageDir, executor);
+            final String content = "content1";
+            cache.offer(new TestingYangSource("test", "2013-12-12", content));
+            // Sources are moved into place, no temporary files are left behind
+            assertEquals(1, getFilesFromCache().size());
+
+            final SourceIdentifier sourceIdentifier = RevisionSourceIdentifier.create("test", "2013-12-12");
+            final YangTextSchemaSource restored = cache.getSource(sourceIdentifier).checkedGet();
+            assertEquals(sourceIdentifier, restored.getIdentifier());
+            assertEquals(content, restored.asCharSource(StandardCharsets.UTF_8).read());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private List<File> getFilesFromCache() {
         return Arrays.asList(this.storageDir.listFiles());
     }
@@ -8,8 +8,9 @@
 package org.opendaylight.yangtools.yang.model.util;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
-import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 
@@ -33,6 +34,7 @@ import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.ExtensionDefinition;
 import org.opendaylight.yangtools.yang.model.api.GroupingDefinition;
+import org.opendaylight.yangtools.yang.model.api.IdentitySchemaNode;
 import org.opendaylight.yangtools.yang.model.api.Module;
 import org.opendaylight.yangtools.yang.model.api.ModuleImport;
 import org.opendaylight.yangtools.yang.model.api.NotificationDefinition;
@@ -557,12 +559,43 @@ public class SchemaContextProxyTest {
 
         final QName qName = QName.create("config-namespace", "2016-08-11", "cont");
         final ContainerSchemaNode mockedContainer = mock(ContainerSchemaNode.class);
-        doReturn(mockedContainer).when(moduleConfig).getDataChildByName(any(QName.class));
+        doReturn(qName).when(mockedContainer).getQName();
+        doReturn(Sets.newHashSet(mockedContainer)).when(moduleConfig).getChildNodes();
 
         final DataSchemaNode dataSchemaNode = filteringSchemaContextProxy.getDataChildByName(qName);
         assertTrue(dataSchemaNode instanceof ContainerSchemaNode);
     }
 
+    @Test
+    public void testFindIndexed() {
+        final Module moduleConfig = mockModule(CONFIG_NAME);
+        final SchemaContext schemaContext = mockSchema(moduleConfig);
+        final FilteringSchemaContextProxy filteringSchemaContextProxy = createProxySchemaCtx(schemaContext,
+                Sets.newHashSet(), moduleConfig);
+
+        final QName rpcName = QName.create(moduleConfig.getQNameModule(), "rpc");
+        final RpcDefinition mockedRpc = mock(RpcDefinition.class);
+        doReturn(rpcName).when(mockedRpc).getQName();
+        doReturn(Sets.newHashSet(mockedRpc)).when(moduleConfig).getRpcs();
+
+        final QName notificationName = QName.create(moduleConfig.getQNameModule(), "notification");
+        final NotificationDefinition mockedNotification = mock(NotificationDefinition.class);
+        doReturn(notificationName).when(mockedNotification).getQName();
+        doReturn(Sets.newHashSet(mockedNotification)).when(moduleConfig).getNotifications();
+
+        final QName identityName = QName.create(moduleConfig.getQNameModule(), "identity");
+        final IdentitySchemaNode mockedIdentity = mock(IdentitySchemaNode.class);
+        doReturn(identityName).when(mockedIdentity).getQName();
+        doReturn(Sets.newHashSet(mockedIdentity)).when(moduleConfig).getIdentities();
+
+        assertSame(moduleConfig, filteringSchemaContextProxy.findModule(moduleConfig.getQNameModule()).get());
+        assertSame(mockedRpc, filteringSchemaContextProxy.findOperation(rpcName).get());
+        assertSame(mockedNotification, filteringSchemaContextProxy.findNotification(notificationName).get());
+        assertSame(mockedIdentity, filteringSchemaContextProxy.findIdentity(identityName).get());
+        assertFalse(filteringSchemaContextProxy.findOperation(notificationName).isPresent());
+        assertFalse(filteringSchemaContextProxy.findModule(QNameModule.create(namespace, revision2)).isPresent());
+    }
+
     private static void assertProxyContext(final FilteringSchemaContextProxy filteringSchemaContextProxy, final Module... expected) {
 
         Set<Module> modSet = Sets.newHashSet();
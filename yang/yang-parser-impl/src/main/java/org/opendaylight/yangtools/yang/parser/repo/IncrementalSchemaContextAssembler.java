@@ -0,0 +1,402 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.repo;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multimap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.StatementContext;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.SimpleDateFormatUtil;
+import org.opendaylight.yangtools.yang.model.api.ModuleImport;
+import org.opendaylight.yangtools.yang.model.api.Rfc6020Mapping;
+import org.opendaylight.yangtools.yang.model.api.meta.DeclaredStatement;
+import org.opendaylight.yangtools.yang.model.api.meta.EffectiveStatement;
+import org.opendaylight.yangtools.yang.model.api.stmt.RevisionStatement;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaResolutionException;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.parser.impl.util.YangModelDependencyInfo;
+import org.opendaylight.yangtools.yang.parser.impl.util.YangModelDependencyInfo.SubmoduleDependencyInfo;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.Utils;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.effective.EffectiveSchemaContext;
+import org.opendaylight.yangtools.yang.parser.util.ASTSchemaSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Assembles schema contexts incrementally by interning effective statements of modules. Effective statements
+ * of a module are determined by the set of sources which can influence them: its dependencies, sources which augment
+ * it, deviate it or derive identities from it, and, recursively, sources influencing those. Once a module has been
+ * built, its effective statements are reused by every schema context assembled by this object whose sources
+ * influencing that module are the same, and only the remaining sources are processed by the reactor. This allows
+ * contexts of overlapping, but different, sets of sources to share their common modules.
+ *
+ * <p>Since a source can only refer to modules it imports, the influencing sources are computed from
+ * {@link YangModelDependencyInfo} and the prefixes of top-level augment, deviation and identity base statements,
+ * without the sources being processed. Modules which are not found are built by a reactor which is given only those
+ * modules and sources influencing them, hence their references to definitions in reused modules, like identities,
+ * point to equivalent instances built by that reactor rather than to the reused ones.
+ *
+ * <p>Interned statements are held weakly, so they are retained only as long as a schema context using them is
+ * reachable. The last assembled context is retained strongly, so that it can be reused even if its user has released
+ * it before requesting a context for a different set of sources.
+ */
+final class IncrementalSchemaContextAssembler {
+    /**
+     * Builds an effective schema context from a set of sources, whose dependencies are known to be satisfied.
+     */
+    interface Reactor {
+        EffectiveSchemaContext build(Collection<ASTSchemaSource> sources) throws SchemaResolutionException;
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(IncrementalSchemaContextAssembler.class);
+    private static final Splitter SLASH_SPLITTER = Splitter.on('/').omitEmptyStrings().trimResults();
+    private static final String AUGMENT = Rfc6020Mapping.AUGMENT.getStatementName().getLocalName();
+    private static final String BASE = Rfc6020Mapping.BASE.getStatementName().getLocalName();
+    private static final String DEVIATION = Rfc6020Mapping.DEVIATION.getStatementName().getLocalName();
+    private static final String IDENTITY = Rfc6020Mapping.IDENTITY.getStatementName().getLocalName();
+    private static final String IMPORT = Rfc6020Mapping.IMPORT.getStatementName().getLocalName();
+    private static final String PREFIX = Rfc6020Mapping.PREFIX.getStatementName().getLocalName();
+
+    private final Cache<ModuleKey, EffectiveStatement<?, ?>> modules = CacheBuilder.newBuilder().weakValues().build();
+    private final AtomicReference<EffectiveSchemaContext> lastContext = new AtomicReference<>();
+
+    /**
+     * Assemble a set of sources, whose dependencies are known to be satisfied.
+     *
+     * @param sources Sources to assemble
+     * @param isFeatureSupported Feature predicate the reactor uses
+     * @param reactor Reactor to process sources which need to be built
+     * @return Assembled schema context
+     * @throws SchemaResolutionException if the reactor fails to build the context
+     */
+    EffectiveSchemaContext assemble(final Collection<ASTSchemaSource> sources,
+            final Predicate<QName> isFeatureSupported, final Reactor reactor) throws SchemaResolutionException {
+        final Map<SourceIdentifier, SourceInfo> infos = new HashMap<>(sources.size());
+        final Map<SourceIdentifier, ASTSchemaSource> asts = new HashMap<>(sources.size());
+        for (ASTSchemaSource source : sources) {
+            final SourceInfo info = SourceInfo.of(source);
+            infos.put(info.getIdentifier(), info);
+            asts.put(info.getIdentifier(), source);
+        }
+
+        final Map<SourceIdentifier, Set<SourceIdentifier>> influencing = influencingSources(infos);
+        final Map<SourceIdentifier, ModuleKey> keys = new HashMap<>(infos.size());
+        for (Entry<SourceIdentifier, Set<SourceIdentifier>> e : influencing.entrySet()) {
+            keys.put(e.getKey(), new ModuleKey(e.getKey(), e.getValue(), isFeatureSupported));
+        }
+
+        final EffectiveSchemaContext result = assemble(keys, influencing, asts, reactor);
+        lastContext.set(result);
+        return result;
+    }
+
+    private EffectiveSchemaContext assemble(final Map<SourceIdentifier, ModuleKey> keys,
+            final Map<SourceIdentifier, Set<SourceIdentifier>> influencing,
+            final Map<SourceIdentifier, ASTSchemaSource> asts, final Reactor reactor) throws SchemaResolutionException {
+        final Map<SourceIdentifier, EffectiveStatement<?, ?>> roots = new HashMap<>(keys.size());
+        final Set<SourceIdentifier> required = new HashSet<>();
+        for (Entry<SourceIdentifier, ModuleKey> e : keys.entrySet()) {
+            final EffectiveStatement<?, ?> root = modules.getIfPresent(e.getValue());
+            if (root != null) {
+                roots.put(e.getKey(), root);
+            } else {
+                required.addAll(influencing.get(e.getKey()));
+            }
+        }
+
+        if (required.size() == asts.size()) {
+            LOG.debug("No modules can be reused, assembling all sources");
+            return intern(keys.keySet(), keys, reactor.build(asts.values()));
+        }
+
+        if (!required.isEmpty()) {
+            final List<ASTSchemaSource> reactorSources = new ArrayList<>(required.size());
+            for (SourceIdentifier id : required) {
+                reactorSources.add(asts.get(id));
+            }
+
+            // Every built source has all of its influencing sources in the reactor, hence all of them can be interned
+            final Map<SourceIdentifier, EffectiveStatement<?, ?>> built = indexRoots(reactor.build(reactorSources));
+            for (SourceIdentifier id : required) {
+                final EffectiveStatement<?, ?> root = built.get(id);
+                if (root == null) {
+                    LOG.debug("Statements of source {} not found, assembling all sources", id);
+                    return intern(keys.keySet(), keys, reactor.build(asts.values()));
+                }
+                if (!roots.containsKey(id)) {
+                    roots.put(id, intern(keys.get(id), root));
+                }
+            }
+        }
+
+        final List<DeclaredStatement<?>> rootDeclared = new ArrayList<>(roots.size());
+        final List<EffectiveStatement<?, ?>> rootEffective = new ArrayList<>(roots.size());
+        for (EffectiveStatement<?, ?> root : roots.values()) {
+            rootDeclared.add(root.getDeclared());
+            rootEffective.add(root);
+        }
+
+        LOG.debug("Processed {} sources to assemble {} sources", required.size(), asts.size());
+        return new EffectiveSchemaContext(rootDeclared, rootEffective);
+    }
+
+    private EffectiveSchemaContext intern(final Set<SourceIdentifier> ids, final Map<SourceIdentifier, ModuleKey> keys,
+            final EffectiveSchemaContext context) {
+        final Map<SourceIdentifier, EffectiveStatement<?, ?>> built = indexRoots(context);
+        for (SourceIdentifier id : ids) {
+            final EffectiveStatement<?, ?> root = built.get(id);
+            if (root != null) {
+                intern(keys.get(id), root);
+            }
+        }
+        return context;
+    }
+
+    private EffectiveStatement<?, ?> intern(final ModuleKey key, final EffectiveStatement<?, ?> root) {
+        final EffectiveStatement<?, ?> existing = modules.asMap().putIfAbsent(key, root);
+        return existing != null ? existing : root;
+    }
+
+    /**
+     * Compute the set of sources influencing effective statements of each source, including the source itself.
+     */
+    private static Map<SourceIdentifier, Set<SourceIdentifier>> influencingSources(
+            final Map<SourceIdentifier, SourceInfo> current) {
+        final Multimap<String, SourceIdentifier> byName = HashMultimap.create();
+        final Multimap<String, SourceIdentifier> contributors = HashMultimap.create();
+        for (SourceInfo info : current.values()) {
+            byName.put(info.getName(), info.getIdentifier());
+            for (String target : info.getTargets()) {
+                contributors.put(target, info.getIdentifier());
+            }
+        }
+
+        final Map<SourceIdentifier, Set<SourceIdentifier>> ret = new HashMap<>(current.size());
+        for (SourceIdentifier source : current.keySet()) {
+            final Set<SourceIdentifier> influencing = new HashSet<>();
+            influencing.add(source);
+
+            final Deque<SourceIdentifier> work = new ArrayDeque<>();
+            work.push(source);
+            while (!work.isEmpty()) {
+                final SourceInfo info = current.get(work.pop());
+                for (String dependency : info.getDependencies()) {
+                    for (SourceIdentifier id : byName.get(dependency)) {
+                        if (influencing.add(id)) {
+                            work.push(id);
+                        }
+                    }
+                }
+                for (SourceIdentifier id : contributors.get(info.getName())) {
+                    if (influencing.add(id)) {
+                        work.push(id);
+                    }
+                }
+            }
+
+            ret.put(source, ImmutableSet.copyOf(influencing));
+        }
+        return ret;
+    }
+
+    private static Map<SourceIdentifier, EffectiveStatement<?, ?>> indexRoots(final EffectiveSchemaContext context) {
+        final Map<SourceIdentifier, EffectiveStatement<?, ?>> ret = new HashMap<>();
+        for (EffectiveStatement<?, ?> root : context.getRootEffectiveStatements()) {
+            ret.put(identifierOf(root.getDeclared()), root);
+        }
+        return ret;
+    }
+
+    private static SourceIdentifier identifierOf(final DeclaredStatement<?> root) {
+        Date latest = null;
+        for (DeclaredStatement<?> stmt : root.declaredSubstatements()) {
+            if (stmt instanceof RevisionStatement) {
+                final Date date = ((RevisionStatement) stmt).getDate();
+                if (latest == null || date.after(latest)) {
+                    latest = date;
+                }
+            }
+        }
+
+        return RevisionSourceIdentifier.create(root.rawArgument(), latest == null ? Optional.<String>absent()
+                : Optional.of(SimpleDateFormatUtil.getRevisionFormat().format(latest)));
+    }
+
+    /**
+     * Key of interned effective statements of a module. Modules are equal if they come from the same source,
+     * are influenced by the same set of sources and are built with the same feature predicate.
+     */
+    private static final class ModuleKey {
+        private final SourceIdentifier identifier;
+        private final Set<SourceIdentifier> influencing;
+        private final Predicate<QName> isFeatureSupported;
+        private final int hashCode;
+
+        ModuleKey(final SourceIdentifier identifier, final Set<SourceIdentifier> influencing,
+                final Predicate<QName> isFeatureSupported) {
+            this.identifier = Preconditions.checkNotNull(identifier);
+            this.influencing = Preconditions.checkNotNull(influencing);
+            this.isFeatureSupported = Preconditions.checkNotNull(isFeatureSupported);
+            this.hashCode = Objects.hash(identifier, influencing, isFeatureSupported);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ModuleKey)) {
+                return false;
+            }
+            final ModuleKey other = (ModuleKey) obj;
+            return hashCode == other.hashCode && identifier.equals(other.identifier)
+                    && isFeatureSupported.equals(other.isFeatureSupported) && influencing.equals(other.influencing);
+        }
+    }
+
+    /**
+     * Information about a source needed to determine which sources are affected by a change.
+     */
+    private static final class SourceInfo {
+        private final SourceIdentifier identifier;
+        private final String name;
+        private final Set<String> dependencies;
+        private final Set<String> targets;
+
+        private SourceInfo(final SourceIdentifier identifier, final String name, final Set<String> dependencies,
+                final Set<String> targets) {
+            this.identifier = identifier;
+            this.name = name;
+            this.dependencies = dependencies;
+            this.targets = targets;
+        }
+
+        static SourceInfo of(final ASTSchemaSource source) {
+            final YangModelDependencyInfo depInfo = source.getDependencyInformation();
+
+            final ImmutableSet.Builder<String> dependencies = ImmutableSet.builder();
+            for (ModuleImport dependency : depInfo.getDependencies()) {
+                dependencies.add(dependency.getModuleName());
+            }
+
+            final ImmutableSet.Builder<String> targets = ImmutableSet.builder();
+            if (depInfo instanceof SubmoduleDependencyInfo) {
+                // A submodule is a part of its parent module, so they depend on each other
+                final String parent = ((SubmoduleDependencyInfo) depInfo).getParentModule();
+                dependencies.add(parent);
+                targets.add(parent);
+            }
+
+            final ParserRuleContext ast = source.getAST();
+            if (ast instanceof StatementContext) {
+                targets.addAll(contributionTargets((StatementContext) ast));
+            } else {
+                // Cannot tell, assume the source contributes to all of its dependencies
+                targets.addAll(dependencies.build());
+            }
+
+            final SourceIdentifier identifier = RevisionSourceIdentifier.create(depInfo.getName(),
+                Optional.fromNullable(depInfo.getFormattedRevision()));
+            return new SourceInfo(identifier, depInfo.getName(), dependencies.build(), targets.build());
+        }
+
+        /**
+         * Return names of imported modules, whose effective statements this source changes by augmenting them,
+         * deviating them or deriving identities from their identities.
+         */
+        private static Set<String> contributionTargets(final StatementContext root) {
+            final Map<String, String> prefixes = new HashMap<>();
+            final List<String> references = new ArrayList<>();
+            for (StatementContext stmt : root.statement()) {
+                final String keyword = stmt.keyword().getText();
+                if (IMPORT.equals(keyword)) {
+                    final String prefix = substatementArgument(stmt, PREFIX);
+                    if (prefix != null && stmt.argument() != null) {
+                        prefixes.put(prefix, Utils.stringFromStringContext(stmt.argument()));
+                    }
+                } else if (AUGMENT.equals(keyword) || DEVIATION.equals(keyword)) {
+                    if (stmt.argument() != null) {
+                        for (String step : SLASH_SPLITTER.split(Utils.stringFromStringContext(stmt.argument()))) {
+                            references.add(step);
+                        }
+                    }
+                } else if (IDENTITY.equals(keyword)) {
+                    for (StatementContext substmt : stmt.statement()) {
+                        if (BASE.equals(substmt.keyword().getText()) && substmt.argument() != null) {
+                            references.add(Utils.stringFromStringContext(substmt.argument()));
+                        }
+                    }
+                }
+            }
+
+            final Set<String> targets = new HashSet<>();
+            for (String reference : references) {
+                final int colon = reference.indexOf(':');
+                if (colon != -1) {
+                    final String module = prefixes.get(reference.substring(0, colon));
+                    if (module != null) {
+                        targets.add(module);
+                    }
+                }
+            }
+            return targets;
+        }
+
+        private static String substatementArgument(final StatementContext stmt, final String keyword) {
+            for (StatementContext substmt : stmt.statement()) {
+                if (keyword.equals(substmt.keyword().getText()) && substmt.argument() != null) {
+                    return Utils.stringFromStringContext(substmt.argument());
+                }
+            }
+            return null;
+        }
+
+        SourceIdentifier getIdentifier() {
+            return identifier;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        Set<String> getDependencies() {
+            return dependencies;
+        }
+
+        Set<String> getTargets() {
+            return targets;
+        }
+    }
+}
@@ -8,6 +8,7 @@
 package org.opendaylight.yangtools.yang.parser.repo;
 
 import com.google.common.base.Function;
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
 import com.google.common.cache.Cache;
@@ -19,14 +20,15 @@ import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.AsyncFunction;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.FutureFallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 import javax.annotation.Nullable;
 import org.antlr.v4.runtime.ParserRuleContext;
@@ -40,13 +42,17 @@ import org.opendaylight.yangtools.yang.model.repo.api.SchemaResolutionException;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceFilter;
 import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
 import org.opendaylight.yangtools.yang.model.repo.api.StatementParserMode;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
 import org.opendaylight.yangtools.yang.parser.impl.util.YangModelDependencyInfo;
 import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
 import org.opendaylight.yangtools.yang.parser.spi.source.SourceException;
 import org.opendaylight.yangtools.yang.parser.stmt.reactor.CrossSourceStatementReactor;
 import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
 import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementSourceImpl;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementTreeSource;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.effective.EffectiveSchemaContext;
 import org.opendaylight.yangtools.yang.parser.util.ASTSchemaSource;
+import org.opendaylight.yangtools.yang.parser.util.YangStatementTree;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -60,16 +66,32 @@ final class SharedSchemaContextFactory implements SchemaContextFactory {
             return repository.getSchemaSource(input, ASTSchemaSource.class);
         }
     };
+    private final Function<SourceIdentifier, ListenableFuture<YangTextSchemaSource>> requestTextSources = new Function<SourceIdentifier, ListenableFuture<YangTextSchemaSource>>() {
+        @Override
+        public ListenableFuture<YangTextSchemaSource> apply(final SourceIdentifier input) {
+            return repository.getSchemaSource(input, YangTextSchemaSource.class);
+        }
+    };
     private final Cache<Collection<SourceIdentifier>, SchemaContext> cache = CacheBuilder.newBuilder().weakValues().build();
     private final Cache<Collection<SourceIdentifier>, SchemaContext> semVerCache = CacheBuilder.newBuilder().weakValues().build();
     private final SharedSchemaRepository repository;
     // FIXME: ignored right now
     private final SchemaSourceFilter filter;
+    private final StatementTreeFileCache treeCache;
+    private final IncrementalSchemaContextAssembler incremental;
 
     // FIXME SchemaRepository should be the type for repository parameter instead of SharedSchemaRepository (final implementation)
     public SharedSchemaContextFactory(final SharedSchemaRepository repository, final SchemaSourceFilter filter) {
+        this(repository, filter, null, null);
+    }
+
+    SharedSchemaContextFactory(final SharedSchemaRepository repository, final SchemaSourceFilter filter,
+            @Nullable final StatementTreeFileCache treeCache,
+            @Nullable final IncrementalSchemaContextAssembler incremental) {
         this.repository = Preconditions.checkNotNull(repository);
         this.filter = Preconditions.checkNotNull(filter);
+        this.treeCache = treeCache;
+        this.incremental = incremental;
     }
 
     @Override
@@ -78,10 +100,11 @@ final class SharedSchemaContextFactory implements SchemaContextFactory {
             final java.util.function.Predicate<QName> isFeatureSupported) {
         return createSchemaContext(requiredSources,
                 statementParserMode == StatementParserMode.SEMVER_MODE ? this.semVerCache : this.cache,
-                new AssembleSources(isFeatureSupported, statementParserMode));
+                new AssembleSources(isFeatureSupported, statementParserMode,
+                    statementParserMode == StatementParserMode.DEFAULT_MODE ? incremental : null));
     }
 
-    private CheckedFuture<SchemaContext, SchemaResolutionException> createSchemaContext(final Collection<SourceIdentifier> requiredSources, final Cache<Collection<SourceIdentifier>, SchemaContext> cache, final AsyncFunction<List<ASTSchemaSource>, SchemaContext> assembleSources) {
+    private CheckedFuture<SchemaContext, SchemaResolutionException> createSchemaContext(final Collection<SourceIdentifier> requiredSources, final Cache<Collection<SourceIdentifier>, SchemaContext> cache, final AssembleSources assembleSources) {
         // Make sources unique
         final List<SourceIdentifier> uniqueSourceIdentifiers = deDuplicateSources(requiredSources);
 
@@ -91,16 +114,13 @@ final class SharedSchemaContextFactory implements SchemaContextFactory {
             return Futures.immediateCheckedFuture(existing);
         }
 
-        // Request all sources be loaded
-        ListenableFuture<List<ASTSchemaSource>> sf = Futures.allAsList(Collections2.transform(uniqueSourceIdentifiers, requestSources));
-
-        // Detect mismatch between requested Source IDs and IDs that are extracted from parsed source
-        // Also remove duplicates if present
-        // We are relying on preserved order of uniqueSourceIdentifiers as well as sf
-        sf = Futures.transform(sf, new SourceIdMismatchDetector(uniqueSourceIdentifiers));
-
-        // Assemble sources into a schema context
-        final ListenableFuture<SchemaContext> cf = Futures.transform(sf, assembleSources);
+        final ListenableFuture<SchemaContext> cf;
+        if (treeCache != null && assembleSources.supportsStatementTrees()) {
+            cf = assembleCachedSources(uniqueSourceIdentifiers, assembleSources);
+        } else {
+            // Assemble sources into a schema context
+            cf = Futures.transform(requestSources(uniqueSourceIdentifiers), assembleSources);
+        }
 
         // Populate cache when successful
         Futures.addCallback(cf, new FutureCallback<SchemaContext>() {
@@ -118,6 +138,86 @@ final class SharedSchemaContextFactory implements SchemaContextFactory {
         return Futures.makeChecked(cf, MAPPER);
     }
 
+    private ListenableFuture<List<ASTSchemaSource>> requestSources(final List<SourceIdentifier> sourceIdentifiers) {
+        // Request all sources be loaded
+        final ListenableFuture<List<ASTSchemaSource>> sf = Futures.allAsList(Collections2.transform(sourceIdentifiers, requestSources));
+
+        // Detect mismatch between requested Source IDs and IDs that are extracted from parsed source
+        // Also remove duplicates if present
+        // We are relying on preserved order of sourceIdentifiers as well as sf
+        return Futures.transform(sf, new SourceIdMismatchDetector(sourceIdentifiers));
+    }
+
+    /**
+     * Assemble sources using statement trees stored in {@link #treeCache}, so the sources do not need to be parsed.
+     * Text of the sources is used to look up the trees. If it is not available, or the tree of any source is not
+     * present in the cache, sources are parsed and assembled as usual and their trees are stored in the cache.
+     */
+    private ListenableFuture<SchemaContext> assembleCachedSources(final List<SourceIdentifier> sourceIdentifiers,
+            final AssembleSources assembleSources) {
+        final ListenableFuture<Map<SourceIdentifier, String>> keys = Futures.transform(
+            Futures.allAsList(Collections2.transform(sourceIdentifiers, requestTextSources)),
+            new AsyncFunction<List<YangTextSchemaSource>, Map<SourceIdentifier, String>>() {
+                @Override
+                public ListenableFuture<Map<SourceIdentifier, String>> apply(final List<YangTextSchemaSource> input)
+                        throws Exception {
+                    final Map<SourceIdentifier, String> ret = new LinkedHashMap<>();
+                    for (YangTextSchemaSource source : input) {
+                        ret.put(source.getIdentifier(), StatementTreeFileCache.computeKey(source));
+                    }
+                    return Futures.immediateFuture(ret);
+                }
+            });
+
+        return Futures.transform(Futures.withFallback(keys, new FutureFallback<Map<SourceIdentifier, String>>() {
+            @Override
+            public ListenableFuture<Map<SourceIdentifier, String>> create(final Throwable t) {
+                LOG.debug("Text of sources {} is not available, not using cache", sourceIdentifiers, t);
+                return Futures.immediateFuture(null);
+            }
+        }), new AsyncFunction<Map<SourceIdentifier, String>, SchemaContext>() {
+            @Override
+            public ListenableFuture<SchemaContext> apply(final Map<SourceIdentifier, String> input)
+                    throws SchemaResolutionException {
+                if (input == null) {
+                    return Futures.transform(requestSources(sourceIdentifiers), assembleSources);
+                }
+
+                final List<YangStatementTree> trees = new ArrayList<>(input.size());
+                for (String key : input.values()) {
+                    final Optional<YangStatementTree> tree = treeCache.read(key);
+                    if (!tree.isPresent()) {
+                        break;
+                    }
+                    trees.add(tree.get());
+                }
+                if (trees.size() == input.size()) {
+                    LOG.debug("Assembling sources {} from cached statement trees", sourceIdentifiers);
+                    return Futures.immediateFuture(assembleSources.assembleTrees(trees));
+                }
+
+                return Futures.transform(requestSources(sourceIdentifiers),
+                    new AsyncFunction<List<ASTSchemaSource>, SchemaContext>() {
+                        @Override
+                        public ListenableFuture<SchemaContext> apply(final List<ASTSchemaSource> sources)
+                                throws SchemaResolutionException {
+                            final SchemaContext schemaContext = assembleSources.assemble(sources);
+                            for (ASTSchemaSource source : sources) {
+                                final String key = input.get(source.getIdentifier());
+                                if (key != null) {
+                                    treeCache.write(key, source);
+                                } else {
+                                    LOG.debug("Not caching source {}, its text was not requested",
+                                        source.getIdentifier());
+                                }
+                            }
+                            return Futures.immediateFuture(schemaContext);
+                        }
+                    });
+            }
+        });
+    }
+
     /**
      * @return set (preserving ordering) from the input collection
      */
@@ -171,16 +271,20 @@ final class SharedSchemaContextFactory implements SchemaContextFactory {
         }
     }
 
-    private static final class AssembleSources implements AsyncFunction<List<ASTSchemaSource>, SchemaContext> {
+    private static final class AssembleSources implements AsyncFunction<List<ASTSchemaSource>, SchemaContext>,
+            IncrementalSchemaContextAssembler.Reactor {
 
         private final java.util.function.Predicate<QName> isFeatureSupported;
         private final StatementParserMode statementParserMode;
         private final Function<ASTSchemaSource, SourceIdentifier> getIdentifier;
+        private final IncrementalSchemaContextAssembler incremental;
 
         private AssembleSources(final java.util.function.Predicate<QName> isFeatureSupported,
-                final StatementParserMode statementParserMode) {
+                final StatementParserMode statementParserMode,
+                @Nullable final IncrementalSchemaContextAssembler incremental) {
             this.isFeatureSupported = Preconditions.checkNotNull(isFeatureSupported);
             this.statementParserMode = Preconditions.checkNotNull(statementParserMode);
+            this.incremental = incremental;
             switch (statementParserMode) {
             case SEMVER_MODE:
                 this.getIdentifier = ASTSchemaSource.GET_SEMVER_IDENTIFIER;
@@ -190,9 +294,18 @@ final class SharedSchemaContextFactory implements SchemaContextFactory {
             }
         }
 
+        boolean supportsStatementTrees() {
+            // Semantic version identifiers are derived from the AST, which is not available from the trees
+            return statementParserMode == StatementParserMode.DEFAULT_MODE;
+        }
+
         @Override
         public ListenableFuture<SchemaContext> apply(final List<ASTSchemaSource> sources) throws SchemaResolutionException,
                 SourceException, ReactorException {
+            return Futures.immediateCheckedFuture(assemble(sources));
+        }
+
+        SchemaContext assemble(final List<ASTSchemaSource> sources) throws SchemaResolutionException {
             final Map<SourceIdentifier, ASTSchemaSource> srcs = Maps.uniqueIndex(sources, getIdentifier);
             final Map<SourceIdentifier, YangModelDependencyInfo> deps =
                     Maps.transformValues(srcs, ASTSchemaSource.GET_DEPINFO);
@@ -207,26 +320,51 @@ final class SharedSchemaContextFactory implements SchemaContextFactory {
                         res.getResolvedSources(), res.getUnsatisfiedImports());
             }
 
-            final Map<SourceIdentifier, ParserRuleContext> asts = Maps.transformValues(srcs, ASTSchemaSource.GET_AST);
+            if (incremental != null) {
+                return incremental.assemble(srcs.values(), isFeatureSupported, this);
+            }
+            return build(srcs.values());
+        }
+
+        @Override
+        public EffectiveSchemaContext build(final Collection<ASTSchemaSource> sources)
+                throws SchemaResolutionException {
             final CrossSourceStatementReactor.BuildAction reactor =
                     YangInferencePipeline.RFC6020_REACTOR.newBuild(statementParserMode, isFeatureSupported);
 
-            for (final Entry<SourceIdentifier, ParserRuleContext> e : asts.entrySet()) {
-                final ParserRuleContext parserRuleCtx = e.getValue();
+            for (final ASTSchemaSource source : sources) {
+                final ParserRuleContext parserRuleCtx = source.getAST();
                 Preconditions.checkArgument(parserRuleCtx instanceof StatementContext,
-                        "Unsupported context class %s for source %s", parserRuleCtx.getClass(), e.getKey());
+                        "Unsupported context class %s for source %s", parserRuleCtx.getClass(), source.getIdentifier());
+
+                reactor.addSource(new YangStatementSourceImpl(getIdentifier.apply(source),
+                    (StatementContext) parserRuleCtx));
+            }
+
+            return buildEffective(reactor);
+        }
 
-                reactor.addSource(new YangStatementSourceImpl(e.getKey(), (StatementContext) parserRuleCtx));
+        /**
+         * Assemble sources from their statement trees. Trees do not carry dependency information, hence unsatisfied
+         * imports are reported by the reactor rather than by dependency resolution.
+         */
+        SchemaContext assembleTrees(final List<YangStatementTree> trees) throws SchemaResolutionException {
+            final CrossSourceStatementReactor.BuildAction reactor =
+                    YangInferencePipeline.RFC6020_REACTOR.newBuild(statementParserMode, isFeatureSupported);
+            for (final YangStatementTree tree : trees) {
+                reactor.addSource(new YangStatementTreeSource(tree));
             }
 
-            final SchemaContext schemaContext;
+            return buildEffective(reactor);
+        }
+
+        private static EffectiveSchemaContext buildEffective(final CrossSourceStatementReactor.BuildAction reactor)
+                throws SchemaResolutionException {
             try {
-                schemaContext = reactor.buildEffective();
+                return reactor.buildEffective();
             } catch (ReactorException ex) {
                 throw new SchemaResolutionException("Failed to resolve required models", ex.getSourceIdentifier(), ex);
             }
-
-            return Futures.immediateCheckedFuture(schemaContext);
         }
     }
 }
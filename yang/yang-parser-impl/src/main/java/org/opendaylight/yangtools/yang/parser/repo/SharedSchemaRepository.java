@@ -12,7 +12,8 @@ import com.google.common.base.Preconditions;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
-
+import java.io.File;
+import javax.annotation.Nullable;
 import org.opendaylight.yangtools.concepts.Identifiable;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaContextFactory;
@@ -34,13 +35,50 @@ public final class SharedSchemaRepository extends AbstractSchemaRepository imple
             CacheBuilder.newBuilder().softValues().build(new CacheLoader<SchemaSourceFilter, SchemaContextFactory>() {
                 @Override
                 public SchemaContextFactory load(final SchemaSourceFilter key) {
-                    return new SharedSchemaContextFactory(SharedSchemaRepository.this, key);
+                    return new SharedSchemaContextFactory(SharedSchemaRepository.this, key, treeCache,
+                        incremental);
                 }
             });
+    private final StatementTreeFileCache treeCache;
+    private final IncrementalSchemaContextAssembler incremental;
     private final String id;
 
     public SharedSchemaRepository(final String id) {
+        this(id, null, false);
+    }
+
+    /**
+     * Create a new repository, which persists parsed sources of schema contexts it assembles in the specified
+     * directory. When a schema context is requested for the same set of sources again, even after a restart, and
+     * none of the sources has changed, the sources are assembled from their parsed form instead of being parsed
+     * again. Sources are recognized by their text, hence this applies only to sources available as
+     * {@link org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource}.
+     *
+     * @param id Repository identifier
+     * @param cacheDirectory Directory to store parsed sources in. It is created if it does not exist.
+     * @throws IllegalArgumentException if the directory cannot be created or is not writable
+     */
+    public SharedSchemaRepository(final String id, final File cacheDirectory) {
+        this(id, Preconditions.checkNotNull(cacheDirectory), false);
+    }
+
+    /**
+     * Create a new repository, optionally persisting parsed sources as described in
+     * {@link #SharedSchemaRepository(String, File)} and optionally assembling schema contexts incrementally. In
+     * incremental mode effective statements of modules are shared between all schema contexts assembled by this
+     * repository, as long as the sources influencing a module, like its imports and modules augmenting it, are the
+     * same. When a context is requested for a set of sources which overlaps with sets requested before, only sources
+     * not found in any other context are processed, together with the sources influencing them.
+     *
+     * @param id Repository identifier
+     * @param cacheDirectory Directory to store parsed sources in, or null if parsed sources should not be stored
+     * @param incremental True if schema contexts should be assembled incrementally
+     * @throws IllegalArgumentException if the directory cannot be created or is not writable
+     */
+    public SharedSchemaRepository(final String id, @Nullable final File cacheDirectory, final boolean incremental) {
         this.id = Preconditions.checkNotNull(id);
+        this.treeCache = cacheDirectory == null ? null : new StatementTreeFileCache(cacheDirectory);
+        this.incremental = incremental ? new IncrementalSchemaContextAssembler() : null;
     }
 
     @Override
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.repo;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.hash.Hashing;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.StatementContext;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.parser.util.ASTSchemaSource;
+import org.opendaylight.yangtools.yang.parser.util.YangStatementTree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Filesystem cache of {@link YangStatementTree}s of individual sources. Each file holds the tree of one source and is
+ * named after the source and a digest of its text, hence a file is found only if the source has not changed since it
+ * has been written, and a schema context is assembled from the files of its sources. When the tree of a source is
+ * stored, files holding trees of previous versions of the same source are removed. Files are written into a temporary
+ * file first and moved into place, so concurrent readers never observe partially-written files.
+ *
+ * <p>Statement trees do not depend on supported features, hence the key does not include them. Features are applied
+ * when the trees are processed by the reactor.
+ */
+final class StatementTreeFileCache {
+    private static final Logger LOG = LoggerFactory.getLogger(StatementTreeFileCache.class);
+    private static final int MAGIC = 0x59414e47;
+    private static final int VERSION = 2;
+    private static final String SUFFIX = ".stmts";
+    // Length of a hex-encoded SHA-256 digest
+    private static final int DIGEST_LENGTH = 64;
+
+    private final File directory;
+
+    StatementTreeFileCache(final File directory) {
+        Preconditions.checkArgument(directory.exists() || directory.mkdirs(), "Failed to create %s", directory);
+        Preconditions.checkArgument(directory.isDirectory(), "%s is not a directory", directory);
+        Preconditions.checkArgument(directory.canWrite(), "%s is not writable", directory);
+        this.directory = directory;
+    }
+
+    /**
+     * Compute the cache key of a source. The key consists of the YANG file name of the source and a digest of its
+     * text.
+     *
+     * @param source YANG text source
+     * @return Cache key
+     * @throws IOException if the source cannot be read
+     */
+    static String computeKey(final YangTextSchemaSource source) throws IOException {
+        final String digest = Hashing.sha256().newHasher().putInt(VERSION)
+                .putBytes(source.hash(Hashing.sha256()).asBytes()).hash().toString();
+        return source.getIdentifier().toYangFilename() + '.' + digest;
+    }
+
+    Optional<YangStatementTree> read(final String key) {
+        final File file = new File(directory, key + SUFFIX);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                LOG.debug("Ignoring incompatible cache file {}", file);
+                return Optional.absent();
+            }
+
+            final YangStatementTree tree = YangStatementTree.readFrom(in);
+            LOG.debug("Loaded source {} from {}", tree.getSourceName(), file);
+            return Optional.of(tree);
+        } catch (FileNotFoundException e) {
+            LOG.debug("Cache file {} not found", file, e);
+            return Optional.absent();
+        } catch (IOException e) {
+            LOG.warn("Failed to read cache file {}, ignoring it", file, e);
+            return Optional.absent();
+        }
+    }
+
+    void write(final String key, final ASTSchemaSource source) {
+        final ParserRuleContext ast = source.getAST();
+        if (!(ast instanceof StatementContext)) {
+            LOG.debug("Not caching source {} due to unsupported context {}", key, ast.getClass());
+            return;
+        }
+        final YangStatementTree tree = YangStatementTree.create(source.getIdentifier().getName(),
+            (StatementContext) ast);
+
+        final File file = new File(directory, key + SUFFIX);
+        try {
+            final File tmp = File.createTempFile(key, null, directory);
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                        new FileOutputStream(tmp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    tree.writeTo(out);
+                }
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp.toPath());
+            }
+            LOG.debug("Stored source {} in {}", source.getIdentifier(), file);
+        } catch (IOException e) {
+            LOG.warn("Failed to write cache file {}", file, e);
+            return;
+        }
+
+        evictStale(key);
+    }
+
+    /**
+     * Remove files holding other versions of the source identified by a key.
+     */
+    private void evictStale(final String key) {
+        final String prefix = key.substring(0, key.length() - DIGEST_LENGTH);
+        final String current = key + SUFFIX;
+        final File[] stale = directory.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(final File dir, final String name) {
+                return name.startsWith(prefix) && name.endsWith(SUFFIX) && !name.equals(current)
+                        && name.length() == current.length();
+            }
+        });
+        if (stale == null) {
+            return;
+        }
+
+        for (File file : stale) {
+            try {
+                Files.deleteIfExists(file.toPath());
+                LOG.debug("Removed stale cache file {}", file);
+            } catch (IOException e) {
+                LOG.warn("Failed to remove stale cache file {}", file, e);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StatementTreeFileCache: " + directory;
+    }
+}
@@ -78,7 +78,20 @@ public final class YangTextSchemaContextResolver implements AutoCloseable, Schem
     }
 
     public static YangTextSchemaContextResolver create(final String name) {
-        final SharedSchemaRepository sharedRepo = new SharedSchemaRepository(name);
+        return create(name, false);
+    }
+
+    /**
+     * Create a new resolver. An incremental resolver reuses effective statements of modules which are not affected
+     * by sources registered or unregistered since the last schema context has been built, so that only the affected
+     * modules are processed when a new schema context is requested.
+     *
+     * @param name Resolver name
+     * @param incremental True if schema contexts should be built incrementally
+     * @return A new resolver
+     */
+    public static YangTextSchemaContextResolver create(final String name, final boolean incremental) {
+        final SharedSchemaRepository sharedRepo = new SharedSchemaRepository(name, null, incremental);
         return new YangTextSchemaContextResolver(sharedRepo, sharedRepo);
     }
 
@@ -13,7 +13,6 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -21,6 +20,10 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Predicate;
 import javax.annotation.Nonnull;
 import org.opendaylight.yangtools.yang.common.QName;
@@ -59,8 +62,13 @@ class BuildGlobalContext extends NamespaceStorageSupport implements NamespaceBeh
             .add(ModelProcessingPhase.SOURCE_LINKAGE).add(ModelProcessingPhase.STATEMENT_DEFINITION)
             .add(ModelProcessingPhase.FULL_DECLARATION).add(ModelProcessingPhase.EFFECTIVE_MODEL).build();
 
-    private final Map<QName, StatementDefinitionContext<?, ?, ?>> definitions = new HashMap<>();
-    private final Map<Class<?>, NamespaceBehaviourWithListeners<?, ?, ?>> supportedNamespaces = new HashMap<>();
+    /*
+     * Statement definitions and namespace behaviours are looked up by all sources, which may be loaded concurrently.
+     * Lookups of existing entries do not block, each namespace then guards its own storage and listeners.
+     */
+    private final ConcurrentMap<QName, StatementDefinitionContext<?, ?, ?>> definitions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, NamespaceBehaviourWithListeners<?, ?, ?>> supportedNamespaces =
+            new ConcurrentHashMap<>();
 
     private final Map<ModelProcessingPhase, StatementSupportBundle> supports;
     private final Set<SourceSpecificContext> sources = new HashSet<>();
@@ -70,6 +78,8 @@ class BuildGlobalContext extends NamespaceStorageSupport implements NamespaceBeh
 
     private final boolean enabledSemanticVersions;
 
+    private ForkJoinPool sourceLoadingPool;
+
     public BuildGlobalContext(final Map<ModelProcessingPhase, StatementSupportBundle> supports,
             StatementParserMode statementParserMode, final Predicate<QName> isFeatureSupported) {
         super();
@@ -101,6 +111,17 @@ class BuildGlobalContext extends NamespaceStorageSupport implements NamespaceBeh
         return enabledSemanticVersions;
     }
 
+    /**
+     * Enable loading of statements from individual sources in parallel. Phases up to and including
+     * {@link ModelProcessingPhase#FULL_DECLARATION} will have each source walked as a separate task in the specified
+     * pool. Inference actions are still executed serially once all sources have been loaded.
+     *
+     * @param pool Pool to use, null to load sources serially
+     */
+    void setSourceLoadingPool(final ForkJoinPool pool) {
+        this.sourceLoadingPool = pool;
+    }
+
     public StatementSupportBundle getSupportsForPhase(final ModelProcessingPhase currentPhase) {
         return supports.get(currentPhase);
     }
@@ -129,13 +150,19 @@ class BuildGlobalContext extends NamespaceStorageSupport implements NamespaceBeh
             final Class<N> type) {
         NamespaceBehaviourWithListeners<?, ?, ?> potential = supportedNamespaces.get(type);
         if (potential == null) {
-            NamespaceBehaviour<K, V, N> potentialRaw = supports.get(currentPhase).getNamespaceBehaviour(type);
-            if (potentialRaw != null) {
-                potential = createNamespaceContext(potentialRaw);
-                supportedNamespaces.put(type, potential);
-            } else {
-                throw new NamespaceNotAvailableException("Namespace " + type + " is not available in phase "
-                        + currentPhase);
+            // Creation is serialized, so a derived namespace is attached to its source namespace only once
+            synchronized (supportedNamespaces) {
+                potential = supportedNamespaces.get(type);
+                if (potential == null) {
+                    NamespaceBehaviour<K, V, N> potentialRaw = supports.get(currentPhase).getNamespaceBehaviour(type);
+                    if (potentialRaw != null) {
+                        potential = createNamespaceContext(potentialRaw);
+                        supportedNamespaces.put(type, potential);
+                    } else {
+                        throw new NamespaceNotAvailableException("Namespace " + type + " is not available in phase "
+                                + currentPhase);
+                    }
+                }
             }
         }
 
@@ -151,10 +178,11 @@ class BuildGlobalContext extends NamespaceStorageSupport implements NamespaceBeh
     private <K, V, N extends IdentifierNamespace<K, V>> NamespaceBehaviourWithListeners<K, V, N> createNamespaceContext(
             final NamespaceBehaviour<K, V, N> potentialRaw) {
         if (potentialRaw instanceof DerivedNamespaceBehaviour) {
+            final NamespaceBehaviourWithListeners derivedFrom = getNamespaceBehaviour(
+                    ((DerivedNamespaceBehaviour) potentialRaw).getDerivedFrom());
             VirtualNamespaceContext derivedContext = new VirtualNamespaceContext(
-                    (DerivedNamespaceBehaviour) potentialRaw);
-            getNamespaceBehaviour(((DerivedNamespaceBehaviour) potentialRaw).getDerivedFrom()).addDerivedNamespace(
-                    derivedContext);
+                    (DerivedNamespaceBehaviour) potentialRaw, derivedFrom);
+            derivedFrom.addDerivedNamespace(derivedContext);
             return derivedContext;
         }
         return new SimpleNamespaceContext<>(potentialRaw);
@@ -165,8 +193,11 @@ class BuildGlobalContext extends NamespaceStorageSupport implements NamespaceBeh
         if (potential == null) {
             StatementSupport<?, ?, ?> potentialRaw = supports.get(currentPhase).getStatementDefinition(name);
             if (potentialRaw != null) {
-                potential = new StatementDefinitionContext<>(potentialRaw);
-                definitions.put(name, potential);
+                final StatementDefinitionContext<?, ?, ?> created = new StatementDefinitionContext<>(potentialRaw);
+                potential = definitions.putIfAbsent(name, created);
+                if (potential == null) {
+                    potential = created;
+                }
             }
         }
         return potential;
@@ -231,6 +262,12 @@ class BuildGlobalContext extends NamespaceStorageSupport implements NamespaceBeh
 
     private void loadPhaseStatements() throws ReactorException {
         Preconditions.checkState(currentPhase != null);
+        if (sourceLoadingPool != null && sources.size() > 1
+                && currentPhase != ModelProcessingPhase.EFFECTIVE_MODEL) {
+            loadPhaseStatementsInParallel();
+            return;
+        }
+
         for (SourceSpecificContext source : sources) {
             try {
                 source.loadStatements();
@@ -241,6 +278,40 @@ class BuildGlobalContext extends NamespaceStorageSupport implements NamespaceBeh
         }
     }
 
+    private void loadPhaseStatementsInParallel() throws ReactorException {
+        final List<SourceSpecificContext> toLoad = ImmutableList.copyOf(sources);
+        final SourceException[] failures = new SourceException[toLoad.size()];
+        final List<ForkJoinTask<?>> tasks = new ArrayList<>(toLoad.size());
+
+        for (int i = 0; i < toLoad.size(); ++i) {
+            final SourceSpecificContext source = toLoad.get(i);
+            final int offset = i;
+            tasks.add(sourceLoadingPool.submit(() -> {
+                try {
+                    source.loadStatements();
+                } catch (SourceException ex) {
+                    failures[offset] = ex;
+                }
+            }));
+        }
+
+        // Wait for all tasks, so no source is being modified once we return
+        for (ForkJoinTask<?> task : tasks) {
+            task.quietlyJoin();
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+
+        // Report the same failure as serial loading would
+        for (int i = 0; i < failures.length; ++i) {
+            if (failures[i] != null) {
+                final SourceIdentifier sourceId = Utils.createSourceIdentifier(toLoad.get(i).getRoot());
+                throw new SomeModifiersUnresolvedException(currentPhase, sourceId, failures[i]);
+            }
+        }
+    }
+
     private SomeModifiersUnresolvedException addSourceExceptions(final List<SourceSpecificContext> sourcesToProgress) {
         boolean addedCause = false;
         SomeModifiersUnresolvedException buildFailure = null;
@@ -7,6 +7,7 @@
  */
 package org.opendaylight.yangtools.yang.parser.stmt.reactor;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.io.ByteSource;
 import java.io.IOException;
@@ -15,6 +16,7 @@ import java.util.Collection;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
@@ -116,6 +118,24 @@ public class CrossSourceStatementReactor {
             }
         }
 
+        /**
+         * Load statements from individual sources in parallel, using the common {@link ForkJoinPool}. The resulting
+         * model is the same as when sources are loaded serially.
+         */
+        public void enableParallelLoading() {
+            enableParallelLoading(ForkJoinPool.commonPool());
+        }
+
+        /**
+         * Load statements from individual sources in parallel, using specified {@link ForkJoinPool}. The resulting
+         * model is the same as when sources are loaded serially.
+         *
+         * @param pool Pool to execute loading tasks
+         */
+        public void enableParallelLoading(final ForkJoinPool pool) {
+            context.setSourceLoadingPool(Preconditions.checkNotNull(pool));
+        }
+
         /**
          * @throws org.opendaylight.yangtools.yang.parser.spi.source.SourceException
          * @throws ReactorException
@@ -7,10 +7,12 @@
  */
 package org.opendaylight.yangtools.yang.parser.stmt.reactor;
 
+import com.google.common.collect.ImmutableMap;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import javax.annotation.Nullable;
 import org.opendaylight.yangtools.yang.model.api.meta.IdentifierNamespace;
 import org.opendaylight.yangtools.yang.parser.spi.meta.NamespaceBehaviour;
 
@@ -42,24 +44,37 @@ abstract class NamespaceBehaviourWithListeners<K, V, N extends IdentifierNamespa
     }
 
     protected final NamespaceBehaviour<K, V, N> delegate;
+    /**
+     * Monitor guarding storage and listeners of this namespace, which may be accessed from multiple sources loaded
+     * concurrently. Derived namespaces share the monitor of the namespace they are derived from. Listeners are never
+     * triggered while it is held.
+     */
+    protected final Object lock;
     private final List<VirtualNamespaceContext<?, V, ?, K>> derivedNamespaces = new ArrayList<>();
 
 
-    protected NamespaceBehaviourWithListeners(final NamespaceBehaviour<K, V, N> delegate) {
+    protected NamespaceBehaviourWithListeners(final NamespaceBehaviour<K, V, N> delegate, final Object lock) {
         super(delegate.getIdentifier());
         this.delegate = delegate;
+        this.lock = lock;
+    }
+
+    protected NamespaceBehaviourWithListeners(final NamespaceBehaviour<K, V, N> delegate) {
+        this(delegate, new Object());
     }
 
     protected abstract void addListener(K key, ValueAddedListener<K> listener);
 
     protected abstract boolean isRequestedValue(ValueAddedListener<K> listener, NamespaceStorageNode storage, V value);
 
-    @Override
-    public abstract void addTo(final NamespaceStorageNode storage, final K key, final V value);
+    protected abstract Iterator<ValueAddedListener<K>> getMutableListeners(K key);
 
-    protected void notifyListeners(final NamespaceStorageNode storage, Iterator<ValueAddedListener<K>> keyListeners,
-            final V value) {
-        List<ValueAddedListener<K>> toNotify = new ArrayList<>();
+    /**
+     * Remove listeners interested in an added value and collect them for notification. Must be invoked while holding
+     * {@link #lock}.
+     */
+    protected void collectListeners(final NamespaceStorageNode storage, Iterator<ValueAddedListener<K>> keyListeners,
+            final V value, final List<ValueAddedListener<?>> toNotify) {
         while (keyListeners.hasNext()) {
             ValueAddedListener<K> listener = keyListeners.next();
             if (isRequestedValue(listener, storage, value)) {
@@ -67,32 +82,86 @@ abstract class NamespaceBehaviourWithListeners<K, V, N extends IdentifierNamespa
                 toNotify.add(listener);
             }
         }
-        for (ValueAddedListener<K> listener : toNotify) {
-            listener.trigger(value);
-        }
     }
 
-    protected void notifyDerivedNamespaces(final NamespaceStorageNode storage, final K key, final V value) {
+    /**
+     * Collect listeners of derived namespaces interested in an added value. Must be invoked while holding
+     * {@link #lock}, which is shared with the derived namespaces.
+     */
+    protected void collectDerivedListeners(final NamespaceStorageNode storage, final K key, final V value,
+            final List<ValueAddedListener<?>> toNotify) {
         for (VirtualNamespaceContext<?, V, ?, K> derived : derivedNamespaces) {
-            derived.addedToSourceNamespace(storage, key, value);
+            derived.addedToSourceNamespace(storage, key, value, toNotify);
+        }
+    }
+
+    /**
+     * Add a value to the storage and notify the listeners interested in it. The listeners are triggered after
+     * {@link #lock} has been released, so they are free to access any namespace.
+     */
+    @Override
+    public final void addTo(final NamespaceStorageNode storage, final K key, final V value) {
+        final List<ValueAddedListener<?>> toNotify = new ArrayList<>();
+        synchronized (lock) {
+            delegate.addTo(storage, key, value);
+            collectListeners(storage, getMutableListeners(key), value, toNotify);
+            collectDerivedListeners(storage, key, value, toNotify);
+        }
+
+        for (ValueAddedListener<?> listener : toNotify) {
+            listener.trigger(value);
         }
     }
 
     final void addValueListener(final ValueAddedListener<K> listener) {
-        addListener(listener.key, listener);
+        synchronized (lock) {
+            addListener(listener.key, listener);
+        }
+    }
+
+    /**
+     * Look up the value of a listener's key and register the listener if the value is not present yet. This is done
+     * atomically with respect to {@link #addTo(NamespaceStorageNode, Object, Object)}, so the listener is guaranteed
+     * to be notified if the value appears later.
+     *
+     * @param listener Listener to register
+     * @return Current value, or null if the listener has been registered
+     */
+    @Nullable
+    final V getFromOrAddValueListener(final ValueAddedListener<K> listener) {
+        synchronized (lock) {
+            final V potential = getFrom(listener.getCtxNode(), listener.getKey());
+            if (potential == null) {
+                addListener(listener.key, listener);
+            }
+            return potential;
+        }
     }
 
     final void addDerivedNamespace(VirtualNamespaceContext<?, V, ?, K> namespace) {
-        derivedNamespaces.add(namespace);
+        synchronized (lock) {
+            derivedNamespaces.add(namespace);
+        }
     }
 
     @Override
     public V getFrom(final NamespaceStorageNode storage, final K key) {
-        return delegate.getFrom(storage, key);
+        synchronized (lock) {
+            return delegate.getFrom(storage, key);
+        }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Local namespace storage is not thread-safe and may be populated by other sources while the caller iterates
+     * over it, hence this method returns an immutable snapshot taken under the namespace lock.
+     */
     @Override
     public Map<K, V> getAllFrom(final NamespaceStorageNode storage) {
-        return delegate.getAllFrom(storage);
+        synchronized (lock) {
+            final Map<K, V> potential = delegate.getAllFrom(storage);
+            return potential == null ? null : ImmutableMap.copyOf(potential);
+        }
     }
 }
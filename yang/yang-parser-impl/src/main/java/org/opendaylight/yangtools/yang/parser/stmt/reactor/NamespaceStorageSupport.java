@@ -11,6 +11,8 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.opendaylight.yangtools.yang.model.api.ModuleIdentifier;
 import org.opendaylight.yangtools.yang.model.api.meta.IdentifierNamespace;
 import org.opendaylight.yangtools.yang.parser.spi.meta.NamespaceBehaviour;
@@ -22,7 +24,11 @@ import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.Utils;
 
 abstract class NamespaceStorageSupport implements NamespaceStorageNode {
 
-    private final Map<Class<?>,Map<?,?>> namespaces = new HashMap<>();
+    /*
+     * Namespaces of a node may be populated concurrently by sources loaded in parallel, each local namespace is then
+     * guarded by the lock of its namespace behaviour.
+     */
+    private final ConcurrentMap<Class<?>,Map<?,?>> namespaces = new ConcurrentHashMap<>();
 
 
     @Override
@@ -105,13 +111,16 @@ abstract class NamespaceStorageSupport implements NamespaceStorageNode {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <K, V, N extends IdentifierNamespace<K, V>> void addToLocalStorage(final Class<N> type, final K key, final V value) {
-        @SuppressWarnings("unchecked")
         Map<K, V> localNamespace = (Map<K,V>) namespaces.get(type);
         if (localNamespace == null) {
             checkLocalNamespaceAllowed(type);
-            localNamespace = new HashMap<>();
-            namespaces.put(type, localNamespace);
+            final Map<K, V> created = new HashMap<>();
+            localNamespace = (Map<K, V>) namespaces.putIfAbsent(type, created);
+            if (localNamespace == null) {
+                localNamespace = created;
+            }
         }
         localNamespace.put(key,value);
         onNamespaceElementAdded(type,key,value);
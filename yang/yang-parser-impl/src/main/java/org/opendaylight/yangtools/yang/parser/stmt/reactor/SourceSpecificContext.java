@@ -14,6 +14,7 @@ import com.google.common.collect.Multimap;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -370,8 +371,10 @@ public class SourceSpecificContext implements NamespaceStorageNode, NamespaceBeh
     }
 
     private PrefixToModule prefixes() {
-        final Map<String, ModuleIdentifier> allPrefixes = getRoot().getAllFromNamespace(ImpPrefixToModuleIdentifier
+        final Map<String, ModuleIdentifier> importPrefixes = getRoot().getAllFromNamespace(ImpPrefixToModuleIdentifier
                 .class);
+        // Namespace contents are immutable snapshots
+        final Map<String, ModuleIdentifier> allPrefixes = new HashMap<>(importPrefixes);
         final Map<String, ModuleIdentifier> belongsToPrefixes = getRoot().getAllFromNamespace
                 (BelongsToPrefixToModuleIdentifier.class);
         if (belongsToPrefixes != null) {
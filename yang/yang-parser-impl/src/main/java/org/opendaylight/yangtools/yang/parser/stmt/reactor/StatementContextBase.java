@@ -491,24 +491,29 @@ public abstract class StatementContextBase<A, D extends DeclaredStatement<A>, E
 
     <K, V, N extends IdentifierNamespace<K, V>> void onNamespaceItemAddedAction(final Class<N> type, final K key,
             final OnNamespaceItemAdded listener) throws SourceException {
-        final Object potential = getFromNamespace(type, key);
-        if (potential != null) {
-            listener.namespaceItemAdded(this, type, key, potential);
+        final NamespaceBehaviour<K, V, N> behaviour = getBehaviourRegistry().getNamespaceBehaviour(type);
+        if (!(behaviour instanceof NamespaceBehaviourWithListeners)) {
+            final Object potential = getFromNamespace(type, key);
+            if (potential != null) {
+                listener.namespaceItemAdded(this, type, key, potential);
+            }
             return;
         }
-        final NamespaceBehaviour<K, V, N> behaviour = getBehaviourRegistry().getNamespaceBehaviour(type);
-        if (behaviour instanceof NamespaceBehaviourWithListeners) {
-            final NamespaceBehaviourWithListeners<K, V, N> casted = (NamespaceBehaviourWithListeners<K, V, N>) behaviour;
-            casted.addValueListener(new ValueAddedListener<K>(this, key) {
-                @Override
-                void onValueAdded(final Object key, final Object value) {
-                    try {
-                        listener.namespaceItemAdded(StatementContextBase.this, type, key, value);
-                    } catch (final SourceException e) {
-                        throw Throwables.propagate(e);
-                    }
+
+        // Lookup and registration need to be atomic, as the value may be added by a source loaded concurrently
+        final NamespaceBehaviourWithListeners<K, V, N> casted = (NamespaceBehaviourWithListeners<K, V, N>) behaviour;
+        final Object potential = casted.getFromOrAddValueListener(new ValueAddedListener<K>(this, key) {
+            @Override
+            void onValueAdded(final Object key, final Object value) {
+                try {
+                    listener.namespaceItemAdded(StatementContextBase.this, type, key, value);
+                } catch (final SourceException e) {
+                    throw Throwables.propagate(e);
                 }
-            });
+            }
+        });
+        if (potential != null) {
+            listener.namespaceItemAdded(this, type, key, potential);
         }
     }
 
@@ -540,15 +545,15 @@ public abstract class StatementContextBase<A, D extends DeclaredStatement<A>, E
         Preconditions.checkNotNull(listener, "Statement context phase listener cannot be null at: %s",
                 getStatementSourceReference());
 
-        ModelProcessingPhase finishedPhase = completedPhase;
-        while (finishedPhase != null) {
-            if (phase.equals(finishedPhase)) {
-                listener.phaseFinished(this, finishedPhase);
+        // Listeners may be registered by other sources, which may be loaded concurrently. The listener is invoked
+        // outside of the monitor, as it may access other statements.
+        synchronized (phaseListeners) {
+            if (!isPhaseCompleted(phase)) {
+                phaseListeners.put(phase, listener);
                 return;
             }
-            finishedPhase = finishedPhase.getPreviousPhase();
         }
-        phaseListeners.put(phase, listener);
+        listener.phaseFinished(this, phase);
     }
 
     /**
@@ -558,15 +563,25 @@ public abstract class StatementContextBase<A, D extends DeclaredStatement<A>, E
      *             when the mutation was registered after phase was completed
      */
     void addMutation(final ModelProcessingPhase phase, final ContextMutation mutation) {
+        // Mutations may be registered by other sources, which may be loaded concurrently
+        synchronized (phaseMutation) {
+            if (isPhaseCompleted(phase)) {
+                throw new IllegalStateException("Mutation registered after phase was completed at: "  +
+                        getStatementSourceReference());
+            }
+            phaseMutation.put(phase, mutation);
+        }
+    }
+
+    private boolean isPhaseCompleted(final ModelProcessingPhase phase) {
         ModelProcessingPhase finishedPhase = completedPhase;
         while (finishedPhase != null) {
             if (phase.equals(finishedPhase)) {
-                throw new IllegalStateException("Mutation registered after phase was completed at: "  +
-                        getStatementSourceReference());
+                return true;
             }
             finishedPhase = finishedPhase.getPreviousPhase();
         }
-        phaseMutation.put(phase, mutation);
+        return false;
     }
 
     /**
@@ -9,6 +9,8 @@ package org.opendaylight.yangtools.yang.parser.stmt.reactor;
 
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
+import java.util.Iterator;
+import java.util.List;
 import org.opendaylight.yangtools.yang.model.api.meta.IdentifierNamespace;
 import org.opendaylight.yangtools.yang.parser.spi.meta.DerivedNamespaceBehaviour;
 import org.opendaylight.yangtools.yang.parser.spi.meta.NamespaceBehaviour;
@@ -19,8 +21,9 @@ final class VirtualNamespaceContext<K, V, N extends IdentifierNamespace<K, V>, D
     private final Multimap<DK, NamespaceBehaviourWithListeners.ValueAddedListener<K>> listeners = HashMultimap.create();
     private final DerivedNamespaceBehaviour<K, V, DK, N, ?> derivedDelegate;
 
-    public VirtualNamespaceContext(DerivedNamespaceBehaviour<K, V, DK, N, ?> delegate) {
-        super(delegate);
+    public VirtualNamespaceContext(DerivedNamespaceBehaviour<K, V, DK, N, ?> delegate,
+            final NamespaceBehaviourWithListeners<DK, V, ?> derivedFrom) {
+        super(delegate, derivedFrom.lock);
         this.derivedDelegate = delegate;
     }
 
@@ -34,14 +37,17 @@ final class VirtualNamespaceContext<K, V, N extends IdentifierNamespace<K, V>, D
     }
 
 
-    void addedToSourceNamespace(NamespaceBehaviour.NamespaceStorageNode storage, DK key, V value) {
-        notifyListeners(storage, listeners.get(key).iterator(), value);
+    @Override
+    protected Iterator<NamespaceBehaviourWithListeners.ValueAddedListener<K>> getMutableListeners(K key) {
+        return listeners.get(derivedDelegate.getSignificantKey(key)).iterator();
     }
 
-    @Override
-    public void addTo(final NamespaceStorageNode storage, final K key, final V value) {
-        delegate.addTo(storage, key, value);
-        notifyListeners(storage, listeners.get(derivedDelegate.getSignificantKey(key)).iterator(), value);
-        notifyDerivedNamespaces(storage, key, value);
+    /**
+     * Collect listeners interested in a value added to the source namespace. Invoked by the source namespace while
+     * holding its lock, which this namespace shares.
+     */
+    void addedToSourceNamespace(NamespaceBehaviour.NamespaceStorageNode storage, DK key, V value,
+            List<NamespaceBehaviourWithListeners.ValueAddedListener<?>> toNotify) {
+        collectListeners(storage, listeners.get(key).iterator(), value, toNotify);
     }
 }
\ No newline at end of file
@@ -130,15 +130,32 @@ public final class GroupingUtils {
     private static final Set<Rfc6020Mapping> TOP_REUSED_DEF_SET = ImmutableSet.of(Rfc6020Mapping.TYPEDEF,
             Rfc6020Mapping.TYPE);
 
+    /**
+     * Statements whose effective form depends only on their argument and substatements, but not on the namespace
+     * or the schema path of their parent. They are shared by all instantiations of a node instead of being copied,
+     * so that all of them end up with the same effective statement. Statements carrying QName arguments, like
+     * if-feature or key, are not part of this set, as their arguments are rebound to the target namespace on copy.
+     */
+    private static final Set<Rfc6020Mapping> SHARED_DEF_SET = ImmutableSet.of(Rfc6020Mapping.CONFIG,
+            Rfc6020Mapping.DEFAULT, Rfc6020Mapping.DESCRIPTION, Rfc6020Mapping.MANDATORY, Rfc6020Mapping.MAX_ELEMENTS,
+            Rfc6020Mapping.MIN_ELEMENTS, Rfc6020Mapping.MUST, Rfc6020Mapping.ORDERED_BY, Rfc6020Mapping.PRESENCE,
+            Rfc6020Mapping.REFERENCE, Rfc6020Mapping.STATUS, Rfc6020Mapping.UNITS, Rfc6020Mapping.WHEN);
+
     public static boolean needToCopyByUses(final StmtContext<?, ?, ?> stmtContext) {
         final StatementDefinition def = stmtContext.getPublicDefinition();
 
-        return !(NOCOPY_DEF_SET.contains(def) || (NOCOPY_FROM_GROUPING_SET.contains(def) && Rfc6020Mapping.GROUPING
-                .equals(stmtContext.getParentContext().getPublicDefinition())));
+        return !(NOCOPY_DEF_SET.contains(def) || SHARED_DEF_SET.contains(def) || isOwnedByGrouping(stmtContext));
     }
 
     public static boolean isReusedByUses(final StmtContext<?, ?, ?> stmtContext) {
-        return REUSED_DEF_SET.contains(stmtContext.getPublicDefinition());
+        final StatementDefinition def = stmtContext.getPublicDefinition();
+
+        return REUSED_DEF_SET.contains(def) || (SHARED_DEF_SET.contains(def) && !isOwnedByGrouping(stmtContext));
+    }
+
+    private static boolean isOwnedByGrouping(final StmtContext<?, ?, ?> stmtContext) {
+        return NOCOPY_FROM_GROUPING_SET.contains(stmtContext.getPublicDefinition())
+                && Rfc6020Mapping.GROUPING.equals(stmtContext.getParentContext().getPublicDefinition());
     }
 
     public static boolean isReusedByUsesOnTop(final StmtContext<?, ?, ?> stmtContext) {
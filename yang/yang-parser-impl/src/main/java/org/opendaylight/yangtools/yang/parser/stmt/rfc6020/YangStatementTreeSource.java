@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.stmt.rfc6020;
+
+import com.google.common.base.Preconditions;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.YangConstants;
+import org.opendaylight.yangtools.yang.model.api.Rfc6020Mapping;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ModelProcessingPhase;
+import org.opendaylight.yangtools.yang.parser.spi.source.DeclarationInTextSource;
+import org.opendaylight.yangtools.yang.parser.spi.source.PrefixToModule;
+import org.opendaylight.yangtools.yang.parser.spi.source.QNameToStatementDefinition;
+import org.opendaylight.yangtools.yang.parser.spi.source.SourceException;
+import org.opendaylight.yangtools.yang.parser.spi.source.StatementSourceReference;
+import org.opendaylight.yangtools.yang.parser.spi.source.StatementStreamSource;
+import org.opendaylight.yangtools.yang.parser.spi.source.StatementWriter;
+import org.opendaylight.yangtools.yang.parser.util.YangStatementTree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class represents implementation of StatementStreamSource which emits YANG statements from a
+ * {@link YangStatementTree}. It produces the same statements as {@link YangStatementSourceImpl} does for the source
+ * the tree was created from, without requiring the source to be parsed again.
+ */
+public final class YangStatementTreeSource implements StatementStreamSource {
+    private static final Logger LOG = LoggerFactory.getLogger(YangStatementTreeSource.class);
+
+    private final YangStatementTree tree;
+
+    public YangStatementTreeSource(final YangStatementTree tree) {
+        this.tree = Preconditions.checkNotNull(tree);
+    }
+
+    @Override
+    public void writePreLinkage(final StatementWriter writer, final QNameToStatementDefinition stmtDef) {
+        writeStatements(writer, stmtDef, null);
+    }
+
+    @Override
+    public void writeLinkage(final StatementWriter writer, final QNameToStatementDefinition stmtDef,
+            final PrefixToModule preLinkagePrefixes) {
+        writeStatements(writer, stmtDef, preLinkagePrefixes);
+    }
+
+    @Override
+    public void writeLinkageAndStatementDefinitions(final StatementWriter writer,
+            final QNameToStatementDefinition stmtDef, final PrefixToModule prefixes) {
+        writeStatements(writer, stmtDef, prefixes);
+    }
+
+    @Override
+    public void writeFull(final StatementWriter writer, final QNameToStatementDefinition stmtDef,
+            final PrefixToModule prefixes) {
+        writeStatements(writer, stmtDef, prefixes);
+    }
+
+    private void writeStatements(final StatementWriter writer, final QNameToStatementDefinition stmtDef,
+            final PrefixToModule prefixes) {
+        int statement = 0;
+        while (statement < tree.size()) {
+            statement = writeStatement(writer, stmtDef, prefixes, statement);
+        }
+    }
+
+    private int writeStatement(final StatementWriter writer, final QNameToStatementDefinition stmtDef,
+            final PrefixToModule prefixes, final int statement) {
+        final StatementSourceReference ref = DeclarationInTextSource.atPosition(tree.getSourceName(),
+            tree.getLine(statement), tree.getColumn(statement));
+        final QName identifier = QName.create(YangConstants.RFC6020_YIN_MODULE, tree.getKeyword(statement));
+        final QName validStatementDefinition = Utils.getValidStatementDefinition(prefixes, stmtDef, identifier);
+        final int end = tree.getEnd(statement);
+        if (validStatementDefinition == null) {
+            // Skip the statement along with all of its substatements
+            Preconditions.checkArgument(writer.getPhase() != ModelProcessingPhase.FULL_DECLARATION,
+                    "%s is not a YANG statement or use of extension. Source: %s", identifier.getLocalName(), ref);
+            return end;
+        }
+
+        final String argument = tree.getArgument(statement);
+        // FIXME: Refactor/clean up this special case, shared with YangStatementParserListenerImpl
+        if (identifier.equals(Rfc6020Mapping.TYPE.getStatementName())) {
+            Preconditions.checkArgument(argument != null);
+            if (TypeUtils.isYangTypeBodyStmtString(argument)) {
+                writer.startStatement(QName.create(YangConstants.RFC6020_YIN_MODULE, argument), ref);
+            } else {
+                writer.startStatement(Rfc6020Mapping.TYPE.getStatementName(), ref);
+            }
+            writer.argumentValue(argument, ref);
+        } else {
+            writer.startStatement(validStatementDefinition, ref);
+            if (argument != null) {
+                writer.argumentValue(argument, ref);
+            }
+        }
+
+        int child = statement + 1;
+        while (child < end) {
+            child = writeStatement(writer, stmtDef, prefixes, child);
+        }
+
+        try {
+            writer.endStatement(ref);
+        } catch (SourceException e) {
+            LOG.warn(e.getMessage(), e);
+        }
+        return end;
+    }
+
+    @Override
+    public String toString() {
+        return tree.getSourceName();
+    }
+}
@@ -9,25 +9,25 @@ package org.opendaylight.yangtools.yang.parser.stmt.rfc6020.effective;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Supplier;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.SetMultimap;
 import java.net.URI;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
-import java.util.HashSet;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableSet;
 import java.util.Set;
 import java.util.TreeSet;
 import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
 import org.opendaylight.yangtools.yang.model.api.AugmentationSchema;
 import org.opendaylight.yangtools.yang.model.api.ConstraintDefinition;
 import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.ExtensionDefinition;
 import org.opendaylight.yangtools.yang.model.api.GroupingDefinition;
+import org.opendaylight.yangtools.yang.model.api.IdentitySchemaNode;
 import org.opendaylight.yangtools.yang.model.api.Module;
 import org.opendaylight.yangtools.yang.model.api.ModuleIdentifier;
 import org.opendaylight.yangtools.yang.model.api.NotificationDefinition;
@@ -38,6 +38,7 @@ import org.opendaylight.yangtools.yang.model.api.Status;
 import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.UnknownSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.UsesNode;
+import org.opendaylight.yangtools.yang.model.util.SchemaContextIndex;
 
 abstract class AbstractEffectiveSchemaContext implements SchemaContext {
 
@@ -59,6 +60,8 @@ abstract class AbstractEffectiveSchemaContext implements SchemaContext {
         }
     };
 
+    private volatile SchemaContextIndex index;
+
     /**
      * @return yang sources where key is ModuleIdentifier
      */
@@ -74,40 +77,37 @@ abstract class AbstractEffectiveSchemaContext implements SchemaContext {
      */
     protected abstract SetMultimap<String, Module> getNameToModules();
 
+    /**
+     * @return Index of this context's modules, built on first access
+     */
+    protected final SchemaContextIndex getIndex() {
+        SchemaContextIndex ret = index;
+        if (ret == null) {
+            // Benign race: the index is immutable and can be built multiple times
+            ret = SchemaContextIndex.create(getModules());
+            index = ret;
+        }
+        return ret;
+    }
+
     @Override
     public Set<DataSchemaNode> getDataDefinitions() {
-        final Set<DataSchemaNode> dataDefs = new HashSet<>();
-        for (Module m : getModules()) {
-            dataDefs.addAll(m.getChildNodes());
-        }
-        return dataDefs;
+        return getIndex().getChildNodes();
     }
 
     @Override
     public Set<NotificationDefinition> getNotifications() {
-        final Set<NotificationDefinition> notifications = new HashSet<>();
-        for (Module m : getModules()) {
-            notifications.addAll(m.getNotifications());
-        }
-        return notifications;
+        return getIndex().getNotifications();
     }
 
     @Override
     public Set<RpcDefinition> getOperations() {
-        final Set<RpcDefinition> rpcs = new HashSet<>();
-        for (Module m : getModules()) {
-            rpcs.addAll(m.getRpcs());
-        }
-        return rpcs;
+        return getIndex().getOperations();
     }
 
     @Override
     public Set<ExtensionDefinition> getExtensions() {
-        final Set<ExtensionDefinition> extensions = new HashSet<>();
-        for (Module m : getModules()) {
-            extensions.addAll(m.getExtensionSchemaNodes());
-        }
-        return extensions;
+        return getIndex().getExtensions();
     }
 
     @Override
@@ -133,12 +133,12 @@ abstract class AbstractEffectiveSchemaContext implements SchemaContext {
         if (namespace == null) {
             return null;
         }
-        for (Module module : findModuleByNamespace(namespace)) {
-            if (revision == null || revision.equals(module.getRevision())) {
-                return module;
-            }
+        if (revision != null) {
+            return getIndex().findModule(QNameModule.create(namespace, revision)).orNull();
         }
-        return null;
+
+        // Modules are ordered by descending revision
+        return Iterables.getFirst(findModuleByNamespace(namespace), null);
     }
 
     @Override
@@ -188,49 +188,27 @@ abstract class AbstractEffectiveSchemaContext implements SchemaContext {
 
     @Override
     public List<UnknownSchemaNode> getUnknownSchemaNodes() {
-        final List<UnknownSchemaNode> result = new ArrayList<>();
-        for (Module module : getModules()) {
-            result.addAll(module.getUnknownSchemaNodes());
-        }
-        return Collections.unmodifiableList(result);
+        return getIndex().getUnknownSchemaNodes();
     }
 
     @Override
     public Set<TypeDefinition<?>> getTypeDefinitions() {
-        final Set<TypeDefinition<?>> result = new LinkedHashSet<>();
-        for (Module module : getModules()) {
-            result.addAll(module.getTypeDefinitions());
-        }
-        return Collections.unmodifiableSet(result);
+        return getIndex().getTypeDefinitions();
     }
 
     @Override
     public Set<DataSchemaNode> getChildNodes() {
-        final Set<DataSchemaNode> result = new LinkedHashSet<>();
-        for (Module module : getModules()) {
-            result.addAll(module.getChildNodes());
-        }
-        return Collections.unmodifiableSet(result);
+        return getIndex().getChildNodes();
     }
 
     @Override
     public Set<GroupingDefinition> getGroupings() {
-        final Set<GroupingDefinition> result = new LinkedHashSet<>();
-        for (Module module : getModules()) {
-            result.addAll(module.getGroupings());
-        }
-        return Collections.unmodifiableSet(result);
+        return getIndex().getGroupings();
     }
 
     @Override
     public DataSchemaNode getDataChildByName(final QName name) {
-        for (Module module : getModules()) {
-            final DataSchemaNode result = module.getDataChildByName(name);
-            if (result != null) {
-                return result;
-            }
-        }
-        return null;
+        return getIndex().findDataChild(name).orNull();
     }
 
     @Override
@@ -255,4 +233,23 @@ abstract class AbstractEffectiveSchemaContext implements SchemaContext {
         return Optional.fromNullable(maybeSource);
     }
 
+    @Override
+    public Optional<Module> findModule(final QNameModule qnameModule) {
+        return getIndex().findModule(qnameModule);
+    }
+
+    @Override
+    public Optional<RpcDefinition> findOperation(final QName qname) {
+        return getIndex().findOperation(qname);
+    }
+
+    @Override
+    public Optional<NotificationDefinition> findNotification(final QName qname) {
+        return getIndex().findNotification(qname);
+    }
+
+    @Override
+    public Optional<IdentitySchemaNode> findIdentity(final QName qname) {
+        return getIndex().findIdentity(qname);
+    }
 }
@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.util;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.ArgumentContext;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.StatementContext;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.Utils;
+
+/**
+ * Compact, ANTLR-independent representation of the statements declared in a YANG text source. It holds
+ * the same information the parser listener extracts from the abstract syntax tree: keywords as they appear
+ * in the source, unquoted arguments and statement positions.
+ *
+ * <p>Statements are stored in pre-order, each statement being followed by its substatements. Strings are stored
+ * only once, so common keywords and arguments do not occupy memory for each occurrence. The tree can be written to
+ * and read from a binary stream, allowing it to be persisted across restarts.
+ */
+@Beta
+@Immutable
+public final class YangStatementTree {
+    private static final int NO_ARGUMENT = -1;
+
+    private final String sourceName;
+    private final String[] strings;
+    private final int[] keywords;
+    private final int[] arguments;
+    private final int[] lines;
+    private final int[] columns;
+    private final int[] ends;
+
+    private YangStatementTree(final String sourceName, final String[] strings, final int[] keywords,
+            final int[] arguments, final int[] lines, final int[] columns, final int[] ends) {
+        this.sourceName = sourceName;
+        this.strings = strings;
+        this.keywords = keywords;
+        this.arguments = arguments;
+        this.lines = lines;
+        this.columns = columns;
+        this.ends = ends;
+    }
+
+    /**
+     * Create a new statement tree from an abstract syntax tree.
+     *
+     * @param sourceName Source name, used for error reporting. May be null.
+     * @param root Root statement of the abstract syntax tree
+     * @return A new statement tree
+     */
+    public static YangStatementTree create(@Nullable final String sourceName, @Nonnull final StatementContext root) {
+        return new Builder(countStatements(root)).build(sourceName, root);
+    }
+
+    /**
+     * Read a statement tree previously written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in Data input
+     * @return A statement tree
+     * @throws IOException if the input cannot be read or does not contain a valid statement tree
+     */
+    public static YangStatementTree readFrom(@Nonnull final DataInput in) throws IOException {
+        final String sourceName = in.readBoolean() ? readString(in) : null;
+
+        final String[] strings = new String[readCount(in)];
+        for (int i = 0; i < strings.length; ++i) {
+            strings[i] = readString(in);
+        }
+
+        final int size = readCount(in);
+        final int[] keywords = new int[size];
+        final int[] arguments = new int[size];
+        final int[] lines = new int[size];
+        final int[] columns = new int[size];
+        final int[] ends = new int[size];
+        for (int i = 0; i < size; ++i) {
+            keywords[i] = readIndex(in, 0, strings.length);
+            arguments[i] = readIndex(in, NO_ARGUMENT, strings.length);
+            lines[i] = in.readInt();
+            columns[i] = in.readInt();
+            ends[i] = readIndex(in, i + 1, size + 1);
+        }
+
+        return new YangStatementTree(sourceName, strings, keywords, arguments, lines, columns, ends);
+    }
+
+    /**
+     * Write this statement tree into a binary output.
+     *
+     * @param out Data output
+     * @throws IOException if the output reports it
+     */
+    public void writeTo(@Nonnull final DataOutput out) throws IOException {
+        out.writeBoolean(sourceName != null);
+        if (sourceName != null) {
+            writeString(out, sourceName);
+        }
+
+        out.writeInt(strings.length);
+        for (String str : strings) {
+            writeString(out, str);
+        }
+
+        out.writeInt(keywords.length);
+        for (int i = 0; i < keywords.length; ++i) {
+            out.writeInt(keywords[i]);
+            out.writeInt(arguments[i]);
+            out.writeInt(lines[i]);
+            out.writeInt(columns[i]);
+            out.writeInt(ends[i]);
+        }
+    }
+
+    /**
+     * Return the name of the source this tree was created from.
+     *
+     * @return Source name, may be null
+     */
+    @Nullable public String getSourceName() {
+        return sourceName;
+    }
+
+    /**
+     * Return the number of statements in this tree. Statement 0 is the root statement.
+     *
+     * @return Number of statements
+     */
+    public int size() {
+        return keywords.length;
+    }
+
+    /**
+     * Return the keyword of a statement, including its prefix if it has one.
+     *
+     * @param statement Statement index
+     * @return Statement keyword
+     */
+    @Nonnull public String getKeyword(final int statement) {
+        return strings[keywords[statement]];
+    }
+
+    /**
+     * Return the unquoted argument of a statement.
+     *
+     * @param statement Statement index
+     * @return Statement argument, or null if the statement does not have one
+     */
+    @Nullable public String getArgument(final int statement) {
+        final int index = arguments[statement];
+        return index == NO_ARGUMENT ? null : strings[index];
+    }
+
+    /**
+     * Return the line on which a statement starts.
+     *
+     * @param statement Statement index
+     * @return Line number
+     */
+    public int getLine(final int statement) {
+        return lines[statement];
+    }
+
+    /**
+     * Return the position within the line at which a statement starts.
+     *
+     * @param statement Statement index
+     * @return Column number
+     */
+    public int getColumn(final int statement) {
+        return columns[statement];
+    }
+
+    /**
+     * Return the index of the first statement which is not a substatement of the specified statement. Substatements
+     * of a statement are located between its index and this index.
+     *
+     * @param statement Statement index
+     * @return Index of the next sibling statement, or {@link #size()}
+     */
+    public int getEnd(final int statement) {
+        return ends[statement];
+    }
+
+    private static int countStatements(final StatementContext stmt) {
+        int ret = 1;
+        for (StatementContext child : stmt.statement()) {
+            ret += countStatements(child);
+        }
+        return ret;
+    }
+
+    private static int readCount(final DataInput in) throws IOException {
+        final int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Invalid count " + count);
+        }
+        return count;
+    }
+
+    private static int readIndex(final DataInput in, final int min, final int limit) throws IOException {
+        final int index = in.readInt();
+        if (index < min || index >= limit) {
+            throw new IOException("Index " + index + " out of range [" + min + ", " + limit + ")");
+        }
+        return index;
+    }
+
+    private static String readString(final DataInput in) throws IOException {
+        final byte[] bytes = new byte[readCount(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(final DataOutput out, final String str) throws IOException {
+        // Not using writeUTF(), as arguments like descriptions may exceed its limit of 65535 bytes
+        final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static final class Builder {
+        private final Map<String, Integer> stringIndices = new HashMap<>();
+        private final int[] keywords;
+        private final int[] arguments;
+        private final int[] lines;
+        private final int[] columns;
+        private final int[] ends;
+        private int size;
+
+        Builder(final int capacity) {
+            keywords = new int[capacity];
+            arguments = new int[capacity];
+            lines = new int[capacity];
+            columns = new int[capacity];
+            ends = new int[capacity];
+        }
+
+        YangStatementTree build(final String sourceName, final StatementContext root) {
+            addStatement(root);
+            Preconditions.checkState(size == keywords.length, "Expected %s statements, found %s", keywords.length,
+                size);
+
+            final String[] strings = new String[stringIndices.size()];
+            for (Map.Entry<String, Integer> e : stringIndices.entrySet()) {
+                strings[e.getValue()] = e.getKey();
+            }
+
+            return new YangStatementTree(sourceName, strings, keywords, arguments, lines, columns, ends);
+        }
+
+        private void addStatement(final StatementContext stmt) {
+            final int index = size++;
+            final ArgumentContext argument = stmt.argument();
+
+            keywords[index] = stringIndex(stmt.keyword().getText());
+            arguments[index] = argument == null ? NO_ARGUMENT : stringIndex(Utils.stringFromStringContext(argument));
+            lines[index] = stmt.getStart().getLine();
+            columns[index] = stmt.getStart().getCharPositionInLine();
+
+            final List<StatementContext> children = stmt.statement();
+            for (StatementContext child : children) {
+                addStatement(child);
+            }
+            ends[index] = size;
+        }
+
+        private int stringIndex(final String str) {
+            final Integer existing = stringIndices.get(str);
+            if (existing != null) {
+                return existing;
+            }
+
+            final int index = stringIndices.size();
+            stringIndices.put(str, index);
+            return index;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.repo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.CheckedFuture;
+import com.google.common.util.concurrent.Futures;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceException;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceFilter;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.model.repo.spi.PotentialSchemaSource;
+import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceProvider;
+import org.opendaylight.yangtools.yang.parser.util.TextToASTTransformer;
+
+public class IncrementalSchemaContextAssemblerTest {
+    private static final QName SCHEMAS = QName.create("urn:simple.demo.test2", "2013-06-18", "schemas");
+    private static final QName AUGMENT_HOLDER = QName.create("urn:simple.demo.test3", "2013-06-18", "augment-holder");
+    private static final QName INTERFACES = QName.create("urn:simple.demo.test4", "2013-06-18", "interfaces");
+    private static final QName IF_ENTRY = QName.create(INTERFACES, "ifEntry");
+
+    private final ResourceYangSource inetTypes = new ResourceYangSource("/ietf/ietf-inet-types@2010-09-24.yang");
+    private final ResourceYangSource timezones = new ResourceYangSource("/ietf/iana-timezones@2012-07-09.yang");
+    private final ResourceYangSource test2 = new ResourceYangSource("/context-augment-test/test2.yang");
+    private final ResourceYangSource test3 = new ResourceYangSource("/context-augment-test/test3.yang");
+    private final ResourceYangSource test4 = new ResourceYangSource("/context-augment-test/test4.yang");
+
+    private SharedSchemaRepository incremental;
+    private SharedSchemaRepository full;
+
+    @Before
+    public void setUp() {
+        incremental = createRepository(new SharedSchemaRepository("incremental", null, true));
+        full = createRepository(new SharedSchemaRepository("full"));
+    }
+
+    @Test
+    public void testAddAndRemoveSources() throws Exception {
+        final SchemaContext first = createSchemaContext(incremental, inetTypes, timezones, test3, test4);
+
+        // test2 augments test4 and test3, which have to be rebuilt, other modules are not affected
+        final SchemaContext second = createSchemaContext(incremental, inetTypes, timezones, test2, test3, test4);
+        assertSame(module(first, "ietf-inet-types"), module(second, "ietf-inet-types"));
+        assertSame(module(first, "iana-timezones"), module(second, "iana-timezones"));
+        assertNotSame(module(first, "test3"), module(second, "test3"));
+        assertNotSame(module(first, "test4"), module(second, "test4"));
+        assertEquals(ImmutableList.of("augment-holder", "ifIndex", "ifMtu"), childNames(ifEntry(first)));
+        assertNotNull(augmentHolder(second).getDataChildByName(SCHEMAS));
+        assertSameSchema(createSchemaContext(full, inetTypes, timezones, test2, test3, test4), second);
+
+        // Nothing depends on iana-timezones, hence nothing needs to be processed
+        final SchemaContext third = createSchemaContext(incremental, inetTypes, test2, test3, test4);
+        assertEquals(4, third.getModules().size());
+        for (Module module : third.getModules()) {
+            assertSame(module(second, module.getName()), module);
+        }
+
+        // Removing test2 removes augmentations it has contributed
+        final SchemaContext fourth = createSchemaContext(incremental, inetTypes, test3, test4);
+        assertSame(module(third, "ietf-inet-types"), module(fourth, "ietf-inet-types"));
+        assertSameSchema(createSchemaContext(full, inetTypes, test3, test4), fourth);
+        assertEquals(ImmutableList.of(), childNames(augmentHolder(fourth)));
+    }
+
+    @Test
+    public void testModulesSharedAcrossContexts() throws Exception {
+        final SchemaContext first = createSchemaContext(incremental, inetTypes, test3, test4);
+        final SchemaContext second = createSchemaContext(incremental, timezones, test2, test3, test4);
+        assertNotSame(module(first, "test3"), module(second, "test3"));
+
+        // Every module is influenced by the same sources as in one of the previous contexts
+        final SchemaContext third = createSchemaContext(incremental, inetTypes, timezones, test3, test4);
+        assertSame(module(first, "ietf-inet-types"), module(third, "ietf-inet-types"));
+        assertSame(module(first, "test3"), module(third, "test3"));
+        assertSame(module(first, "test4"), module(third, "test4"));
+        assertSame(module(second, "iana-timezones"), module(third, "iana-timezones"));
+        assertSameSchema(createSchemaContext(full, inetTypes, timezones, test3, test4), third);
+    }
+
+    private static SharedSchemaRepository createRepository(final SharedSchemaRepository repository) {
+        repository.registerSchemaSourceListener(TextToASTTransformer.create(repository, repository));
+        return repository;
+    }
+
+    private static SchemaContext createSchemaContext(final SharedSchemaRepository repository,
+            final ResourceYangSource... sources) throws Exception {
+        final ImmutableList.Builder<SourceIdentifier> ids = ImmutableList.builder();
+        for (ResourceYangSource source : sources) {
+            repository.registerSchemaSource(new SchemaSourceProvider<YangTextSchemaSource>() {
+                @Override
+                public CheckedFuture<YangTextSchemaSource, SchemaSourceException> getSource(
+                        final SourceIdentifier sourceIdentifier) {
+                    return Futures.immediateCheckedFuture((YangTextSchemaSource) source);
+                }
+            }, PotentialSchemaSource.create(source.getIdentifier(), YangTextSchemaSource.class, 1));
+            ids.add(source.getIdentifier());
+        }
+
+        return repository.createSchemaContextFactory(SchemaSourceFilter.ALWAYS_ACCEPT)
+                .createSchemaContext(ids.build()).checkedGet();
+    }
+
+    private static Module module(final SchemaContext context, final String name) {
+        for (Module module : context.getModules()) {
+            if (name.equals(module.getName())) {
+                return module;
+            }
+        }
+        throw new AssertionError("Module " + name + " not found");
+    }
+
+    private static DataNodeContainer ifEntry(final SchemaContext context) {
+        final DataNodeContainer interfaces = (DataNodeContainer) module(context, "test4").getDataChildByName(
+            INTERFACES);
+        return (DataNodeContainer) interfaces.getDataChildByName(IF_ENTRY);
+    }
+
+    private static DataNodeContainer augmentHolder(final SchemaContext context) {
+        return (DataNodeContainer) ifEntry(context).getDataChildByName(AUGMENT_HOLDER);
+    }
+
+    private static void assertSameSchema(final SchemaContext expected, final SchemaContext actual) {
+        assertEquals(expected.getModules().size(), actual.getModules().size());
+        for (Module module : expected.getModules()) {
+            assertSameChildren(module, module(actual, module.getName()));
+        }
+    }
+
+    private static void assertSameChildren(final DataNodeContainer expected, final DataNodeContainer actual) {
+        assertEquals(childNames(expected), childNames(actual));
+        for (DataSchemaNode child : expected.getChildNodes()) {
+            if (child instanceof DataNodeContainer) {
+                assertSameChildren((DataNodeContainer) child,
+                    (DataNodeContainer) actual.getDataChildByName(child.getQName()));
+            }
+        }
+    }
+
+    private static List<String> childNames(final DataNodeContainer container) {
+        final Set<String> names = new TreeSet<>();
+        for (DataSchemaNode child : container.getChildNodes()) {
+            names.add(child.getQName().getLocalName());
+        }
+        return ImmutableList.copyOf(names);
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.repo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.CheckedFuture;
+import com.google.common.util.concurrent.Futures;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.StatementContext;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceException;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceFilter;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.model.repo.spi.PotentialSchemaSource;
+import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceProvider;
+import org.opendaylight.yangtools.yang.parser.util.ASTSchemaSource;
+import org.opendaylight.yangtools.yang.parser.util.TextToASTTransformer;
+import org.opendaylight.yangtools.yang.parser.util.YangStatementTree;
+
+public class StatementTreeFileCacheTest {
+    private static final FilenameFilter CACHE_FILES = new FilenameFilter() {
+        @Override
+        public boolean accept(final File dir, final String name) {
+            return name.endsWith(".stmts");
+        }
+    };
+
+    private File directory;
+    private ResourceYangSource source1;
+    private ResourceYangSource source2;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("stmts").toFile();
+        source1 = new ResourceYangSource("/ietf/ietf-inet-types@2010-09-24.yang");
+        source2 = new ResourceYangSource("/ietf/ietf-yang-types@2010-09-24.yang");
+    }
+
+    @After
+    public void tearDown() {
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testCachedSchemaContext() throws Exception {
+        final SharedSchemaRepository repository = new SharedSchemaRepository("parsing", directory);
+        repository.registerSchemaSourceListener(TextToASTTransformer.create(repository, repository));
+        registerTextSource(repository, source1);
+        registerTextSource(repository, source2);
+
+        final SchemaContext parsed = createSchemaContext(repository);
+        assertEquals(2, directory.listFiles(CACHE_FILES).length);
+
+        // No AST transformer: the context can be assembled only from the cache
+        final SharedSchemaRepository cached = new SharedSchemaRepository("cached", directory);
+        registerTextSource(cached, source1);
+        registerTextSource(cached, source2);
+
+        final SchemaContext loaded = createSchemaContext(cached);
+        assertEquals(parsed.getModules().size(), loaded.getModules().size());
+        for (Module module : parsed.getModules()) {
+            final Module other = loaded.findModuleByName(module.getName(), module.getRevision());
+            assertNotNull(other);
+            assertEquals(module.getTypeDefinitions().size(), other.getTypeDefinitions().size());
+        }
+    }
+
+    @Test
+    public void testSharedSourceEntries() throws Exception {
+        final SharedSchemaRepository repository = new SharedSchemaRepository("parsing", directory);
+        repository.registerSchemaSourceListener(TextToASTTransformer.create(repository, repository));
+        registerTextSource(repository, source1);
+        registerTextSource(repository, source2);
+
+        // A context of a single source stores only that source
+        repository.createSchemaContextFactory(SchemaSourceFilter.ALWAYS_ACCEPT)
+            .createSchemaContext(ImmutableList.of(source1.getIdentifier())).checkedGet();
+        assertEquals(1, directory.listFiles(CACHE_FILES).length);
+
+        // A context of both sources reuses the existing entry and adds the other one
+        createSchemaContext(repository);
+        assertEquals(2, directory.listFiles(CACHE_FILES).length);
+    }
+
+    @Test
+    public void testStaleEntryEvicted() throws Exception {
+        final String key = StatementTreeFileCache.computeKey(source1);
+        final String staleKey = key.substring(0, key.length() - 64) + Strings.repeat("0", 64);
+        final File stale = new File(directory, staleKey + ".stmts");
+        Files.write(stale.toPath(), new byte[0]);
+
+        final StatementTreeFileCache cache = new StatementTreeFileCache(directory);
+        cache.write(key, TextToASTTransformer.TRANSFORMATION.apply(source1).checkedGet());
+        assertTrue(cache.read(key).isPresent());
+        assertFalse(stale.exists());
+    }
+
+    @Test
+    public void testKeyDependsOnContent() throws IOException {
+        assertEquals(StatementTreeFileCache.computeKey(source1), StatementTreeFileCache.computeKey(source1));
+        assertFalse(StatementTreeFileCache.computeKey(source1).equals(StatementTreeFileCache.computeKey(source2)));
+        assertTrue(StatementTreeFileCache.computeKey(source1).startsWith(source1.getIdentifier().toYangFilename()));
+    }
+
+    @Test
+    public void testMissingAndCorruptFile() throws IOException {
+        final StatementTreeFileCache cache = new StatementTreeFileCache(directory);
+        assertFalse(cache.read("missing").isPresent());
+
+        Files.write(new File(directory, "corrupt.stmts").toPath(), new byte[] { 0x59, 0x41, 0x4e, 0x47, 0, 0 });
+        assertFalse(cache.read("corrupt").isPresent());
+    }
+
+    @Test
+    public void testTreeRoundTrip() throws Exception {
+        final ASTSchemaSource ast = TextToASTTransformer.TRANSFORMATION.apply(source1).checkedGet();
+        final YangStatementTree tree = YangStatementTree.create("test", (StatementContext) ast.getAST());
+        assertEquals("module", tree.getKeyword(0));
+        assertEquals("ietf-inet-types", tree.getArgument(0));
+        assertEquals(tree.size(), tree.getEnd(0));
+
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bos)) {
+            tree.writeTo(out);
+        }
+
+        final YangStatementTree read;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            read = YangStatementTree.readFrom(in);
+        }
+
+        assertEquals("test", read.getSourceName());
+        assertEquals(tree.size(), read.size());
+        for (int i = 0; i < tree.size(); ++i) {
+            assertEquals(tree.getKeyword(i), read.getKeyword(i));
+            assertEquals(tree.getArgument(i), read.getArgument(i));
+            assertEquals(tree.getLine(i), read.getLine(i));
+            assertEquals(tree.getColumn(i), read.getColumn(i));
+            assertEquals(tree.getEnd(i), read.getEnd(i));
+        }
+    }
+
+    private SchemaContext createSchemaContext(final SharedSchemaRepository repository) throws Exception {
+        final List<SourceIdentifier> ids = ImmutableList.of(source1.getIdentifier(), source2.getIdentifier());
+        final SchemaContext context = repository.createSchemaContextFactory(SchemaSourceFilter.ALWAYS_ACCEPT)
+                .createSchemaContext(ids).checkedGet();
+        assertNotNull(context);
+        assertFalse(context.getModules().isEmpty());
+        return context;
+    }
+
+    private static void registerTextSource(final SharedSchemaRepository repository, final ResourceYangSource source) {
+        repository.registerSchemaSource(new SchemaSourceProvider<YangTextSchemaSource>() {
+            @Override
+            public CheckedFuture<YangTextSchemaSource, SchemaSourceException> getSource(
+                    final SourceIdentifier sourceIdentifier) {
+                return Futures.immediateCheckedFuture((YangTextSchemaSource) source);
+            }
+        }, PotentialSchemaSource.create(source.getIdentifier(), YangTextSchemaSource.class, 1));
+    }
+}
@@ -10,7 +10,9 @@ package org.opendaylight.yangtools.yang.stmt;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.net.URI;
@@ -42,8 +44,10 @@ import org.opendaylight.yangtools.yang.model.api.SchemaPath;
 import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.UnknownSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.UsesNode;
+import org.opendaylight.yangtools.yang.model.api.meta.EffectiveStatement;
 import org.opendaylight.yangtools.yang.model.util.SchemaNodeUtils;
 import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.effective.DescriptionEffectiveStatementImpl;
 
 public class GroupingTest {
     private Set<Module> modules;
@@ -640,4 +644,39 @@ public class GroupingTest {
 
         assertEquals(leaf.getType().getQName(), impType.getQName());
     }
+
+    @Test
+    public void testSharedSubstatements() throws ReactorException {
+        modules = TestUtils.loadModules(Collections.singletonList(getClass().getResourceAsStream(
+                "/grouping-test/shared-substatements.yang")));
+        final Module testModule = TestUtils.findModule(modules, "shared-substatements");
+
+        final LeafSchemaNode first = groupingLeaf(testModule, "first");
+        final LeafSchemaNode second = groupingLeaf(testModule, "second");
+        final LeafSchemaNode third = groupingLeaf(testModule, "third");
+        assertNotSame(first, third);
+        assertEquals("leaf description", first.getDescription());
+        assertEquals("refined description", second.getDescription());
+
+        // Substatements which do not depend on the namespace are shared by all instantiations which do not refine them
+        assertSame(description(first), description(third));
+        assertNotSame(description(first), description(second));
+        assertSame(first.getConstraints().getMustConstraints().iterator().next(),
+            second.getConstraints().getMustConstraints().iterator().next());
+    }
+
+    private static LeafSchemaNode groupingLeaf(final Module module, final String container) {
+        final ContainerSchemaNode parent = (ContainerSchemaNode) module.getDataChildByName(QName.create(
+                module.getQNameModule(), container));
+        return (LeafSchemaNode) parent.getDataChildByName(QName.create(module.getQNameModule(), "leaf-grp"));
+    }
+
+    private static EffectiveStatement<?, ?> description(final LeafSchemaNode leaf) {
+        for (final EffectiveStatement<?, ?> stmt : ((EffectiveStatement<?, ?>) leaf).effectiveSubstatements()) {
+            if (stmt instanceof DescriptionEffectiveStatementImpl) {
+                return stmt;
+            }
+        }
+        throw new AssertionError("No description in " + leaf);
+    }
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.stmt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.common.SimpleDateFormatUtil;
+import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.UnknownSchemaNode;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.opendaylight.yangtools.yang.parser.stmt.reactor.CrossSourceStatementReactor;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementSourceImpl;
+
+/**
+ * Parallel loading of a chain of modules, each of which imports its predecessor, instantiates its grouping and
+ * augments its container, and all of which use extensions defined in a shared module.
+ */
+public class ParallelReactorTest {
+    private static final int MODULE_COUNT = 8;
+
+    private static ForkJoinPool pool;
+    private static Date revision;
+
+    @BeforeClass
+    public static void setup() throws Exception {
+        pool = new ForkJoinPool(4);
+        revision = SimpleDateFormatUtil.getRevisionFormat().parse("2016-10-16");
+    }
+
+    @AfterClass
+    public static void teardown() {
+        pool.shutdown();
+    }
+
+    private static SchemaContext build(final boolean parallel) throws ReactorException, FileNotFoundException,
+            URISyntaxException {
+        final CrossSourceStatementReactor.BuildAction reactor = YangInferencePipeline.RFC6020_REACTOR.newBuild();
+        final File[] files = new File(ParallelReactorTest.class.getResource("/parallel-reactor").toURI())
+                .listFiles(StmtTestUtils.YANG_FILE_FILTER);
+        // Add importing modules before the modules they import
+        Arrays.sort(files, (first, second) -> second.getName().compareTo(first.getName()));
+        for (final File file : files) {
+            reactor.addSource(new YangStatementSourceImpl(file.getPath(), true));
+        }
+        if (parallel) {
+            reactor.enableParallelLoading(pool);
+        }
+        return reactor.buildEffective();
+    }
+
+    private static void assertExtension(final Object node, final List<UnknownSchemaNode> unknownNodes,
+            final QName extension, final String argument) {
+        final List<String> found = new ArrayList<>();
+        for (final UnknownSchemaNode unknown : unknownNodes) {
+            assertNotNull(unknown.getExtensionDefinition());
+            if (extension.equals(unknown.getExtensionDefinition().getQName())) {
+                found.add(unknown.getNodeParameter());
+            }
+        }
+        assertEquals(node + " uses of " + extension, 1, found.size());
+        if (argument != null) {
+            assertEquals(argument, found.get(0));
+        }
+    }
+
+    private static void verify(final SchemaContext context) {
+        final Module ext = context.findModuleByName("parallel-ext", revision);
+        assertNotNull(ext);
+        final QName marker = QName.create(ext.getQNameModule(), "marker");
+        final QName label = QName.create(ext.getQNameModule(), "label");
+
+        for (int i = 1; i <= MODULE_COUNT; ++i) {
+            final Module module = context.findModuleByName("parallel-" + i, revision);
+            assertNotNull(module);
+            assertEquals(i == 1 ? 1 : 2, module.getImports().size());
+            assertEquals(i == 1 ? 0 : 1, module.getAugmentations().size());
+            assertExtension(module, module.getUnknownSchemaNodes(), marker, null);
+
+            final QNameModule qnameModule = module.getQNameModule();
+            final ContainerSchemaNode top = (ContainerSchemaNode) module.getDataChildByName(
+                QName.create(qnameModule, "top-" + i));
+            assertNotNull(top);
+            assertExtension(top, top.getUnknownSchemaNodes(), label, "top-" + i);
+
+            // Grouping chain instantiated in the namespace of this module
+            final DataSchemaNode shared = top.getDataChildByName(QName.create(qnameModule, "shared"));
+            assertNotNull(shared);
+            assertExtension(shared, shared.getUnknownSchemaNodes(), label, "shared-1");
+            for (int j = 2; j <= i; ++j) {
+                final DataSchemaNode local = top.getDataChildByName(QName.create(qnameModule, "local-" + j));
+                assertNotNull(local);
+                assertExtension(local, local.getUnknownSchemaNodes(), label, "local-" + j);
+            }
+
+            // Augmentation by the next module
+            if (i < MODULE_COUNT) {
+                final Module next = context.findModuleByName("parallel-" + (i + 1), revision);
+                final DataSchemaNode from = top.getDataChildByName(QName.create(next.getQNameModule(),
+                    "from-" + (i + 1)));
+                assertNotNull(from);
+                assertExtension(from, from.getUnknownSchemaNodes(), label, "from-" + (i + 1));
+            }
+        }
+    }
+
+    @Test
+    public void testParallelMatchesSerial() throws Exception {
+        final SchemaContext serial = build(false);
+        verify(serial);
+
+        // Repeat a few times to give races a chance to manifest
+        for (int i = 0; i < 20; ++i) {
+            final SchemaContext parallel = build(true);
+            assertEquals(serial.getModules(), parallel.getModules());
+            verify(parallel);
+        }
+    }
+}